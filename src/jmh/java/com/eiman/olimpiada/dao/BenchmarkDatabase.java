@@ -0,0 +1,151 @@
+package com.eiman.olimpiada.dao;
+
+import com.eiman.olimpiada.config.DBConfig;
+import com.eiman.olimpiada.config.DatabaseSettings;
+import com.eiman.olimpiada.model.Deporte;
+import com.eiman.olimpiada.model.Deportista;
+import com.eiman.olimpiada.model.Equipo;
+import com.eiman.olimpiada.model.Evento;
+import com.eiman.olimpiada.model.Olimpiada;
+import com.eiman.olimpiada.model.Participacion;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Base de datos H2 en memoria con datos sintéticos para las pruebas de rendimiento.
+ * <p>
+ * El factor de escala multiplica el número de filas de cada tabla: con escala 1 hay 10 deportes, 20 equipos,
+ * 5 olimpiadas, 50 eventos, 200 deportistas y 400 participaciones. La semilla es fija para que los resultados
+ * sean comparables entre versiones.
+ */
+final class BenchmarkDatabase {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    final int[] deporteIds;
+    final int[] equipoIds;
+    final int[] olimpiadaIds;
+    final int[] eventoIds;
+    final int[] deportistaIds;
+    final String[] deporteNames;
+    final String[] equipoNames;
+    final String[] olimpiadaNames;
+    final String[] eventoNames;
+    final String[] deportistaNames;
+
+    private BenchmarkDatabase(int scale) throws SQLException {
+        Random random = new Random(42);
+
+        List<Deporte> deportes = new ArrayList<>();
+        for (int i = 0; i < 10 * scale; i++) {
+            Deporte deporte = new Deporte();
+            deporte.setNombre("Deporte " + i);
+            deportes.add(deporte);
+        }
+        DeporteDAO.insertDeportes(deportes, BATCH_SIZE);
+
+        List<Equipo> equipos = new ArrayList<>();
+        for (int i = 0; i < 20 * scale; i++) {
+            Equipo equipo = new Equipo();
+            equipo.setNombre("Equipo " + i);
+            equipo.setIniciales("E" + i);
+            equipos.add(equipo);
+        }
+        EquipoDAO.insertEquipos(equipos, BATCH_SIZE);
+
+        List<Olimpiada> olimpiadas = new ArrayList<>();
+        for (int i = 0; i < 5 * scale; i++) {
+            Olimpiada olimpiada = new Olimpiada();
+            olimpiada.setAnio(1896 + 2 * i);
+            olimpiada.setTemporada(i % 2 == 0 ? "Verano" : "Invierno");
+            olimpiada.setNombre(olimpiada.getAnio() + " " + olimpiada.getTemporada());
+            olimpiada.setCiudad("Ciudad " + i);
+            olimpiadas.add(olimpiada);
+        }
+        OlimpiadaDAO.insertOlimpiadas(olimpiadas, BATCH_SIZE);
+
+        List<Evento> eventos = new ArrayList<>();
+        for (int i = 0; i < 50 * scale; i++) {
+            Evento evento = new Evento();
+            evento.setNombre("Evento " + i);
+            evento.setIdOlimpiada(olimpiadas.get(random.nextInt(olimpiadas.size())).getId());
+            evento.setIdDeporte(deportes.get(random.nextInt(deportes.size())).getId());
+            eventos.add(evento);
+        }
+        EventoDAO.insertEventos(eventos, BATCH_SIZE);
+
+        List<Deportista> deportistas = new ArrayList<>();
+        for (int i = 0; i < 200 * scale; i++) {
+            deportistas.add(newDeportista("Deportista " + i, random));
+        }
+        DeportistaDAO.insertDeportistas(deportistas, BATCH_SIZE);
+
+        // Dos participaciones por deportista, en eventos distintos
+        List<Participacion> participaciones = new ArrayList<>();
+        for (Deportista deportista : deportistas) {
+            int first = random.nextInt(eventos.size());
+            int second = (first + 1 + random.nextInt(eventos.size() - 1)) % eventos.size();
+            for (int evento : new int[]{first, second}) {
+                Participacion participacion = new Participacion();
+                participacion.setIdDeportista(deportista.getId());
+                participacion.setIdEvento(eventos.get(evento).getId());
+                participacion.setIdEquipo(equipos.get(random.nextInt(equipos.size())).getId());
+                participacion.setMedalla(random.nextInt(10) == 0 ? "Oro" : null);
+                participaciones.add(participacion);
+            }
+        }
+        ParticipacionDAO.insertParticipaciones(participaciones, BATCH_SIZE);
+
+        deporteIds = deportes.stream().mapToInt(Deporte::getId).toArray();
+        equipoIds = equipos.stream().mapToInt(Equipo::getId).toArray();
+        olimpiadaIds = olimpiadas.stream().mapToInt(Olimpiada::getId).toArray();
+        eventoIds = eventos.stream().mapToInt(Evento::getId).toArray();
+        deportistaIds = deportistas.stream().mapToInt(Deportista::getId).toArray();
+        deporteNames = deportes.stream().map(Deporte::getNombre).toArray(String[]::new);
+        equipoNames = equipos.stream().map(Equipo::getNombre).toArray(String[]::new);
+        olimpiadaNames = olimpiadas.stream().map(Olimpiada::getNombre).toArray(String[]::new);
+        eventoNames = eventos.stream().map(Evento::getNombre).toArray(String[]::new);
+        deportistaNames = deportistas.stream().map(Deportista::getNombre).toArray(String[]::new);
+    }
+
+    /**
+     * Crea una base de datos en memoria nueva para el factor de escala indicado, la migra y la llena.
+     */
+    static BenchmarkDatabase open(int scale) throws SQLException {
+        DBConfig.shutdown();
+        DBConfig.configure(DatabaseSettings.embedded("jdbc:h2:mem:olimpiadas_bench_" + scale + "_" + System.nanoTime()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"));
+        NameDictionary.DEPORTE.invalidate();
+        NameDictionary.EQUIPO.invalidate();
+        NameDictionary.OLIMPIADA.invalidate();
+        NameDictionary.EVENTO.invalidate();
+        return new BenchmarkDatabase(scale);
+    }
+
+    /**
+     * Descarta la base de datos en memoria y cierra el pool.
+     */
+    static void close() throws SQLException {
+        try (Connection connection = DBConfig.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        } finally {
+            DBConfig.shutdown();
+        }
+    }
+
+    static Deportista newDeportista(String nombre, Random random) {
+        Deportista deportista = new Deportista();
+        deportista.setNombre(nombre);
+        deportista.setSexo(random.nextBoolean() ? Deportista.Sexo.M : Deportista.Sexo.F);
+        deportista.setEdad(18 + random.nextInt(20));
+        deportista.setPeso(50 + random.nextInt(5_000) / 100.0);
+        deportista.setAltura(150 + random.nextInt(5_000) / 100.0);
+        return deportista;
+    }
+}
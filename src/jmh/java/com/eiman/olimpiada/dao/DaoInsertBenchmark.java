@@ -0,0 +1,118 @@
+package com.eiman.olimpiada.dao;
+
+import com.eiman.olimpiada.model.Deporte;
+import com.eiman.olimpiada.model.Equipo;
+import com.eiman.olimpiada.model.Evento;
+import com.eiman.olimpiada.model.Olimpiada;
+import com.eiman.olimpiada.model.Participacion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserciones de una fila con los métodos {@code insert*} de los DAOs. Las tablas crecen durante la medición,
+ * así que cada combinación de parámetros usa su propia base de datos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DaoInsertBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int scale;
+
+    private BenchmarkDatabase database;
+    private final Random random = new Random(7);
+    private int sequence;
+    // Evento al que se apuntan las participaciones nuevas y siguiente deportista que se apunta
+    private int participacionEvento;
+    private int participacionDeportista;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = BenchmarkDatabase.open(scale);
+        participacionEvento = newEvento();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        BenchmarkDatabase.close();
+    }
+
+    @Benchmark
+    public boolean insertDeporte() throws SQLException {
+        Deporte deporte = new Deporte();
+        deporte.setNombre("Deporte nuevo " + ++sequence);
+        return DeporteDAO.insertDeporte(deporte);
+    }
+
+    @Benchmark
+    public boolean insertEquipo() throws SQLException {
+        Equipo equipo = new Equipo();
+        equipo.setNombre("Equipo nuevo " + ++sequence);
+        equipo.setIniciales("N" + sequence % 1000);
+        return EquipoDAO.insertEquipo(equipo);
+    }
+
+    @Benchmark
+    public boolean insertOlimpiada() throws SQLException {
+        Olimpiada olimpiada = new Olimpiada();
+        olimpiada.setNombre("Olimpiada nueva " + ++sequence);
+        olimpiada.setAnio(2000 + sequence % 100);
+        olimpiada.setTemporada("Verano");
+        olimpiada.setCiudad("Ciudad nueva");
+        return OlimpiadaDAO.insertOlimpiada(olimpiada);
+    }
+
+    @Benchmark
+    public boolean insertEvento() throws SQLException {
+        return newEvento() > 0;
+    }
+
+    @Benchmark
+    public boolean insertDeportista() throws SQLException {
+        return DeportistaDAO.insertDeportista(BenchmarkDatabase.newDeportista("Deportista nuevo " + ++sequence, random));
+    }
+
+    @Benchmark
+    public boolean insertParticipacion() throws SQLException {
+        // Cada deportista solo puede participar una vez por evento: al agotarlos se pasa a un evento nuevo.
+        // Ocurre una vez cada (200 * escala) llamadas, así que apenas influye en la media.
+        if (participacionDeportista == database.deportistaIds.length) {
+            participacionEvento = newEvento();
+            participacionDeportista = 0;
+        }
+        Participacion participacion = new Participacion();
+        participacion.setIdDeportista(database.deportistaIds[participacionDeportista++]);
+        participacion.setIdEvento(participacionEvento);
+        participacion.setIdEquipo(database.equipoIds[random.nextInt(database.equipoIds.length)]);
+        participacion.setMedalla(null);
+        return ParticipacionDAO.insertParticipacion(participacion);
+    }
+
+    private int newEvento() throws SQLException {
+        Evento evento = new Evento();
+        evento.setNombre("Evento nuevo " + ++sequence);
+        evento.setIdOlimpiada(database.olimpiadaIds[random.nextInt(database.olimpiadaIds.length)]);
+        evento.setIdDeporte(database.deporteIds[random.nextInt(database.deporteIds.length)]);
+        EventoDAO.insertEvento(evento);
+        return evento.getId();
+    }
+}
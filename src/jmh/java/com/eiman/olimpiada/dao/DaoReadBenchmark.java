@@ -0,0 +1,139 @@
+package com.eiman.olimpiada.dao;
+
+import com.eiman.olimpiada.model.Deporte;
+import com.eiman.olimpiada.model.Deportista;
+import com.eiman.olimpiada.model.Equipo;
+import com.eiman.olimpiada.model.Evento;
+import com.eiman.olimpiada.model.Olimpiada;
+import com.eiman.olimpiada.model.Participacion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de lectura de los DAOs: listados completos y traducción entre nombres e identificadores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DaoReadBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int scale;
+
+    private BenchmarkDatabase database;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = BenchmarkDatabase.open(scale);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        BenchmarkDatabase.close();
+    }
+
+    // Recorre los datos sembrados en orden para no medir siempre la misma fila
+    private int next(int length) {
+        cursor = (cursor + 1) % length;
+        return cursor;
+    }
+
+    @Benchmark
+    public List<Deporte> getAllDeportes() throws SQLException {
+        return DeporteDAO.getAllDeportes();
+    }
+
+    @Benchmark
+    public List<Equipo> getAllEquipos() throws SQLException {
+        return EquipoDAO.getAllEquipos();
+    }
+
+    @Benchmark
+    public List<Olimpiada> getAllOlimpiadas() throws SQLException {
+        return OlimpiadaDAO.getAllOlimpiadas();
+    }
+
+    @Benchmark
+    public List<Evento> getAllEventos() throws SQLException {
+        return EventoDAO.getAllEventos();
+    }
+
+    @Benchmark
+    public List<Deportista> getAllDeportistas() throws SQLException {
+        return DeportistaDAO.getAllDeportistas();
+    }
+
+    @Benchmark
+    public List<Participacion> getAllParticipaciones() throws SQLException {
+        return ParticipacionDAO.getAllParticipaciones();
+    }
+
+    @Benchmark
+    public int getDeporteIdByName() throws SQLException {
+        return DeporteDAO.getIdByName(database.deporteNames[next(database.deporteNames.length)]);
+    }
+
+    @Benchmark
+    public int getEquipoIdByName() throws SQLException {
+        return EquipoDAO.getIdByName(database.equipoNames[next(database.equipoNames.length)]);
+    }
+
+    @Benchmark
+    public int getOlimpiadaIdByName() throws SQLException {
+        return OlimpiadaDAO.getIdByName(database.olimpiadaNames[next(database.olimpiadaNames.length)]);
+    }
+
+    @Benchmark
+    public int getEventoIdByName() throws SQLException {
+        return EventoDAO.getIdByName(database.eventoNames[next(database.eventoNames.length)]);
+    }
+
+    @Benchmark
+    public int getDeportistaIdByName() throws SQLException {
+        return DeportistaDAO.getIdByName(database.deportistaNames[next(database.deportistaNames.length)]);
+    }
+
+    @Benchmark
+    public String getDeporteNameById() throws SQLException {
+        return DeporteDAO.getNameById(database.deporteIds[next(database.deporteIds.length)]);
+    }
+
+    @Benchmark
+    public String getEquipoNameById() throws SQLException {
+        return EquipoDAO.getNameById(database.equipoIds[next(database.equipoIds.length)]);
+    }
+
+    @Benchmark
+    public String getOlimpiadaNameById() throws SQLException {
+        return OlimpiadaDAO.getNameById(database.olimpiadaIds[next(database.olimpiadaIds.length)]);
+    }
+
+    @Benchmark
+    public String getEventoNameById() throws SQLException {
+        return EventoDAO.getNameById(database.eventoIds[next(database.eventoIds.length)]);
+    }
+
+    @Benchmark
+    public String getDeportistaNameById() throws SQLException {
+        return DeportistaDAO.getNameById(database.deportistaIds[next(database.deportistaIds.length)]);
+    }
+}
@@ -0,0 +1,133 @@
+package com.eiman.olimpiada.dao;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableColumn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de actualizar las celdas visibles de la tabla de la vista principal en cada fotograma de un
+ * desplazamiento: la vista avanza unas filas y cada celda obtiene el texto de su nueva fila.
+ * <p>
+ * Sin pantalla no se pueden crear controles de JavaFX, así que se reproduce lo que hace cada celda:
+ * {@link #propertyCells} sigue el camino de un cellValueFactory (un CellDataFeatures y una propiedad con
+ * su oyente por celda, sobre filas de texto) y {@link #gridCells} el de {@code GridCell} (leer la fila y
+ * dar formato al texto solo si la fila cambia). Es el peor caso: todas las celdas cambian de fila en cada
+ * fotograma. El tiempo medio es el coste de las celdas en un fotograma; para ver las asignaciones por
+ * fotograma, ejecutar con el perfilador de GC:
+ * {@code mvn -P benchmarks verify -Djmh.args="-prof gc GridScroll"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GridScrollBenchmark {
+
+    // Filas visibles en una ventana normal y filas que avanza cada paso de la rueda del ratón
+    private static final int VISIBLE_ROWS = 40;
+    private static final int SCROLL_STEP = 3;
+
+    @Param({"10", "100"})
+    public int scale;
+
+    private List<GridRow> rows;
+    private List<ObservableList<String>> textRows;
+    private int columns;
+    private int first;
+    // Oyente que la celda registra en la propiedad de su valor
+    private final InvalidationListener cellListener = observable -> { };
+
+    // Fila y texto mostrados por cada celda visible
+    private GridRow[][] rendered;
+    private String[][] texts;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.open(scale);
+        rows = new ArrayList<>();
+        GridPage page = null;
+        int[] afterKey = null;
+        do {
+            page = GridDAO.getPage(TableInfo.DEPORTISTA, afterKey, 500, page);
+            rows.addAll(page.getRows());
+            afterKey = page.getLastKey();
+        } while (page.mayHaveMore());
+
+        textRows = new ArrayList<>(rows.size());
+        for (GridRow row : rows) {
+            textRows.add(FXCollections.observableArrayList(row.getTexts()));
+        }
+        columns = page.getColumnNames().size();
+        rendered = new GridRow[VISIBLE_ROWS][columns];
+        texts = new String[VISIBLE_ROWS][columns];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        BenchmarkDatabase.close();
+    }
+
+    // Avanza la vista; al llegar al final vuelve al principio
+    private int scroll() {
+        first += SCROLL_STEP;
+        if (first + VISIBLE_ROWS > rows.size()) {
+            first = 0;
+        }
+        return first;
+    }
+
+    @Benchmark
+    public void propertyCells(Blackhole blackhole) {
+        int start = scroll();
+        for (int r = 0; r < VISIBLE_ROWS; r++) {
+            ObservableList<String> row = textRows.get(start + r);
+            for (int c = 0; c < columns; c++) {
+                TableColumn.CellDataFeatures<ObservableList<String>, String> features =
+                        new TableColumn.CellDataFeatures<>(null, null, row);
+                ObservableValue<String> value = new SimpleStringProperty(features.getValue().get(c));
+                value.addListener(cellListener);
+                texts[r][c] = value.getValue();
+                blackhole.consume(value); // La celda conserva la propiedad hasta el siguiente cambio
+            }
+        }
+        blackhole.consume(texts);
+    }
+
+    @Benchmark
+    public void gridCells(Blackhole blackhole) {
+        int start = scroll();
+        for (int r = 0; r < VISIBLE_ROWS; r++) {
+            GridRow row = rows.get(start + r);
+            for (int c = 0; c < columns; c++) {
+                if (rendered[r][c] != row) {
+                    rendered[r][c] = row;
+                    texts[r][c] = row.getText(c);
+                }
+            }
+        }
+        blackhole.consume(texts);
+    }
+}
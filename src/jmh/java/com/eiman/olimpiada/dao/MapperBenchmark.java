@@ -0,0 +1,109 @@
+package com.eiman.olimpiada.dao;
+
+import com.eiman.olimpiada.config.DBConfig;
+import com.eiman.olimpiada.config.DatabaseSettings;
+import com.eiman.olimpiada.model.Deporte;
+import com.eiman.olimpiada.model.Deportista;
+import com.eiman.olimpiada.model.Equipo;
+import com.eiman.olimpiada.model.Evento;
+import com.eiman.olimpiada.model.Olimpiada;
+import com.eiman.olimpiada.model.Participacion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de los métodos {@code mapResultSetTo*} de los DAOs, sin la consulta: cada llamada avanza una fila
+ * de un ResultSet desplazable abierto al preparar la prueba y la convierte en un objeto del modelo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int scale;
+
+    private Connection connection;
+    private final Map<TableInfo, ResultSet> resultSets = new EnumMap<>(TableInfo.class);
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.open(scale);
+        // Conexión propia, fuera del pool, porque queda abierta durante toda la prueba
+        DatabaseSettings settings = DBConfig.getSettings();
+        connection = DriverManager.getConnection(settings.getUrl(), settings.getUser(), settings.getPassword());
+        for (TableInfo table : TableInfo.values()) {
+            Statement statement = connection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+            resultSets.put(table, statement.executeQuery(
+                    "SELECT " + table.listProjection() + " FROM " + table.getTableName()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        BenchmarkDatabase.close();
+    }
+
+    // Avanza a la siguiente fila, volviendo al principio al llegar al final
+    private ResultSet row(TableInfo table) throws SQLException {
+        ResultSet resultSet = resultSets.get(table);
+        if (!resultSet.next()) {
+            resultSet.first();
+        }
+        return resultSet;
+    }
+
+    @Benchmark
+    public Deporte mapDeporte() throws SQLException {
+        return DeporteDAO.mapResultSetToDeporte(row(TableInfo.DEPORTE));
+    }
+
+    @Benchmark
+    public Equipo mapEquipo() throws SQLException {
+        return EquipoDAO.mapResultSetToEquipo(row(TableInfo.EQUIPO));
+    }
+
+    @Benchmark
+    public Olimpiada mapOlimpiada() throws SQLException {
+        return OlimpiadaDAO.mapResultSetToOlimpiada(row(TableInfo.OLIMPIADA));
+    }
+
+    @Benchmark
+    public Evento mapEvento() throws SQLException {
+        return EventoDAO.mapResultSetToEvento(row(TableInfo.EVENTO));
+    }
+
+    @Benchmark
+    public Deportista mapDeportista() throws SQLException {
+        return DeportistaDAO.mapResultSetToDeportista(row(TableInfo.DEPORTISTA), false);
+    }
+
+    @Benchmark
+    public Participacion mapParticipacion() throws SQLException {
+        return ParticipacionDAO.mapResultSetToParticipacion(row(TableInfo.PARTICIPACION));
+    }
+}
@@ -1,14 +1,17 @@
 package com.eiman.olimpiada;
 
 import com.eiman.olimpiada.config.DBConfig;
-import com.eiman.olimpiada.controller.MainController;
+import com.eiman.olimpiada.log.Log;
+import com.eiman.olimpiada.metrics.DaoMetrics;
+import com.eiman.olimpiada.metrics.FxStallWatchdog;
+import com.eiman.olimpiada.metrics.SqlProfiler;
+import com.eiman.olimpiada.service.DBExecutor;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
-import java.sql.Connection;
 import java.util.ResourceBundle;
 
 /**
@@ -17,30 +20,39 @@ import java.util.ResourceBundle;
 // En MainOlimpiada.java
 public class MainOlimpiada extends Application {
 
+    private static final Log LOG = Log.get(MainOlimpiada.class);
+
     @Override
     public void start(Stage primaryStage) {
+        FxStallWatchdog.start(); // Informes de los bloqueos del hilo de JavaFX
         try {
-            // Establecer la conexión a la base de datos usando DBConfig
-            Connection connection = DBConfig.getConnection();
-
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/MainView.fxml"));
             ResourceBundle bundle = ResourceBundle.getBundle("lang.messages_en");
             loader.setResources(bundle);
 
-            // Cargar y obtener el controlador
+            // Cargar la vista principal
             Parent root = loader.load();
-            MainController mainController = loader.getController();
-            mainController.setConnection(connection);
 
             // Configuración de la escena
             primaryStage.setTitle(bundle.getString("app.title"));
             primaryStage.setScene(new Scene(root));
             primaryStage.show();
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("No se pudo iniciar la aplicación", e);
         }
     }
 
+    @Override
+    public void stop() {
+        // Detener las tareas en segundo plano y cerrar las conexiones del pool al salir
+        FxStallWatchdog.stop();
+        DBExecutor.shutdown();
+        DBConfig.shutdown();
+        DaoMetrics.dumpIfConfigured();
+        SqlProfiler.writeReportIfConfigured();
+        Log.shutdown();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
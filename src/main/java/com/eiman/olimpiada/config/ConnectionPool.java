@@ -0,0 +1,590 @@
+package com.eiman.olimpiada.config;
+
+import com.eiman.olimpiada.log.Log;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Pool de conexiones JDBC de tamaño acotado.
+ * Cada operación de los DAOs pide una conexión con {@link #getConnection()} y la devuelve al cerrarla,
+ * de modo que varias consultas pueden ejecutarse en paralelo sobre conexiones distintas.
+ * Incluye expulsión de conexiones inactivas, validación al prestar (cacheada durante una ventana de tiempo),
+ * caché de sentencias preparadas por conexión, métricas de espera y detección de conexiones que no se devuelven.
+ */
+public class ConnectionPool implements DataSource {
+
+    private static final Log LOG = Log.get(ConnectionPool.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final int minIdle;
+    private final long borrowTimeoutMs;
+    private final long idleTimeoutMs;
+    private final long validationWindowMs;
+    private final long leakThresholdMs;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    // Métricas
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder borrowTimeouts = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+    private final LongAdder validationsRun = new LongAdder();
+    private final LongAdder validationsSkipped = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder leaksDetected = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final LongAdder statementCacheEvictions = new LongAdder();
+
+    /**
+     * Crea el pool. Las conexiones se abren bajo demanda hasta {@code maxSize}.
+     *
+     * @param url                URL JDBC de la base de datos.
+     * @param user               Usuario de la base de datos.
+     * @param password           Contraseña de la base de datos.
+     * @param maxSize            Número máximo de conexiones abiertas a la vez.
+     * @param minIdle            Conexiones inactivas que se conservan aunque superen el tiempo de inactividad.
+     * @param borrowTimeoutMs    Tiempo máximo de espera para obtener una conexión.
+     * @param idleTimeoutMs      Tiempo de inactividad tras el cual una conexión se cierra.
+     * @param validationWindowMs Tiempo durante el cual una conexión validada se considera válida sin volver a comprobarla.
+     * @param leakThresholdMs    Tiempo prestada tras el cual una conexión se notifica como posible fuga (0 lo desactiva).
+     *                           Solo si está activado se guarda la traza de cada préstamo.
+     * @param statementCacheSize Sentencias preparadas que se conservan por conexión (0 desactiva la caché).
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize, int minIdle,
+                          long borrowTimeoutMs, long idleTimeoutMs, long validationWindowMs, long leakThresholdMs,
+                          int statementCacheSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize debe ser mayor que 0");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.minIdle = Math.min(minIdle, maxSize);
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.validationWindowMs = validationWindowMs;
+        this.leakThresholdMs = leakThresholdMs;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "olimpiada-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1_000, Math.min(idleTimeoutMs, leakThresholdMs > 0 ? leakThresholdMs : idleTimeoutMs) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Presta una conexión del pool. Al cerrarla se devuelve al pool en lugar de cerrarse físicamente.
+     *
+     * @return Una conexión lista para usar.
+     * @throws SQLException Si el pool está cerrado, se agota el tiempo de espera o falla la conexión.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("El pool de conexiones está cerrado.");
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido mientras se esperaba una conexión del pool.", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        if (!acquired) {
+            borrowTimeouts.increment();
+            throw new SQLTimeoutException("No se pudo obtener una conexión del pool en " + borrowTimeoutMs
+                    + " ms (" + borrowed.size() + " de " + maxSize + " en uso).");
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    break;
+                }
+                destroy(pooled);
+            }
+            if (pooled == null) {
+                pooled = createConnection();
+            }
+            pooled.markBorrowed(leakThresholdMs > 0);
+            borrowed.add(pooled);
+            borrowCount.increment();
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Cierra el pool y todas las conexiones inactivas. Las conexiones prestadas se cierran al devolverse.
+     */
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    /**
+     * Devuelve una instantánea de las métricas actuales del pool.
+     */
+    public Stats getStats() {
+        return new Stats(maxSize, totalConnections.get(), borrowed.size(), idle.size(),
+                permits.getQueueLength(), borrowCount.sum(), borrowTimeouts.sum(),
+                waitNanos.sum(), maxWaitNanos.get(), createdCount.sum(), evictedCount.sum(),
+                validationsRun.sum(), validationsSkipped.sum(), validationFailures.sum(), leaksDetected.sum(),
+                statementCacheHits.sum(), statementCacheMisses.sum(), statementCacheEvictions.sum());
+    }
+
+    private void recordWait(long nanos) {
+        waitNanos.add(nanos);
+        long max;
+        while (nanos > (max = maxWaitNanos.get()) && !maxWaitNanos.compareAndSet(max, nanos)) {
+            // Reintentar hasta publicar el nuevo máximo
+        }
+    }
+
+    /**
+     * Comprueba si una conexión inactiva sigue siendo válida. Si se validó (o se abrió) hace menos de
+     * {@code validationWindowMs} se da por buena sin ir a la base de datos. Devolverla al pool no cuenta
+     * como validación, así que una conexión rota durante un préstamo se comprueba en cuanto pasa la ventana.
+     */
+    private boolean isUsable(PooledConnection pooled) {
+        long now = System.currentTimeMillis();
+        if (now - pooled.lastValidated < validationWindowMs) {
+            validationsSkipped.increment();
+            return true;
+        }
+        validationsRun.increment();
+        try {
+            if (pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                pooled.lastValidated = now;
+                return true;
+            }
+        } catch (SQLException e) {
+            // Se trata igual que una conexión no válida
+        }
+        validationFailures.increment();
+        return false;
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        totalConnections.incrementAndGet();
+        createdCount.increment();
+        return new PooledConnection(physical);
+    }
+
+    private void destroy(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        if (pooled.statements != null) {
+            pooled.statements.closeAll();
+        }
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            LOG.warn("Error al cerrar una conexión del pool", "error", e.getMessage());
+        }
+    }
+
+    /**
+     * Devuelve una conexión al pool, restaurando su estado para el siguiente préstamo.
+     */
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        boolean healthy = true;
+        if (pooled.statements != null) {
+            pooled.statements.releaseAll(); // Sentencias que el DAO no llegó a cerrar
+        }
+        try {
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.physical.clearWarnings();
+        } catch (SQLException e) {
+            healthy = false;
+        }
+
+        if (closed || !healthy) {
+            destroy(pooled);
+        } else {
+            // lastValidated no se renueva: la conexión pudo romperse mientras estaba prestada
+            pooled.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        }
+        permits.release();
+    }
+
+    /**
+     * Tarea periódica: cierra conexiones inactivas sobrantes y avisa de conexiones prestadas demasiado tiempo.
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && idle.size() > minIdle) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastUsed > idleTimeoutMs && idle.remove(pooled)) {
+                evictedCount.increment();
+                destroy(pooled);
+            }
+        }
+
+        if (leakThresholdMs > 0) {
+            for (PooledConnection pooled : borrowed) {
+                if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdMs) {
+                    pooled.leakReported = true;
+                    leaksDetected.increment();
+                    // borrowSite puede ser null; la traza, si la hay, indica dónde se pidió la conexión
+                    LOG.warn("Posible fuga de conexión", pooled.borrowSite, "ms", now - pooled.borrowedAt,
+                            "thread", pooled.borrowerThread);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("El pool solo admite las credenciales configuradas.");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        // No se usa
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        DriverManager.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return DriverManager.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("No es un wrapper de " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * Conexión física gestionada por el pool junto con sus datos de préstamo.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements;
+        private volatile long lastUsed = System.currentTimeMillis();
+        private volatile long lastValidated = lastUsed;
+        private volatile long borrowedAt;
+        private volatile String borrowerThread;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = statementCacheSize > 0
+                    ? new StatementCache(statementCacheSize, statementCacheHits, statementCacheMisses, statementCacheEvictions)
+                    : null;
+        }
+
+        private void markBorrowed(boolean trackLeaks) {
+            borrowedAt = System.currentTimeMillis();
+            // El hilo y la traza solo se usan en el aviso de fuga; crear la traza es caro
+            borrowerThread = trackLeaks ? Thread.currentThread().getName() : null;
+            borrowSite = trackLeaks ? new Throwable("Conexión obtenida aquí") : null;
+            leakReported = false;
+        }
+
+        /**
+         * Crea un manejador nuevo para cada préstamo, de modo que un manejador ya devuelto no pueda
+         * seguir usando la conexión física que ahora tiene otro hilo.
+         */
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Handle(this));
+        }
+    }
+
+    /**
+     * Intercepta {@code close()} para devolver la conexión al pool y {@code prepareStatement} para servir
+     * las sentencias desde la caché de la conexión. El resto de llamadas se delegan.
+     */
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + (returned ? ", devuelta" : "") + "]";
+                case "prepareStatement":
+                    if (!returned && pooled.statements != null && isCacheable(method)) {
+                        int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                        return pooled.statements.prepare(pooled.physical, (Connection) proxy, (String) args[0], autoGeneratedKeys);
+                    }
+                    return invokePhysical(method, args); // Las demás variantes no se cachean
+                default:
+                    return invokePhysical(method, args);
+            }
+        }
+
+        /**
+         * Pasa la llamada a la conexión física, envolviendo las sentencias que devuelve para trazarlas.
+         */
+        private Object invokePhysical(Method method, Object[] args) throws Throwable {
+            if (returned) {
+                throw new SQLException("La conexión ya se devolvió al pool.");
+            }
+            Object result;
+            try {
+                result = method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement) {
+                // createStatement, prepareCall y las variantes de prepareStatement que no se cachean
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return SqlTracing.wrap((Statement) result, sql);
+            }
+            return result;
+        }
+
+        /**
+         * Solo se cachean {@code prepareStatement(String)} y {@code prepareStatement(String, int autoGeneratedKeys)}.
+         */
+        private boolean isCacheable(Method method) {
+            Class<?>[] types = method.getParameterTypes();
+            return types.length == 1 || (types.length == 2 && types[1] == int.class);
+        }
+    }
+
+    /**
+     * Instantánea inmutable de las métricas del pool.
+     */
+    public static final class Stats {
+        private final int maxSize;
+        private final int totalConnections;
+        private final int activeConnections;
+        private final int idleConnections;
+        private final int waitingThreads;
+        private final long borrowCount;
+        private final long borrowTimeouts;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+        private final long createdCount;
+        private final long evictedCount;
+        private final long validationsRun;
+        private final long validationsSkipped;
+        private final long validationFailures;
+        private final long leaksDetected;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
+        private final long statementCacheEvictions;
+
+        private Stats(int maxSize, int totalConnections, int activeConnections, int idleConnections,
+                      int waitingThreads, long borrowCount, long borrowTimeouts, long totalWaitNanos,
+                      long maxWaitNanos, long createdCount, long evictedCount, long validationsRun,
+                      long validationsSkipped, long validationFailures, long leaksDetected,
+                      long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) {
+            this.maxSize = maxSize;
+            this.totalConnections = totalConnections;
+            this.activeConnections = activeConnections;
+            this.idleConnections = idleConnections;
+            this.waitingThreads = waitingThreads;
+            this.borrowCount = borrowCount;
+            this.borrowTimeouts = borrowTimeouts;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.createdCount = createdCount;
+            this.evictedCount = evictedCount;
+            this.validationsRun = validationsRun;
+            this.validationsSkipped = validationsSkipped;
+            this.validationFailures = validationFailures;
+            this.leaksDetected = leaksDetected;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
+            this.statementCacheEvictions = statementCacheEvictions;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getTotalConnections() {
+            return totalConnections;
+        }
+
+        public int getActiveConnections() {
+            return activeConnections;
+        }
+
+        public int getIdleConnections() {
+            return idleConnections;
+        }
+
+        public int getWaitingThreads() {
+            return waitingThreads;
+        }
+
+        public long getBorrowCount() {
+            return borrowCount;
+        }
+
+        public long getBorrowTimeouts() {
+            return borrowTimeouts;
+        }
+
+        /**
+         * Tiempo medio de espera para obtener una conexión, en milisegundos.
+         */
+        public double getAverageWaitMs() {
+            return borrowCount == 0 ? 0 : totalWaitNanos / 1_000_000.0 / borrowCount;
+        }
+
+        public double getMaxWaitMs() {
+            return maxWaitNanos / 1_000_000.0;
+        }
+
+        public long getCreatedCount() {
+            return createdCount;
+        }
+
+        public long getEvictedCount() {
+            return evictedCount;
+        }
+
+        public long getValidationsRun() {
+            return validationsRun;
+        }
+
+        public long getValidationsSkipped() {
+            return validationsSkipped;
+        }
+
+        public long getValidationFailures() {
+            return validationFailures;
+        }
+
+        public long getLeaksDetected() {
+            return leaksDetected;
+        }
+
+        public long getStatementCacheHits() {
+            return statementCacheHits;
+        }
+
+        public long getStatementCacheMisses() {
+            return statementCacheMisses;
+        }
+
+        public long getStatementCacheEvictions() {
+            return statementCacheEvictions;
+        }
+
+        /**
+         * Proporción de sentencias servidas desde la caché, entre 0 y 1.
+         */
+        public double getStatementCacheHitRatio() {
+            long total = statementCacheHits + statementCacheMisses;
+            return total == 0 ? 0 : (double) statementCacheHits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("conexiones=%d/%d activas=%d inactivas=%d esperando=%d préstamos=%d timeouts=%d "
+                            + "esperaMedia=%.2fms esperaMax=%.2fms validaciones=%d omitidas=%d fallidas=%d fugas=%d "
+                            + "sentencias: aciertos=%d fallos=%d expulsadas=%d",
+                    totalConnections, maxSize, activeConnections, idleConnections, waitingThreads, borrowCount,
+                    borrowTimeouts, getAverageWaitMs(), getMaxWaitMs(), validationsRun, validationsSkipped,
+                    validationFailures, leaksDetected, statementCacheHits, statementCacheMisses, statementCacheEvictions);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.eiman.olimpiada.config;
 
+import com.eiman.olimpiada.log.Log;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -7,110 +9,137 @@ import java.sql.Statement;
 
 /**
  * Configuración de la base de datos para la aplicación.
- * Incluye la inicialización de la conexión y la creación de tablas si no existen.
+ * Incluye la inicialización del pool de conexiones y la migración del esquema (ver {@link SchemaMigrator}).
+ * Los datos de conexión y el motor se toman de {@link DatabaseSettings}.
  */
 public class DBConfig {
 
-    private static Connection connection;
-    private static final String DB_URL_BASE = "jdbc:mysql://database-1.cr60ewocg533.us-east-1.rds.amazonaws.com:3306/";
-    private static final String DB_NAME = "olimpiadas"; // Nombre de la base de datos
-    private static final String DB_URL = DB_URL_BASE + DB_NAME + "?useSSL=false&allowPublicKeyRetrieval=true";
-    private static final String USER = "admin"; // Reemplaza con tu usuario
-    private static final String PASSWORD = "12345678"; // Reemplaza con tu contraseña
+    private static final Log LOG = Log.get(DBConfig.class);
+
+    private static volatile ConnectionPool pool;
+    private static DatabaseSettings settings;
+
+    // Parámetros del pool de conexiones
+    private static final int POOL_MIN_IDLE = 2;
+    private static final long POOL_BORROW_TIMEOUT_MS = 10_000;
+    private static final long POOL_IDLE_TIMEOUT_MS = 5 * 60_000;
+    private static final long POOL_VALIDATION_WINDOW_MS = 5_000;
+
+    // Código de error de MySQL para una base de datos que no existe (SQLState 42000)
+    private static final int MYSQL_UNKNOWN_DATABASE = 1049;
+
+    /**
+     * Sustituye la configuración de la base de datos. Debe llamarse antes de abrir el pool
+     * (por ejemplo, para usar una base de datos H2 en memoria en las pruebas de rendimiento).
+     * @param newSettings Configuración que se usará al crear el pool.
+     * @throws IllegalStateException si el pool ya está abierto.
+     */
+    public static synchronized void configure(DatabaseSettings newSettings) {
+        if (pool != null) {
+            throw new IllegalStateException("El pool de conexiones ya está abierto.");
+        }
+        settings = newSettings;
+    }
 
     /**
-     * Obtiene la conexión a la base de datos, creando la base de datos y las tablas si es necesario.
-     * @return La conexión a la base de datos.
+     * Devuelve la configuración en uso, cargándola del fichero y de las propiedades del sistema la primera vez.
+     */
+    public static synchronized DatabaseSettings getSettings() {
+        if (settings == null) {
+            settings = DatabaseSettings.load();
+        }
+        return settings;
+    }
+
+    /**
+     * Motor de base de datos configurado.
+     */
+    public static DatabaseBackend getBackend() {
+        return getSettings().getBackend();
+    }
+
+    /**
+     * Obtiene una conexión del pool. Quien la pide debe cerrarla (idealmente con try-with-resources)
+     * para devolverla al pool en cuanto termine la operación.
+     * @return Una conexión prestada por el pool.
      * @throws SQLException Si ocurre un error en la conexión a la base de datos.
      */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            createDatabaseIfNotExists(); // Crea la base de datos si no existe
-            connection = DriverManager.getConnection(DB_URL, USER, PASSWORD);
-            initializeTables(); // Crea las tablas si no existen
-        }
-        return connection;
+        return getPool().getConnection();
     }
 
     /**
-     * Crea la base de datos si no existe.
+     * Obtiene el pool de conexiones, creando la base de datos y el pool y migrando el esquema la primera vez.
+     * Una vez abierto se devuelve sin bloquear, para que los hilos de los DAOs no se esperen entre sí.
+     * @return El pool de conexiones de la aplicación.
+     * @throws SQLException Si ocurre un error en la conexión a la base de datos.
      */
-    private static void createDatabaseIfNotExists() {
-        String createDatabaseQuery = "CREATE DATABASE IF NOT EXISTS " + DB_NAME;
-        try (Connection conn = DriverManager.getConnection(DB_URL_BASE, USER, PASSWORD);
-             Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate(createDatabaseQuery);
-            System.out.println("Base de datos verificada o creada.");
-        } catch (SQLException e) {
-            System.err.println("Error al verificar o crear la base de datos: " + e.getMessage());
+    public static ConnectionPool getPool() throws SQLException {
+        ConnectionPool current = pool;
+        return current != null ? current : openPool();
+    }
+
+    private static synchronized ConnectionPool openPool() throws SQLException {
+        if (pool == null) {
+            DatabaseSettings current = getSettings();
+            if (current.getBackend().createsDatabase()) {
+                createDatabaseIfNotExists(current); // Crea la base de datos si no existe
+            }
+            ConnectionPool newPool = new ConnectionPool(current.getUrl(), current.getUser(), current.getPassword(),
+                    current.getPoolMaxSize(), Math.min(POOL_MIN_IDLE, current.getPoolMaxSize()),
+                    POOL_BORROW_TIMEOUT_MS, POOL_IDLE_TIMEOUT_MS, POOL_VALIDATION_WINDOW_MS, current.getLeakThresholdMs(),
+                    current.getStatementCacheSize());
+            // Comprueba que la base de datos responde y lleva el esquema a la última versión antes de publicar el pool
+            try (Connection conn = newPool.getConnection()) {
+                SchemaMigrator.migrate(conn);
+            } catch (SQLException e) {
+                newPool.close();
+                throw e;
+            }
+            pool = newPool;
         }
+        return pool;
+    }
+
+    /**
+     * Devuelve el pool si ya está abierto, o null, sin abrirlo ni esperar a que termine de abrirse.
+     * Sirve para consultar sus métricas.
+     */
+    public static ConnectionPool getOpenPool() {
+        return pool;
     }
 
     /**
-     * Crea todas las tablas necesarias en la base de datos si no existen.
+     * Cierra el pool de conexiones. Se llama al salir de la aplicación.
      */
-    private static void initializeTables() {
-        try (Statement stmt = connection.createStatement()) {
-
-            // Crear tabla deportista
-            String createDeportistasTable = "CREATE TABLE IF NOT EXISTS deportista (" +
-                    "id_deportista INT PRIMARY KEY AUTO_INCREMENT, " +
-                    "nombre VARCHAR(100), " +
-                    "sexo CHAR(1), " +
-                    "edad INT, " +
-                    "foto BLOB, " +
-                    "peso DECIMAL(5, 2), " +
-                    "altura DECIMAL(5, 2))";
-            stmt.executeUpdate(createDeportistasTable);
-
-            // Crear tabla equipo
-            String createEquiposTable = "CREATE TABLE IF NOT EXISTS equipo (" +
-                    "id_equipo INT PRIMARY KEY AUTO_INCREMENT, " +
-                    "nombre VARCHAR(100), " +
-                    "iniciales VARCHAR(10))";
-            stmt.executeUpdate(createEquiposTable);
-
-            // Crear tabla deporte
-            String createDeportesTable = "CREATE TABLE IF NOT EXISTS deporte (" +
-                    "id_deporte INT PRIMARY KEY AUTO_INCREMENT, " +
-                    "nombre VARCHAR(100))";
-            stmt.executeUpdate(createDeportesTable);
-
-            // Crear tabla olimpiada
-            String createOlimpiadasTable = "CREATE TABLE IF NOT EXISTS olimpiada (" +
-                    "id_olimpiada INT PRIMARY KEY AUTO_INCREMENT, " +
-                    "nombre VARCHAR(100), " +
-                    "anio INT, " +
-                    "temporada VARCHAR(50), " +
-                    "ciudad VARCHAR(100))";
-            stmt.executeUpdate(createOlimpiadasTable);
-
-            // Crear tabla evento
-            String createEventosTable = "CREATE TABLE IF NOT EXISTS evento (" +
-                    "id_evento INT PRIMARY KEY AUTO_INCREMENT, " +
-                    "nombre VARCHAR(100), " +
-                    "id_olimpiada INT, " +
-                    "id_deporte INT, " +
-                    "FOREIGN KEY (id_olimpiada) REFERENCES olimpiada(id_olimpiada), " +
-                    "FOREIGN KEY (id_deporte) REFERENCES deporte(id_deporte))";
-            stmt.executeUpdate(createEventosTable);
-
-            // Crear tabla participacion
-            String createParticipacionesTable = "CREATE TABLE IF NOT EXISTS participacion (" +
-                    "id_deportista INT, " +
-                    "id_evento INT, " +
-                    "id_equipo INT, " +
-                    "medalla VARCHAR(50), " +
-                    "PRIMARY KEY (id_deportista, id_evento), " +
-                    "FOREIGN KEY (id_deportista) REFERENCES deportista(id_deportista), " +
-                    "FOREIGN KEY (id_evento) REFERENCES evento(id_evento), " +
-                    "FOREIGN KEY (id_equipo) REFERENCES equipo(id_equipo))";
-            stmt.executeUpdate(createParticipacionesTable);
-
-            System.out.println("Todas las tablas han sido verificadas o creadas con éxito.");
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+    }
 
+    /**
+     * Crea la base de datos si no existe. Primero se intenta conectar a ella, y el CREATE DATABASE solo se
+     * ejecuta si el servidor responde que no existe, para que un arranque con el esquema al día no ejecute DDL.
+     */
+    private static void createDatabaseIfNotExists(DatabaseSettings current) {
+        try {
+            DriverManager.getConnection(current.getUrl(), current.getUser(), current.getPassword()).close();
+            return; // La base de datos ya existe
+        } catch (SQLException e) {
+            if (e.getErrorCode() != MYSQL_UNKNOWN_DATABASE) {
+                LOG.error("Error al verificar la base de datos", e, "database", current.getDatabaseName());
+                return;
+            }
+        }
+        String createDatabaseQuery = "CREATE DATABASE IF NOT EXISTS " + current.getDatabaseName();
+        try (Connection conn = DriverManager.getConnection(current.getServerUrl(), current.getUser(), current.getPassword());
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(createDatabaseQuery);
+            LOG.info("Base de datos creada", "database", current.getDatabaseName());
         } catch (SQLException e) {
-            System.err.println("Error al verificar o crear las tablas: " + e.getMessage());
+            LOG.error("Error al crear la base de datos", e, "database", current.getDatabaseName());
         }
     }
 }
@@ -0,0 +1,57 @@
+package com.eiman.olimpiada.config;
+
+import java.util.Locale;
+
+/**
+ * Motores de base de datos que admite la aplicación. El esquema (ver {@link SchemaMigrator}) es el mismo
+ * en todos; solo cambian los detalles que no son SQL estándar.
+ */
+public enum DatabaseBackend {
+
+    /**
+     * Servidor MySQL remoto. La base de datos se crea si no existe antes de abrir el pool.
+     */
+    MYSQL(true, "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?"),
+
+    /**
+     * H2 embebido en modo MySQL, en fichero o en memoria. Sirve para trabajar sin conexión y para las pruebas
+     * de rendimiento, sin depender de la latencia de la red.
+     */
+    H2(false, "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = ?");
+
+    private final boolean createsDatabase;
+    private final String rowCountEstimateSql;
+
+    DatabaseBackend(boolean createsDatabase, String rowCountEstimateSql) {
+        this.createsDatabase = createsDatabase;
+        this.rowCountEstimateSql = rowCountEstimateSql;
+    }
+
+    /**
+     * Indica si hay que crear la base de datos en el servidor antes de conectarse a ella.
+     * H2 la crea al abrir la primera conexión.
+     */
+    public boolean createsDatabase() {
+        return createsDatabase;
+    }
+
+    /**
+     * Consulta que devuelve el número aproximado de filas de una tabla (el nombre va como parámetro).
+     */
+    public String getRowCountEstimateSql() {
+        return rowCountEstimateSql;
+    }
+
+    /**
+     * Devuelve el motor con el nombre indicado ("mysql" o "h2"), sin distinguir mayúsculas.
+     *
+     * @throws IllegalArgumentException si el nombre no corresponde a ningún motor.
+     */
+    public static DatabaseBackend fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Motor de base de datos desconocido: " + name, e);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.eiman.olimpiada.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Parámetros de conexión a la base de datos.
+ * <p>
+ * Se leen, de menor a mayor prioridad, de los valores por defecto (el servidor MySQL de siempre), del fichero
+ * {@code olimpiada.properties} del directorio de trabajo (o el indicado con {@code -Dolimpiada.config=ruta})
+ * y de las propiedades del sistema {@code -Dolimpiada.db.backend}, {@code -Dolimpiada.db.url}, etc.
+ * <p>
+ * Claves del fichero:
+ * <pre>
+ * db.backend = mysql | h2
+ * db.url = jdbc:h2:mem:olimpiadas;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1
+ * db.user = ...
+ * db.password = ...
+ * db.name = olimpiadas          (MySQL: base de datos que se crea si no existe)
+ * db.server_url = jdbc:mysql://host:3306/   (MySQL: servidor sin base de datos)
+ * pool.max_size = 8
+ * pool.statement_cache_size = 64
+ * pool.leak_threshold_ms = 0    (ms prestada tras los que se avisa de una posible fuga; 0 la desactiva)
+ * </pre>
+ * Si no se indica {@code db.url}, se construye a partir del motor y del nombre de la base de datos.
+ */
+public final class DatabaseSettings {
+
+    /** Propiedad del sistema con la ruta del fichero de configuración. */
+    public static final String CONFIG_FILE_PROPERTY = "olimpiada.config";
+    private static final String DEFAULT_CONFIG_FILE = "olimpiada.properties";
+    private static final String SYSTEM_PREFIX = "olimpiada.";
+
+    private static final String DEFAULT_SERVER_URL = "jdbc:mysql://database-1.cr60ewocg533.us-east-1.rds.amazonaws.com:3306/";
+    private static final String DEFAULT_NAME = "olimpiadas";
+    private static final String DEFAULT_MYSQL_USER = "admin";
+    private static final String DEFAULT_MYSQL_PASSWORD = "12345678";
+    private static final String MYSQL_OPTIONS = "?useSSL=false&allowPublicKeyRetrieval=true"
+            + "&rewriteBatchedStatements=true" // Los lotes JDBC se envían como INSERT de varias filas
+            + "&useServerPrepStmts=true"; // Sentencias preparadas en el servidor; el pool las cachea por conexión
+    private static final String H2_OPTIONS = ";MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+    private static final int DEFAULT_POOL_MAX_SIZE = 8;
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+    // Sin detección de fugas: guardar dónde se pidió cada conexión tiene un coste en cada préstamo
+    private static final int DEFAULT_LEAK_THRESHOLD_MS = 0;
+
+    private final DatabaseBackend backend;
+    private final String url;
+    private final String serverUrl;
+    private final String databaseName;
+    private final String user;
+    private final String password;
+    private final int poolMaxSize;
+    private final int statementCacheSize;
+    private final long leakThresholdMs;
+
+    public DatabaseSettings(DatabaseBackend backend, String url, String serverUrl, String databaseName,
+                            String user, String password, int poolMaxSize, int statementCacheSize,
+                            long leakThresholdMs) {
+        this.backend = backend;
+        this.url = url;
+        this.serverUrl = serverUrl;
+        this.databaseName = databaseName;
+        this.user = user;
+        this.password = password;
+        this.poolMaxSize = poolMaxSize;
+        this.statementCacheSize = statementCacheSize;
+        this.leakThresholdMs = leakThresholdMs;
+    }
+
+    /**
+     * Configuración de una base de datos H2 embebida con la URL indicada (por ejemplo, en memoria para
+     * las pruebas de rendimiento).
+     */
+    public static DatabaseSettings embedded(String url) {
+        return new DatabaseSettings(DatabaseBackend.H2, url, null, DEFAULT_NAME, "sa", "",
+                DEFAULT_POOL_MAX_SIZE, DEFAULT_STATEMENT_CACHE_SIZE, DEFAULT_LEAK_THRESHOLD_MS);
+    }
+
+    /**
+     * Carga la configuración del fichero y de las propiedades del sistema.
+     *
+     * @throws IllegalStateException si el fichero indicado no se puede leer o algún valor no es válido.
+     */
+    public static DatabaseSettings load() {
+        Properties properties = new Properties();
+        String configFile = System.getProperty(CONFIG_FILE_PROPERTY);
+        Path path = Paths.get(configFile != null ? configFile : DEFAULT_CONFIG_FILE);
+        if (configFile != null || Files.isRegularFile(path)) {
+            try (InputStream in = Files.newInputStream(path)) {
+                properties.load(in);
+            } catch (IOException e) {
+                throw new IllegalStateException("No se pudo leer la configuración de " + path.toAbsolutePath(), e);
+            }
+        }
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(SYSTEM_PREFIX) && !name.equals(CONFIG_FILE_PROPERTY)) {
+                properties.setProperty(name.substring(SYSTEM_PREFIX.length()), System.getProperty(name));
+            }
+        }
+        return fromProperties(properties);
+    }
+
+    /**
+     * Construye la configuración a partir de las claves descritas en la documentación de la clase,
+     * completando con los valores por defecto las que falten.
+     */
+    public static DatabaseSettings fromProperties(Properties properties) {
+        DatabaseBackend backend = DatabaseBackend.fromName(properties.getProperty("db.backend", "mysql"));
+        String name = properties.getProperty("db.name", DEFAULT_NAME).trim();
+        String serverUrl = properties.getProperty("db.server_url", DEFAULT_SERVER_URL).trim();
+        String url = properties.getProperty("db.url");
+        String user = properties.getProperty("db.user");
+        String password = properties.getProperty("db.password");
+        if (backend == DatabaseBackend.MYSQL) {
+            url = url != null ? url.trim() : serverUrl + name + MYSQL_OPTIONS;
+            user = user != null ? user : DEFAULT_MYSQL_USER;
+            password = password != null ? password : DEFAULT_MYSQL_PASSWORD;
+        } else {
+            url = url != null ? url.trim() : "jdbc:h2:./data/" + name + H2_OPTIONS;
+            user = user != null ? user : "sa";
+            password = password != null ? password : "";
+        }
+        return new DatabaseSettings(backend, url, serverUrl, name, user, password,
+                intProperty(properties, "pool.max_size", DEFAULT_POOL_MAX_SIZE),
+                intProperty(properties, "pool.statement_cache_size", DEFAULT_STATEMENT_CACHE_SIZE),
+                intProperty(properties, "pool.leak_threshold_ms", DEFAULT_LEAK_THRESHOLD_MS));
+    }
+
+    private static int intProperty(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Valor no válido para " + key + ": " + value, e);
+        }
+    }
+
+    public DatabaseBackend getBackend() {
+        return backend;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * URL del servidor sin base de datos, para crearla si no existe. Solo se usa con MySQL.
+     */
+    public String getServerUrl() {
+        return serverUrl;
+    }
+
+    public String getDatabaseName() {
+        return databaseName;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public int getPoolMaxSize() {
+        return poolMaxSize;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * Tiempo prestada tras el cual una conexión se notifica como posible fuga, o 0 si la detección está
+     * desactivada. Solo con la detección activada se guarda dónde se pidió cada conexión.
+     */
+    public long getLeakThresholdMs() {
+        return leakThresholdMs;
+    }
+}
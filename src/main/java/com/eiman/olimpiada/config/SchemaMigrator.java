@@ -0,0 +1,189 @@
+package com.eiman.olimpiada.config;
+
+import com.eiman.olimpiada.log.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Aplica las migraciones del esquema de la base de datos en orden y registra cada una en la tabla
+ * {@code schema_version} junto con la suma de comprobación de su script.
+ * <p>
+ * Los scripts están en {@code /db/migration} y se listan en {@link #MIGRATIONS} (dentro de un módulo no se
+ * puede recorrer el directorio de recursos). Una migración ya aplicada no debe modificarse: si su checksum
+ * no coincide con el registrado, el arranque se detiene. Para cambiar el esquema se añade un script nuevo.
+ */
+public final class SchemaMigrator {
+
+    private static final Log LOG = Log.get(SchemaMigrator.class);
+
+    private static final String MIGRATION_PATH = "/db/migration/";
+
+    // Scripts en orden de versión: V<versión>__<descripción>.sql
+    private static final String[] MIGRATIONS = {
+            "V1__create_tables.sql",
+            "V2__name_indexes.sql",
+            "V3__participacion_covering_indexes.sql",
+            "V4__deportista_id_csv.sql"
+    };
+
+    private SchemaMigrator() {
+    }
+
+    /**
+     * Lleva el esquema a la última versión. Si la versión registrada ya es la última y los checksums
+     * coinciden, no se ejecuta ninguna sentencia DDL.
+     *
+     * @param connection Conexión sobre la que se ejecutan las migraciones.
+     * @throws SQLException si falla una migración, o si un script aplicado ha cambiado desde entonces.
+     */
+    public static void migrate(Connection connection) throws SQLException {
+        List<Migration> migrations = loadMigrations();
+        Map<Integer, Long> applied = readAppliedVersions(connection);
+
+        if (applied == null) {
+            createVersionTable(connection);
+            applied = new HashMap<>();
+        }
+
+        for (Migration migration : migrations) {
+            Long checksum = applied.get(migration.version);
+            if (checksum == null) {
+                apply(connection, migration);
+            } else if (checksum != migration.checksum) {
+                throw new SQLException("La migración " + migration.script + " ha cambiado después de aplicarse"
+                        + " (checksum " + migration.checksum + ", registrado " + checksum + ")");
+            }
+        }
+    }
+
+    /**
+     * Devuelve la versión y el checksum de las migraciones aplicadas, o null si aún no existe schema_version.
+     */
+    private static Map<Integer, Long> readAppliedVersions(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getLong(2));
+            }
+        } catch (SQLException e) {
+            // La tabla no existe todavía (base de datos nueva o anterior a las migraciones).
+            // H2 usa 42S04 en lugar de 42S02 cuando el esquema está vacío.
+            if ("42S02".equals(e.getSQLState()) || "42S04".equals(e.getSQLState())) {
+                return null;
+            }
+            throw e;
+        }
+        return applied;
+    }
+
+    private static void createVersionTable(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INT PRIMARY KEY, " +
+                    "description VARCHAR(200) NOT NULL, " +
+                    "checksum BIGINT NOT NULL, " +
+                    "installed_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        }
+    }
+
+    /**
+     * Ejecuta las sentencias de un script y lo registra. MySQL confirma cada sentencia DDL por separado,
+     * así que si una falla a mitad el script no queda registrado y hay que revisar el esquema a mano.
+     */
+    private static void apply(Connection connection, Migration migration) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            for (String sql : migration.statements) {
+                stmt.executeUpdate(sql);
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Error al aplicar la migración " + migration.script + ": " + e.getMessage(),
+                    e.getSQLState(), e.getErrorCode(), e);
+        }
+
+        String insert = "INSERT INTO schema_version (version, description, checksum) VALUES (?, ?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(insert)) {
+            statement.setInt(1, migration.version);
+            statement.setString(2, migration.description);
+            statement.setLong(3, migration.checksum);
+            statement.executeUpdate();
+        }
+        LOG.info("Migración aplicada", "version", migration.version, "script", migration.script);
+    }
+
+    private static List<Migration> loadMigrations() throws SQLException {
+        List<Migration> migrations = new ArrayList<>();
+        for (String script : MIGRATIONS) {
+            try (InputStream in = SchemaMigrator.class.getResourceAsStream(MIGRATION_PATH + script)) {
+                if (in == null) {
+                    throw new SQLException("No se encuentra el script de migración " + script);
+                }
+                migrations.add(new Migration(script, new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                throw new SQLException("No se puede leer el script de migración " + script, e);
+            }
+        }
+        return migrations;
+    }
+
+    /**
+     * Script de migración ya leído: versión, descripción, checksum y sentencias.
+     */
+    private static final class Migration {
+        private final String script;
+        private final int version;
+        private final String description;
+        private final long checksum;
+        private final List<String> statements;
+
+        private Migration(String script, String content) {
+            this.script = script;
+            int separator = script.indexOf("__");
+            this.version = Integer.parseInt(script.substring(1, separator));
+            this.description = script.substring(separator + 2, script.length() - ".sql".length()).replace('_', ' ');
+
+            // El checksum no depende de los finales de línea del sistema en que se editó el script
+            String normalized = content.replace("\r\n", "\n");
+            CRC32 crc = new CRC32();
+            crc.update(normalized.getBytes(StandardCharsets.UTF_8));
+            this.checksum = crc.getValue();
+            this.statements = splitStatements(normalized);
+        }
+
+        /**
+         * Separa el script en sentencias terminadas en ';', ignorando las líneas de comentario.
+         */
+        private static List<String> splitStatements(String content) {
+            List<String> statements = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            for (String line : content.split("\n")) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                    continue;
+                }
+                current.append(line).append('\n');
+                if (trimmed.endsWith(";")) {
+                    String sql = current.toString().trim();
+                    statements.add(sql.substring(0, sql.length() - 1));
+                    current.setLength(0);
+                }
+            }
+            if (!current.toString().isBlank()) {
+                statements.add(current.toString().trim());
+            }
+            return statements;
+        }
+    }
+}
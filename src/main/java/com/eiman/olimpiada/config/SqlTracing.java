@@ -0,0 +1,243 @@
+package com.eiman.olimpiada.config;
+
+import com.eiman.olimpiada.metrics.SlowQueryLog;
+import com.eiman.olimpiada.metrics.SqlExecutionEvent;
+import com.eiman.olimpiada.metrics.SqlProfiler;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.regex.Pattern;
+
+/**
+ * Emite un {@link SqlExecutionEvent} por cada sentencia ejecutada con una conexión del pool y, si está activo,
+ * la registra en el {@link SqlProfiler}.
+ * <p>
+ * Las sentencias de la caché ya pasan por un proxy ({@link StatementCache}), que llama a
+ * {@link #execute(String, Statement, Method, Object[])}; el resto se envuelven con {@link #wrap(Statement, String)}.
+ * Si no hay una grabación de JFR con el evento activo, ni perfil de SQL, ni nadie consultando el
+ * {@link SlowQueryLog}, solo se comprueba {@code isEnabled()} y la sentencia se ejecuta sin envoltorios.
+ */
+final class SqlTracing {
+
+    private static final int MAX_SQL_LENGTH = 1000;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN \\(\\?(?:, ?\\?)+\\)");
+    private static final Pattern REPEATED_ROWS = Pattern.compile("(\\(\\?(?:, ?\\?)*\\))(?:, ?\\1)+");
+
+    private SqlTracing() {
+    }
+
+    /**
+     * Ejecuta un método de una sentencia, registrando el evento si es uno de los {@code execute*}.
+     *
+     * @param sql    Texto de la sentencia preparada, o null si es un {@link Statement} que recibe el SQL al ejecutar.
+     * @param target Sentencia física.
+     */
+    static Object execute(String sql, Statement target, Method method, Object[] args) throws Throwable {
+        if (!method.getName().startsWith("execute")) {
+            return invoke(target, method, args);
+        }
+        SqlExecutionEvent event = new SqlExecutionEvent();
+        boolean profiled = SqlProfiler.isEnabled();
+        boolean logged = SlowQueryLog.isEnabled();
+        if (!event.isEnabled() && !profiled && !logged) {
+            return invoke(target, method, args);
+        }
+        Execution execution = new Execution(shape(sql, args), event, profiled ? SqlProfiler.callSite() : null, logged);
+        Object result;
+        try {
+            result = invoke(target, method, args);
+        } catch (Throwable e) {
+            execution.failed = true;
+            execution.finish();
+            throw e;
+        }
+        if (result instanceof ResultSet) {
+            // La consulta termina al cerrar el ResultSet, cuando ya se sabe cuántas filas se han leído
+            return countRows((ResultSet) result, execution);
+        }
+        if (result instanceof Integer || result instanceof Long) {
+            execution.rows = ((Number) result).longValue();
+        } else if (result instanceof int[]) {
+            for (int count : (int[]) result) {
+                execution.rows += Math.max(0, count);
+            }
+        } else if (Boolean.FALSE.equals(result)) {
+            execution.rows = Math.max(0, target.getUpdateCount());
+        }
+        execution.finish();
+        return result;
+    }
+
+    /**
+     * Envuelve una sentencia que no pasa por la caché para que sus ejecuciones emitan eventos.
+     * Si el evento no está activo se devuelve la sentencia tal cual.
+     *
+     * @param sql Texto de la sentencia preparada, o null para un {@link Statement}.
+     */
+    static Statement wrap(Statement statement, String sql) {
+        if (!new SqlExecutionEvent().isEnabled() && !SqlProfiler.isEnabled() && !SlowQueryLog.isEnabled()) {
+            return statement;
+        }
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        InvocationHandler handler = new InvocationHandler() {
+            private TracedResultSet open; // Al cerrar la sentencia o volver a ejecutarla se cierra su ResultSet
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "close":
+                        finishOpen();
+                        return SqlTracing.invoke(statement, method, args);
+                    default:
+                        if (method.getName().startsWith("execute")) {
+                            finishOpen();
+                        }
+                        Object result = execute(sql, statement, method, args);
+                        if (result instanceof ResultSet && Proxy.isProxyClass(result.getClass())
+                                && Proxy.getInvocationHandler(result) instanceof TracedResultSet) {
+                            open = (TracedResultSet) Proxy.getInvocationHandler(result);
+                        }
+                        return result;
+                }
+            }
+
+            private void finishOpen() {
+                if (open != null) {
+                    open.finish();
+                    open = null;
+                }
+            }
+        };
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Devuelve un ResultSet que cuenta las filas leídas y registra el evento al cerrarse.
+     */
+    private static ResultSet countRows(ResultSet resultSet, Execution execution) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                new TracedResultSet(resultSet, execution));
+    }
+
+    /**
+     * Ejecución en curso de una sentencia: se cierra una sola vez, registrando el evento de JFR (si está activo),
+     * la ejecución en el {@link SqlProfiler} (si se ha pedido el punto del código) y en el {@link SlowQueryLog}.
+     */
+    private static final class Execution {
+        private final String sql;
+        private final SqlExecutionEvent event;
+        private final String callSite;
+        private final boolean logged;
+        private final long start = System.nanoTime();
+        private long rows;
+        private boolean failed;
+        private boolean finished;
+
+        private Execution(String sql, SqlExecutionEvent event, String callSite, boolean logged) {
+            this.sql = sql;
+            this.event = event;
+            this.callSite = callSite;
+            this.logged = logged;
+            event.begin();
+        }
+
+        private void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            long elapsed = System.nanoTime() - start;
+            if (event.isEnabled()) {
+                event.setSql(sql);
+                event.setRows(rows);
+                event.setFailed(failed);
+                event.commit();
+            }
+            if (callSite != null) {
+                SqlProfiler.record(sql, elapsed, rows, callSite);
+            }
+            if (logged) {
+                SlowQueryLog.record(sql, elapsed, rows);
+            }
+        }
+    }
+
+    /**
+     * ResultSet de una consulta con evento pendiente.
+     */
+    private static final class TracedResultSet implements InvocationHandler {
+        private final ResultSet resultSet;
+        private final Execution execution;
+
+        private TracedResultSet(ResultSet resultSet, Execution execution) {
+            this.resultSet = resultSet;
+            this.execution = execution;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    finish();
+                    return SqlTracing.invoke(resultSet, method, args);
+                case "next":
+                    Object hasRow = SqlTracing.invoke(resultSet, method, args);
+                    if (Boolean.TRUE.equals(hasRow)) {
+                        execution.rows++;
+                    }
+                    return hasRow;
+                default:
+                    return SqlTracing.invoke(resultSet, method, args);
+            }
+        }
+
+        private void finish() {
+            execution.finish();
+        }
+    }
+
+    /**
+     * Forma de la sentencia: espacios normalizados y, si el SQL llega al ejecutar, literales sustituidos por ?
+     * para que las ejecuciones de la misma consulta se agrupen.
+     */
+    private static String shape(String preparedSql, Object[] args) {
+        String sql = preparedSql;
+        if (sql == null && args != null && args.length > 0 && args[0] instanceof String) {
+            sql = NUMBER_LITERAL.matcher(STRING_LITERAL.matcher((String) args[0]).replaceAll("?")).replaceAll("?");
+        }
+        if (sql == null) {
+            return null;
+        }
+        sql = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        // Las listas IN y los INSERT de varias filas tienen la misma forma sea cual sea su longitud
+        sql = IN_LIST.matcher(sql).replaceAll("IN (?, ...)");
+        sql = REPEATED_ROWS.matcher(sql).replaceAll("$1, ...");
+        return sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) : sql;
+    }
+}
@@ -0,0 +1,220 @@
+package com.eiman.olimpiada.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché LRU de sentencias preparadas de una conexión física, indexada por el texto SQL.
+ * <p>
+ * Los DAOs siguen preparando y cerrando la sentencia en cada llamada; lo que reciben es un envoltorio cuyo
+ * {@code close()} devuelve la sentencia a la caché (limpiando parámetros y lotes) en lugar de cerrarla.
+ * Con {@code useServerPrepStmts} la sentencia queda preparada en el servidor, así que las consultas repetidas
+ * no vuelven a analizarse ni a planificarse.
+ * <p>
+ * Una conexión solo la usa el hilo que la tiene prestada, por eso la caché no está sincronizada.
+ */
+final class StatementCache {
+
+    private final int capacity;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private final Map<String, CachedStatement> statements;
+    private long leaseCounter;
+
+    StatementCache(int capacity, LongAdder hits, LongAdder misses, LongAdder evictions) {
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() > StatementCache.this.capacity) {
+                    StatementCache.this.evictions.increment();
+                    eldest.getValue().evict();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Devuelve una sentencia preparada para el SQL indicado, reutilizando la de la caché si está libre.
+     *
+     * @param physical          Conexión física sobre la que se prepara la sentencia.
+     * @param owner             Conexión que ve el DAO (la devuelve {@code getConnection()} de la sentencia).
+     * @param sql               Texto SQL.
+     * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} o {@link Statement#NO_GENERATED_KEYS}.
+     */
+    PreparedStatement prepare(Connection physical, Connection owner, String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.inUse) {
+            hits.increment();
+        } else {
+            misses.increment();
+            PreparedStatement statement = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS
+                    ? physical.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                    : physical.prepareStatement(sql);
+            if (cached != null) {
+                // La misma sentencia ya está en uso en esta conexión: se da una sin cachear
+                CachedStatement transientStatement = new CachedStatement(statement, sql);
+                transientStatement.evicted = true;
+                return transientStatement.lease(owner, ++leaseCounter);
+            }
+            cached = new CachedStatement(statement, sql);
+            statements.put(key, cached);
+        }
+        return cached.lease(owner, ++leaseCounter);
+    }
+
+    /**
+     * Recupera las sentencias que el DAO no cerró antes de devolver la conexión al pool.
+     */
+    void releaseAll() {
+        for (CachedStatement cached : statements.values()) {
+            if (cached.inUse) {
+                cached.release();
+            }
+        }
+    }
+
+    /**
+     * Cierra todas las sentencias (al cerrar la conexión física).
+     */
+    void closeAll() {
+        List<CachedStatement> all = new ArrayList<>(statements.values());
+        statements.clear();
+        for (CachedStatement cached : all) {
+            cached.evict();
+        }
+    }
+
+    /**
+     * Sentencia física de la caché junto con su estado de préstamo.
+     */
+    private static final class CachedStatement {
+        private final PreparedStatement physical;
+        private final String sql;
+        private boolean inUse;
+        private boolean evicted;
+        private long lease;
+        private ResultSet openResultSet;
+
+        private CachedStatement(PreparedStatement physical, String sql) {
+            this.physical = physical;
+            this.sql = sql;
+        }
+
+        private PreparedStatement lease(Connection owner, long leaseId) {
+            inUse = true;
+            lease = leaseId;
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new StatementHandle(this, owner, leaseId));
+        }
+
+        /**
+         * Deja la sentencia lista para el siguiente uso, o la cierra si ya salió de la caché.
+         */
+        private void release() {
+            inUse = false;
+            lease = -1;
+            try {
+                if (openResultSet != null) {
+                    openResultSet.close();
+                    openResultSet = null;
+                }
+                if (evicted) {
+                    physical.close();
+                } else {
+                    physical.clearParameters();
+                    physical.clearBatch();
+                    physical.clearWarnings();
+                }
+            } catch (SQLException e) {
+                evicted = true;
+                closeQuietly();
+            }
+        }
+
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                // La sentencia ya no se va a usar
+            }
+        }
+    }
+
+    /**
+     * Envoltorio de una sentencia prestada. Solo es válido mientras dura el préstamo con el que se creó.
+     */
+    private static final class StatementHandle implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection owner;
+        private final long lease;
+
+        private StatementHandle(CachedStatement cached, Connection owner, long lease) {
+            this.cached = cached;
+            this.owner = owner;
+            this.lease = lease;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            boolean current = cached.lease == lease;
+            switch (method.getName()) {
+                case "close":
+                    if (current) {
+                        cached.release();
+                    }
+                    return null;
+                case "isClosed":
+                    return !current || cached.physical.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.physical + "]";
+                default:
+                    if (!current) {
+                        throw new SQLException("La sentencia ya se cerró.");
+                    }
+                    if (method.getName().startsWith("execute") && cached.openResultSet != null) {
+                        // Ejecutar cierra el ResultSet anterior; se cierra aquí para que registre su evento
+                        cached.openResultSet.close();
+                        cached.openResultSet = null;
+                    }
+                    Object result = SqlTracing.execute(cached.sql, cached.physical, method, args);
+                    if (result instanceof ResultSet) {
+                        // Se recuerda para cerrarlo al devolver la sentencia a la caché
+                        cached.openResultSet = (ResultSet) result;
+                    }
+                    return result;
+            }
+        }
+    }
+}
@@ -1,15 +1,16 @@
 package com.eiman.olimpiada.controller;
 
 import com.eiman.olimpiada.dao.DeporteDAO;
+import com.eiman.olimpiada.log.Log;
+import com.eiman.olimpiada.metrics.FormSaveEvent;
+import com.eiman.olimpiada.metrics.SqlProfiler;
 import com.eiman.olimpiada.model.Deporte;
-import javafx.collections.ObservableList;
+import com.eiman.olimpiada.service.DBExecutor;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
-import java.sql.Connection;
-import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -20,14 +21,14 @@ import java.util.ResourceBundle;
  */
 public class DeporteController {
 
+    private static final Log LOG = Log.get(DeporteController.class);
+
     @FXML
     private TextField nombreField;
 
-    private DeporteDAO deporteDAO;
     private Deporte deporte;
     private ResourceBundle bundle;
     private boolean editMode;
-    private Connection connection;
 
     /**
      * Constructor vacío para la inicialización.
@@ -36,14 +37,6 @@ public class DeporteController {
         this.bundle = ResourceBundle.getBundle("lang.messages", Locale.getDefault());
     }
 
-    /**
-     * Establece la conexión a la base de datos.
-     */
-    public void setConnection(Connection connection) {
-        this.connection = connection;
-        this.deporteDAO = new DeporteDAO();
-    }
-
     public void setEditMode(boolean editMode) {
         this.editMode = editMode;
     }
@@ -51,7 +44,7 @@ public class DeporteController {
     /**
      * Establece los datos de la fila seleccionada en el controlador.
      */
-    public void setData(ObservableList<String> row) {
+    public void setData(List<String> row) {
         nombreField.setText(row.get(1));  // Nombre del deporte
     }
 
@@ -79,29 +72,39 @@ public class DeporteController {
             return;
         }
 
-        try {
-            closeWindow();
-            Deporte deporte = new Deporte();
-            deporte.setNombre(nombre);
-
-            boolean success;
-            if (editMode) {
-                deporte.setId(getData().getId()); // Asignar el ID para editar
-                success = DeporteDAO.updateDeporte(deporte);
-            } else {
-                success = DeporteDAO.insertDeporte(deporte);
-            }
+        Deporte deporte = new Deporte();
+        deporte.setNombre(nombre);
+        if (editMode) {
+            deporte.setId(getData().getId()); // Asignar el ID para editar
+        }
 
+        // Guardar en segundo plano; el formulario se cierra cuando termina
+        setFormDisabled(true);
+        FormSaveEvent save = FormSaveEvent.start("Deporte", editMode);
+        SqlProfiler.Action profile = SqlProfiler.beginAction("save:Deporte");
+        DBExecutor.submit(() -> editMode ? DeporteDAO.updateDeporte(deporte) : DeporteDAO.insertDeporte(deporte), success -> {
+            save.finish(success);
+            closeWindow();
             if (success) {
                 showAlert(bundle.getString("alert.success_save"), Alert.AlertType.INFORMATION);
                 clearFields();
             } else {
                 showAlert(bundle.getString("alert.error_save"), Alert.AlertType.ERROR);
             }
-        } catch (SQLException e) {
+        }, error -> {
+            save.finish(false);
+            closeWindow();
             showAlert(bundle.getString("alert.error_database"), Alert.AlertType.ERROR);
-            e.printStackTrace();
-        }
+            LOG.error("Error al guardar", error, "form", "Deporte", "update", editMode);
+        });
+        profile.close();
+    }
+
+    /**
+     * Bloquea el formulario mientras se guarda.
+     */
+    private void setFormDisabled(boolean disabled) {
+        nombreField.getScene().getRoot().setDisable(disabled);
     }
 
     /**
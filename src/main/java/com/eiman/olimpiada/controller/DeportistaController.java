@@ -1,8 +1,11 @@
 package com.eiman.olimpiada.controller;
 
-import com.eiman.olimpiada.dao.DeporteDAO;
 import com.eiman.olimpiada.dao.DeportistaDAO;
+import com.eiman.olimpiada.log.Log;
+import com.eiman.olimpiada.metrics.FormSaveEvent;
+import com.eiman.olimpiada.metrics.SqlProfiler;
 import com.eiman.olimpiada.model.Deportista;
+import com.eiman.olimpiada.service.DBExecutor;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -17,8 +20,6 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.sql.Connection;
-import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -29,10 +30,11 @@ import java.util.ResourceBundle;
  */
 public class DeportistaController {
 
+    private static final Log LOG = Log.get(DeportistaController.class);
+
     private ResourceBundle bundle;
     private boolean editMode = false; // Indica si estamos en modo edición
     private Deportista deportista;
-    private Connection connection;
 
     @FXML
     private TextField nombreField;
@@ -48,21 +50,13 @@ public class DeportistaController {
     private ImageView fotoImageView;
 
     private byte[] fotoBytes;
+    private boolean fotoChanged; // El usuario ha elegido o quitado la foto
     private ToggleGroup sexoGroup;
-    private DeporteDAO deporteDAO;
 
     public DeportistaController() {
         this.bundle = ResourceBundle.getBundle("lang.messages", Locale.getDefault());
     }
 
-    /**
-     * Establece la conexión a la base de datos.
-     */
-    public void setConnection(Connection connection) {
-        this.connection = connection;
-        this.deporteDAO = new DeporteDAO();
-    }
-
     @FXML
     public void initialize() {
         // Configuración del ToggleGroup para los RadioButtons de sexo
@@ -88,6 +82,21 @@ public class DeportistaController {
         alturaField.setText(String.valueOf(deportista.getAltura()));
         masculinoRadio.setSelected(deportista.getSexo() == Deportista.Sexo.M);
         femeninoRadio.setSelected(deportista.getSexo() == Deportista.Sexo.F);
+
+        loadFoto(deportista.getId());
+    }
+
+    /**
+     * Carga en segundo plano la foto del deportista, que no viene en los listados.
+     * Si el usuario ya ha elegido otra foto o la ha quitado mientras tanto, se conserva su cambio.
+     */
+    private void loadFoto(int idDeportista) {
+        DBExecutor.submit(() -> DeportistaDAO.getFotoById(idDeportista), foto -> {
+            if (foto != null && !fotoChanged) {
+                fotoBytes = foto;
+                fotoImageView.setImage(new Image(new ByteArrayInputStream(foto)));
+            }
+        }, error -> LOG.error("Error al cargar la foto", error, "id", idDeportista));
     }
 
     /**
@@ -123,15 +132,23 @@ public class DeportistaController {
         if (selectedFile != null) {
             try {
                 fotoBytes = Files.readAllBytes(selectedFile.toPath());
+                fotoChanged = true;
                 Image image = new Image(new FileInputStream(selectedFile));
                 fotoImageView.setImage(image);
             } catch (IOException e) {
                 showAlert(bundle.getString("alert.error_loading_image"), Alert.AlertType.ERROR);
-                e.printStackTrace();
+                LOG.error("Error al leer la imagen", e, "file", selectedFile);
             }
         }
     }
 
+    @FXML
+    private void handleRemovePhoto() {
+        fotoBytes = null;
+        fotoChanged = true;
+        fotoImageView.setImage(null);
+    }
+
     /**
      * Maneja la acción de guardar el deportista, validando los datos antes de enviar al DAO.
      */
@@ -162,26 +179,35 @@ public class DeportistaController {
         this.deportista.setPeso(Double.parseDouble(pesoField.getText()));
         this.deportista.setAltura(Double.parseDouble(alturaField.getText()));
         this.deportista.setSexo(masculinoRadio.isSelected() ? Deportista.Sexo.M : Deportista.Sexo.F);
-
-        try {
-            closeWindow();
-            boolean success;
+        this.deportista.setFoto(fotoBytes);
+        this.deportista.setFotoChanged(fotoChanged); // Sin cambios se deja la foto guardada, aunque no se haya cargado
+
+        // Guardar en segundo plano; el formulario se cierra cuando termina
+        Deportista toSave = this.deportista;
+        nombreField.getScene().getRoot().setDisable(true);
+        FormSaveEvent save = FormSaveEvent.start("Deportista", editMode);
+        SqlProfiler.Action profile = SqlProfiler.beginAction("save:Deportista");
+        DBExecutor.submit(() -> {
             if (editMode) {
-                success = DeportistaDAO.updateDeportista(deportista); // Actualizar si es modo edición
-            } else {
-                success = DeportistaDAO.insertDeportista(deportista); // Insertar si es nuevo
+                return DeportistaDAO.updateDeportista(toSave); // Actualizar si es modo edición
             }
-
+            return DeportistaDAO.insertDeportista(toSave); // Insertar si es nuevo
+        }, success -> {
+            save.finish(success);
+            closeWindow();
             if (success) {
                 showAlert(bundle.getString("alert.success_save"), Alert.AlertType.INFORMATION);
                 clearFields();
             } else {
                 showAlert(bundle.getString("alert.error_save"), Alert.AlertType.ERROR);
             }
-        } catch (SQLException e) {
+        }, error -> {
+            save.finish(false);
+            closeWindow();
             showAlert(bundle.getString("alert.error_database"), Alert.AlertType.ERROR);
-            e.printStackTrace();
-        }
+            LOG.error("Error al guardar", error, "form", "Deportista", "update", editMode);
+        });
+        profile.close();
     }
 
 
@@ -204,6 +230,7 @@ public class DeportistaController {
         alturaField.clear();
         fotoImageView.setImage(null);
         fotoBytes = null;
+        fotoChanged = false;
     }
 
     private void closeWindow() {
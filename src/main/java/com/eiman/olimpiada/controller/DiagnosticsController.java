@@ -0,0 +1,172 @@
+package com.eiman.olimpiada.controller;
+
+import com.eiman.olimpiada.config.ConnectionPool;
+import com.eiman.olimpiada.config.DBConfig;
+import com.eiman.olimpiada.dao.NameDictionary;
+import com.eiman.olimpiada.metrics.DaoMetrics;
+import com.eiman.olimpiada.metrics.FxStallWatchdog;
+import com.eiman.olimpiada.metrics.OperationStats;
+import com.eiman.olimpiada.metrics.SlowQueryLog;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.fxml.FXML;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.util.Duration;
+
+import java.text.MessageFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ResourceBundle;
+import java.util.function.ToLongFunction;
+
+/**
+ * Controlador del panel de rendimiento: muestra el estado del pool de conexiones, las cachés, la memoria, la
+ * latencia del hilo de JavaFX, los percentiles de cada operación de los DAOs y las sentencias recientes más lentas.
+ * <p>
+ * Los datos se leen de las métricas que ya mantiene la aplicación, una vez por segundo y solo mientras la ventana
+ * está abierta; el registro de sentencias lentas también se activa únicamente durante ese tiempo.
+ */
+public class DiagnosticsController {
+
+    private static final Duration REFRESH_INTERVAL = Duration.seconds(1);
+    private static final int SLOW_QUERY_LIMIT = 20;
+    private static final long MB = 1024 * 1024;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss")
+            .withZone(ZoneId.systemDefault());
+
+    @FXML private Label poolConnectionsLabel;
+    @FXML private Label poolWaitsLabel;
+    @FXML private Label statementCacheLabel;
+    @FXML private Label nameCacheLabel;
+    @FXML private ProgressBar heapBar;
+    @FXML private Label heapLabel;
+    @FXML private Label fxPulseLabel;
+
+    @FXML private TableView<OperationStats> daoTable;
+    @FXML private TableColumn<OperationStats, String> operationColumn;
+    @FXML private TableColumn<OperationStats, Number> callsColumn;
+    @FXML private TableColumn<OperationStats, Number> errorsColumn;
+    @FXML private TableColumn<OperationStats, Number> meanColumn;
+    @FXML private TableColumn<OperationStats, Number> p50Column;
+    @FXML private TableColumn<OperationStats, Number> p99Column;
+    @FXML private TableColumn<OperationStats, Number> p999Column;
+    @FXML private TableColumn<OperationStats, Number> maxColumn;
+
+    @FXML private TableView<SlowQueryLog.Entry> slowQueryTable;
+    @FXML private TableColumn<SlowQueryLog.Entry, Number> durationColumn;
+    @FXML private TableColumn<SlowQueryLog.Entry, Number> rowsColumn;
+    @FXML private TableColumn<SlowQueryLog.Entry, String> timeColumn;
+    @FXML private TableColumn<SlowQueryLog.Entry, String> sqlColumn;
+
+    @FXML private ResourceBundle resources;
+
+    private Timeline refresher;
+
+    @FXML
+    private void initialize() {
+        operationColumn.setCellValueFactory(param -> new SimpleStringProperty(param.getValue().getName()));
+        callsColumn.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue().getCount()));
+        errorsColumn.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue().getErrors()));
+        meanColumn.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(millis(param.getValue().getMeanNanos())));
+        bindMillis(p50Column, OperationStats::getP50Nanos);
+        bindMillis(p99Column, OperationStats::getP99Nanos);
+        bindMillis(p999Column, OperationStats::getP999Nanos);
+        bindMillis(maxColumn, OperationStats::getMaxNanos);
+        daoTable.getSortOrder().add(p99Column);
+        p99Column.setSortType(TableColumn.SortType.DESCENDING);
+
+        durationColumn.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(millis(param.getValue().getNanos())));
+        rowsColumn.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue().getRows()));
+        timeColumn.setCellValueFactory(param -> new SimpleStringProperty(
+                TIME_FORMAT.format(Instant.ofEpochMilli(param.getValue().getTimestamp()))));
+        sqlColumn.setCellValueFactory(param -> new SimpleStringProperty(param.getValue().getSql()));
+
+        refresher = new Timeline(new KeyFrame(REFRESH_INTERVAL, event -> refresh()));
+        refresher.setCycleCount(Animation.INDEFINITE);
+    }
+
+    private static void bindMillis(TableColumn<OperationStats, Number> column, ToLongFunction<OperationStats> nanos) {
+        column.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(millis(nanos.applyAsLong(param.getValue()))));
+    }
+
+    /**
+     * Milisegundos con dos decimales, para que las columnas se ordenen como números y se lean con facilidad.
+     */
+    private static double millis(double nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    /**
+     * Empieza a refrescar el panel. Se llama al abrir la ventana.
+     */
+    public void start() {
+        SlowQueryLog.enable();
+        refresh();
+        refresher.play();
+    }
+
+    /**
+     * Deja de refrescar el panel y de registrar sentencias. Se llama al cerrar la ventana.
+     */
+    public void stop() {
+        refresher.stop();
+        SlowQueryLog.disable();
+    }
+
+    private void refresh() {
+        ConnectionPool pool = DBConfig.getOpenPool();
+        if (pool == null) {
+            poolConnectionsLabel.setText(resources.getString("diag.pool.closed"));
+            poolWaitsLabel.setText("");
+            statementCacheLabel.setText("");
+        } else {
+            ConnectionPool.Stats stats = pool.getStats();
+            poolConnectionsLabel.setText(MessageFormat.format(resources.getString("diag.pool.connections"),
+                    stats.getActiveConnections(), stats.getIdleConnections(), stats.getTotalConnections(),
+                    stats.getMaxSize()));
+            poolWaitsLabel.setText(MessageFormat.format(resources.getString("diag.pool.waits"),
+                    stats.getWaitingThreads(), stats.getAverageWaitMs(), stats.getMaxWaitMs(),
+                    stats.getBorrowTimeouts(), stats.getLeaksDetected()));
+            statementCacheLabel.setText(MessageFormat.format(resources.getString("diag.cache.statements"),
+                    stats.getStatementCacheHitRatio(), stats.getStatementCacheHits(),
+                    stats.getStatementCacheMisses(), stats.getStatementCacheEvictions()));
+        }
+
+        long lookups = 0;
+        long loads = 0;
+        for (NameDictionary dictionary : new NameDictionary[]{NameDictionary.DEPORTE, NameDictionary.EQUIPO,
+                NameDictionary.OLIMPIADA, NameDictionary.EVENTO}) {
+            lookups += dictionary.getLookupCount();
+            loads += dictionary.getLoadCount();
+        }
+        double nameHitRatio = lookups == 0 ? 0 : (double) (lookups - loads) / lookups;
+        nameCacheLabel.setText(MessageFormat.format(resources.getString("diag.cache.names"), nameHitRatio,
+                lookups, loads));
+
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        heapBar.setProgress((double) used / runtime.maxMemory());
+        heapLabel.setText(MessageFormat.format(resources.getString("diag.heap.usage"), used / MB,
+                runtime.totalMemory() / MB, runtime.maxMemory() / MB));
+
+        OperationStats pulse = FxStallWatchdog.getPulseStats();
+        if (pulse == null) {
+            fxPulseLabel.setText(resources.getString("diag.fx.disabled"));
+        } else {
+            fxPulseLabel.setText(MessageFormat.format(resources.getString("diag.fx.pulse"),
+                    millis(pulse.getP50Nanos()), millis(pulse.getP99Nanos()), millis(pulse.getMaxNanos()),
+                    pulse.getErrors()));
+        }
+
+        daoTable.getItems().setAll(DaoMetrics.snapshot());
+        daoTable.sort();
+        slowQueryTable.getItems().setAll(SlowQueryLog.getSlowest(SLOW_QUERY_LIMIT));
+    }
+}
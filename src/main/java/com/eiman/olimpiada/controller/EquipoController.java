@@ -1,16 +1,17 @@
 package com.eiman.olimpiada.controller;
 
 import com.eiman.olimpiada.dao.EquipoDAO;
-import com.eiman.olimpiada.dao.OlimpiadaDAO;
+import com.eiman.olimpiada.log.Log;
+import com.eiman.olimpiada.metrics.FormSaveEvent;
+import com.eiman.olimpiada.metrics.SqlProfiler;
 import com.eiman.olimpiada.model.Equipo;
+import com.eiman.olimpiada.service.DBExecutor;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
-import java.sql.Connection;
-import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -21,14 +22,14 @@ import java.util.ResourceBundle;
  */
 public class EquipoController {
 
+    private static final Log LOG = Log.get(EquipoController.class);
+
     @FXML
     private TextField nombreField;
     @FXML
     private TextField inicialesField;
 
-    private EquipoDAO equipoDAO;
     private Equipo equipo;
-    private Connection connection;
     private ResourceBundle bundle;
     private boolean editMode;
 
@@ -36,16 +37,6 @@ public class EquipoController {
         this.bundle = ResourceBundle.getBundle("lang.messages", Locale.getDefault());
     }
 
-    /**
-     * Establece la conexión a la base de datos.
-     *
-     * @param connection La conexión de base de datos a usar en este controlador.
-     */
-    public void setConnection(Connection connection) {
-        this.connection = connection;
-        this.equipoDAO = new EquipoDAO();
-    }
-
     public void setEditMode(boolean editMode) {
         this.editMode = editMode;
     }
@@ -93,27 +84,40 @@ public class EquipoController {
             return;
         }
 
-        try {
-            closeWindow();
-            Equipo equipo = getData(); // Obtener datos del formulario
-            boolean success;
+        Equipo equipo = getData(); // Obtener datos del formulario
+
+        // Guardar en segundo plano; el formulario se cierra cuando termina
+        setFormDisabled(true);
+        FormSaveEvent save = FormSaveEvent.start("Equipo", editMode);
+        SqlProfiler.Action profile = SqlProfiler.beginAction("save:Equipo");
+        DBExecutor.submit(() -> {
             if (editMode) {
-                success = equipoDAO.updateEquipo(equipo);  // Llamar a update si está en modo edición
-            } else {
-                success = equipoDAO.insertEquipo(equipo);  // Insertar si es nuevo
+                return EquipoDAO.updateEquipo(equipo);  // Llamar a update si está en modo edición
             }
-
+            return EquipoDAO.insertEquipo(equipo);  // Insertar si es nuevo
+        }, success -> {
+            save.finish(success);
+            closeWindow();
             if (success) {
                 showAlert(bundle.getString("alert.success_save"), Alert.AlertType.INFORMATION);
                 clearFields();
-                closeWindow();
             } else {
                 showAlert(bundle.getString("alert.error_save"), Alert.AlertType.ERROR);
             }
-        } catch (SQLException e) {
+        }, error -> {
+            save.finish(false);
+            closeWindow();
             showAlert(bundle.getString("alert.error_database"), Alert.AlertType.ERROR);
-            e.printStackTrace();
-        }
+            LOG.error("Error al guardar", error, "form", "Equipo", "update", editMode);
+        });
+        profile.close();
+    }
+
+    /**
+     * Bloquea el formulario mientras se guarda.
+     */
+    private void setFormDisabled(boolean disabled) {
+        nombreField.getScene().getRoot().setDisable(disabled);
     }
 
     /**
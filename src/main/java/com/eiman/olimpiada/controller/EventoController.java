@@ -3,7 +3,11 @@ package com.eiman.olimpiada.controller;
 import com.eiman.olimpiada.dao.DeporteDAO;
 import com.eiman.olimpiada.dao.EventoDAO;
 import com.eiman.olimpiada.dao.OlimpiadaDAO;
+import com.eiman.olimpiada.log.Log;
+import com.eiman.olimpiada.metrics.FormSaveEvent;
+import com.eiman.olimpiada.metrics.SqlProfiler;
 import com.eiman.olimpiada.model.Evento;
+import com.eiman.olimpiada.service.DBExecutor;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
@@ -11,17 +15,15 @@ import javafx.scene.control.ComboBox;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
-import java.sql.Connection;
-import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
 
 public class EventoController {
 
-    private EventoDAO eventoDAO;
+    private static final Log LOG = Log.get(EventoController.class);
+
     private Evento evento;
-    private Connection connection;
     private ResourceBundle bundle;
     private boolean editMode;
 
@@ -36,13 +38,6 @@ public class EventoController {
         this.bundle = ResourceBundle.getBundle("lang.messages");
     }
 
-    public void setConnection(Connection connection) {
-        this.connection = connection;
-        this.eventoDAO = new EventoDAO();
-        eventoDAO.setConnection(connection);
-        loadComboBoxData(); // Cargar datos en los ComboBox cuando se establece la conexión
-    }
-
     @FXML
     private void initialize() {
         loadComboBoxData();
@@ -52,11 +47,20 @@ public class EventoController {
         this.editMode = editMode;
     }
 
-    public void setData(Evento evento) throws SQLException {
+    public void setData(Evento evento) {
         this.evento = evento;
         nombreField.setText(evento.getNombre());
-        deporteComboBox.setValue(DeporteDAO.getNameById(evento.getIdDeporte())); // Cargar nombre del deporte
-        olimpiadaComboBox.setValue(OlimpiadaDAO.getNameById(evento.getIdOlimpiada())); // Cargar nombre de la olimpiada
+        // Los nombres del deporte y la olimpiada salen del diccionario en memoria (se carga en segundo plano la primera vez)
+        DBExecutor.submit(() -> new String[]{
+                DeporteDAO.getNameById(evento.getIdDeporte()),
+                OlimpiadaDAO.getNameById(evento.getIdOlimpiada())
+        }, names -> {
+            deporteComboBox.setValue(names[0]); // Cargar nombre del deporte
+            olimpiadaComboBox.setValue(names[1]); // Cargar nombre de la olimpiada
+        }, error -> {
+            showAlert(bundle.getString("alert.error_database"), Alert.AlertType.ERROR);
+            LOG.error("Error al cargar los nombres del evento", error, "id", evento.getId());
+        });
     }
 
     @FXML
@@ -83,42 +87,62 @@ public class EventoController {
             return;
         }
 
-        try {
-            // Configurar el evento
-            if (evento == null) {
-                evento = new Evento(); // Crear un nuevo evento si no existe
-            }
-            evento.setNombre(nombre);
-            evento.setIdDeporte(DeporteDAO.getIdByName(deporte));
-            evento.setIdOlimpiada(OlimpiadaDAO.getIdByName(olimpiada));
+        // Configurar el evento
+        if (evento == null) {
+            evento = new Evento(); // Crear un nuevo evento si no existe
+        }
+        evento.setNombre(nombre);
+        Evento toSave = evento;
 
-            // Intentar guardar o actualizar según el modo de edición
-            boolean success = editMode ? eventoDAO.updateEvento(evento) : eventoDAO.insertEvento(evento);
+        // Resolver los IDs y guardar en segundo plano
+        setFormDisabled(true);
+        FormSaveEvent save = FormSaveEvent.start("Evento", editMode);
+        SqlProfiler.Action profile = SqlProfiler.beginAction("save:Evento");
+        DBExecutor.submit(() -> {
+            toSave.setIdDeporte(DeporteDAO.getIdByName(deporte));
+            toSave.setIdOlimpiada(OlimpiadaDAO.getIdByName(olimpiada));
 
+            // Intentar guardar o actualizar según el modo de edición
+            return editMode ? EventoDAO.updateEvento(toSave) : EventoDAO.insertEvento(toSave);
+        }, success -> {
+            save.finish(success);
             if (success) {
                 showAlert(bundle.getString("alert.success_save"), Alert.AlertType.INFORMATION);
                 clearFields();
                 closeWindow();
             } else {
+                setFormDisabled(false);
                 showAlert(bundle.getString("alert.error_save"), Alert.AlertType.ERROR);
             }
-        } catch (SQLException e) {
+        }, error -> {
+            save.finish(false);
+            setFormDisabled(false);
             showAlert(bundle.getString("alert.error_database"), Alert.AlertType.ERROR);
-            e.printStackTrace();
-        }
+            LOG.error("Error al guardar", error, "form", "Evento", "update", editMode);
+        });
+        profile.close();
     }
 
     /**
-     * Carga datos en los ComboBox de deportes y olimpiadas.
+     * Carga datos en los ComboBox de deportes y olimpiadas en segundo plano.
      */
     private void loadComboBoxData() {
-        try {
-            deporteComboBox.setItems(FXCollections.observableArrayList(DeporteDAO.getAllDeporteNames()));
-            olimpiadaComboBox.setItems(FXCollections.observableArrayList(OlimpiadaDAO.getAllOlimpiadaNames()));
-        } catch (SQLException e) {
-            showAlert("Error al cargar datos en ComboBox", Alert.AlertType.ERROR);
-            e.printStackTrace();
-        }
+        DBExecutor.submit(DeporteDAO::getAllDeporteNames,
+                names -> deporteComboBox.setItems(FXCollections.observableArrayList(names)), this::handleComboBoxError);
+        DBExecutor.submit(OlimpiadaDAO::getAllOlimpiadaNames,
+                names -> olimpiadaComboBox.setItems(FXCollections.observableArrayList(names)), this::handleComboBoxError);
+    }
+
+    private void handleComboBoxError(Throwable error) {
+        showAlert("Error al cargar datos en ComboBox", Alert.AlertType.ERROR);
+        LOG.error("Error al cargar datos en ComboBox", error, "form", "Evento");
+    }
+
+    /**
+     * Bloquea el formulario mientras se guarda.
+     */
+    private void setFormDisabled(boolean disabled) {
+        nombreField.getScene().getRoot().setDisable(disabled);
     }
 
     @FXML
@@ -2,21 +2,46 @@ package com.eiman.olimpiada.controller;
 
 import com.eiman.olimpiada.config.DBConfig;
 import com.eiman.olimpiada.dao.*;
+import com.eiman.olimpiada.grid.GridCell;
+import com.eiman.olimpiada.grid.LazyGridList;
+import com.eiman.olimpiada.importer.ImportProgress;
+import com.eiman.olimpiada.importer.OlympicsCsvImporter;
+import com.eiman.olimpiada.log.Log;
+import com.eiman.olimpiada.metrics.FormOpenEvent;
+import com.eiman.olimpiada.metrics.SqlProfiler;
+import com.eiman.olimpiada.metrics.TableLoadEvent;
 import com.eiman.olimpiada.model.*;
-import javafx.beans.property.SimpleStringProperty;
+import com.eiman.olimpiada.service.DBExecutor;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import javafx.scene.control.skin.VirtualFlow;
+import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
+import javafx.util.Duration;
 
 import java.sql.*;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.io.File;
 import java.io.IOException;
 
 /**
@@ -25,23 +50,72 @@ import java.io.IOException;
  */
 public class MainController {
 
+    private static final Log LOG = Log.get(MainController.class);
+
     @FXML
     private ComboBox<String> tablaComboBox;
     @FXML private TextField filterField;
-    private FilteredList<ObservableList<String>> filteredData;
     @FXML
-    private TableView<ObservableList<String>> tablaView;
+    private CheckBox serverFilterCheckBox;
+    private ObservableList<GridRow> filteredData; // Resultado mostrado del filtro local
+    private SortedList<GridRow> sortedData; // Filas filtradas en el orden elegido en las cabeceras
+    @FXML
+    private TableView<GridRow> tablaView;
     @FXML
     private Button addButton, modifyButton, deleteButton;
+    @FXML
+    private ProgressIndicator loadingIndicator;
+    @FXML
+    private Button previousPageButton, nextPageButton;
+    @FXML
+    private Label pageLabel;
+    @FXML
+    private Menu fileMenu;
+    @FXML
+    private MenuItem importCsvMenuItem;
+    @FXML
+    private Menu toolsMenu;
+    @FXML
+    private MenuItem diagnosticsMenuItem;
+    @FXML
+    private ProgressBar importProgressBar;
+    @FXML
+    private Label importStatusLabel;
 
-    private Connection connection;
     private ResourceBundle bundle;
     private String currentTable;
+    private Stage diagnosticsStage; // Panel de rendimiento abierto, o null
+    // Cargas en curso por tabla, para mostrar el indicador y cancelar las que ya no se necesitan
+    private final Map<String, Task<?>> tableLoads = new HashMap<>();
+
+    // La tabla se muestra con una lista virtual que carga bloques bajo demanda
+    private static final int BLOCK_SIZE = 200;
+    private static final int MAX_BLOCKS = 16;
+    // Filas por "página" en la navegación de la barra inferior
+    private static final int PAGE_SIZE = 500;
+    private LazyGridList lazyData;
+    // Los dos filtros se aplican tras una pausa al escribir, no con cada tecla
+    private static final Duration FILTER_DELAY = Duration.millis(250);
+    private PauseTransition filterDelay;
+    // Filtro local: copia completa de la tabla, que solo se carga mientras se filtra, y búsqueda en segundo plano
+    private List<GridRow> fullData;
+    private Task<?> fullDataLoad;
+    private int fullDataVersion; // Cambia con cada fila modificada en la copia completa
+    private String clientFilterText; // Texto normalizado del resultado mostrado del filtro local
+    private Task<List<GridRow>> clientFilter;
+    // Filtro del servidor: las filas llegan página a página, a medida que se desplaza la vista hacia el final
+    private static final int SERVER_FILTER_PAGE_SIZE = 200;
+    private ObservableList<GridRow> serverData; // Resultado mostrado del filtro del servidor
+    private GridPage serverFilterNext; // Última página de serverData, mientras queden filas por pedir
+    private String serverFilterText; // Texto del resultado mostrado o de la consulta en curso
+    private Task<?> serverFilterLoad;
+    private VirtualFlow<?> virtualFlow;
+    private int pendingScrollIndex = -1;
 
     /**
      * Inicializa el controlador, configurando las opciones de la interfaz principal.
      */
-    public void initialize() throws SQLException {
+    public void initialize() {
         setLanguage("es");
         tablaComboBox.setItems(FXCollections.observableArrayList("Deportista", "Equipo", "Evento", "Olimpiada", "Participacion", "Deporte"));
         tablaComboBox.getSelectionModel().selectedItemProperty().addListener((obs, oldTable, newTable) -> {
@@ -53,98 +127,640 @@ public class MainController {
 
         bundle = ResourceBundle.getBundle("lang.messages"); // Cargar archivo de mensajes
 
-        try {
-            // Configurar la conexión a la base de datos
-            connection = DBConfig.getConnection();
-            if (connection != null) {
-                // Configuración de conexión en los DAOs
-                DeportistaDAO.setConnection(connection);
-                EventoDAO.setConnection(connection);
-                EquipoDAO.setConnection(connection);
-                OlimpiadaDAO.setConnection(connection);
-                ParticipacionDAO.setConnection(connection);
-                DeporteDAO.setConnection(connection);
-            } else {
-                showAlert("alert.error_database", Alert.AlertType.ERROR);
-            }
-        } catch (SQLException e) {
-            showAlert("alert.error_database", Alert.AlertType.ERROR);
-            e.printStackTrace();
-        }
+        // Inicializar el pool de conexiones en segundo plano; los DAOs piden una conexión por operación
+        DBExecutor.submit(DBConfig::getPool, pool -> { }, error -> {
+            showAlert(bundle.getString("alert.error_database"), Alert.AlertType.ERROR);
+            LOG.error("Error al inicializar el pool de conexiones", error);
+        });
 
         // Listener para el filtro se asigna después de cargar la tabla
         filterField.textProperty().addListener((obs, oldValue, newValue) -> filterByName());
-    }
+        filterDelay = new PauseTransition(FILTER_DELAY);
+        filterDelay.setOnFinished(event -> applyFilter());
+        serverFilterCheckBox.selectedProperty().addListener((obs, wasSelected, selected) -> {
+            // Al cambiar de modo se descarta lo cargado por el otro
+            discardFilterData();
+            filterByName();
+        });
 
-    /**
-     * Configura la conexión de base de datos.
-     *
-     * @param connection Conexión de base de datos.
-     */
-    public void setConnection(Connection connection) {
-        this.connection = connection;
+        // Los cambios de filas hechos por los formularios se aplican fila a fila, sin recargar la tabla
+        TableChanges.addListener(change -> {
+            // La lectura de la fila cambiada cuenta como parte de la acción que la guardó
+            SqlProfiler.Action action = SqlProfiler.retainCurrent();
+            Platform.runLater(() -> {
+                SqlProfiler.Action previous = SqlProfiler.setCurrent(action);
+                try {
+                    applyTableChange(change);
+                } finally {
+                    SqlProfiler.setCurrent(previous);
+                    if (action != null) {
+                        action.release();
+                    }
+                }
+            });
+        });
+
+        // Filas de altura fija: el VirtualFlow no necesita medir cada fila al desplazarse
+        tablaView.setFixedCellSize(24);
+        tablaView.skinProperty().addListener((obs, oldSkin, newSkin) -> attachVirtualFlow());
+        // Solo se ordena la copia completa, con un comparador que compara los valores con su tipo
+        tablaView.setSortPolicy(view -> {
+            if (sortedData == null || view.getItems() != sortedData) {
+                return view.getSortOrder().isEmpty();
+            }
+            sortedData.setComparator(rowComparator(view.getSortOrder()));
+            return true;
+        });
     }
 
     /**
-     * Carga la tabla seleccionada y prepara `filteredData`.
+     * Carga en segundo plano el primer bloque de la tabla seleccionada y la muestra con una lista virtual.
      *
      * @param tableName Nombre de la tabla a cargar.
      */
     private void loadTable(String tableName) {
-        tablaView.getColumns().clear();
-        ObservableList<ObservableList<String>> data = FXCollections.observableArrayList();
-
-        String query = "SELECT * FROM " + tableName.toLowerCase();
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-
-            // Configuración de las columnas de la tabla
-            for (int i = 0; i < rs.getMetaData().getColumnCount(); i++) {
-                final int colIndex = i;
-                TableColumn<ObservableList<String>, String> column = new TableColumn<>(rs.getMetaData().getColumnName(i + 1));
-                column.setCellValueFactory(param -> new SimpleStringProperty(param.getValue().get(colIndex)));
-                tablaView.getColumns().add(column);
+        // Las cargas de otras tablas ya no se van a mostrar
+        tableLoads.entrySet().removeIf(entry -> {
+            if (!entry.getKey().equals(tableName)) {
+                entry.getValue().cancel();
+                return true;
             }
+            return false;
+        });
+        Task<?> previous = tableLoads.remove(tableName);
+        if (previous != null) {
+            previous.cancel();
+        }
 
-            // Llenado de datos y configuración de `filteredData`
-            while (rs.next()) {
-                ObservableList<String> row = FXCollections.observableArrayList();
-                for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
-                    row.add(rs.getString(i));
+        TableInfo table = TableInfo.fromName(tableName);
+        TableLoadEvent loadEvent = new TableLoadEvent();
+        loadEvent.setTable(tableName);
+        loadEvent.begin();
+        SqlProfiler.Action profile = SqlProfiler.beginAction("loadTable:" + tableName);
+        Task<TableData> task = DBExecutor.submit(() -> fetchFirstBlock(table), data -> {
+            loadEvent.setRows(data.firstBlock.getRows().size());
+            loadEvent.setEstimatedRows(data.estimatedRows);
+            loadEvent.commit();
+            if (tableName.equals(currentTable)) {
+                showTable(data);
+            }
+        }, error -> {
+            loadEvent.setFailed(true);
+            loadEvent.commit();
+            if (tableName.equals(currentTable)) {
+                showAlert(bundle.getString("alert.error_database"), Alert.AlertType.ERROR);
+            }
+            LOG.error("Error al cargar la tabla", error, "table", tableName);
+        });
+        profile.close();
+        tableLoads.put(tableName, task);
+        task.runningProperty().addListener((obs, wasRunning, running) -> {
+            if (!running && tableLoads.get(tableName) == task) {
+                tableLoads.remove(tableName);
+            }
+            updateLoadingIndicator();
+        });
+        updateLoadingIndicator();
+    }
+
+    /**
+     * Vuelve a cargar la tabla actual (tras guardar o eliminar) conservando la posición de desplazamiento.
+     */
+    private void reloadTable() {
+        pendingScrollIndex = getFirstVisibleIndex();
+        loadTable(currentTable);
+    }
+
+    /**
+     * Aplica a la tabla mostrada el cambio de una fila hecho por un DAO. Las filas insertadas o modificadas se
+     * leen por su clave; el resto de la tabla no se vuelve a leer, así que el coste no depende de su tamaño.
+     * Se mantienen la selección y la posición de desplazamiento.
+     * Un cambio {@link TableChange.Type#RELOADED} vuelve a leer la tabla.
+     */
+    private void applyTableChange(TableChange change) {
+        LazyGridList source = lazyData;
+        if (source == null || source.getTable() != change.getTable()) {
+            return; // Al cambiar de tabla se lee de nuevo
+        }
+        TableInfo table = change.getTable();
+        if (change.getType() == TableChange.Type.RELOADED) {
+            reloadTable(); // Un lote grande: se vuelve a leer la tabla en lugar de fila a fila
+            return;
+        }
+        if (change.getType() == TableChange.Type.DELETED) {
+            source.deleteRow(change.getKey());
+            if (fullData != null) {
+                int index = indexOfKey(fullData, change.getKey());
+                if (index >= 0) {
+                    fullData.remove(index);
+                    fullDataVersion++;
+                }
+            }
+            if (filteredData != null) {
+                int index = indexOfKey(filteredData, change.getKey());
+                if (index >= 0) {
+                    filteredData.remove(index);
+                }
+            }
+            if (serverData != null) {
+                int index = indexOfKey(serverData, change.getKey());
+                if (index >= 0) {
+                    serverData.remove(index);
+                }
+            }
+            updatePageControls();
+            return;
+        }
+        DBExecutor.submit(() -> GridDAO.getRow(table, change.getKey()), row -> {
+            if (lazyData != source || row == null) {
+                return; // Otra tabla, o la fila ya se ha eliminado
+            }
+            if (change.getType() == TableChange.Type.INSERTED) {
+                source.insertRow(row);
+            } else {
+                source.updateRow(row);
+            }
+            if (fullData != null) {
+                int index = indexOfKey(fullData, change.getKey());
+                if (index >= 0) {
+                    fullData.set(index, row);
+                } else {
+                    fullData.add(-index - 1, row);
+                }
+                fullDataVersion++;
+            }
+            if (filteredData != null && clientFilterText != null) {
+                // El resultado mostrado se corrige solo con la fila cambiada; la ordenación la vuelve a colocar
+                int index = indexOfKey(filteredData, change.getKey());
+                boolean matches = row.getSearchKey().contains(clientFilterText);
+                if (index >= 0 && matches) {
+                    filteredData.set(index, row);
+                } else if (index >= 0) {
+                    filteredData.remove(index);
+                } else if (matches) {
+                    filteredData.add(-index - 1, row);
                 }
-                data.add(row);
             }
+            if (serverData != null) {
+                // Solo se actualizan las filas ya encontradas; una fila nueva aparece al volver a filtrar
+                int index = indexOfKey(serverData, change.getKey());
+                if (index >= 0) {
+                    serverData.set(index, row);
+                }
+            }
+            updatePageControls();
+        }, error -> LOG.error("Error al leer la fila cambiada", error, "change", change));
+    }
+
+    /**
+     * Busca una fila por su clave en una lista ordenada por la clave primaria.
+     *
+     * @return La posición de la fila, o {@code -(posición de inserción) - 1} si no está.
+     */
+    private static int indexOfKey(List<GridRow> rows, int[] key) {
+        int low = 0;
+        int high = rows.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = TableInfo.compareKeys(rows.get(middle).getKey(), key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Lee el primer bloque de la tabla y la estimación de filas. Se llama desde un hilo del {@link DBExecutor},
+     * nunca desde el de JavaFX.
+     */
+    private static TableData fetchFirstBlock(TableInfo table) throws SQLException {
+        GridPage firstBlock = GridDAO.getPage(table, null, BLOCK_SIZE);
+        long estimate = RowCountEstimator.getEstimate(table);
+        return new TableData(table, firstBlock, estimate);
+    }
+
+    /**
+     * Configura las columnas y la lista virtual de la tabla. Se ejecuta en el hilo de JavaFX.
+     */
+    private void showTable(TableData tableData) {
+        discardTableData();
+        tablaView.getColumns().clear();
+
+        LazyGridList rows = new LazyGridList(tableData.table, tableData.firstBlock, tableData.estimatedRows, BLOCK_SIZE, MAX_BLOCKS);
+
+        // Configuración de las columnas de la tabla: cada celda lee el valor de la fila y le da formato al pintarse
+        for (int i = 0; i < rows.getColumnNames().size(); i++) {
+            final int colIndex = i;
+            TableColumn<GridRow, Void> column = new TableColumn<>(rows.getColumnNames().get(i));
+            column.setUserData(colIndex);
+            column.setCellFactory(param -> new GridCell(colIndex));
+            // La ordenación de una lista virtual obligaría a cargar toda la tabla
+            column.setSortable(false);
+            tablaView.getColumns().add(column);
+        }
+
+        lazyData = rows;
+        lazyData.addListener((ListChangeListener<GridRow>) change -> updatePageControls());
+        tablaView.setItems(lazyData);
+        if (pendingScrollIndex >= 0) {
+            tablaView.scrollTo(Math.min(pendingScrollIndex, Math.max(0, lazyData.size() - 1)));
+            pendingScrollIndex = -1;
+        }
+        filterByName();
+        updatePageControls();
+    }
+
+    /**
+     * Libera la lista virtual y la copia completa usada para filtrar.
+     */
+    private void discardTableData() {
+        if (lazyData != null) {
+            lazyData.dispose();
+            lazyData = null;
+        }
+        discardFilterData();
+    }
 
-            // Aplicar filtro a los datos cargados
-            filteredData = new FilteredList<>(data, p -> true);
-            tablaView.setItems(filteredData);
+    /**
+     * Libera lo cargado para filtrar: la copia completa o el resultado del filtro del servidor, con sus
+     * cargas pendientes.
+     */
+    private void discardFilterData() {
+        if (fullDataLoad != null) {
+            fullDataLoad.cancel();
+            fullDataLoad = null;
+        }
+        filterDelay.stop();
+        cancelClientFilter();
+        if (serverFilterLoad != null) {
+            serverFilterLoad.cancel();
+            serverFilterLoad = null;
+        }
+        fullData = null;
+        fullDataVersion = 0;
+        filteredData = null;
+        clientFilterText = null;
+        serverData = null;
+        serverFilterNext = null;
+        serverFilterText = null;
+        sortedData = null;
+        updateLoadingIndicator();
+    }
+
+    /**
+     * Localiza el VirtualFlow del TableView para seguir la posición de desplazamiento.
+     */
+    private void attachVirtualFlow() {
+        virtualFlow = (VirtualFlow<?>) tablaView.lookup(".virtual-flow");
+        if (virtualFlow != null) {
+            virtualFlow.positionProperty().addListener((obs, oldPos, newPos) -> {
+                updatePageControls();
+                loadMoreServerFilterRows();
+            });
+        }
+    }
+
+    private int getFirstVisibleIndex() {
+        if (virtualFlow == null) {
+            attachVirtualFlow();
+        }
+        if (virtualFlow != null && virtualFlow.getFirstVisibleCell() != null) {
+            return virtualFlow.getFirstVisibleCell().getIndex();
+        }
+        return 0;
+    }
 
-        } catch (SQLException e) {
-            System.err.println("Error al cargar la tabla: " + e.getMessage());
+    private int getLastVisibleIndex() {
+        if (virtualFlow == null) {
+            attachVirtualFlow();
         }
+        if (virtualFlow != null && virtualFlow.getLastVisibleCell() != null) {
+            return virtualFlow.getLastVisibleCell().getIndex();
+        }
+        return 0;
+    }
+
+    /**
+     * Desplaza la vista una página hacia arriba.
+     */
+    @FXML
+    private void handlePreviousPage() {
+        tablaView.scrollTo(Math.max(0, getFirstVisibleIndex() - PAGE_SIZE));
+        updatePageControls();
     }
 
     /**
-     * Maneja el filtro de búsqueda en la tabla actual.
+     * Desplaza la vista una página hacia abajo.
      */
     @FXML
+    private void handleNextPage() {
+        int size = tablaView.getItems() == null ? 0 : tablaView.getItems().size();
+        if (size > 0) {
+            tablaView.scrollTo(Math.min(size - 1, getFirstVisibleIndex() + PAGE_SIZE));
+            updatePageControls();
+        }
+    }
+
+    /**
+     * Actualiza el texto "página N de M" según la primera fila visible y los botones de navegación.
+     */
+    private void updatePageControls() {
+        int size = tablaView.getItems() == null ? 0 : tablaView.getItems().size();
+        if (currentTable == null || size == 0) {
+            pageLabel.setText("");
+            previousPageButton.setDisable(true);
+            nextPageButton.setDisable(true);
+            return;
+        }
+        int page = getFirstVisibleIndex() / PAGE_SIZE + 1;
+        int totalPages = (size + PAGE_SIZE - 1) / PAGE_SIZE;
+        pageLabel.setText(MessageFormat.format(bundle.getString("label.page"), page, totalPages));
+        previousPageButton.setDisable(page <= 1);
+        nextPageButton.setDisable(page >= totalPages);
+    }
+
+    /**
+     * Muestra el indicador de carga mientras la tabla actual se está cargando.
+     */
+    private void updateLoadingIndicator() {
+        boolean loading = currentTable != null && tableLoads.containsKey(currentTable);
+        loadingIndicator.setVisible(loading || fullDataLoad != null || clientFilter != null || serverFilterLoad != null);
+        addButton.setDisable(loading);
+        modifyButton.setDisable(loading);
+        deleteButton.setDisable(loading);
+    }
+
+    /**
+     * Maneja el filtro de búsqueda en la tabla actual. Sin texto se muestra la lista virtual en el acto; con
+     * texto se filtra cuando se deja de escribir ({@link #applyFilter()}).
+     */
     private void filterByName() {
-        if (filteredData != null) {
-            String filterText = filterField.getText().toLowerCase();
-            filteredData.setPredicate(row -> {
-                if (filterText.isEmpty()) return true;
-
-                // Ajusta para verificar cualquier columna si contiene el texto
-                for (String cell : (ObservableList<String>) row) {
-                    if (cell != null && cell.toLowerCase().contains(filterText)) {
-                        return true;
+        if (lazyData == null) {
+            return;
+        }
+        boolean serverMode = serverFilterCheckBox.isSelected();
+        String filterText = filterField.getText();
+        if (serverMode ? !filterText.isBlank() : !GridRow.normalizeForSearch(filterText).isEmpty()) {
+            filterDelay.playFromStart(); // Cada tecla reinicia la pausa
+            return;
+        }
+        filterDelay.stop();
+        if (serverMode) {
+            discardFilterData(); // El resultado y la consulta en curso ya no se necesitan
+        } else {
+            cancelClientFilter(); // La copia completa se conserva para el siguiente filtro
+        }
+        if (tablaView.getItems() != lazyData) {
+            tablaView.getSortOrder().clear();
+            tablaView.setItems(lazyData);
+            setColumnsSortable(false);
+        }
+        updatePageControls();
+    }
+
+    /**
+     * Aplica el filtro escrito, con el modo elegido: en el servidor ({@link #runServerFilter()}) o sobre la
+     * copia completa de la tabla ({@link #runClientFilter()}).
+     */
+    private void applyFilter() {
+        if (serverFilterCheckBox.isSelected()) {
+            runServerFilter();
+        } else {
+            runClientFilter();
+        }
+    }
+
+    /**
+     * Filtra la copia completa de la tabla, que se carga en segundo plano la primera vez. Cada fila se compara
+     * por su clave de búsqueda ({@link GridRow#getSearchKey()}), así que no se distinguen mayúsculas ni
+     * acentos. La búsqueda se reparte entre los núcleos en un hilo aparte, sobre una instantánea de la copia,
+     * y el resultado se muestra de una vez. Un filtro nuevo cancela el anterior, y el resultado anterior se
+     * sigue mostrando hasta que llega el nuevo.
+     */
+    private void runClientFilter() {
+        if (lazyData == null || serverFilterCheckBox.isSelected()) {
+            return;
+        }
+        String needle = GridRow.normalizeForSearch(filterField.getText());
+        if (needle.isEmpty()) {
+            return;
+        }
+        if (fullData == null) {
+            loadFullData();
+            return;
+        }
+        cancelClientFilter();
+        LazyGridList source = lazyData;
+        GridRow[] snapshot = fullData.toArray(new GridRow[0]);
+        int version = fullDataVersion;
+        Task<List<GridRow>> task = new Task<>() {
+            @Override
+            protected List<GridRow> call() {
+                return Arrays.stream(snapshot).parallel()
+                        .filter(row -> !isCancelled() && row.getSearchKey().contains(needle))
+                        .collect(Collectors.toList());
+            }
+        };
+        task.setOnSucceeded(event -> {
+            if (clientFilter != task || lazyData != source) {
+                return;
+            }
+            clientFilter = null;
+            if (fullDataVersion != version) {
+                runClientFilter(); // La copia ha cambiado mientras se buscaba
+                return;
+            }
+            clientFilterText = needle;
+            if (filteredData == null) {
+                filteredData = FXCollections.observableArrayList();
+                sortedData = new SortedList<>(filteredData);
+            }
+            filteredData.setAll(task.getValue());
+            if (tablaView.getItems() != sortedData) {
+                tablaView.setItems(sortedData);
+                setColumnsSortable(true);
+            }
+            tablaView.sort();
+            updateLoadingIndicator();
+            updatePageControls();
+        });
+        task.setOnFailed(event -> {
+            if (clientFilter == task) {
+                clientFilter = null;
+                updateLoadingIndicator();
+            }
+            LOG.error("Error al filtrar la tabla", task.getException(), "filter", needle);
+        });
+        clientFilter = task;
+        ForkJoinPool.commonPool().execute(task);
+        updateLoadingIndicator();
+    }
+
+    private void cancelClientFilter() {
+        if (clientFilter != null) {
+            clientFilter.cancel();
+            clientFilter = null;
+            updateLoadingIndicator();
+        }
+    }
+
+    /**
+     * Consulta en la base de datos las filas que cumplen el filtro ({@link TableInfo#searchPredicate}) y
+     * las muestra en cuanto llega la primera página; las siguientes solo se piden cuando la vista se acerca
+     * al final de lo cargado ({@link #loadMoreServerFilterRows()}), para no traer a memoria todas las
+     * coincidencias de un filtro muy amplio. Una consulta nueva cancela la anterior, y el resultado anterior
+     * se sigue mostrando hasta que llega el nuevo.
+     */
+    private void runServerFilter() {
+        if (lazyData == null || !serverFilterCheckBox.isSelected()) {
+            return;
+        }
+        String text = filterField.getText().trim();
+        if (text.isEmpty() || text.equals(serverFilterText)) {
+            return;
+        }
+        if (serverFilterLoad != null) {
+            serverFilterLoad.cancel();
+        }
+        serverFilterText = text;
+        serverFilterNext = null; // El resultado mostrado ya no se amplía
+        loadServerFilterPage(lazyData, text, FXCollections.observableArrayList(), null);
+    }
+
+    /**
+     * Pide la siguiente página del filtro del servidor si la última fila visible está a menos de media
+     * página del final de lo cargado y no hay otra consulta en curso.
+     */
+    private void loadMoreServerFilterRows() {
+        if (serverFilterNext == null || serverFilterLoad != null || sortedData == null
+                || sortedData.getSource() != serverData || tablaView.getItems() != sortedData) {
+            return;
+        }
+        if (getLastVisibleIndex() >= serverData.size() - SERVER_FILTER_PAGE_SIZE / 2) {
+            loadServerFilterPage(lazyData, serverFilterText, serverData, serverFilterNext);
+        }
+    }
+
+    private void loadServerFilterPage(LazyGridList source, String text, ObservableList<GridRow> rows, GridPage previous) {
+        TableInfo table = source.getTable();
+        int[] afterKey = previous != null ? previous.getLastKey() : null;
+        // Si entretanto se lanza otra consulta, esta página ya no vale
+        Task<?>[] request = new Task<?>[1];
+        SqlProfiler.Action profile = SqlProfiler.beginAction("serverFilter:" + table.getTableName());
+        request[0] = DBExecutor.submit(
+                () -> GridDAO.getFilteredPage(table, text, afterKey, SERVER_FILTER_PAGE_SIZE),
+                page -> {
+                    if (serverFilterLoad != request[0] || lazyData != source) {
+                        return;
                     }
+                    serverFilterLoad = null;
+                    rows.addAll(page.getRows());
+                    if (previous == null) {
+                        serverData = rows;
+                        sortedData = new SortedList<>(rows);
+                        tablaView.setItems(sortedData);
+                        setColumnsSortable(true);
+                        tablaView.sort(); // Conserva el orden elegido en las cabeceras
+                    }
+                    serverFilterNext = page.mayHaveMore() ? page : null;
+                    updateLoadingIndicator();
+                    updatePageControls();
+                    loadMoreServerFilterRows(); // Por si lo cargado aún no llena la vista
+                },
+                error -> {
+                    if (serverFilterLoad == request[0]) {
+                        serverFilterLoad = null;
+                        serverFilterNext = null;
+                        serverFilterText = null;
+                        updateLoadingIndicator();
+                        showAlert(bundle.getString("alert.error_database"), Alert.AlertType.ERROR);
+                    }
+                    LOG.error("Error al filtrar en la base de datos", error, "table", table.getTableName());
+                });
+        profile.close();
+        serverFilterLoad = request[0];
+        updateLoadingIndicator();
+    }
+
+    /**
+     * Carga en segundo plano todas las filas de la tabla actual, con sus claves de búsqueda, para poder
+     * filtrarlas.
+     */
+    private void loadFullData() {
+        if (fullDataLoad != null) {
+            return;
+        }
+        LazyGridList source = lazyData;
+        TableInfo table = source.getTable();
+        SqlProfiler.Action profile = SqlProfiler.beginAction("filter:" + table.getTableName());
+        fullDataLoad = DBExecutor.submit(() -> {
+            List<GridRow> rows = new ArrayList<>();
+            int[] afterKey = null;
+            GridPage page = null;
+            do {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException("Carga cancelada");
                 }
-                return false;
-            });
+                // Todas las páginas se guardan en el mismo almacén y comparten los diccionarios de texto
+                page = GridDAO.getPage(table, afterKey, PAGE_SIZE, page);
+                rows.addAll(page.getRows());
+                afterKey = page.getLastKey();
+            } while (page.mayHaveMore());
+            // Las claves de búsqueda se calculan una sola vez, aquí, repartidas entre los núcleos
+            rows.parallelStream().forEach(GridRow::getSearchKey);
+            return rows;
+        }, rows -> {
+            if (lazyData == source) {
+                fullDataLoad = null;
+                fullData = rows;
+                updateLoadingIndicator();
+                runClientFilter();
+            }
+        }, error -> {
+            if (lazyData == source) {
+                fullDataLoad = null;
+                updateLoadingIndicator();
+                showAlert(bundle.getString("alert.error_database"), Alert.AlertType.ERROR);
+            }
+            LOG.error("Error al cargar la tabla para filtrar", error, "table", table.getTableName());
+        });
+        profile.close();
+        updateLoadingIndicator();
+    }
+
+    /**
+     * Activa la ordenación por las cabeceras, que solo está disponible mientras se muestra la copia completa.
+     */
+    private void setColumnsSortable(boolean sortable) {
+        for (TableColumn<GridRow, ?> column : tablaView.getColumns()) {
+            column.setSortable(sortable);
         }
     }
 
+    /**
+     * Construye el comparador de filas para el orden de las cabeceras. Cada columna se compara por su valor
+     * (los números como números), sin convertirlo a texto.
+     *
+     * @return El comparador, o null si no hay columnas de ordenación.
+     */
+    private static Comparator<GridRow> rowComparator(List<TableColumn<GridRow, ?>> sortOrder) {
+        Comparator<GridRow> comparator = null;
+        for (TableColumn<GridRow, ?> column : sortOrder) {
+            int colIndex = (Integer) column.getUserData();
+            Comparator<GridRow> byColumn = (a, b) -> a.compareColumn(b, colIndex);
+            if (column.getSortType() == TableColumn.SortType.DESCENDING) {
+                byColumn = byColumn.reversed();
+            }
+            comparator = comparator == null ? byColumn : comparator.thenComparing(byColumn);
+        }
+        return comparator;
+    }
+
     // Cambia el idioma a español
     @FXML
     private void setSpanish() {
@@ -170,20 +786,117 @@ public class MainController {
         addButton.setText(bundle.getString("button.add"));
         modifyButton.setText(bundle.getString("button.modify"));
         deleteButton.setText(bundle.getString("button.delete"));
+        fileMenu.setText(bundle.getString("menu.file"));
+        importCsvMenuItem.setText(bundle.getString("menu.import_csv"));
+        toolsMenu.setText(bundle.getString("menu.tools"));
+        diagnosticsMenuItem.setText(bundle.getString("menu.diagnostics"));
+        serverFilterCheckBox.setText(bundle.getString("check.server_filter"));
+        previousPageButton.setText(bundle.getString("button.previous_page"));
+        nextPageButton.setText(bundle.getString("button.next_page"));
+        updatePageControls();
         // Actualizar otros textos de la interfaz según sea necesario
     }
 
     /**
-     * Abre el formulario correspondiente para agregar o modificar un registro.
-     *
-     * @param action Acción a realizar ("add" para añadir o "modify" para modificar).
+     * Importa en segundo plano el CSV histórico de los Juegos Olímpicos, mostrando el progreso en la barra superior.
+     */
+    @FXML
+    private void handleImportCsv() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle(bundle.getString("menu.import_csv"));
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV", "*.csv"));
+        File file = fileChooser.showOpenDialog(tablaView.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        importCsvMenuItem.setDisable(true);
+        showImportProgress(null);
+        DBExecutor.submit(() -> OlympicsCsvImporter.importFile(file.toPath(),
+                progress -> Platform.runLater(() -> showImportProgress(progress))), result -> {
+            hideImportProgress();
+            showAlert(MessageFormat.format(bundle.getString("alert.import_done"), result.getRowsRead(),
+                    result.getElapsedMillis() / 1000, result.getDeportistas(), result.getEventos(),
+                    result.getParticipaciones()), Alert.AlertType.INFORMATION);
+            if (currentTable != null) {
+                reloadTable();
+            }
+        }, error -> {
+            hideImportProgress();
+            showAlert(MessageFormat.format(bundle.getString("alert.error_import"), error.getMessage()), Alert.AlertType.ERROR);
+            LOG.error("Error al importar", error);
+            if (currentTable != null) {
+                reloadTable(); // Los bloques anteriores al error sí se han guardado
+            }
+        });
+    }
+
+    /**
+     * Abre el panel de rendimiento en una ventana no modal, o lo trae al frente si ya está abierto.
+     * Mientras está abierto se refresca una vez por segundo.
      */
+    @FXML
+    private void handleOpenDiagnostics() {
+        if (diagnosticsStage != null) {
+            diagnosticsStage.toFront();
+            return;
+        }
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/DiagnosticsView.fxml"), bundle);
+            Stage stage = new Stage();
+            stage.setTitle(bundle.getString("dialog.diagnostics.title"));
+            stage.initOwner(tablaView.getScene().getWindow());
+            stage.setScene(new Scene(loader.load()));
+
+            DiagnosticsController controller = loader.getController();
+            stage.setOnHidden(event -> {
+                controller.stop();
+                diagnosticsStage = null;
+            });
+            controller.start();
+            diagnosticsStage = stage;
+            stage.show();
+        } catch (IOException e) {
+            showAlert(bundle.getString("alert.error_loading_form"), Alert.AlertType.ERROR);
+            LOG.error("Error al abrir el panel de rendimiento", e);
+        }
+    }
+
+    private void showImportProgress(ImportProgress progress) {
+        importProgressBar.setVisible(true);
+        importProgressBar.setManaged(true);
+        importStatusLabel.setVisible(true);
+        importStatusLabel.setManaged(true);
+        if (progress == null) {
+            importProgressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+            importStatusLabel.setText(MessageFormat.format(bundle.getString("label.import_progress"), 0, 0));
+        } else {
+            importProgressBar.setProgress(progress.getFraction());
+            importStatusLabel.setText(MessageFormat.format(bundle.getString("label.import_progress"),
+                    progress.getRowsRead(), progress.getRowsPerSecond()));
+        }
+    }
+
+    private void hideImportProgress() {
+        importCsvMenuItem.setDisable(false);
+        importProgressBar.setVisible(false);
+        importProgressBar.setManaged(false);
+        importStatusLabel.setVisible(false);
+        importStatusLabel.setManaged(false);
+    }
+
     /**
      * Abre el formulario correspondiente para agregar o modificar un registro.
      *
      * @param action Acción a realizar ("add" para añadir o "modify" para modificar).
      */
     private void openForm(String action) {
+        FormOpenEvent openEvent = new FormOpenEvent();
+        openEvent.setForm(currentTable);
+        openEvent.setAction(action);
+        openEvent.begin();
+        // Las consultas de initialize() y setData() del formulario cuentan como parte de esta acción
+        SqlProfiler.Action profile = SqlProfiler.beginAction("openForm:" + currentTable + ":" + action);
         String titleKey = "dialog." + currentTable.toLowerCase() + ".title";
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/" + currentTable + "View.fxml"), bundle);
@@ -192,36 +905,35 @@ public class MainController {
             dialogStage.initModality(Modality.APPLICATION_MODAL);
             dialogStage.setScene(new Scene(loader.load()));
 
-            ObservableList<String> selectedRow = null;
-            if ("modify".equals(action) && tablaView.getSelectionModel().getSelectedItem() != null) {
-                selectedRow = tablaView.getSelectionModel().getSelectedItem();
+            GridRow selectedRow = null;
+            if ("modify".equals(action) && getSelectedRow() != null) {
+                selectedRow = getSelectedRow();
             }
 
             switch (currentTable.toLowerCase()) {
                 case "deportista":
                     DeportistaController deportistaController = loader.getController();
-                    deportistaController.setConnection(connection);
                     if (selectedRow != null) {
                         Deportista deportista = new Deportista();
-                        deportista.setId(Integer.parseInt(selectedRow.get(0)));
-                        deportista.setNombre(selectedRow.get(1));
-                        deportista.setSexo(Deportista.Sexo.valueOf(selectedRow.get(2)));
+                        deportista.setId(selectedRow.getInt(0));
+                        deportista.setNombre(selectedRow.getString(1));
+                        deportista.setSexo(Deportista.Sexo.valueOf(selectedRow.getString(2)));
 
                         // Manejo de posibles valores null en las columnas
-                        if (selectedRow.get(3) != null && !selectedRow.get(3).isEmpty()) {
-                            deportista.setEdad(Integer.parseInt(selectedRow.get(3)));
+                        if (!selectedRow.isNull(3)) {
+                            deportista.setEdad(selectedRow.getInt(3));
                         } else {
                             deportista.setEdad(0);  // Asigna un valor predeterminado si es null
                         }
 
-                        if (selectedRow.get(4) != null && !selectedRow.get(4).isEmpty()) {
-                            deportista.setPeso(Double.parseDouble(selectedRow.get(4)));
+                        if (!selectedRow.isNull(4)) {
+                            deportista.setPeso(selectedRow.getDouble(4));
                         } else {
                             deportista.setPeso(0.0);  // Asigna un valor predeterminado si es null
                         }
 
-                        if (selectedRow.get(5) != null && !selectedRow.get(5).isEmpty()) {
-                            deportista.setAltura(Double.parseDouble(selectedRow.get(5)));
+                        if (!selectedRow.isNull(5)) {
+                            deportista.setAltura(selectedRow.getDouble(5));
                         } else {
                             deportista.setAltura(0.0);  // Asigna un valor predeterminado si es null
                         }
@@ -235,12 +947,11 @@ public class MainController {
 
                 case "equipo":
                     EquipoController equipoController = loader.getController();
-                    equipoController.setConnection(connection);
                     if ("modify".equals(action) && selectedRow != null) {
                         Equipo equipo = new Equipo();
-                        equipo.setId(Integer.parseInt(selectedRow.get(0)));
-                        equipo.setNombre(selectedRow.get(1));
-                        equipo.setIniciales(selectedRow.get(2));
+                        equipo.setId(selectedRow.getInt(0));
+                        equipo.setNombre(selectedRow.getString(1));
+                        equipo.setIniciales(selectedRow.getString(2));
                         equipoController.setData(equipo);
                         equipoController.setEditMode(true);
                     } else {
@@ -250,13 +961,13 @@ public class MainController {
 
                 case "evento":
                     EventoController eventoController = loader.getController();
-                    eventoController.setConnection(connection);
                     if ("modify".equals(action) && selectedRow != null) {
                         Evento evento = new Evento();
-                        evento.setId(Integer.parseInt(selectedRow.get(0)));
-                        evento.setNombre(selectedRow.get(1));
-                        evento.setIdDeporte(DeporteDAO.getIdByName(selectedRow.get(2)));
-                        evento.setIdOlimpiada(OlimpiadaDAO.getIdByName(selectedRow.get(3)));
+                        evento.setId(selectedRow.getInt(0));
+                        evento.setNombre(selectedRow.getString(1));
+                        // La tabla muestra los IDs de la olimpiada y el deporte; los nombres los resuelve el formulario
+                        evento.setIdOlimpiada(selectedRow.getInt(2));
+                        evento.setIdDeporte(selectedRow.getInt(3));
                         eventoController.setData(evento);
                         eventoController.setEditMode(true);
                     } else {
@@ -266,18 +977,17 @@ public class MainController {
 
                 case "olimpiada":
                     OlimpiadaController olimpiadaController = loader.getController();
-                    olimpiadaController.setConnection(connection);
                     if (selectedRow != null) {
                         // Crear un objeto Olimpiada con los datos de la fila seleccionada
                         Olimpiada olimpiada = new Olimpiada();
-                        olimpiada.setId(Integer.parseInt(selectedRow.get(0)));
-                        olimpiada.setNombre(selectedRow.get(1));
-                        olimpiada.setAnio(Integer.parseInt(selectedRow.get(2)));
-                        olimpiada.setTemporada(selectedRow.get(3));
-                        olimpiada.setCiudad(selectedRow.get(4));
+                        olimpiada.setId(selectedRow.getInt(0));
+                        olimpiada.setNombre(selectedRow.getString(1));
+                        olimpiada.setAnio(selectedRow.getInt(2));
+                        olimpiada.setTemporada(selectedRow.getString(3));
+                        olimpiada.setCiudad(selectedRow.getString(4));
 
                         // Enviar los datos al controlador de Olimpiada para edición
-                        olimpiadaController.setData(selectedRow);
+                        olimpiadaController.setData(selectedRow.getTexts());
                         olimpiadaController.setEditMode(true); // Modo edición
                     } else {
                         olimpiadaController.setEditMode(false); // Modo creación
@@ -286,15 +996,13 @@ public class MainController {
 
                 case "participacion":
                     ParticipacionController participacionController = loader.getController();
-                    participacionController.setConnection(connection);
-                    participacionController.loadComboBoxData();  // Carga los ComboBox cada vez que se abre el formulario
                     if (selectedRow != null) {
                         Participacion participacion = new Participacion();
-                        participacion.setIdDeportista(Integer.parseInt(selectedRow.get(0)));
-                        participacion.setIdEvento(Integer.parseInt(selectedRow.get(1)));
-                        participacion.setIdEquipo(Integer.parseInt(selectedRow.get(2)));
-                        participacion.setMedalla(selectedRow.get(3));
-                        participacionController.setData(selectedRow);  // Cargar datos en el formulario
+                        participacion.setIdDeportista(selectedRow.getInt(0));
+                        participacion.setIdEvento(selectedRow.getInt(1));
+                        participacion.setIdEquipo(selectedRow.getInt(2));
+                        participacion.setMedalla(selectedRow.getString(3));
+                        participacionController.setData(selectedRow.getTexts());  // Cargar datos en el formulario
                         participacionController.setEditMode(true);
                     } else {
                         participacionController.setEditMode(false);
@@ -303,15 +1011,14 @@ public class MainController {
 
                 case "deporte":
                     DeporteController deporteController = loader.getController();
-                    deporteController.setConnection(connection);
                     if (selectedRow != null) {
                         // Crear un objeto Deporte con los datos de la fila seleccionada
                         Deporte deporte = new Deporte();
-                        deporte.setId(Integer.parseInt(selectedRow.get(0)));
-                        deporte.setNombre(selectedRow.get(1));
+                        deporte.setId(selectedRow.getInt(0));
+                        deporte.setNombre(selectedRow.getString(1));
 
                         // Enviar datos al controlador de Deporte
-                        deporteController.setData(selectedRow);
+                        deporteController.setData(selectedRow.getTexts());
                         deporteController.setEditMode(true); // Modo edición
                     } else {
                         deporteController.setEditMode(false); // Modo creación
@@ -323,13 +1030,14 @@ public class MainController {
                     return;
             }
 
-            dialogStage.showAndWait();
-            loadTable(currentTable);
+            openEvent.commit(); // El evento mide hasta que el formulario está listo, no el tiempo que queda abierto
+            profile.close();
+            dialogStage.showAndWait(); // Lo guardado llega como cambio de fila (applyTableChange)
         } catch (IOException e) {
             showAlert(bundle.getString("alert.error_loading_form"), Alert.AlertType.ERROR);
-            e.printStackTrace();
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
+            LOG.error("Error al abrir el formulario", e, "form", currentTable, "action", action);
+        } finally {
+            profile.close();
         }
     }
 
@@ -337,56 +1045,60 @@ public class MainController {
      * Elimina la fila seleccionada en la tabla actual.
      */
     private void deleteSelectedRow() {
-        ObservableList<String> selectedRow = tablaView.getSelectionModel().getSelectedItem();
+        GridRow selectedRow = getSelectedRow();
         if (selectedRow != null) {
             Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION, bundle.getString("alert.confirm_delete"), ButtonType.YES, ButtonType.NO);
             if (confirmAlert.showAndWait().orElse(ButtonType.NO) == ButtonType.YES) {
-                try {
-                    int id = Integer.parseInt(selectedRow.get(0)); // Asumimos que el ID está en la primera columna
-                    Integer id1 = null;
+                int id = selectedRow.getInt(0); // Asumimos que el ID está en la primera columna
+                Integer id1 = null;
 
-                    // Si es la tabla "participacion", asignamos el segundo ID de la segunda columna
-                    if ("participacion".equals(currentTable.toLowerCase()) && selectedRow.size() > 1) {
-                        id1 = Integer.parseInt(selectedRow.get(1)); // Asumimos que el ID secundario está en la segunda columna
-                    }
+                // Si es la tabla "participacion", asignamos el segundo ID de la segunda columna
+                if ("participacion".equals(currentTable.toLowerCase()) && selectedRow.getColumnCount() > 1) {
+                    id1 = selectedRow.getInt(1); // Asumimos que el ID secundario está en la segunda columna
+                }
 
-                    // Selección dinámica del DAO basado en la tabla actual
-                    switch (currentTable.toLowerCase()) {
-                        case "deportista":
-                            DeportistaDAO.deleteDeportista(id);
-                            break;
-                        case "equipo":
-                            EquipoDAO.deleteEquipo(id);
-                            break;
-                        case "evento":
-                            EventoDAO.deleteEvento(id);
-                            break;
-                        case "olimpiada":
-                            OlimpiadaDAO.deleteOlimpiada(id);
-                            break;
-                        case "participacion":
-                            if (id1 != null) {
-                                ParticipacionDAO.deleteParticipacion(id, id1);
-                            } else {
-                                showAlert("ID del evento no encontrado para eliminar participación.", Alert.AlertType.ERROR);
-                                return;
-                            }
-                            break;
-                        case "deporte":
-                            DeporteDAO.deleteDeporte(id);
-                            break;
-                        default:
-                            showAlert("No se puede eliminar en esta tabla.", Alert.AlertType.WARNING);
+                // Selección dinámica del DAO basado en la tabla actual
+                DBExecutor.DBWork<Boolean> delete;
+                switch (currentTable.toLowerCase()) {
+                    case "deportista":
+                        delete = () -> DeportistaDAO.deleteDeportista(id);
+                        break;
+                    case "equipo":
+                        delete = () -> EquipoDAO.deleteEquipo(id);
+                        break;
+                    case "evento":
+                        delete = () -> EventoDAO.deleteEvento(id);
+                        break;
+                    case "olimpiada":
+                        delete = () -> OlimpiadaDAO.deleteOlimpiada(id);
+                        break;
+                    case "participacion":
+                        if (id1 != null) {
+                            int idEvento = id1;
+                            delete = () -> ParticipacionDAO.deleteParticipacion(id, idEvento);
+                        } else {
+                            showAlert("ID del evento no encontrado para eliminar participación.", Alert.AlertType.ERROR);
                             return;
-                    }
+                        }
+                        break;
+                    case "deporte":
+                        delete = () -> DeporteDAO.deleteDeporte(id);
+                        break;
+                    default:
+                        showAlert("No se puede eliminar en esta tabla.", Alert.AlertType.WARNING);
+                        return;
+                }
 
-                    loadTable(currentTable); // Recargar la tabla después de eliminar
+                String table = currentTable;
+                SqlProfiler.Action profile = SqlProfiler.beginAction("delete:" + table);
+                DBExecutor.submit(delete, deleted -> {
+                    // La fila se quita de la tabla con el cambio que publica el DAO
                     showAlert(bundle.getString("alert.success_delete"), Alert.AlertType.INFORMATION);
-
-                } catch (Exception e) {
+                }, error -> {
                     showAlert(bundle.getString("alert.error_delete"), Alert.AlertType.ERROR);
-                    e.printStackTrace();
-                }
+                    LOG.error("Error al eliminar", error, "table", table, "id", id);
+                });
+                profile.close();
             }
         } else {
             showAlert(bundle.getString("alert.select_for_deletion"), Alert.AlertType.WARNING);
@@ -395,6 +1107,17 @@ public class MainController {
 
 
 
+    /**
+     * Devuelve la fila seleccionada, o null si no hay selección o la fila aún no se ha cargado.
+     */
+    private GridRow getSelectedRow() {
+        GridRow selected = tablaView.getSelectionModel().getSelectedItem();
+        if (selected != null && lazyData != null && lazyData.isPlaceholder(selected)) {
+            return null;
+        }
+        return selected;
+    }
+
     /**
      * Método para manejar la acción del botón "Añadir".
      */
@@ -408,7 +1131,7 @@ public class MainController {
      */
     @FXML
     private void handleModifyAction() {
-        if (tablaView.getSelectionModel().getSelectedItem() != null) {
+        if (getSelectedRow() != null) {
             openForm("modify");
         } else {
             showAlert(bundle.getString("alert.select_item"), Alert.AlertType.WARNING);
@@ -434,4 +1157,19 @@ public class MainController {
         alert.setContentText(message);
         alert.showAndWait();
     }
+
+    /**
+     * Primer bloque de una tabla y estimación de filas, leídos en segundo plano.
+     */
+    private static final class TableData {
+        private final TableInfo table;
+        private final GridPage firstBlock;
+        private final long estimatedRows;
+
+        private TableData(TableInfo table, GridPage firstBlock, long estimatedRows) {
+            this.table = table;
+            this.firstBlock = firstBlock;
+            this.estimatedRows = estimatedRows;
+        }
+    }
 }
@@ -1,8 +1,11 @@
 package com.eiman.olimpiada.controller;
 
 import com.eiman.olimpiada.dao.OlimpiadaDAO;
+import com.eiman.olimpiada.log.Log;
+import com.eiman.olimpiada.metrics.FormSaveEvent;
+import com.eiman.olimpiada.metrics.SqlProfiler;
 import com.eiman.olimpiada.model.Olimpiada;
-import javafx.collections.ObservableList;
+import com.eiman.olimpiada.service.DBExecutor;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.RadioButton;
@@ -10,8 +13,7 @@ import javafx.scene.control.TextField;
 import javafx.scene.control.ToggleGroup;
 import javafx.stage.Stage;
 
-import java.sql.Connection;
-import java.sql.SQLException;
+import java.util.List;
 import java.util.ResourceBundle;
 
 /**
@@ -19,9 +21,9 @@ import java.util.ResourceBundle;
  */
 public class OlimpiadaController {
 
-    private OlimpiadaDAO olimpiadaDAO;
+    private static final Log LOG = Log.get(OlimpiadaController.class);
+
     private boolean editMode;
-    private Connection connection;
     private ResourceBundle bundle;
     private Olimpiada olimpiada;
 
@@ -56,17 +58,6 @@ public class OlimpiadaController {
         inviernoRadio.setToggleGroup(temporadaGroup);
     }
 
-    /**
-     * Método para establecer la conexión de base de datos en el controlador.
-     *
-     * @param connection La conexión a la base de datos.
-     */
-    public void setConnection(Connection connection) {
-        this.connection = connection;
-        this.olimpiadaDAO = new OlimpiadaDAO(); // Inicializa OlimpiadaDAO
-        OlimpiadaDAO.setConnection(connection); // Configura la conexión en el DAO también
-    }
-
     public void setEditMode(boolean editMode) {
         this.editMode = editMode;
     }
@@ -74,9 +65,9 @@ public class OlimpiadaController {
     /**
      * Configura los datos de la olimpiada en el formulario.
      *
-     * @param rowData Datos de la olimpiada como lista observable de strings.
+     * @param rowData Datos de la olimpiada como lista de textos, en el orden de las columnas.
      */
-    public void setData(ObservableList<String> rowData) {
+    public void setData(List<String> rowData) {
         olimpiada = new Olimpiada();  // Inicializa el objeto Olimpiada si aún no está creado
         olimpiada.setId(Integer.parseInt(rowData.get(0)));  // Configura el ID desde rowData
         nombreField.setText(rowData.get(1));
@@ -120,29 +111,44 @@ public class OlimpiadaController {
             olimpiada.setCiudad(ciudadField.getText());
             olimpiada.setTemporada(((RadioButton) temporadaGroup.getSelectedToggle()).getText());
 
-            try {
-                boolean success;
+            // Guardar en segundo plano sin bloquear la interfaz
+            Olimpiada toSave = olimpiada;
+            setFormDisabled(true);
+            FormSaveEvent save = FormSaveEvent.start("Olimpiada", editMode);
+            SqlProfiler.Action profile = SqlProfiler.beginAction("save:Olimpiada");
+            DBExecutor.submit(() -> {
                 if (editMode) {
                     // Utiliza el ID de olimpiada para actualizar
-                    success = olimpiadaDAO.updateOlimpiada(olimpiada);
-                } else {
-                    success = olimpiadaDAO.insertOlimpiada(olimpiada);
+                    return OlimpiadaDAO.updateOlimpiada(toSave);
                 }
-
+                return OlimpiadaDAO.insertOlimpiada(toSave);
+            }, success -> {
+                save.finish(success);
                 if (success) {
                     showAlert(bundle.getString("alert.success_save"), Alert.AlertType.INFORMATION);
                     clearFields();
                     closeWindow();
                 } else {
+                    setFormDisabled(false);
                     showAlert(bundle.getString("alert.error_save"), Alert.AlertType.ERROR);
                 }
-            } catch (SQLException e) {
+            }, error -> {
+                save.finish(false);
+                setFormDisabled(false);
                 showAlert(bundle.getString("alert.error_database"), Alert.AlertType.ERROR);
-                e.printStackTrace();
-            }
+                LOG.error("Error al guardar", error, "form", "Olimpiada", "update", editMode);
+            });
+            profile.close();
         }
     }
 
+    /**
+     * Bloquea el formulario mientras se guarda.
+     */
+    private void setFormDisabled(boolean disabled) {
+        nombreField.getScene().getRoot().setDisable(disabled);
+    }
+
     /**
      * Método para validar los campos del formulario de Olimpiada.
      * @return true si el formulario es válido; de lo contrario, false.
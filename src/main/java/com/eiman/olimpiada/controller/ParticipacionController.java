@@ -1,15 +1,16 @@
 package com.eiman.olimpiada.controller;
 
 import com.eiman.olimpiada.dao.*;
+import com.eiman.olimpiada.log.Log;
+import com.eiman.olimpiada.metrics.FormSaveEvent;
+import com.eiman.olimpiada.metrics.SqlProfiler;
 import com.eiman.olimpiada.model.Participacion;
+import com.eiman.olimpiada.service.DBExecutor;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 
-import java.sql.Connection;
-import java.sql.SQLException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
@@ -18,9 +19,9 @@ import java.util.ResourceBundle;
 
 public class ParticipacionController {
 
-    private ParticipacionDAO ParticionDAO;
+    private static final Log LOG = Log.get(ParticipacionController.class);
+
     private Participacion participacion;
-    private Connection connection;
     private ResourceBundle bundle;
     private boolean editMode;
 
@@ -58,21 +59,16 @@ public class ParticipacionController {
         loadComboBoxData(); // Cargar datos en los ComboBox al iniciar
     }
 
-    public void setConnection(Connection connection) {
-        this.connection = connection;
-        this.ParticionDAO = new ParticipacionDAO();
-    }
-
     public void setEditMode(boolean editMode) {
         this.editMode = editMode;
     }
 
-    public void setData(ObservableList<String> row) {
+    public void setData(List<String> row) {
         deportistaComboBox.setValue(row.get(0));
         eventoComboBox.setValue(row.get(1));
         equipoComboBox.setValue(row.get(2));
 
-        String medalla = row.get(3);
+        String medalla = row.get(3) == null ? "" : row.get(3); // Sin medalla puede venir a null (p. ej. datos importados)
         switch (medalla) {
             case "Oro":
                 oroRadio.setSelected(true);
@@ -140,57 +136,68 @@ public class ParticipacionController {
             return;
         }
 
-        try {
-            closeWindow();
+        String medalla = oroRadio.isSelected() ? "Oro" : plataRadio.isSelected() ? "Plata" : bronceRadio.isSelected() ? "Bronce" : "Otro";
+
+        // Resolver los IDs y guardar en segundo plano; el resultado se muestra al cerrar el formulario
+        deportistaComboBox.getScene().getRoot().setDisable(true);
+        FormSaveEvent save = FormSaveEvent.start("Participacion", editMode);
+        SqlProfiler.Action profile = SqlProfiler.beginAction("save:Participacion");
+        DBExecutor.submit(() -> {
             int idDeportista = DeportistaDAO.getIdByName(deportistaName);
             int idEvento = EventoDAO.getIdByName(eventoName);
             int idEquipo = EquipoDAO.getIdByName(equipoName);
 
             if (idDeportista == -1) {
-                showAlert("Error: El deportista seleccionado no existe.", Alert.AlertType.ERROR);
-                return;
+                return "Error: El deportista seleccionado no existe.";
             }
             if (idEvento == -1) {
-                showAlert("Error: El evento seleccionado no existe.", Alert.AlertType.ERROR);
-                return;
+                return "Error: El evento seleccionado no existe.";
             }
             if (idEquipo == -1) {
-                showAlert("Error: El equipo seleccionado no existe.", Alert.AlertType.ERROR);
-                return;
+                return "Error: El equipo seleccionado no existe.";
             }
 
             Participacion participacion = new Participacion();
             participacion.setIdDeportista(idDeportista);
             participacion.setIdEvento(idEvento);
             participacion.setIdEquipo(idEquipo);
-
-            String medalla = oroRadio.isSelected() ? "Oro" : plataRadio.isSelected() ? "Plata" : bronceRadio.isSelected() ? "Bronce" : "Otro";
             participacion.setMedalla(medalla);
 
             boolean success = editMode ? ParticipacionDAO.updateParticipacion(participacion) : ParticipacionDAO.insertParticipacion(participacion);
-
-            if (success) {
+            return success ? null : bundle.getString("alert.error_save");
+        }, errorMessage -> {
+            save.finish(errorMessage == null);
+            closeWindow();
+            if (errorMessage == null) {
                 showAlert(bundle.getString("alert.success_save"), Alert.AlertType.INFORMATION);
                 clearFields();
             } else {
-                showAlert(bundle.getString("alert.error_save"), Alert.AlertType.ERROR);
+                showAlert(errorMessage, Alert.AlertType.ERROR);
             }
-        } catch (SQLException e) {
+        }, error -> {
+            save.finish(false);
+            closeWindow();
             showAlert(bundle.getString("alert.error_database"), Alert.AlertType.ERROR);
-            e.printStackTrace();
-        }
+            LOG.error("Error al guardar", error, "form", "Participacion", "update", editMode);
+        });
+        profile.close();
     }
 
+    /**
+     * Carga en segundo plano los nombres de deportistas, eventos y equipos en los ComboBox.
+     */
     public void loadComboBoxData() {
-        try {
-            deportistaComboBox.setItems(FXCollections.observableArrayList(DeportistaDAO.getAllDeportistaNames()));
-            eventoComboBox.setItems(FXCollections.observableArrayList(EventoDAO.getAllEventoNames()));
-            equipoComboBox.setItems(FXCollections.observableArrayList(EquipoDAO.getAllEquipoNames()));
-
-        } catch (SQLException e) {
-            showAlert("Error al cargar datos en ComboBox", Alert.AlertType.ERROR);
-            e.printStackTrace();
-        }
+        DBExecutor.submit(DeportistaDAO::getAllDeportistaNames,
+                names -> deportistaComboBox.setItems(FXCollections.observableArrayList(names)), this::handleComboBoxError);
+        DBExecutor.submit(EventoDAO::getAllEventoNames,
+                names -> eventoComboBox.setItems(FXCollections.observableArrayList(names)), this::handleComboBoxError);
+        DBExecutor.submit(EquipoDAO::getAllEquipoNames,
+                names -> equipoComboBox.setItems(FXCollections.observableArrayList(names)), this::handleComboBoxError);
+    }
+
+    private void handleComboBoxError(Throwable error) {
+        showAlert("Error al cargar datos en ComboBox", Alert.AlertType.ERROR);
+        LOG.error("Error al cargar datos en ComboBox", error, "form", "Participacion");
     }
 
     @FXML
@@ -0,0 +1,59 @@
+package com.eiman.olimpiada.dao;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Resultado de una operación por lotes de un DAO: el número de filas afectadas por cada elemento,
+ * en el mismo orden que la lista recibida.
+ * <p>
+ * Con la reescritura de lotes de MySQL ({@code rewriteBatchedStatements}) el driver puede devolver
+ * {@link Statement#SUCCESS_NO_INFO} en lugar del número de filas; se cuenta como éxito.
+ */
+public final class BatchResult {
+
+    private final int[] updateCounts;
+    private final SQLException firstError;
+
+    BatchResult(int[] updateCounts, SQLException firstError) {
+        this.updateCounts = updateCounts;
+        this.firstError = firstError;
+    }
+
+    /**
+     * Filas afectadas por cada elemento, {@link Statement#SUCCESS_NO_INFO} si el driver no lo indica
+     * o {@link Statement#EXECUTE_FAILED} si falló.
+     */
+    public int[] getUpdateCounts() {
+        return updateCounts.clone();
+    }
+
+    /**
+     * Indica si el elemento de la posición indicada se ha escrito.
+     */
+    public boolean isSuccess(int index) {
+        int count = updateCounts[index];
+        return count > 0 || count == Statement.SUCCESS_NO_INFO;
+    }
+
+    public int getSuccessCount() {
+        int success = 0;
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (isSuccess(i)) {
+                success++;
+            }
+        }
+        return success;
+    }
+
+    public int getFailureCount() {
+        return updateCounts.length - getSuccessCount();
+    }
+
+    /**
+     * Primer error devuelto por la base de datos, o null si todos los lotes se ejecutaron sin error.
+     */
+    public SQLException getFirstError() {
+        return firstError;
+    }
+}
@@ -0,0 +1,149 @@
+package com.eiman.olimpiada.dao;
+
+import com.eiman.olimpiada.config.DBConfig;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ejecución por lotes compartida por los métodos de escritura múltiple de los DAOs.
+ * <p>
+ * Los elementos se envían en lotes de {@code batchSize} con {@code addBatch}/{@code executeBatch},
+ * usando una sola conexión y una transacción por lote. Si un lote falla, sus filas se marcan como fallidas
+ * (o con el resultado parcial que devuelva el driver) y se sigue con el siguiente lote.
+ */
+final class BatchWriter {
+
+    /**
+     * Asigna los parámetros de la sentencia para un elemento.
+     */
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement statement, T item) throws SQLException;
+    }
+
+    /**
+     * Recibe la clave generada para un elemento insertado.
+     */
+    @FunctionalInterface
+    interface KeyConsumer<T> {
+        void accept(T item, int key);
+    }
+
+    private BatchWriter() {
+    }
+
+    /**
+     * Ejecuta la sentencia una vez por elemento, en lotes.
+     */
+    static <T> BatchResult execute(String sql, List<T> items, int batchSize, Binder<T> binder) throws SQLException {
+        return execute(sql, items, batchSize, binder, null);
+    }
+
+    /**
+     * Ejecuta la sentencia una vez por elemento, en lotes, y entrega a {@code keys} la clave generada
+     * de cada elemento insertado (si es null no se piden claves).
+     */
+    static <T> BatchResult execute(String sql, List<T> items, int batchSize, Binder<T> binder,
+                                   KeyConsumer<T> keys) throws SQLException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize debe ser positivo: " + batchSize);
+        }
+        int[] counts = new int[items.size()];
+        SQLException firstError = null;
+        if (items.isEmpty()) {
+            return new BatchResult(counts, null);
+        }
+
+        try (Connection connection = DBConfig.getConnection();
+             PreparedStatement statement = keys != null
+                     ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                     : connection.prepareStatement(sql)) {
+            connection.setAutoCommit(false);
+            try {
+                for (int start = 0; start < items.size(); start += batchSize) {
+                    int end = Math.min(items.size(), start + batchSize);
+                    for (int i = start; i < end; i++) {
+                        binder.bind(statement, items.get(i));
+                        statement.addBatch();
+                    }
+                    try {
+                        int[] batchCounts = statement.executeBatch();
+                        System.arraycopy(batchCounts, 0, counts, start, Math.min(batchCounts.length, end - start));
+                        if (keys != null) {
+                            readKeys(statement, items, counts, start, end, keys);
+                        }
+                        connection.commit();
+                    } catch (BatchUpdateException e) {
+                        // Los elementos que el driver no llegó a ejecutar cuentan como fallidos
+                        Arrays.fill(counts, start, end, Statement.EXECUTE_FAILED);
+                        int[] partial = e.getUpdateCounts();
+                        if (partial != null) {
+                            System.arraycopy(partial, 0, counts, start, Math.min(partial.length, end - start));
+                        }
+                        if (keys != null) {
+                            readPartialKeys(statement, items, counts, start, end, keys);
+                        }
+                        statement.clearBatch();
+                        connection.commit(); // Se conservan las filas que sí se escribieron
+                        if (firstError == null) {
+                            firstError = e;
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+        return new BatchResult(counts, firstError);
+    }
+
+    /**
+     * Asocia las claves generadas, que llegan en el orden de inserción, a los elementos del lote que se
+     * escribieron. Los que se escribieron pero no reciben clave se marcan como fallidos, para que nadie
+     * publique ni guarde un elemento con el ID sin asignar.
+     */
+    private static <T> void readKeys(PreparedStatement statement, List<T> items, int[] counts, int start, int end,
+                                     KeyConsumer<T> keys) throws SQLException {
+        try (ResultSet rs = statement.getGeneratedKeys()) {
+            boolean more = true;
+            for (int i = start; i < end; i++) {
+                if (!succeeded(counts[i])) {
+                    continue;
+                }
+                more = more && rs.next();
+                if (more) {
+                    keys.accept(items.get(i), rs.getInt(1));
+                } else {
+                    counts[i] = Statement.EXECUTE_FAILED;
+                }
+            }
+        }
+    }
+
+    /**
+     * Como {@link #readKeys}, tras un lote que ha fallado en parte. Si el driver no puede devolver las claves
+     * de ese lote, todos sus elementos quedan como fallidos en lugar de abortar la transacción.
+     */
+    private static <T> void readPartialKeys(PreparedStatement statement, List<T> items, int[] counts, int start,
+                                            int end, KeyConsumer<T> keys) {
+        try {
+            readKeys(statement, items, counts, start, end, keys);
+        } catch (SQLException e) {
+            Arrays.fill(counts, start, end, Statement.EXECUTE_FAILED);
+        }
+    }
+
+    private static boolean succeeded(int count) {
+        return count > 0 || count == Statement.SUCCESS_NO_INFO;
+    }
+}
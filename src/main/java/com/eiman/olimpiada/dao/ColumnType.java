@@ -0,0 +1,35 @@
+package com.eiman.olimpiada.dao;
+
+import java.sql.Types;
+
+/**
+ * Tipo con el que se guarda una columna de la tabla de la vista principal en {@link RowStore}.
+ */
+public enum ColumnType {
+    /** Entero de 32 bits (IDs, edad, año). */
+    INT,
+    /** Número decimal (peso, altura). */
+    DOUBLE,
+    /** Texto, codificado con un diccionario por columna. */
+    STRING;
+
+    /**
+     * Tipo de almacenamiento para un tipo de {@link Types}. Lo que no es numérico se guarda como texto.
+     */
+    static ColumnType of(int sqlType) {
+        switch (sqlType) {
+            case Types.INTEGER:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                return INT;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+            case Types.DOUBLE:
+            case Types.FLOAT:
+            case Types.REAL:
+                return DOUBLE;
+            default:
+                return STRING;
+        }
+    }
+}
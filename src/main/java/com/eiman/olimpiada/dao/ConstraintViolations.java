@@ -0,0 +1,46 @@
+package com.eiman.olimpiada.dao;
+
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Interpreta los errores de integridad referencial de la base de datos, para que los DAOs puedan insertar
+ * directamente y dejar que las claves foráneas validen las referencias en la misma sentencia.
+ */
+final class ConstraintViolations {
+
+    private static final int MYSQL_FK_CHILD_ROW = 1452; // Cannot add or update a child row
+
+    private ConstraintViolations() {
+    }
+
+    /**
+     * Si el error es una violación de clave foránea al insertar o actualizar, devuelve la columna de la tabla
+     * hija cuya referencia no existe (en minúsculas). En cualquier otro caso devuelve null.
+     *
+     * @param e       Error devuelto por la base de datos.
+     * @param columns Columnas con clave foránea de la tabla en la que se escribía.
+     */
+    static String missingReference(SQLException e, String... columns) {
+        String state = e.getSQLState();
+        boolean integrity = e.getErrorCode() == MYSQL_FK_CHILD_ROW || (state != null && state.startsWith("23"));
+        String message = e.getMessage();
+        if (!integrity || message == null) {
+            return null;
+        }
+        // "... FOREIGN KEY (`id_evento`) REFERENCES `evento` ..." (MySQL) o "FOREIGN KEY(ID_EVENTO)" (otros motores)
+        String normalized = message.toLowerCase(Locale.ROOT);
+        int fk = normalized.indexOf("foreign key");
+        if (fk < 0) {
+            return null;
+        }
+        int references = normalized.indexOf("references", fk);
+        String keyPart = normalized.substring(fk, references < 0 ? normalized.length() : references);
+        for (String column : columns) {
+            if (keyPart.contains(column)) {
+                return column;
+            }
+        }
+        return null;
+    }
+}
@@ -1,5 +1,7 @@
 package com.eiman.olimpiada.dao;
 
+import com.eiman.olimpiada.config.DBConfig;
+import com.eiman.olimpiada.metrics.DaoMetrics;
 import com.eiman.olimpiada.model.Deporte;
 import java.sql.*;
 import java.util.ArrayList;
@@ -10,16 +12,6 @@ import java.util.List;
  */
 public class DeporteDAO {
 
-    private static Connection connection;
-
-    /**
-     * Inicializa la conexión a la base de datos.
-     * @param conn La conexión a la base de datos que usará este DAO.
-     */
-    public static void setConnection(Connection conn) {
-        connection = conn;
-    }
-
     /**
      * Inserta un nuevo registro de Deporte en la base de datos.
      *
@@ -28,12 +20,23 @@ public class DeporteDAO {
      * @throws SQLException si ocurre un error de acceso a la base de datos.
      */
     public static boolean insertDeporte(Deporte deporte) throws SQLException {
-        String sql = "INSERT INTO deporte (nombre) VALUES (?)";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, deporte.getNombre());
-            int rowsInserted = statement.executeUpdate();
-            return rowsInserted > 0;
-        }
+        return DaoMetrics.time("DeporteDAO.insertDeporte", () -> {
+            String sql = "INSERT INTO deporte (nombre) VALUES (?)";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                statement.setString(1, deporte.getNombre());
+                int rowsInserted = statement.executeUpdate();
+                RowCountEstimator.adjust(TableInfo.DEPORTE, rowsInserted);
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        deporte.setId(keys.getInt(1));
+                        NameDictionary.DEPORTE.put(deporte.getId(), deporte.getNombre());
+                        TableChanges.publish(TableInfo.DEPORTE, TableChange.Type.INSERTED, deporte.getId());
+                    }
+                }
+                return rowsInserted > 0;
+            }
+        });
     }
 
     /**
@@ -44,13 +47,20 @@ public class DeporteDAO {
      * @throws SQLException si ocurre un error de acceso a la base de datos.
      */
     public static boolean updateDeporte(Deporte deporte) throws SQLException {
-        String sql = "UPDATE deporte SET nombre = ? WHERE id_deporte = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, deporte.getNombre());
-            statement.setInt(2, deporte.getId());
-            int rowsUpdated = statement.executeUpdate();
-            return rowsUpdated > 0;
-        }
+        return DaoMetrics.time("DeporteDAO.updateDeporte", () -> {
+            String sql = "UPDATE deporte SET nombre = ? WHERE id_deporte = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, deporte.getNombre());
+                statement.setInt(2, deporte.getId());
+                int rowsUpdated = statement.executeUpdate();
+                if (rowsUpdated > 0) {
+                    NameDictionary.DEPORTE.put(deporte.getId(), deporte.getNombre());
+                    TableChanges.publish(TableInfo.DEPORTE, TableChange.Type.UPDATED, deporte.getId());
+                }
+                return rowsUpdated > 0;
+            }
+        });
     }
 
     /**
@@ -61,57 +71,126 @@ public class DeporteDAO {
      * @throws SQLException si ocurre un error de acceso a la base de datos.
      */
     public static boolean deleteDeporte(int id) throws SQLException {
-        String sql = "DELETE FROM deporte WHERE id_deporte = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, id);
-            int rowsDeleted = statement.executeUpdate();
-            return rowsDeleted > 0;
-        }
+        return DaoMetrics.time("DeporteDAO.deleteDeporte", () -> {
+            String sql = "DELETE FROM deporte WHERE id_deporte = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, id);
+                int rowsDeleted = statement.executeUpdate();
+                RowCountEstimator.adjust(TableInfo.DEPORTE, -rowsDeleted);
+                if (rowsDeleted > 0) {
+                    NameDictionary.DEPORTE.remove(id);
+                    TableChanges.publish(TableInfo.DEPORTE, TableChange.Type.DELETED, id);
+                }
+                return rowsDeleted > 0;
+            }
+        });
     }
 
-    public static List<String> getAllDeporteNames() throws SQLException {
-        List<String> deportes = new ArrayList<>();
-        String sql = "SELECT nombre FROM deporte";
-        try (Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(sql)) {
-            while (resultSet.next()) {
-                deportes.add(resultSet.getString("nombre"));
+    /**
+     * Inserta varios deportes en lotes. A cada deporte insertado se le asigna el ID generado.
+     *
+     * @param deportes  Los deportes a añadir.
+     * @param batchSize Número de filas por lote.
+     * @return El resultado de cada inserción, en el orden de la lista.
+     * @throws SQLException si falla la conexión con la base de datos.
+     */
+    public static BatchResult insertDeportes(List<Deporte> deportes, int batchSize) throws SQLException {
+        return DaoMetrics.time("DeporteDAO.insertDeportes", () -> {
+            String sql = "INSERT INTO deporte (nombre) VALUES (?)";
+            BatchResult result = BatchWriter.execute(sql, deportes, batchSize,
+                    (statement, deporte) -> statement.setString(1, deporte.getNombre()), Deporte::setId);
+            RowCountEstimator.adjust(TableInfo.DEPORTE, result.getSuccessCount());
+            for (int i = 0; i < deportes.size(); i++) {
+                if (result.isSuccess(i)) {
+                    NameDictionary.DEPORTE.put(deportes.get(i).getId(), deportes.get(i).getNombre());
+                }
             }
-        }
-        return deportes;
+            TableChanges.publishBatch(TableInfo.DEPORTE, TableChange.Type.INSERTED, deportes, result,
+                    deporte -> new int[]{deporte.getId()});
+            return result;
+        });
     }
 
     /**
-     * Obtiene el ID de un evento dado su nombre.
+     * Actualiza varios deportes en lotes.
      *
-     * @param nombre El nombre del evento.
-     * @return El ID del evento si se encuentra, o -1 si no se encuentra.
-     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     * @param deportes  Los deportes con la información actualizada.
+     * @param batchSize Número de filas por lote.
+     * @return El resultado de cada actualización, en el orden de la lista.
+     * @throws SQLException si falla la conexión con la base de datos.
      */
-    public static int getIdByName(String nombre) throws SQLException {
-        String sql = "SELECT id_deporte FROM deporte WHERE nombre = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, nombre);
-            try (ResultSet rs = statement.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt("id_deporte");
+    public static BatchResult updateDeportes(List<Deporte> deportes, int batchSize) throws SQLException {
+        return DaoMetrics.time("DeporteDAO.updateDeportes", () -> {
+            String sql = "UPDATE deporte SET nombre = ? WHERE id_deporte = ?";
+            BatchResult result = BatchWriter.execute(sql, deportes, batchSize, (statement, deporte) -> {
+                statement.setString(1, deporte.getNombre());
+                statement.setInt(2, deporte.getId());
+            });
+            for (int i = 0; i < deportes.size(); i++) {
+                if (result.isSuccess(i)) {
+                    NameDictionary.DEPORTE.put(deportes.get(i).getId(), deportes.get(i).getNombre());
                 }
             }
-        }
-        return -1; // Retorna -1 si no se encuentra el deporte
+            TableChanges.publishBatch(TableInfo.DEPORTE, TableChange.Type.UPDATED, deportes, result,
+                    deporte -> new int[]{deporte.getId()});
+            return result;
+        });
     }
 
-    public static String getNameById(int id) throws SQLException {
-        String sql = "SELECT nombre FROM deporte WHERE id_deporte = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, id);
-            try (ResultSet rs = statement.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("nombre");
+    /**
+     * Elimina varios deportes en lotes.
+     *
+     * @param ids       Los IDs de los deportes a eliminar.
+     * @param batchSize Número de filas por lote.
+     * @return El resultado de cada borrado, en el orden de la lista.
+     * @throws SQLException si falla la conexión con la base de datos.
+     */
+    public static BatchResult deleteDeportes(List<Integer> ids, int batchSize) throws SQLException {
+        return DaoMetrics.time("DeporteDAO.deleteDeportes", () -> {
+            String sql = "DELETE FROM deporte WHERE id_deporte = ?";
+            BatchResult result = BatchWriter.execute(sql, ids, batchSize, (statement, id) -> statement.setInt(1, id));
+            RowCountEstimator.adjust(TableInfo.DEPORTE, -result.getSuccessCount());
+            for (int i = 0; i < ids.size(); i++) {
+                if (result.isSuccess(i)) {
+                    NameDictionary.DEPORTE.remove(ids.get(i));
                 }
             }
-        }
-        return null; // Retorna null si no se encuentra el deporte
+            TableChanges.publishBatch(TableInfo.DEPORTE, TableChange.Type.DELETED, ids, result,
+                    id -> new int[]{id});
+            return result;
+        });
+    }
+
+    /**
+     * Obtiene los nombres de todos los deportes, ordenados por ID, desde el diccionario en memoria.
+     *
+     * @throws SQLException si hay que cargar el diccionario y falla el acceso a la base de datos.
+     */
+    public static List<String> getAllDeporteNames() throws SQLException {
+        return DaoMetrics.time("DeporteDAO.getAllDeporteNames", () -> NameDictionary.DEPORTE.getNames());
+    }
+
+    /**
+     * Obtiene el ID de un deporte dado su nombre, usando el diccionario en memoria.
+     *
+     * @param nombre El nombre del deporte.
+     * @return El ID del deporte si se encuentra, o -1 si no se encuentra.
+     * @throws SQLException si hay que cargar el diccionario y falla el acceso a la base de datos.
+     */
+    public static int getIdByName(String nombre) throws SQLException {
+        return DaoMetrics.time("DeporteDAO.getIdByName", () -> NameDictionary.DEPORTE.getId(nombre));
+    }
+
+    /**
+     * Obtiene el nombre de un deporte dado su ID, usando el diccionario en memoria.
+     *
+     * @param id El ID del deporte.
+     * @return El nombre del deporte, o null si no se encuentra.
+     * @throws SQLException si hay que cargar el diccionario y falla el acceso a la base de datos.
+     */
+    public static String getNameById(int id) throws SQLException {
+        return DaoMetrics.time("DeporteDAO.getNameById", () -> NameDictionary.DEPORTE.getName(id));
     }
 
     /**
@@ -122,16 +201,19 @@ public class DeporteDAO {
      * @throws SQLException si ocurre un error de acceso a la base de datos.
      */
     public static Deporte getDeporteById(int id) throws SQLException {
-        String sql = "SELECT * FROM deporte WHERE id_deporte = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, id);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return mapResultSetToDeporte(resultSet);
+        return DaoMetrics.time("DeporteDAO.getDeporteById", () -> {
+            String sql = "SELECT * FROM deporte WHERE id_deporte = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        return mapResultSetToDeporte(resultSet);
+                    }
                 }
             }
-        }
-        return null;
+            return null;
+        });
     }
 
     /**
@@ -141,16 +223,45 @@ public class DeporteDAO {
      * @throws SQLException si ocurre un error de acceso a la base de datos.
      */
     public static List<Deporte> getAllDeportes() throws SQLException {
-        List<Deporte> deportes = new ArrayList<>();
-        String sql = "SELECT * FROM deporte";
-        try (Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(sql)) {
+        return DaoMetrics.time("DeporteDAO.getAllDeportes", () -> {
+            List<Deporte> deportes = new ArrayList<>();
+            String sql = "SELECT * FROM deporte";
+            try (Connection connection = DBConfig.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(sql)) {
+
+                while (resultSet.next()) {
+                    deportes.add(mapResultSetToDeporte(resultSet));
+                }
+            }
+            return deportes;
+        });
+    }
 
-            while (resultSet.next()) {
-                deportes.add(mapResultSetToDeporte(resultSet));
+    /**
+     * Recupera una página de registros de Deporte ordenados por ID, a partir del ID indicado (paginación por clave).
+     *
+     * @param afterId  ID del último registro de la página anterior (0 para la primera página).
+     * @param pageSize Número máximo de registros a devolver.
+     * @return Una lista con, como mucho, pageSize objetos Deporte.
+     * @throws SQLException si ocurre un error de acceso a la base de datos.
+     */
+    public static List<Deporte> getDeportesPage(int afterId, int pageSize) throws SQLException {
+        return DaoMetrics.time("DeporteDAO.getDeportesPage", () -> {
+            List<Deporte> deportes = new ArrayList<>();
+            String sql = "SELECT * FROM deporte WHERE id_deporte > ? ORDER BY id_deporte LIMIT ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, afterId);
+                statement.setInt(2, pageSize);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        deportes.add(mapResultSetToDeporte(resultSet));
+                    }
+                }
             }
-        }
-        return deportes;
+            return deportes;
+        });
     }
 
     /**
@@ -160,7 +271,7 @@ public class DeporteDAO {
      * @return Un objeto Deporte con los valores de la fila actual del ResultSet.
      * @throws SQLException si ocurre un error de acceso a la base de datos.
      */
-    private static Deporte mapResultSetToDeporte(ResultSet resultSet) throws SQLException {
+    static Deporte mapResultSetToDeporte(ResultSet resultSet) throws SQLException {
         Deporte deporte = new Deporte();
         deporte.setId(resultSet.getInt("id_deporte"));
         deporte.setNombre(resultSet.getString("nombre"));
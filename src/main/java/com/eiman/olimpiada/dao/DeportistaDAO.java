@@ -1,5 +1,8 @@
 package com.eiman.olimpiada.dao;
 
+import com.eiman.olimpiada.config.DBConfig;
+import com.eiman.olimpiada.log.Log;
+import com.eiman.olimpiada.metrics.DaoMetrics;
 import com.eiman.olimpiada.model.Deportista;
 import java.sql.*;
 import java.util.ArrayList;
@@ -7,16 +10,10 @@ import java.util.List;
 
 public class DeportistaDAO {
 
-    private static Connection connection;
+    private static final Log LOG = Log.get(DeportistaDAO.class);
 
-    /**
-     * Establece la conexión a la base de datos para esta clase DAO.
-     *
-     * @param conn La conexión de base de datos a utilizar.
-     */
-    public static void setConnection(Connection conn) {
-        connection = conn;
-    }
+    // Columnas de los listados: todas menos la foto, que solo se lee al abrir un deportista
+    private static final String LIST_COLUMNS = TableInfo.DEPORTISTA.listProjection();
 
     /**
      * Inserta un nuevo registro de Deportista en la base de datos.
@@ -26,46 +23,70 @@ public class DeportistaDAO {
      * @throws SQLException si ocurre un error de acceso a la base de datos.
      */
     public static boolean insertDeportista(Deportista deportista) throws SQLException {
-        String sql = "INSERT INTO deportista (nombre, sexo, edad, peso, altura, foto) VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, deportista.getNombre());
-            statement.setString(2, deportista.getSexo().toString());
-            statement.setInt(3, deportista.getEdad());
-            statement.setDouble(4, deportista.getPeso());
-            statement.setDouble(5, deportista.getAltura());
-            statement.setBytes(6, deportista.getFoto());
-
-            int rowsInserted = statement.executeUpdate();
-            return rowsInserted > 0; // Devuelve true si se insertó al menos una fila
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false; // Devuelve false en caso de excepción
-        }
+        return DaoMetrics.time("DeportistaDAO.insertDeportista", () -> {
+            String sql = "INSERT INTO deportista (nombre, sexo, edad, peso, altura, foto) VALUES (?, ?, ?, ?, ?, ?)";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                statement.setString(1, deportista.getNombre());
+                statement.setString(2, deportista.getSexo().toString());
+                statement.setInt(3, deportista.getEdad());
+                statement.setDouble(4, deportista.getPeso());
+                statement.setDouble(5, deportista.getAltura());
+                statement.setBytes(6, deportista.getFoto());
+
+                int rowsInserted = statement.executeUpdate();
+                RowCountEstimator.adjust(TableInfo.DEPORTISTA, rowsInserted);
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        deportista.setId(keys.getInt(1));
+                        TableChanges.publish(TableInfo.DEPORTISTA, TableChange.Type.INSERTED, deportista.getId());
+                    }
+                }
+                return rowsInserted > 0; // Devuelve true si se insertó al menos una fila
+            } catch (SQLException e) {
+                LOG.error("Error en la base de datos", e, "dao", "DeportistaDAO.insertDeportista", "nombre", deportista.getNombre());
+                return false; // Devuelve false en caso de excepción
+            }
+        });
     }
 
     /**
      * Actualiza un registro existente de Deportista en la base de datos.
+     * La foto solo se escribe si ha cambiado ({@link Deportista#isFotoChanged()}); una foto null que ha
+     * cambiado la borra.
      *
      * @param deportista El objeto Deportista con la información actualizada.
      * @throws SQLException si ocurre un error de acceso a la base de datos.
      */
     public static boolean updateDeportista(Deportista deportista) throws SQLException {
-        String sql = "UPDATE deportista SET nombre = ?, sexo = ?, edad = ?, peso = ?, altura = ?, foto = ? WHERE id_deportista = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, deportista.getNombre());
-            statement.setString(2, deportista.getSexo().toString());
-            statement.setInt(3, deportista.getEdad());
-            statement.setDouble(4, deportista.getPeso());
-            statement.setDouble(5, deportista.getAltura());
-            statement.setBytes(6, deportista.getFoto());
-            statement.setInt(7, deportista.getId());
-
-            int rowsUpdated = statement.executeUpdate();
-            return rowsUpdated > 0; // Devuelve true si al menos una fila fue actualizada
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false; // Devuelve false en caso de excepción
-        }
+        return DaoMetrics.time("DeportistaDAO.updateDeportista", () -> {
+            boolean withFoto = deportista.isFotoChanged();
+            String sql = withFoto
+                    ? "UPDATE deportista SET nombre = ?, sexo = ?, edad = ?, peso = ?, altura = ?, foto = ? WHERE id_deportista = ?"
+                    : "UPDATE deportista SET nombre = ?, sexo = ?, edad = ?, peso = ?, altura = ? WHERE id_deportista = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, deportista.getNombre());
+                statement.setString(2, deportista.getSexo().toString());
+                statement.setInt(3, deportista.getEdad());
+                statement.setDouble(4, deportista.getPeso());
+                statement.setDouble(5, deportista.getAltura());
+                int index = 6;
+                if (withFoto) {
+                    statement.setBytes(index++, deportista.getFoto());
+                }
+                statement.setInt(index, deportista.getId());
+
+                int rowsUpdated = statement.executeUpdate();
+                if (rowsUpdated > 0) {
+                    TableChanges.publish(TableInfo.DEPORTISTA, TableChange.Type.UPDATED, deportista.getId());
+                }
+                return rowsUpdated > 0; // Devuelve true si al menos una fila fue actualizada
+            } catch (SQLException e) {
+                LOG.error("Error en la base de datos", e, "dao", "DeportistaDAO.updateDeportista", "id", deportista.getId());
+                return false; // Devuelve false en caso de excepción
+            }
+        });
     }
 
     /**
@@ -75,16 +96,96 @@ public class DeportistaDAO {
      * @throws SQLException si ocurre un error de acceso a la base de datos.
      */
     public static boolean deleteDeportista(int id) throws SQLException {
-        String sql = "DELETE FROM deportista WHERE id_deportista = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, id);
-
-            int rowsDeleted = statement.executeUpdate();
-            return rowsDeleted > 0; // Devuelve true si al menos una fila fue eliminada
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false; // Devuelve false en caso de excepción
-        }
+        return DaoMetrics.time("DeportistaDAO.deleteDeportista", () -> {
+            String sql = "DELETE FROM deportista WHERE id_deportista = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, id);
+
+                int rowsDeleted = statement.executeUpdate();
+                RowCountEstimator.adjust(TableInfo.DEPORTISTA, -rowsDeleted);
+                if (rowsDeleted > 0) {
+                    TableChanges.publish(TableInfo.DEPORTISTA, TableChange.Type.DELETED, id);
+                }
+                return rowsDeleted > 0; // Devuelve true si al menos una fila fue eliminada
+            } catch (SQLException e) {
+                LOG.error("Error en la base de datos", e, "dao", "DeportistaDAO.deleteDeportista", "id", id);
+                return false; // Devuelve false en caso de excepción
+            }
+        });
+    }
+
+    /**
+     * Inserta varios deportistas en lotes. A cada deportista insertado se le asigna el ID generado.
+     *
+     * @param deportistas Los deportistas a añadir.
+     * @param batchSize   Número de filas por lote.
+     * @return El resultado de cada inserción, en el orden de la lista.
+     * @throws SQLException si falla la conexión con la base de datos.
+     */
+    public static BatchResult insertDeportistas(List<Deportista> deportistas, int batchSize) throws SQLException {
+        return DaoMetrics.time("DeportistaDAO.insertDeportistas", () -> {
+            String sql = "INSERT INTO deportista (nombre, sexo, edad, peso, altura, foto) VALUES (?, ?, ?, ?, ?, ?)";
+            BatchResult result = BatchWriter.execute(sql, deportistas, batchSize, (statement, deportista) -> {
+                statement.setString(1, deportista.getNombre());
+                statement.setString(2, deportista.getSexo().toString());
+                statement.setInt(3, deportista.getEdad());
+                statement.setDouble(4, deportista.getPeso());
+                statement.setDouble(5, deportista.getAltura());
+                statement.setBytes(6, deportista.getFoto());
+            }, Deportista::setId);
+            RowCountEstimator.adjust(TableInfo.DEPORTISTA, result.getSuccessCount());
+            TableChanges.publishBatch(TableInfo.DEPORTISTA, TableChange.Type.INSERTED, deportistas, result,
+                    deportista -> new int[]{deportista.getId()});
+            return result;
+        });
+    }
+
+    /**
+     * Actualiza varios deportistas en lotes. Como en {@link #updateDeportista(Deportista)}, la foto guardada
+     * solo se sustituye o se borra si ha cambiado.
+     *
+     * @param deportistas Los deportistas con la información actualizada.
+     * @param batchSize   Número de filas por lote.
+     * @return El resultado de cada actualización, en el orden de la lista.
+     * @throws SQLException si falla la conexión con la base de datos.
+     */
+    public static BatchResult updateDeportistas(List<Deportista> deportistas, int batchSize) throws SQLException {
+        return DaoMetrics.time("DeportistaDAO.updateDeportistas", () -> {
+            String sql = "UPDATE deportista SET nombre = ?, sexo = ?, edad = ?, peso = ?, altura = ?, foto = CASE WHEN ? = 1 THEN ? ELSE foto END WHERE id_deportista = ?";
+            BatchResult result = BatchWriter.execute(sql, deportistas, batchSize, (statement, deportista) -> {
+                statement.setString(1, deportista.getNombre());
+                statement.setString(2, deportista.getSexo().toString());
+                statement.setInt(3, deportista.getEdad());
+                statement.setDouble(4, deportista.getPeso());
+                statement.setDouble(5, deportista.getAltura());
+                statement.setInt(6, deportista.isFotoChanged() ? 1 : 0);
+                statement.setBytes(7, deportista.getFoto());
+                statement.setInt(8, deportista.getId());
+            });
+            TableChanges.publishBatch(TableInfo.DEPORTISTA, TableChange.Type.UPDATED, deportistas, result,
+                    deportista -> new int[]{deportista.getId()});
+            return result;
+        });
+    }
+
+    /**
+     * Elimina varios deportistas en lotes.
+     *
+     * @param ids       Los IDs de los deportistas a eliminar.
+     * @param batchSize Número de filas por lote.
+     * @return El resultado de cada borrado, en el orden de la lista.
+     * @throws SQLException si falla la conexión con la base de datos.
+     */
+    public static BatchResult deleteDeportistas(List<Integer> ids, int batchSize) throws SQLException {
+        return DaoMetrics.time("DeportistaDAO.deleteDeportistas", () -> {
+            String sql = "DELETE FROM deportista WHERE id_deportista = ?";
+            BatchResult result = BatchWriter.execute(sql, ids, batchSize, (statement, id) -> statement.setInt(1, id));
+            RowCountEstimator.adjust(TableInfo.DEPORTISTA, -result.getSuccessCount());
+            TableChanges.publishBatch(TableInfo.DEPORTISTA, TableChange.Type.DELETED, ids, result,
+                    id -> new int[]{id});
+            return result;
+        });
     }
 
     /**
@@ -95,49 +196,108 @@ public class DeportistaDAO {
      * @throws SQLException si ocurre un error de acceso a la base de datos.
      */
     public static Deportista getDeportistaById(int id) throws SQLException {
-        String sql = "SELECT * FROM deportista WHERE id_deportista = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, id);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return mapResultSetToDeportista(resultSet);
+        return DaoMetrics.time("DeportistaDAO.getDeportistaById", () -> {
+            String sql = "SELECT * FROM deportista WHERE id_deportista = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        return mapResultSetToDeportista(resultSet, true);
+                    }
                 }
             }
-        }
-        return null;
+            return null;
+        });
+    }
+
+    /**
+     * Recupera solo la foto de un deportista. Los listados no la incluyen, así que se pide
+     * cuando se abre un deportista concreto.
+     *
+     * @param id El ID del Deportista.
+     * @return Los bytes de la foto, o null si no tiene foto o no existe.
+     * @throws SQLException si ocurre un error de acceso a la base de datos.
+     */
+    public static byte[] getFotoById(int id) throws SQLException {
+        return DaoMetrics.time("DeportistaDAO.getFotoById", () -> {
+            String sql = "SELECT foto FROM deportista WHERE id_deportista = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        return resultSet.getBytes("foto");
+                    }
+                }
+            }
+            return null;
+        });
     }
 
     // Método para obtener el nombre de un deportista por su ID
     public static String getNameById(int id) throws SQLException {
-        String query = "SELECT nombre FROM deportista WHERE id_deportista = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setInt(1, id);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return resultSet.getString("nombre");
+        return DaoMetrics.time("DeportistaDAO.getNameById", () -> {
+            String query = "SELECT nombre FROM deportista WHERE id_deportista = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setInt(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        return resultSet.getString("nombre");
+                    }
                 }
             }
-        }
-        return null; // Retorna null si no se encuentra el deportista
+            return null; // Retorna null si no se encuentra el deportista
+        });
     }
 
     /**
-     * Recupera una lista de todos los registros de Deportista de la base de datos.
+     * Recupera una lista de todos los registros de Deportista de la base de datos, sin sus fotos.
      *
      * @return Una lista de objetos Deportista.
      * @throws SQLException si ocurre un error de acceso a la base de datos.
      */
     public static List<Deportista> getAllDeportistas() throws SQLException {
-        List<Deportista> deportistas = new ArrayList<>();
-        String sql = "SELECT * FROM deportista";
-        try (Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(sql)) {
+        return DaoMetrics.time("DeportistaDAO.getAllDeportistas", () -> {
+            List<Deportista> deportistas = new ArrayList<>();
+            String sql = "SELECT " + LIST_COLUMNS + " FROM deportista";
+            try (Connection connection = DBConfig.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(sql)) {
 
-            while (resultSet.next()) {
-                deportistas.add(mapResultSetToDeportista(resultSet));
+                while (resultSet.next()) {
+                    deportistas.add(mapResultSetToDeportista(resultSet, false));
+                }
             }
-        }
-        return deportistas;
+            return deportistas;
+        });
+    }
+
+    /**
+     * Recupera una página de registros de Deportista (sin fotos) ordenados por ID, a partir del ID indicado (paginación por clave).
+     *
+     * @param afterId  ID del último registro de la página anterior (0 para la primera página).
+     * @param pageSize Número máximo de registros a devolver.
+     * @return Una lista con, como mucho, pageSize objetos Deportista.
+     * @throws SQLException si ocurre un error de acceso a la base de datos.
+     */
+    public static List<Deportista> getDeportistasPage(int afterId, int pageSize) throws SQLException {
+        return DaoMetrics.time("DeportistaDAO.getDeportistasPage", () -> {
+            List<Deportista> deportistas = new ArrayList<>();
+            String sql = "SELECT " + LIST_COLUMNS + " FROM deportista WHERE id_deportista > ? ORDER BY id_deportista LIMIT ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, afterId);
+                statement.setInt(2, pageSize);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        deportistas.add(mapResultSetToDeportista(resultSet, false));
+                    }
+                }
+            }
+            return deportistas;
+        });
     }
 
     /**
@@ -147,16 +307,19 @@ public class DeportistaDAO {
      * @throws SQLException si ocurre un error de acceso a la base de datos.
      */
     public static List<String> getAllDeportistaNames() throws SQLException {
-        List<String> deportistas = new ArrayList<>();
-        String sql = "SELECT nombre FROM deportista";
-        try (Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(sql)) {
+        return DaoMetrics.time("DeportistaDAO.getAllDeportistaNames", () -> {
+            List<String> deportistas = new ArrayList<>();
+            String sql = "SELECT nombre FROM deportista";
+            try (Connection connection = DBConfig.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(sql)) {
 
-            while (resultSet.next()) {
-                deportistas.add(resultSet.getString("nombre"));
+                while (resultSet.next()) {
+                    deportistas.add(resultSet.getString("nombre"));
+                }
             }
-        }
-        return deportistas;
+            return deportistas;
+        });
     }
 
     /**
@@ -167,26 +330,30 @@ public class DeportistaDAO {
      * @throws SQLException si ocurre un error de acceso a la base de datos.
      */
     public static int getIdByName(String nombre) throws SQLException {
-        String sql = "SELECT id_deportista FROM deportista WHERE nombre = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, nombre);
-            try (ResultSet rs = statement.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt("id_deportista");
+        return DaoMetrics.time("DeportistaDAO.getIdByName", () -> {
+            String sql = "SELECT id_deportista FROM deportista WHERE nombre = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, nombre);
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getInt("id_deportista");
+                    }
                 }
             }
-        }
-        return -1; // Retorna -1 si no se encuentra el deportista
+            return -1; // Retorna -1 si no se encuentra el deportista
+        });
     }
 
     /**
      * Mapea la fila actual del ResultSet a un objeto Deportista.
      *
      * @param resultSet El resultado de la consulta a la base de datos.
+     * @param withFoto  Si la consulta incluye la columna foto.
      * @return Un objeto Deportista con los valores de la fila actual del ResultSet.
      * @throws SQLException si ocurre un error de acceso a la base de datos.
      */
-    private static Deportista mapResultSetToDeportista(ResultSet resultSet) throws SQLException {
+    static Deportista mapResultSetToDeportista(ResultSet resultSet, boolean withFoto) throws SQLException {
         Deportista deportista = new Deportista();
         deportista.setId(resultSet.getInt("id_deportista"));
         deportista.setNombre(resultSet.getString("nombre"));
@@ -194,7 +361,9 @@ public class DeportistaDAO {
         deportista.setEdad(resultSet.getInt("edad"));
         deportista.setPeso(resultSet.getDouble("peso"));
         deportista.setAltura(resultSet.getDouble("altura"));
-        deportista.setFoto(resultSet.getBytes("foto"));
+        if (withFoto) {
+            deportista.setFoto(resultSet.getBytes("foto"));
+        }
         return deportista;
     }
 }
@@ -1,5 +1,7 @@
 package com.eiman.olimpiada.dao;
 
+import com.eiman.olimpiada.config.DBConfig;
+import com.eiman.olimpiada.metrics.DaoMetrics;
 import com.eiman.olimpiada.model.Equipo;
 import java.sql.*;
 import java.util.ArrayList;
@@ -7,106 +9,192 @@ import java.util.List;
 
 public class EquipoDAO {
 
-    private static Connection connection;
-
-    public static void setConnection(Connection conn) {
-        connection = conn;
-    }
-
     public static boolean insertEquipo(Equipo equipo) throws SQLException {
-        String sql = "INSERT INTO equipo (nombre, iniciales) VALUES (?, ?)";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, equipo.getNombre());
-            statement.setString(2, equipo.getIniciales());
-            return statement.executeUpdate() > 0;
-        }
+        return DaoMetrics.time("EquipoDAO.insertEquipo", () -> {
+            String sql = "INSERT INTO equipo (nombre, iniciales) VALUES (?, ?)";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                statement.setString(1, equipo.getNombre());
+                statement.setString(2, equipo.getIniciales());
+                int rowsInserted = statement.executeUpdate();
+                RowCountEstimator.adjust(TableInfo.EQUIPO, rowsInserted);
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        equipo.setId(keys.getInt(1));
+                        NameDictionary.EQUIPO.put(equipo.getId(), equipo.getNombre());
+                        TableChanges.publish(TableInfo.EQUIPO, TableChange.Type.INSERTED, equipo.getId());
+                    }
+                }
+                return rowsInserted > 0;
+            }
+        });
     }
 
     public static boolean updateEquipo(Equipo equipo) throws SQLException {
-        String sql = "UPDATE equipo SET nombre = ?, iniciales = ? WHERE id_equipo = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, equipo.getNombre());
-            statement.setString(2, equipo.getIniciales());
-            statement.setInt(3, equipo.getId());
-            return statement.executeUpdate() > 0;
-        }
+        return DaoMetrics.time("EquipoDAO.updateEquipo", () -> {
+            String sql = "UPDATE equipo SET nombre = ?, iniciales = ? WHERE id_equipo = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, equipo.getNombre());
+                statement.setString(2, equipo.getIniciales());
+                statement.setInt(3, equipo.getId());
+                int rowsUpdated = statement.executeUpdate();
+                if (rowsUpdated > 0) {
+                    NameDictionary.EQUIPO.put(equipo.getId(), equipo.getNombre());
+                    TableChanges.publish(TableInfo.EQUIPO, TableChange.Type.UPDATED, equipo.getId());
+                }
+                return rowsUpdated > 0;
+            }
+        });
     }
 
     public static boolean deleteEquipo(int id) throws SQLException {
-        String sql = "DELETE FROM equipo WHERE id_equipo = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, id);
-            return statement.executeUpdate() > 0;
-        }
+        return DaoMetrics.time("EquipoDAO.deleteEquipo", () -> {
+            String sql = "DELETE FROM equipo WHERE id_equipo = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, id);
+                int rowsDeleted = statement.executeUpdate();
+                RowCountEstimator.adjust(TableInfo.EQUIPO, -rowsDeleted);
+                if (rowsDeleted > 0) {
+                    NameDictionary.EQUIPO.remove(id);
+                    TableChanges.publish(TableInfo.EQUIPO, TableChange.Type.DELETED, id);
+                }
+                return rowsDeleted > 0;
+            }
+        });
     }
 
-    public static Equipo getEquipoById(int id) throws SQLException {
-        String sql = "SELECT * FROM equipo WHERE id_equipo = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, id);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return mapResultSetToEquipo(resultSet);
+    // Inserta varios equipos en lotes; a cada equipo insertado se le asigna el ID generado
+    public static BatchResult insertEquipos(List<Equipo> equipos, int batchSize) throws SQLException {
+        return DaoMetrics.time("EquipoDAO.insertEquipos", () -> {
+            String sql = "INSERT INTO equipo (nombre, iniciales) VALUES (?, ?)";
+            BatchResult result = BatchWriter.execute(sql, equipos, batchSize, (statement, equipo) -> {
+                statement.setString(1, equipo.getNombre());
+                statement.setString(2, equipo.getIniciales());
+            }, Equipo::setId);
+            RowCountEstimator.adjust(TableInfo.EQUIPO, result.getSuccessCount());
+            for (int i = 0; i < equipos.size(); i++) {
+                if (result.isSuccess(i)) {
+                    NameDictionary.EQUIPO.put(equipos.get(i).getId(), equipos.get(i).getNombre());
                 }
             }
-        }
-        return null;
+            TableChanges.publishBatch(TableInfo.EQUIPO, TableChange.Type.INSERTED, equipos, result,
+                    equipo -> new int[]{equipo.getId()});
+            return result;
+        });
     }
 
-    public static List<Equipo> getAllEquipos() throws SQLException {
-        List<Equipo> equipos = new ArrayList<>();
-        String sql = "SELECT * FROM equipo";
-        try (Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(sql)) {
-
-            while (resultSet.next()) {
-                equipos.add(mapResultSetToEquipo(resultSet));
+    // Actualiza varios equipos en lotes
+    public static BatchResult updateEquipos(List<Equipo> equipos, int batchSize) throws SQLException {
+        return DaoMetrics.time("EquipoDAO.updateEquipos", () -> {
+            String sql = "UPDATE equipo SET nombre = ?, iniciales = ? WHERE id_equipo = ?";
+            BatchResult result = BatchWriter.execute(sql, equipos, batchSize, (statement, equipo) -> {
+                statement.setString(1, equipo.getNombre());
+                statement.setString(2, equipo.getIniciales());
+                statement.setInt(3, equipo.getId());
+            });
+            for (int i = 0; i < equipos.size(); i++) {
+                if (result.isSuccess(i)) {
+                    NameDictionary.EQUIPO.put(equipos.get(i).getId(), equipos.get(i).getNombre());
+                }
             }
-        }
-        return equipos;
+            TableChanges.publishBatch(TableInfo.EQUIPO, TableChange.Type.UPDATED, equipos, result,
+                    equipo -> new int[]{equipo.getId()});
+            return result;
+        });
     }
 
-    public static List<String> getAllEquipoNames() throws SQLException {
-        List<String> equipos = new ArrayList<>();
-        String sql = "SELECT nombre FROM equipo";
-        try (Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(sql)) {
+    // Elimina varios equipos en lotes
+    public static BatchResult deleteEquipos(List<Integer> ids, int batchSize) throws SQLException {
+        return DaoMetrics.time("EquipoDAO.deleteEquipos", () -> {
+            String sql = "DELETE FROM equipo WHERE id_equipo = ?";
+            BatchResult result = BatchWriter.execute(sql, ids, batchSize, (statement, id) -> statement.setInt(1, id));
+            RowCountEstimator.adjust(TableInfo.EQUIPO, -result.getSuccessCount());
+            for (int i = 0; i < ids.size(); i++) {
+                if (result.isSuccess(i)) {
+                    NameDictionary.EQUIPO.remove(ids.get(i));
+                }
+            }
+            TableChanges.publishBatch(TableInfo.EQUIPO, TableChange.Type.DELETED, ids, result,
+                    id -> new int[]{id});
+            return result;
+        });
+    }
 
-            while (resultSet.next()) {
-                equipos.add(resultSet.getString("nombre"));
+    public static Equipo getEquipoById(int id) throws SQLException {
+        return DaoMetrics.time("EquipoDAO.getEquipoById", () -> {
+            String sql = "SELECT * FROM equipo WHERE id_equipo = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        return mapResultSetToEquipo(resultSet);
+                    }
+                }
             }
-        }
-        return equipos;
+            return null;
+        });
     }
 
-    public static int getIdByName(String nombre) throws SQLException {
-        String sql = "SELECT id_equipo FROM equipo WHERE nombre = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, nombre);
-            try (ResultSet rs = statement.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt("id_equipo");
+    public static List<Equipo> getAllEquipos() throws SQLException {
+        return DaoMetrics.time("EquipoDAO.getAllEquipos", () -> {
+            List<Equipo> equipos = new ArrayList<>();
+            String sql = "SELECT * FROM equipo";
+            try (Connection connection = DBConfig.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(sql)) {
+
+                while (resultSet.next()) {
+                    equipos.add(mapResultSetToEquipo(resultSet));
                 }
             }
-        }
-        return -1; // Retorna -1 si no se encuentra el equipo
+            return equipos;
+        });
     }
 
-    // Método para obtener el nombre de un deportista por su ID
-    public static String getNameById(int id) throws SQLException {
-        String query = "SELECT nombre FROM equipo WHERE id_equipo = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setInt(1, id);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return resultSet.getString("nombre");
+    /**
+     * Recupera una página de registros de Equipo ordenados por ID, a partir del ID indicado (paginación por clave).
+     *
+     * @param afterId  ID del último registro de la página anterior (0 para la primera página).
+     * @param pageSize Número máximo de registros a devolver.
+     * @return Una lista con, como mucho, pageSize objetos Equipo.
+     * @throws SQLException si ocurre un error de acceso a la base de datos.
+     */
+    public static List<Equipo> getEquiposPage(int afterId, int pageSize) throws SQLException {
+        return DaoMetrics.time("EquipoDAO.getEquiposPage", () -> {
+            List<Equipo> equipos = new ArrayList<>();
+            String sql = "SELECT * FROM equipo WHERE id_equipo > ? ORDER BY id_equipo LIMIT ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, afterId);
+                statement.setInt(2, pageSize);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        equipos.add(mapResultSetToEquipo(resultSet));
+                    }
                 }
             }
-        }
-        return null; // Retorna null si no se encuentra el deportista
+            return equipos;
+        });
+    }
+
+    // Los nombres e IDs de equipos se resuelven con el diccionario en memoria
+    public static List<String> getAllEquipoNames() throws SQLException {
+        return DaoMetrics.time("EquipoDAO.getAllEquipoNames", () -> NameDictionary.EQUIPO.getNames());
+    }
+
+    public static int getIdByName(String nombre) throws SQLException {
+        return DaoMetrics.time("EquipoDAO.getIdByName", () -> NameDictionary.EQUIPO.getId(nombre)); // -1 si no se encuentra el equipo
+    }
+
+    // Método para obtener el nombre de un equipo por su ID
+    public static String getNameById(int id) throws SQLException {
+        return DaoMetrics.time("EquipoDAO.getNameById", () -> NameDictionary.EQUIPO.getName(id)); // null si no se encuentra el equipo
     }
 
-    private static Equipo mapResultSetToEquipo(ResultSet resultSet) throws SQLException {
+    static Equipo mapResultSetToEquipo(ResultSet resultSet) throws SQLException {
         Equipo equipo = new Equipo();
         equipo.setId(resultSet.getInt("id_equipo"));
         equipo.setNombre(resultSet.getString("nombre"));
@@ -1,5 +1,8 @@
 package com.eiman.olimpiada.dao;
 
+import com.eiman.olimpiada.config.DBConfig;
+import com.eiman.olimpiada.log.Log;
+import com.eiman.olimpiada.metrics.DaoMetrics;
 import com.eiman.olimpiada.model.Evento;
 import java.sql.*;
 import java.util.ArrayList;
@@ -7,135 +10,210 @@ import java.util.List;
 
 public class EventoDAO {
 
-    private static Connection connection;
-
-    public static void setConnection(Connection conn) {
-        connection = conn;
-    }
+    private static final Log LOG = Log.get(EventoDAO.class);
 
     public static boolean insertEvento(Evento evento) throws SQLException {
-        // Verificar si el id_deporte existe en la tabla deporte
-        String checkQuery = "SELECT COUNT(*) FROM deporte WHERE id_deporte = ?";
-        try (PreparedStatement checkStmt = connection.prepareStatement(checkQuery)) {
-            checkStmt.setInt(1, evento.getIdDeporte());
-            try (ResultSet rs = checkStmt.executeQuery()) {
-                if (rs.next() && rs.getInt(1) == 0) {
-                    System.out.println("Error: id_deporte no existe en la tabla deporte.");
-                    return false;  // id_deporte no existe, cancelar la inserción
+        return DaoMetrics.time("EventoDAO.insertEvento", () -> {
+            // Las claves foráneas validan el deporte y la olimpiada en la propia inserción
+            String sql = "INSERT INTO evento (nombre, id_deporte, id_olimpiada) VALUES (?, ?, ?)";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                statement.setString(1, evento.getNombre());
+                statement.setInt(2, evento.getIdDeporte());
+                statement.setInt(3, evento.getIdOlimpiada());
+                int rowsInserted = statement.executeUpdate();
+                RowCountEstimator.adjust(TableInfo.EVENTO, rowsInserted);
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        evento.setId(keys.getInt(1));
+                        NameDictionary.EVENTO.put(evento.getId(), evento.getNombre());
+                        TableChanges.publish(TableInfo.EVENTO, TableChange.Type.INSERTED, evento.getId());
+                    }
                 }
-            }
-        }
-
-        // Verificar si el id_olimpiada existe en la tabla olimpiada
-        String checkOlimpiadaQuery = "SELECT COUNT(*) FROM olimpiada WHERE id_olimpiada = ?";
-        try (PreparedStatement checkStmt = connection.prepareStatement(checkOlimpiadaQuery)) {
-            checkStmt.setInt(1, evento.getIdOlimpiada());
-            try (ResultSet rs = checkStmt.executeQuery()) {
-                if (rs.next() && rs.getInt(1) == 0) {
-                    System.out.println("Error: id_olimpiada no existe en la tabla olimpiada.");
-                    return false;  // id_olimpiada no existe, cancelar la inserción
+                return rowsInserted > 0;
+            } catch (SQLException e) {
+                String column = ConstraintViolations.missingReference(e, "id_deporte", "id_olimpiada");
+                if (column == null) {
+                    throw e;
                 }
+                LOG.warn("Referencia inexistente al insertar", "table", "evento", "column", column,
+                        "references", column.substring("id_".length()));
+                return false;
             }
-        }
-
-        // Si el id_deporte es válido, procede con la inserción
-        String sql = "INSERT INTO evento (nombre, id_deporte, id_olimpiada) VALUES (?, ?, ?)";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, evento.getNombre());
-            statement.setInt(2, evento.getIdDeporte());
-            statement.setInt(3, evento.getIdOlimpiada());
-            int rowsInserted = statement.executeUpdate();
-            return rowsInserted > 0;
-        }
+        });
     }
 
     public static boolean updateEvento(Evento evento) throws SQLException {
-        String sql = "UPDATE evento SET nombre = ?, id_olimpiada = ?, id_deporte = ? WHERE id_evento = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, evento.getNombre());
-            statement.setInt(2, evento.getIdOlimpiada());
-            statement.setInt(3, evento.getIdDeporte());
-            statement.setInt(4, evento.getId());
-            return statement.executeUpdate() > 0;
-        }
+        return DaoMetrics.time("EventoDAO.updateEvento", () -> {
+            String sql = "UPDATE evento SET nombre = ?, id_olimpiada = ?, id_deporte = ? WHERE id_evento = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, evento.getNombre());
+                statement.setInt(2, evento.getIdOlimpiada());
+                statement.setInt(3, evento.getIdDeporte());
+                statement.setInt(4, evento.getId());
+                int rowsUpdated = statement.executeUpdate();
+                if (rowsUpdated > 0) {
+                    NameDictionary.EVENTO.put(evento.getId(), evento.getNombre());
+                    TableChanges.publish(TableInfo.EVENTO, TableChange.Type.UPDATED, evento.getId());
+                }
+                return rowsUpdated > 0;
+            }
+        });
     }
 
     public static boolean deleteEvento(int id) throws SQLException {
-        String sql = "DELETE FROM evento WHERE id_evento = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, id);
-            return statement.executeUpdate() > 0;
-        }
+        return DaoMetrics.time("EventoDAO.deleteEvento", () -> {
+            String sql = "DELETE FROM evento WHERE id_evento = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, id);
+                int rowsDeleted = statement.executeUpdate();
+                RowCountEstimator.adjust(TableInfo.EVENTO, -rowsDeleted);
+                if (rowsDeleted > 0) {
+                    NameDictionary.EVENTO.remove(id);
+                    TableChanges.publish(TableInfo.EVENTO, TableChange.Type.DELETED, id);
+                }
+                return rowsDeleted > 0;
+            }
+        });
     }
 
-    public static Evento getEventoById(int id) throws SQLException {
-        String sql = "SELECT * FROM evento WHERE id_evento = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, id);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return mapResultSetToEvento(resultSet);
+    // Inserta varios eventos en lotes; a cada evento insertado se le asigna el ID generado.
+    // No se comprueban el deporte ni la olimpiada: una referencia inexistente hace fallar esa fila.
+    public static BatchResult insertEventos(List<Evento> eventos, int batchSize) throws SQLException {
+        return DaoMetrics.time("EventoDAO.insertEventos", () -> {
+            String sql = "INSERT INTO evento (nombre, id_deporte, id_olimpiada) VALUES (?, ?, ?)";
+            BatchResult result = BatchWriter.execute(sql, eventos, batchSize, (statement, evento) -> {
+                statement.setString(1, evento.getNombre());
+                statement.setInt(2, evento.getIdDeporte());
+                statement.setInt(3, evento.getIdOlimpiada());
+            }, Evento::setId);
+            RowCountEstimator.adjust(TableInfo.EVENTO, result.getSuccessCount());
+            for (int i = 0; i < eventos.size(); i++) {
+                if (result.isSuccess(i)) {
+                    NameDictionary.EVENTO.put(eventos.get(i).getId(), eventos.get(i).getNombre());
                 }
             }
-        }
-        return null;
+            TableChanges.publishBatch(TableInfo.EVENTO, TableChange.Type.INSERTED, eventos, result,
+                    evento -> new int[]{evento.getId()});
+            return result;
+        });
     }
 
-    public static List<Evento> getAllEventos() throws SQLException {
-        List<Evento> eventos = new ArrayList<>();
-        String sql = "SELECT * FROM evento";
-        try (Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(sql)) {
-
-            while (resultSet.next()) {
-                eventos.add(mapResultSetToEvento(resultSet));
+    // Actualiza varios eventos en lotes
+    public static BatchResult updateEventos(List<Evento> eventos, int batchSize) throws SQLException {
+        return DaoMetrics.time("EventoDAO.updateEventos", () -> {
+            String sql = "UPDATE evento SET nombre = ?, id_olimpiada = ?, id_deporte = ? WHERE id_evento = ?";
+            BatchResult result = BatchWriter.execute(sql, eventos, batchSize, (statement, evento) -> {
+                statement.setString(1, evento.getNombre());
+                statement.setInt(2, evento.getIdOlimpiada());
+                statement.setInt(3, evento.getIdDeporte());
+                statement.setInt(4, evento.getId());
+            });
+            for (int i = 0; i < eventos.size(); i++) {
+                if (result.isSuccess(i)) {
+                    NameDictionary.EVENTO.put(eventos.get(i).getId(), eventos.get(i).getNombre());
+                }
             }
-        }
-        return eventos;
+            TableChanges.publishBatch(TableInfo.EVENTO, TableChange.Type.UPDATED, eventos, result,
+                    evento -> new int[]{evento.getId()});
+            return result;
+        });
     }
 
-    public static int getIdByName(String nombre) throws SQLException {
-        String sql = "SELECT id_evento FROM evento WHERE nombre = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, nombre);
-            try (ResultSet rs = statement.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt("id_evento");
+    // Elimina varios eventos en lotes
+    public static BatchResult deleteEventos(List<Integer> ids, int batchSize) throws SQLException {
+        return DaoMetrics.time("EventoDAO.deleteEventos", () -> {
+            String sql = "DELETE FROM evento WHERE id_evento = ?";
+            BatchResult result = BatchWriter.execute(sql, ids, batchSize, (statement, id) -> statement.setInt(1, id));
+            RowCountEstimator.adjust(TableInfo.EVENTO, -result.getSuccessCount());
+            for (int i = 0; i < ids.size(); i++) {
+                if (result.isSuccess(i)) {
+                    NameDictionary.EVENTO.remove(ids.get(i));
                 }
             }
-        }
-        return -1; // Retorna -1 si no se encuentra el evento
+            TableChanges.publishBatch(TableInfo.EVENTO, TableChange.Type.DELETED, ids, result,
+                    id -> new int[]{id});
+            return result;
+        });
     }
 
-    // Método para obtener el nombre de un deportista por su ID
-    public static String getNameById(int id) throws SQLException {
-        String query = "SELECT nombre FROM evento WHERE id_evento = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setInt(1, id);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return resultSet.getString("nombre");
+    public static Evento getEventoById(int id) throws SQLException {
+        return DaoMetrics.time("EventoDAO.getEventoById", () -> {
+            String sql = "SELECT * FROM evento WHERE id_evento = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        return mapResultSetToEvento(resultSet);
+                    }
                 }
             }
-        }
-        return null; // Retorna null si no se encuentra el deportista
+            return null;
+        });
     }
 
-    public static List<String> getAllEventoNames() throws SQLException {
-        List<String> eventos = new ArrayList<>();
-        String sql = "SELECT nombre FROM evento";
-        try (Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(sql)) {
+    public static List<Evento> getAllEventos() throws SQLException {
+        return DaoMetrics.time("EventoDAO.getAllEventos", () -> {
+            List<Evento> eventos = new ArrayList<>();
+            String sql = "SELECT * FROM evento";
+            try (Connection connection = DBConfig.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(sql)) {
+
+                while (resultSet.next()) {
+                    eventos.add(mapResultSetToEvento(resultSet));
+                }
+            }
+            return eventos;
+        });
+    }
 
-            while (resultSet.next()) {
-                eventos.add(resultSet.getString("nombre"));
+    /**
+     * Recupera una página de registros de Evento ordenados por ID, a partir del ID indicado (paginación por clave).
+     *
+     * @param afterId  ID del último registro de la página anterior (0 para la primera página).
+     * @param pageSize Número máximo de registros a devolver.
+     * @return Una lista con, como mucho, pageSize objetos Evento.
+     * @throws SQLException si ocurre un error de acceso a la base de datos.
+     */
+    public static List<Evento> getEventosPage(int afterId, int pageSize) throws SQLException {
+        return DaoMetrics.time("EventoDAO.getEventosPage", () -> {
+            List<Evento> eventos = new ArrayList<>();
+            String sql = "SELECT * FROM evento WHERE id_evento > ? ORDER BY id_evento LIMIT ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, afterId);
+                statement.setInt(2, pageSize);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        eventos.add(mapResultSetToEvento(resultSet));
+                    }
+                }
             }
-        }
-        return eventos;
+            return eventos;
+        });
+    }
+
+    // Los nombres e IDs de eventos se resuelven con el diccionario en memoria.
+    // Si varios eventos comparten nombre, se devuelve el de ID más bajo.
+    public static int getIdByName(String nombre) throws SQLException {
+        return DaoMetrics.time("EventoDAO.getIdByName", () -> NameDictionary.EVENTO.getId(nombre)); // -1 si no se encuentra el evento
+    }
+
+    // Método para obtener el nombre de un evento por su ID
+    public static String getNameById(int id) throws SQLException {
+        return DaoMetrics.time("EventoDAO.getNameById", () -> NameDictionary.EVENTO.getName(id)); // null si no se encuentra el evento
+    }
+
+    public static List<String> getAllEventoNames() throws SQLException {
+        return DaoMetrics.time("EventoDAO.getAllEventoNames", () -> NameDictionary.EVENTO.getNames());
     }
 
 
-    private static Evento mapResultSetToEvento(ResultSet resultSet) throws SQLException {
+    static Evento mapResultSetToEvento(ResultSet resultSet) throws SQLException {
         Evento evento = new Evento();
         evento.setId(resultSet.getInt("id_evento"));
         evento.setNombre(resultSet.getString("nombre"));
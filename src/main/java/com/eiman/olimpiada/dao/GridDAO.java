@@ -0,0 +1,150 @@
+package com.eiman.olimpiada.dao;
+
+import com.eiman.olimpiada.config.DBConfig;
+import com.eiman.olimpiada.metrics.DaoMetrics;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DAO genérico para la tabla de la vista principal. Devuelve las filas en un {@link RowStore}, página a página,
+ * usando paginación por clave primaria (keyset) para que el coste no dependa de la posición de la página.
+ * Solo se leen las columnas de listado de cada tabla, nunca las binarias.
+ */
+public class GridDAO {
+
+    /**
+     * Recupera una página de filas posteriores a la clave indicada, ordenadas por la clave primaria.
+     *
+     * @param table    Tabla a consultar.
+     * @param afterKey Clave de la última fila de la página anterior, o null para la primera página.
+     * @param pageSize Número máximo de filas de la página.
+     * @return La página leída, con los nombres de las columnas y la clave de su última fila.
+     * @throws SQLException si ocurre un error de acceso a la base de datos.
+     */
+    public static GridPage getPage(TableInfo table, int[] afterKey, int pageSize) throws SQLException {
+        return getPage(table, afterKey, pageSize, null);
+    }
+
+    /**
+     * Recupera la página siguiente a otra guardando sus filas en el mismo almacén, de modo que todas las
+     * páginas comparten los diccionarios de texto. Se usa al leer la tabla completa.
+     *
+     * @param table    Tabla a consultar.
+     * @param afterKey Clave de la última fila de la página anterior, o null para la primera página.
+     * @param pageSize Número máximo de filas de la página.
+     * @param previous Página anterior cuyo almacén se continúa, o null para empezar uno nuevo.
+     * @return La página leída.
+     * @throws SQLException si ocurre un error de acceso a la base de datos.
+     */
+    public static GridPage getPage(TableInfo table, int[] afterKey, int pageSize, GridPage previous) throws SQLException {
+        return DaoMetrics.time("GridDAO.getPage", () -> {
+            String sql = "SELECT " + table.listProjection() + " FROM " + table.getTableName()
+                    + (afterKey != null ? " WHERE " + table.keysetPredicate() : "")
+                    + " ORDER BY " + table.orderBy() + " LIMIT ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                int index = 1;
+                if (afterKey != null) {
+                    index = table.bindKeyset(statement, index, afterKey);
+                }
+                statement.setInt(index, pageSize);
+                return readPage(table, statement, pageSize, previous != null ? previous.getStore() : null);
+            }
+        });
+    }
+
+    /**
+     * Recupera una página de las filas que cumplen el filtro del servidor ({@link TableInfo#searchPredicate}),
+     * ordenadas por la clave primaria. Las páginas siguientes se piden por clave, como en {@link #getPage}.
+     * Cada página tiene su propio almacén: las filas de la anterior ya se están mostrando, y un almacén no
+     * puede crecer una vez entregado al hilo de JavaFX.
+     *
+     * @param table    Tabla a consultar.
+     * @param text     Texto buscado, sin espacios al principio ni al final.
+     * @param afterKey Clave de la última fila de la página anterior, o null para la primera página.
+     * @param pageSize Número máximo de filas de la página.
+     * @return La página leída; vacía si la tabla no tiene columnas en las que buscar ese texto.
+     * @throws SQLException si ocurre un error de acceso a la base de datos.
+     */
+    public static GridPage getFilteredPage(TableInfo table, String text, int[] afterKey, int pageSize) throws SQLException {
+        return DaoMetrics.time("GridDAO.getFilteredPage", () -> {
+            String search = table.searchPredicate(text);
+            String sql = "SELECT " + table.listProjection() + " FROM " + table.getTableName()
+                    + " WHERE " + (search != null ? search : "1 = 0")
+                    + (afterKey != null ? " AND " + table.keysetPredicate() : "")
+                    + " ORDER BY " + table.orderBy() + " LIMIT ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                int index = 1;
+                if (search != null) {
+                    index = table.bindSearch(statement, index, text);
+                }
+                if (afterKey != null) {
+                    index = table.bindKeyset(statement, index, afterKey);
+                }
+                statement.setInt(index, pageSize);
+                return readPage(table, statement, pageSize, null);
+            }
+        });
+    }
+
+    /**
+     * Recupera una página a partir de una posición. Solo se usa cuando no se conoce la clave de la fila
+     * anterior (por ejemplo, al arrastrar la barra de desplazamiento lejos de lo ya cargado); el recorrido
+     * se hace sobre el índice de la clave primaria.
+     *
+     * @param table    Tabla a consultar.
+     * @param offset   Posición de la primera fila, empezando en 0.
+     * @param pageSize Número máximo de filas de la página.
+     * @return La página leída.
+     * @throws SQLException si ocurre un error de acceso a la base de datos.
+     */
+    public static GridPage getPageAt(TableInfo table, long offset, int pageSize) throws SQLException {
+        return DaoMetrics.time("GridDAO.getPageAt", () -> {
+            String sql = "SELECT " + table.listProjection() + " FROM " + table.getTableName() + " ORDER BY " + table.orderBy() + " LIMIT ? OFFSET ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, pageSize);
+                statement.setLong(2, offset);
+                return readPage(table, statement, pageSize, null);
+            }
+        });
+    }
+
+    /**
+     * Recupera una sola fila por su clave primaria, con las mismas columnas y el mismo formato que las páginas.
+     * Se usa para actualizar la vista principal tras guardar una fila sin volver a leer la tabla.
+     *
+     * @param table Tabla a consultar.
+     * @param key   Clave primaria de la fila.
+     * @return La fila, o null si ya no existe.
+     * @throws SQLException si ocurre un error de acceso a la base de datos.
+     */
+    public static GridRow getRow(TableInfo table, int[] key) throws SQLException {
+        GridPage page = DaoMetrics.time("GridDAO.getRow", () -> {
+            String sql = "SELECT " + table.listProjection() + " FROM " + table.getTableName() + " WHERE " + table.keyPredicate();
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                table.bindKey(statement, 1, key);
+                return readPage(table, statement, 1, null);
+            }
+        });
+        return page.getRows().isEmpty() ? null : page.getRows().get(0);
+    }
+
+    private static GridPage readPage(TableInfo table, PreparedStatement statement, int pageSize, RowStore store) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            if (store == null) {
+                store = RowStore.forResultSet(table, rs.getMetaData(), pageSize);
+            }
+            List<GridRow> rows = new ArrayList<>(pageSize);
+            while (rs.next()) {
+                rows.add(new GridRow(store, store.append(rs)));
+            }
+            int[] lastKey = rows.isEmpty() ? null : rows.get(rows.size() - 1).getKey();
+            return new GridPage(store, rows, lastKey, rows.size() == pageSize);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.eiman.olimpiada.dao;
+
+import java.util.List;
+
+/**
+ * Página de filas de la tabla de la vista principal, leída con {@link GridDAO}.
+ */
+public class GridPage {
+    private final List<String> columnNames;
+    private final List<GridRow> rows;
+    private final RowStore store;
+    private final int[] lastKey;
+    private final boolean mayHaveMore;
+
+    GridPage(RowStore store, List<GridRow> rows, int[] lastKey, boolean mayHaveMore) {
+        this.columnNames = store.getColumnNames();
+        this.rows = rows;
+        this.store = store;
+        this.lastKey = lastKey;
+        this.mayHaveMore = mayHaveMore;
+    }
+
+    /**
+     * Obtiene los nombres de las columnas de la consulta.
+     */
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Obtiene las filas de la página, con los valores con su tipo.
+     */
+    public List<GridRow> getRows() {
+        return rows;
+    }
+
+    /**
+     * Almacén en el que están guardadas las filas de la página.
+     */
+    RowStore getStore() {
+        return store;
+    }
+
+    /**
+     * Obtiene la clave primaria de la última fila, que es el punto de partida de la página siguiente.
+     * Es null si la página está vacía.
+     */
+    public int[] getLastKey() {
+        return lastKey;
+    }
+
+    /**
+     * Indica si la página está llena y, por tanto, puede haber más filas después.
+     */
+    public boolean mayHaveMore() {
+        return mayHaveMore;
+    }
+}
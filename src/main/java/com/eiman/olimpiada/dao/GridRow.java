@@ -0,0 +1,205 @@
+package com.eiman.olimpiada.dao;
+
+import java.text.Normalizer;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Fila de la tabla de la vista principal: una vista inmutable de una posición de un {@link RowStore}.
+ * <p>
+ * Los valores se leen con su tipo ({@link #getInt}, {@link #getDouble}, {@link #getString}) y solo se
+ * convierten a texto al pintar la celda, con {@link #getText}. Dos filas son iguales si son de la misma
+ * tabla y tienen la misma clave primaria, aunque vengan de lecturas distintas; así la selección de la
+ * tabla se conserva cuando una fila se sustituye por su versión recién guardada.
+ */
+public final class GridRow {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{Mn}+");
+
+    private final RowStore store;
+    private final int index;
+
+    GridRow(RowStore store, int index) {
+        this.store = store;
+        this.index = index;
+    }
+
+    /**
+     * Fila vacía, con todas las celdas a null, para las posiciones de la lista virtual que aún no se han leído.
+     * Cada fila de relleno solo es igual a sí misma.
+     */
+    public static GridRow placeholder(int columnCount) {
+        return new GridRow(RowStore.placeholder(columnCount), 0);
+    }
+
+    public int getColumnCount() {
+        return store.getColumnCount();
+    }
+
+    public ColumnType getType(int column) {
+        return store.getType(column);
+    }
+
+    public boolean isNull(int column) {
+        return store.isNull(index, column);
+    }
+
+    /**
+     * Valor de una columna {@link ColumnType#INT}. No tiene sentido si la celda es nula.
+     */
+    public int getInt(int column) {
+        return store.getInt(index, column);
+    }
+
+    /**
+     * Valor de una columna {@link ColumnType#DOUBLE}. No tiene sentido si la celda es nula.
+     */
+    public double getDouble(int column) {
+        return store.getDouble(index, column);
+    }
+
+    /**
+     * Valor de una columna {@link ColumnType#STRING}, o null.
+     */
+    public String getString(int column) {
+        return store.getString(index, column);
+    }
+
+    /**
+     * Valor de una celda con su tipo (Integer, Double o String), o null.
+     */
+    public Object getValue(int column) {
+        if (isNull(column)) {
+            return null;
+        }
+        switch (getType(column)) {
+            case INT:
+                return getInt(column);
+            case DOUBLE:
+                return getDouble(column);
+            default:
+                return getString(column);
+        }
+    }
+
+    /**
+     * Texto de una celda con el formato de la base de datos, o null si la celda es nula.
+     */
+    public String getText(int column) {
+        return store.getText(index, column);
+    }
+
+    /**
+     * Textos de todas las celdas, en el orden de las columnas. Los textos se calculan al leerlos.
+     */
+    public List<String> getTexts() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int column) {
+                return getText(column);
+            }
+
+            @Override
+            public int size() {
+                return getColumnCount();
+            }
+        };
+    }
+
+    /**
+     * Texto de todas las celdas preparado para buscar: en minúsculas, sin tildes ni diéresis ({@code ñ} pasa
+     * a {@code n}) y con las celdas separadas por saltos de línea. Se calcula una vez por fila; el texto
+     * buscado se prepara con {@link #normalizeForSearch}.
+     */
+    public String getSearchKey() {
+        return store.getSearchKey(index);
+    }
+
+    /**
+     * Pasa un texto a minúsculas y le quita las marcas diacríticas (tildes, diéresis, virgulilla), para
+     * comparar sin distinguir mayúsculas ni acentos.
+     */
+    public static String normalizeForSearch(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            if (lower.charAt(i) >= 0x80) {
+                // Solo los textos con caracteres no ASCII necesitan descomponerse
+                return COMBINING_MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+            }
+        }
+        return lower;
+    }
+
+    /**
+     * Clave primaria de la fila, en el orden de {@link TableInfo#getPrimaryKey()}.
+     */
+    public int[] getKey() {
+        int[] positions = store.getTable().keyPositions();
+        int[] key = new int[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            key[i] = getInt(positions[i]);
+        }
+        return key;
+    }
+
+    /**
+     * Compara una columna de dos filas de la misma tabla por su valor (los números como números, no como
+     * texto). Las celdas nulas van primero.
+     */
+    public int compareColumn(GridRow other, int column) {
+        boolean thisNull = isNull(column);
+        boolean otherNull = other.isNull(column);
+        if (thisNull || otherNull) {
+            return Boolean.compare(!thisNull, !otherNull);
+        }
+        switch (getType(column)) {
+            case INT:
+                return Integer.compare(getInt(column), other.getInt(column));
+            case DOUBLE:
+                return Double.compare(getDouble(column), other.getDouble(column));
+            default:
+                return getString(column).compareTo(other.getString(column));
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GridRow)) {
+            return false;
+        }
+        GridRow other = (GridRow) o;
+        TableInfo table = store.getTable();
+        if (table == null || table != other.store.getTable()) {
+            return false;
+        }
+        for (int position : table.keyPositions()) {
+            if (getInt(position) != other.getInt(position)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        TableInfo table = store.getTable();
+        if (table == null) {
+            return System.identityHashCode(this);
+        }
+        int hash = table.hashCode();
+        for (int position : table.keyPositions()) {
+            hash = 31 * hash + getInt(position);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return getTexts().toString();
+    }
+}
@@ -0,0 +1,238 @@
+package com.eiman.olimpiada.dao;
+
+import com.eiman.olimpiada.config.DBConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Diccionario en memoria nombre ↔ ID de una tabla de referencia (deporte, equipo, olimpiada, evento).
+ * Se carga entero la primera vez que se usa y después lo mantienen los DAOs al insertar, actualizar o borrar,
+ * de modo que los formularios no tienen que consultar la base de datos para traducir nombres e IDs.
+ * <p>
+ * El contenido ocupa según el número de registros, no según el ID más alto: los nombres se guardan en un
+ * mapa ordenado por ID y cada nombre guarda la lista ordenada de sus IDs. Si varios registros comparten nombre
+ * (ocurre con los eventos), el nombre se resuelve al ID más bajo, igual que hacía la consulta original, y al
+ * borrar ese registro pasa a representarlo el siguiente sin recorrer el diccionario.
+ * <p>
+ * La tabla se lee fuera del monitor, así que mientras se carga las consultas no se bloquean entre sí más que
+ * para esperar a la carga; el contenido leído se publica de una vez. Si entretanto un DAO avisa de un cambio,
+ * la lectura se descarta y se repite, porque podría no incluirlo.
+ */
+public final class NameDictionary {
+
+    public static final NameDictionary DEPORTE = new NameDictionary(TableInfo.DEPORTE);
+    public static final NameDictionary EQUIPO = new NameDictionary(TableInfo.EQUIPO);
+    public static final NameDictionary OLIMPIADA = new NameDictionary(TableInfo.OLIMPIADA);
+    public static final NameDictionary EVENTO = new NameDictionary(TableInfo.EVENTO);
+
+    private final TableInfo table;
+
+    private Entries entries;  // null mientras no se ha cargado
+    private long changes;     // Avisos recibidos (put, remove, invalidate), para detectar cambios durante una carga
+
+    // Fuera del monitor para poder leerlos mientras se carga el diccionario
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    private NameDictionary(TableInfo table) {
+        this.table = table;
+    }
+
+    /**
+     * Devuelve el ID asociado a un nombre.
+     *
+     * @param name Nombre a buscar.
+     * @return El ID, o -1 si no existe.
+     * @throws SQLException si hay que cargar el diccionario y falla el acceso a la base de datos.
+     */
+    public int getId(String name) throws SQLException {
+        lookups.increment();
+        Entries current = ensureLoaded();
+        if (name == null) {
+            return -1;
+        }
+        synchronized (this) {
+            return current.getId(name);
+        }
+    }
+
+    /**
+     * Devuelve el nombre asociado a un ID.
+     *
+     * @param id ID a buscar.
+     * @return El nombre, o null si no existe.
+     * @throws SQLException si hay que cargar el diccionario y falla el acceso a la base de datos.
+     */
+    public String getName(int id) throws SQLException {
+        lookups.increment();
+        Entries current = ensureLoaded();
+        synchronized (this) {
+            return current.names.get(id);
+        }
+    }
+
+    /**
+     * Devuelve todos los nombres ordenados por ID.
+     *
+     * @throws SQLException si hay que cargar el diccionario y falla el acceso a la base de datos.
+     */
+    public List<String> getNames() throws SQLException {
+        lookups.increment();
+        Entries current = ensureLoaded();
+        synchronized (this) {
+            return new ArrayList<>(current.names.values());
+        }
+    }
+
+    /**
+     * Registra un alta o un cambio de nombre. Si el diccionario aún no se ha cargado no hace nada:
+     * el cambio ya estará en la base de datos cuando se cargue.
+     */
+    public synchronized void put(int id, String name) {
+        changes++;
+        if (entries == null || id <= 0 || name == null) {
+            return;
+        }
+        entries.store(id, name);
+    }
+
+    /**
+     * Registra un borrado.
+     */
+    public synchronized void remove(int id) {
+        changes++;
+        if (entries == null) {
+            return;
+        }
+        entries.remove(id);
+    }
+
+    /**
+     * Descarta el contenido para que se vuelva a leer en el siguiente uso (por ejemplo, tras una carga masiva).
+     */
+    public synchronized void invalidate() {
+        changes++;
+        entries = null;
+    }
+
+    /**
+     * Número de consultas al diccionario (getId, getName y getNames).
+     */
+    public long getLookupCount() {
+        return lookups.sum();
+    }
+
+    /**
+     * Número de veces que se ha leído la tabla entera; cada una es un fallo de las consultas.
+     */
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    /**
+     * Devuelve el contenido, leyéndolo de la base de datos si aún no se ha cargado. La consulta se hace sin
+     * el monitor; el resultado solo se publica si no ha llegado ningún aviso de cambio mientras tanto.
+     */
+    private Entries ensureLoaded() throws SQLException {
+        while (true) {
+            long changesBefore;
+            synchronized (this) {
+                if (entries != null) {
+                    return entries;
+                }
+                changesBefore = changes;
+            }
+            Entries loaded = load();
+            synchronized (this) {
+                if (entries == null && changes == changesBefore) {
+                    entries = loaded;
+                }
+            }
+        }
+    }
+
+    private Entries load() throws SQLException {
+        loads.increment();
+        String idColumn = table.getPrimaryKey()[0];
+        String sql = "SELECT " + idColumn + ", nombre FROM " + table.getTableName() + " ORDER BY " + idColumn;
+        Entries loaded = new Entries();
+        try (Connection connection = DBConfig.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                String name = rs.getString(2);
+                if (name != null) {
+                    loaded.store(rs.getInt(1), name);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Contenido del diccionario. Se modifica con el monitor del diccionario.
+     */
+    private static final class Entries {
+        private final TreeMap<Integer, String> names = new TreeMap<>();
+        private final Map<String, int[]> ids = new HashMap<>(); // IDs de cada nombre, de menor a mayor
+
+        int getId(String name) {
+            int[] nameIds = ids.get(name);
+            return nameIds == null ? -1 : nameIds[0];
+        }
+
+        void store(int id, String name) {
+            String old = names.put(id, name);
+            if (old != null) {
+                unlink(old, id);
+            }
+            int[] nameIds = ids.get(name);
+            if (nameIds == null) {
+                ids.put(name, new int[]{id});
+                return;
+            }
+            int position = Arrays.binarySearch(nameIds, id);
+            if (position < 0) {
+                position = -position - 1;
+                int[] grown = new int[nameIds.length + 1];
+                System.arraycopy(nameIds, 0, grown, 0, position);
+                grown[position] = id;
+                System.arraycopy(nameIds, position, grown, position + 1, nameIds.length - position);
+                ids.put(name, grown);
+            }
+        }
+
+        void remove(int id) {
+            String name = names.remove(id);
+            if (name != null) {
+                unlink(name, id);
+            }
+        }
+
+        private void unlink(String name, int id) {
+            int[] nameIds = ids.get(name);
+            int position = nameIds == null ? -1 : Arrays.binarySearch(nameIds, id);
+            if (position < 0) {
+                return;
+            }
+            if (nameIds.length == 1) {
+                ids.remove(name);
+                return;
+            }
+            int[] shrunk = new int[nameIds.length - 1];
+            System.arraycopy(nameIds, 0, shrunk, 0, position);
+            System.arraycopy(nameIds, position + 1, shrunk, position, shrunk.length - position);
+            ids.put(name, shrunk);
+        }
+    }
+}
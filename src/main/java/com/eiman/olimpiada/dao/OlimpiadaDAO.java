@@ -1,5 +1,7 @@
 package com.eiman.olimpiada.dao;
 
+import com.eiman.olimpiada.config.DBConfig;
+import com.eiman.olimpiada.metrics.DaoMetrics;
 import com.eiman.olimpiada.model.Olimpiada;
 import java.sql.*;
 import java.util.ArrayList;
@@ -7,118 +9,207 @@ import java.util.List;
 
 public class OlimpiadaDAO {
 
-    private static Connection connection;
-
-    // Método para establecer la conexión de la base de datos
-    public static void setConnection(Connection conn) {
-        connection = conn;
-    }
-
     public static boolean insertOlimpiada(Olimpiada olimpiada) throws SQLException {
-        String sql = "INSERT INTO olimpiada (nombre, anio, temporada, ciudad) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, olimpiada.getNombre());
-            statement.setInt(2, olimpiada.getAnio());
-            statement.setString(3, olimpiada.getTemporada());
-            statement.setString(4, olimpiada.getCiudad());
-            return statement.executeUpdate() > 0; // Debería devolver true si se añadió correctamente
-        }
+        return DaoMetrics.time("OlimpiadaDAO.insertOlimpiada", () -> {
+            String sql = "INSERT INTO olimpiada (nombre, anio, temporada, ciudad) VALUES (?, ?, ?, ?)";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                statement.setString(1, olimpiada.getNombre());
+                statement.setInt(2, olimpiada.getAnio());
+                statement.setString(3, olimpiada.getTemporada());
+                statement.setString(4, olimpiada.getCiudad());
+                int rowsInserted = statement.executeUpdate();
+                RowCountEstimator.adjust(TableInfo.OLIMPIADA, rowsInserted);
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        olimpiada.setId(keys.getInt(1));
+                        NameDictionary.OLIMPIADA.put(olimpiada.getId(), olimpiada.getNombre());
+                        TableChanges.publish(TableInfo.OLIMPIADA, TableChange.Type.INSERTED, olimpiada.getId());
+                    }
+                }
+                return rowsInserted > 0; // Debería devolver true si se añadió correctamente
+            }
+        });
     }
 
 
     // Método para actualizar una olimpiada existente
     public static boolean updateOlimpiada(Olimpiada olimpiada) throws SQLException {
-        String sql = "UPDATE olimpiada SET nombre = ?, anio = ?, temporada = ?, ciudad = ? WHERE id_olimpiada = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, olimpiada.getNombre());
-            statement.setInt(2, olimpiada.getAnio());
-            statement.setString(3, olimpiada.getTemporada());
-            statement.setString(4, olimpiada.getCiudad());
-            statement.setInt(5, olimpiada.getId());  // `id_olimpiada` en la base de datos
-            return statement.executeUpdate() > 0;
-        }
+        return DaoMetrics.time("OlimpiadaDAO.updateOlimpiada", () -> {
+            String sql = "UPDATE olimpiada SET nombre = ?, anio = ?, temporada = ?, ciudad = ? WHERE id_olimpiada = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, olimpiada.getNombre());
+                statement.setInt(2, olimpiada.getAnio());
+                statement.setString(3, olimpiada.getTemporada());
+                statement.setString(4, olimpiada.getCiudad());
+                statement.setInt(5, olimpiada.getId());  // `id_olimpiada` en la base de datos
+                int rowsUpdated = statement.executeUpdate();
+                if (rowsUpdated > 0) {
+                    NameDictionary.OLIMPIADA.put(olimpiada.getId(), olimpiada.getNombre());
+                    TableChanges.publish(TableInfo.OLIMPIADA, TableChange.Type.UPDATED, olimpiada.getId());
+                }
+                return rowsUpdated > 0;
+            }
+        });
     }
 
     // Método para eliminar una olimpiada por su ID
     public static boolean deleteOlimpiada(int id) throws SQLException {
-        String sql = "DELETE FROM olimpiada WHERE id_olimpiada = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, id);
-            return statement.executeUpdate() > 0;
-        }
+        return DaoMetrics.time("OlimpiadaDAO.deleteOlimpiada", () -> {
+            String sql = "DELETE FROM olimpiada WHERE id_olimpiada = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, id);
+                int rowsDeleted = statement.executeUpdate();
+                RowCountEstimator.adjust(TableInfo.OLIMPIADA, -rowsDeleted);
+                if (rowsDeleted > 0) {
+                    NameDictionary.OLIMPIADA.remove(id);
+                    TableChanges.publish(TableInfo.OLIMPIADA, TableChange.Type.DELETED, id);
+                }
+                return rowsDeleted > 0;
+            }
+        });
     }
 
-    // Método para obtener el ID de una olimpiada dado su nombre
-    public static int getIdByName(String nombre) throws SQLException {
-        String query = "SELECT id_olimpiada FROM olimpiada WHERE nombre = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, nombre);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt("id_olimpiada");
+    // Inserta varias olimpiadas en lotes; a cada olimpiada insertada se le asigna el ID generado
+    public static BatchResult insertOlimpiadas(List<Olimpiada> olimpiadas, int batchSize) throws SQLException {
+        return DaoMetrics.time("OlimpiadaDAO.insertOlimpiadas", () -> {
+            String sql = "INSERT INTO olimpiada (nombre, anio, temporada, ciudad) VALUES (?, ?, ?, ?)";
+            BatchResult result = BatchWriter.execute(sql, olimpiadas, batchSize, (statement, olimpiada) -> {
+                statement.setString(1, olimpiada.getNombre());
+                statement.setInt(2, olimpiada.getAnio());
+                statement.setString(3, olimpiada.getTemporada());
+                statement.setString(4, olimpiada.getCiudad());
+            }, Olimpiada::setId);
+            RowCountEstimator.adjust(TableInfo.OLIMPIADA, result.getSuccessCount());
+            for (int i = 0; i < olimpiadas.size(); i++) {
+                if (result.isSuccess(i)) {
+                    NameDictionary.OLIMPIADA.put(olimpiadas.get(i).getId(), olimpiadas.get(i).getNombre());
                 }
             }
-        }
-        return -1; // Retorna -1 si no se encuentra el evento
+            TableChanges.publishBatch(TableInfo.OLIMPIADA, TableChange.Type.INSERTED, olimpiadas, result,
+                    olimpiada -> new int[]{olimpiada.getId()});
+            return result;
+        });
+    }
+
+    // Actualiza varias olimpiadas en lotes
+    public static BatchResult updateOlimpiadas(List<Olimpiada> olimpiadas, int batchSize) throws SQLException {
+        return DaoMetrics.time("OlimpiadaDAO.updateOlimpiadas", () -> {
+            String sql = "UPDATE olimpiada SET nombre = ?, anio = ?, temporada = ?, ciudad = ? WHERE id_olimpiada = ?";
+            BatchResult result = BatchWriter.execute(sql, olimpiadas, batchSize, (statement, olimpiada) -> {
+                statement.setString(1, olimpiada.getNombre());
+                statement.setInt(2, olimpiada.getAnio());
+                statement.setString(3, olimpiada.getTemporada());
+                statement.setString(4, olimpiada.getCiudad());
+                statement.setInt(5, olimpiada.getId());
+            });
+            for (int i = 0; i < olimpiadas.size(); i++) {
+                if (result.isSuccess(i)) {
+                    NameDictionary.OLIMPIADA.put(olimpiadas.get(i).getId(), olimpiadas.get(i).getNombre());
+                }
+            }
+            TableChanges.publishBatch(TableInfo.OLIMPIADA, TableChange.Type.UPDATED, olimpiadas, result,
+                    olimpiada -> new int[]{olimpiada.getId()});
+            return result;
+        });
+    }
+
+    // Elimina varias olimpiadas en lotes
+    public static BatchResult deleteOlimpiadas(List<Integer> ids, int batchSize) throws SQLException {
+        return DaoMetrics.time("OlimpiadaDAO.deleteOlimpiadas", () -> {
+            String sql = "DELETE FROM olimpiada WHERE id_olimpiada = ?";
+            BatchResult result = BatchWriter.execute(sql, ids, batchSize, (statement, id) -> statement.setInt(1, id));
+            RowCountEstimator.adjust(TableInfo.OLIMPIADA, -result.getSuccessCount());
+            for (int i = 0; i < ids.size(); i++) {
+                if (result.isSuccess(i)) {
+                    NameDictionary.OLIMPIADA.remove(ids.get(i));
+                }
+            }
+            TableChanges.publishBatch(TableInfo.OLIMPIADA, TableChange.Type.DELETED, ids, result,
+                    id -> new int[]{id});
+            return result;
+        });
+    }
+
+    // Método para obtener el ID de una olimpiada dado su nombre (diccionario en memoria)
+    public static int getIdByName(String nombre) throws SQLException {
+        return DaoMetrics.time("OlimpiadaDAO.getIdByName", () -> NameDictionary.OLIMPIADA.getId(nombre)); // -1 si no se encuentra la olimpiada
     }
 
     // Método para obtener una olimpiada por su ID
     public static Olimpiada getOlimpiadaById(int id) throws SQLException {
-        String sql = "SELECT * FROM olimpiada WHERE id_olimpiada = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, id);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return mapResultSetToOlimpiada(resultSet);
+        return DaoMetrics.time("OlimpiadaDAO.getOlimpiadaById", () -> {
+            String sql = "SELECT * FROM olimpiada WHERE id_olimpiada = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        return mapResultSetToOlimpiada(resultSet);
+                    }
                 }
             }
-        }
-        return null;
+            return null;
+        });
     }
 
-    // Método para obtener el nombre de una olimpiada por su ID
+    // Método para obtener el nombre de una olimpiada por su ID (diccionario en memoria)
     public static String getNameById(int id) throws SQLException {
-        String sql = "SELECT nombre FROM olimpiada WHERE id_olimpiada = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, id);
-            try (ResultSet rs = statement.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("nombre");
-                }
-            }
-        }
-        return null; // Retorna null si no se encuentra la olimpiada
+        return DaoMetrics.time("OlimpiadaDAO.getNameById", () -> NameDictionary.OLIMPIADA.getName(id)); // null si no se encuentra la olimpiada
     }
 
     // Método para obtener todas las olimpiadas en una lista de objetos Olimpiada
     public static List<Olimpiada> getAllOlimpiadas() throws SQLException {
-        List<Olimpiada> olimpiadas = new ArrayList<>();
-        String sql = "SELECT * FROM olimpiada";
-        try (Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(sql)) {
+        return DaoMetrics.time("OlimpiadaDAO.getAllOlimpiadas", () -> {
+            List<Olimpiada> olimpiadas = new ArrayList<>();
+            String sql = "SELECT * FROM olimpiada";
+            try (Connection connection = DBConfig.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(sql)) {
 
-            while (resultSet.next()) {
-                olimpiadas.add(mapResultSetToOlimpiada(resultSet));
+                while (resultSet.next()) {
+                    olimpiadas.add(mapResultSetToOlimpiada(resultSet));
+                }
             }
-        }
-        return olimpiadas;
+            return olimpiadas;
+        });
     }
 
-    // Método para obtener los nombres de todas las olimpiadas
-    public static List<String> getAllOlimpiadaNames() throws SQLException {
-        List<String> olimpiadas = new ArrayList<>();
-        String sql = "SELECT nombre FROM olimpiada";
-        try (Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(sql)) {
-            while (resultSet.next()) {
-                olimpiadas.add(resultSet.getString("nombre"));
+    /**
+     * Recupera una página de registros de Olimpiada ordenados por ID, a partir del ID indicado (paginación por clave).
+     *
+     * @param afterId  ID del último registro de la página anterior (0 para la primera página).
+     * @param pageSize Número máximo de registros a devolver.
+     * @return Una lista con, como mucho, pageSize objetos Olimpiada.
+     * @throws SQLException si ocurre un error de acceso a la base de datos.
+     */
+    public static List<Olimpiada> getOlimpiadasPage(int afterId, int pageSize) throws SQLException {
+        return DaoMetrics.time("OlimpiadaDAO.getOlimpiadasPage", () -> {
+            List<Olimpiada> olimpiadas = new ArrayList<>();
+            String sql = "SELECT * FROM olimpiada WHERE id_olimpiada > ? ORDER BY id_olimpiada LIMIT ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, afterId);
+                statement.setInt(2, pageSize);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        olimpiadas.add(mapResultSetToOlimpiada(resultSet));
+                    }
+                }
             }
-        }
-        return olimpiadas;
+            return olimpiadas;
+        });
+    }
+
+    // Método para obtener los nombres de todas las olimpiadas (diccionario en memoria)
+    public static List<String> getAllOlimpiadaNames() throws SQLException {
+        return DaoMetrics.time("OlimpiadaDAO.getAllOlimpiadaNames", () -> NameDictionary.OLIMPIADA.getNames());
     }
 
     // Método para mapear un ResultSet a un objeto Olimpiada
-    private static Olimpiada mapResultSetToOlimpiada(ResultSet resultSet) throws SQLException {
+    static Olimpiada mapResultSetToOlimpiada(ResultSet resultSet) throws SQLException {
         Olimpiada olimpiada = new Olimpiada();
         olimpiada.setId(resultSet.getInt("id_olimpiada"));  // Uso de `id_olimpiada` en toda la clase
         olimpiada.setNombre(resultSet.getString("nombre"));
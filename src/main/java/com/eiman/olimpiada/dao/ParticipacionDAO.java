@@ -1,5 +1,8 @@
 package com.eiman.olimpiada.dao;
 
+import com.eiman.olimpiada.config.DBConfig;
+import com.eiman.olimpiada.log.Log;
+import com.eiman.olimpiada.metrics.DaoMetrics;
 import com.eiman.olimpiada.model.Participacion;
 import java.sql.*;
 import java.util.ArrayList;
@@ -7,121 +10,207 @@ import java.util.List;
 
 public class ParticipacionDAO {
 
-    private static Connection connection;
-
-    public static void setConnection(Connection conn) {
-        connection = conn;
-    }
+    private static final Log LOG = Log.get(ParticipacionDAO.class);
 
     public static boolean insertParticipacion(Participacion participacion) throws SQLException {
-        // Verificar si el id_deportista existe en la tabla deportista
-        if (!existsInTable("deportista", "id_deportista", participacion.getIdDeportista())) {
-            System.out.println("Error: id_deportista no existe en la tabla deportista.");
-            return false;
-        }
+        return DaoMetrics.time("ParticipacionDAO.insertParticipacion", () -> {
+            // Las claves foráneas validan el deportista, el evento y el equipo en la propia inserción
+            String sql = "INSERT INTO participacion (id_deportista, id_evento, id_equipo, medalla) VALUES (?, ?, ?, ?)";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, participacion.getIdDeportista());
+                statement.setInt(2, participacion.getIdEvento());
+                statement.setInt(3, participacion.getIdEquipo());
+                statement.setString(4, participacion.getMedalla());
+                int rowsInserted = statement.executeUpdate();
+                RowCountEstimator.adjust(TableInfo.PARTICIPACION, rowsInserted);
+                if (rowsInserted > 0) {
+                    TableChanges.publish(TableInfo.PARTICIPACION, TableChange.Type.INSERTED,
+                            participacion.getIdDeportista(), participacion.getIdEvento());
+                }
+                return rowsInserted > 0;
+            } catch (SQLException e) {
+                String column = ConstraintViolations.missingReference(e, "id_deportista", "id_evento", "id_equipo");
+                if (column == null) {
+                    throw e;
+                }
+                LOG.warn("Referencia inexistente al insertar", "table", "participacion", "column", column,
+                        "references", column.substring("id_".length()));
+                return false;
+            }
+        });
+    }
 
-        // Verificar si el id_evento existe en la tabla evento
-        if (!existsInTable("evento", "id_evento", participacion.getIdEvento())) {
-            System.out.println("Error: id_evento no existe en la tabla evento.");
-            return false;
-        }
 
-        // Verificar si el id_equipo existe en la tabla equipo
-        if (!existsInTable("equipo", "id_equipo", participacion.getIdEquipo())) {
-            System.out.println("Error: id_equipo no existe en la tabla equipo.");
-            return false;
-        }
-
-        // Inserción en la tabla participacion
-        String sql = "INSERT INTO participacion (id_deportista, id_evento, id_equipo, medalla) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, participacion.getIdDeportista());
-            statement.setInt(2, participacion.getIdEvento());
-            statement.setInt(3, participacion.getIdEquipo());
-            statement.setString(4, participacion.getMedalla());
-            int rowsInserted = statement.executeUpdate();
-            return rowsInserted > 0;
-        }
+    public static boolean updateParticipacion(Participacion participacion) throws SQLException {
+        return DaoMetrics.time("ParticipacionDAO.updateParticipacion", () -> {
+            String sql = "UPDATE participacion SET id_equipo = ?, medalla = ? WHERE id_deportista = ? AND id_evento = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, participacion.getIdEquipo());
+                statement.setString(2, participacion.getMedalla());
+                statement.setInt(3, participacion.getIdDeportista());
+                statement.setInt(4, participacion.getIdEvento());
+                int rowsUpdated = statement.executeUpdate();
+                if (rowsUpdated > 0) {
+                    TableChanges.publish(TableInfo.PARTICIPACION, TableChange.Type.UPDATED,
+                            participacion.getIdDeportista(), participacion.getIdEvento());
+                }
+                return rowsUpdated > 0;
+            }
+        });
     }
 
-    // Método auxiliar para verificar la existencia de un ID en una tabla específica
-    private static boolean existsInTable(String tableName, String columnName, int id) throws SQLException {
-        String query = "SELECT COUNT(*) FROM " + tableName + " WHERE " + columnName + " = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setInt(1, id);
-            try (ResultSet rs = statement.executeQuery()) {
-                return rs.next() && rs.getInt(1) > 0;
+
+    public static boolean deleteParticipacion(int idDeportista, int idEvento) throws SQLException {
+        return DaoMetrics.time("ParticipacionDAO.deleteParticipacion", () -> {
+            String sql = "DELETE FROM participacion WHERE id_deportista = ? AND id_evento = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, idDeportista);
+                statement.setInt(2, idEvento);
+                int rowsDeleted = statement.executeUpdate();
+                RowCountEstimator.adjust(TableInfo.PARTICIPACION, -rowsDeleted);
+                if (rowsDeleted > 0) {
+                    TableChanges.publish(TableInfo.PARTICIPACION, TableChange.Type.DELETED, idDeportista, idEvento);
+                }
+                return rowsDeleted > 0;
             }
-        }
+        });
     }
 
-
-    public static boolean updateParticipacion(Participacion participacion) throws SQLException {
-        String sql = "UPDATE participacion SET id_equipo = ?, medalla = ? WHERE id_deportista = ? AND id_evento = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, participacion.getIdEquipo());
-            statement.setString(2, participacion.getMedalla());
-            statement.setInt(3, participacion.getIdDeportista());
-            statement.setInt(4, participacion.getIdEvento());
-            return statement.executeUpdate() > 0;
-        }
+    // Inserta varias participaciones en lotes. No se comprueban las referencias una a una:
+    // un deportista, evento o equipo inexistente hace fallar esa fila.
+    public static BatchResult insertParticipaciones(List<Participacion> participaciones, int batchSize) throws SQLException {
+        return DaoMetrics.time("ParticipacionDAO.insertParticipaciones", () -> {
+            String sql = "INSERT INTO participacion (id_deportista, id_evento, id_equipo, medalla) VALUES (?, ?, ?, ?)";
+            BatchResult result = BatchWriter.execute(sql, participaciones, batchSize, (statement, participacion) -> {
+                statement.setInt(1, participacion.getIdDeportista());
+                statement.setInt(2, participacion.getIdEvento());
+                statement.setInt(3, participacion.getIdEquipo());
+                statement.setString(4, participacion.getMedalla());
+            });
+            RowCountEstimator.adjust(TableInfo.PARTICIPACION, result.getSuccessCount());
+            TableChanges.publishBatch(TableInfo.PARTICIPACION, TableChange.Type.INSERTED, participaciones, result,
+                    p -> new int[]{p.getIdDeportista(), p.getIdEvento()});
+            return result;
+        });
     }
 
+    // Actualiza varias participaciones en lotes
+    public static BatchResult updateParticipaciones(List<Participacion> participaciones, int batchSize) throws SQLException {
+        return DaoMetrics.time("ParticipacionDAO.updateParticipaciones", () -> {
+            String sql = "UPDATE participacion SET id_equipo = ?, medalla = ? WHERE id_deportista = ? AND id_evento = ?";
+            BatchResult result = BatchWriter.execute(sql, participaciones, batchSize, (statement, participacion) -> {
+                statement.setInt(1, participacion.getIdEquipo());
+                statement.setString(2, participacion.getMedalla());
+                statement.setInt(3, participacion.getIdDeportista());
+                statement.setInt(4, participacion.getIdEvento());
+            });
+            TableChanges.publishBatch(TableInfo.PARTICIPACION, TableChange.Type.UPDATED, participaciones, result,
+                    p -> new int[]{p.getIdDeportista(), p.getIdEvento()});
+            return result;
+        });
+    }
 
-    public static boolean deleteParticipacion(int idDeportista, int idEvento) throws SQLException {
-        String sql = "DELETE FROM participacion WHERE id_deportista = ? AND id_evento = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, idDeportista);
-            statement.setInt(2, idEvento);
-            return statement.executeUpdate() > 0;
-        }
+    // Elimina varias participaciones en lotes; solo se usan los IDs de deportista y evento de cada elemento
+    public static BatchResult deleteParticipaciones(List<Participacion> participaciones, int batchSize) throws SQLException {
+        return DaoMetrics.time("ParticipacionDAO.deleteParticipaciones", () -> {
+            String sql = "DELETE FROM participacion WHERE id_deportista = ? AND id_evento = ?";
+            BatchResult result = BatchWriter.execute(sql, participaciones, batchSize, (statement, participacion) -> {
+                statement.setInt(1, participacion.getIdDeportista());
+                statement.setInt(2, participacion.getIdEvento());
+            });
+            RowCountEstimator.adjust(TableInfo.PARTICIPACION, -result.getSuccessCount());
+            TableChanges.publishBatch(TableInfo.PARTICIPACION, TableChange.Type.DELETED, participaciones, result,
+                    p -> new int[]{p.getIdDeportista(), p.getIdEvento()});
+            return result;
+        });
     }
 
     public static boolean exists(int idDeportista, int idEvento, int idEquipo) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM participacion WHERE id_deportista = ? AND id_evento = ? AND id_equipo = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, idDeportista);
-            statement.setInt(2, idEvento);
-            statement.setInt(3, idEquipo);
-
-            try (ResultSet rs = statement.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0; // Retorna true si existe al menos una coincidencia
+        return DaoMetrics.time("ParticipacionDAO.exists", () -> {
+            String sql = "SELECT COUNT(*) FROM participacion WHERE id_deportista = ? AND id_evento = ? AND id_equipo = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, idDeportista);
+                statement.setInt(2, idEvento);
+                statement.setInt(3, idEquipo);
+
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getInt(1) > 0; // Retorna true si existe al menos una coincidencia
+                    }
                 }
             }
-        }
-        return false;
+            return false;
+        });
     }
 
 
     public static Participacion getParticipacionById(int idDeportista, int idEvento) throws SQLException {
-        String sql = "SELECT * FROM participacion WHERE id_deportista = ? AND id_evento = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, idDeportista);
-            statement.setInt(2, idEvento);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return mapResultSetToParticipacion(resultSet);
+        return DaoMetrics.time("ParticipacionDAO.getParticipacionById", () -> {
+            String sql = "SELECT * FROM participacion WHERE id_deportista = ? AND id_evento = ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, idDeportista);
+                statement.setInt(2, idEvento);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        return mapResultSetToParticipacion(resultSet);
+                    }
                 }
             }
-        }
-        return null;
+            return null;
+        });
     }
 
     public static List<Participacion> getAllParticipaciones() throws SQLException {
-        List<Participacion> participaciones = new ArrayList<>();
-        String sql = "SELECT * FROM participacion";
-        try (Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(sql)) {
+        return DaoMetrics.time("ParticipacionDAO.getAllParticipaciones", () -> {
+            List<Participacion> participaciones = new ArrayList<>();
+            String sql = "SELECT * FROM participacion";
+            try (Connection connection = DBConfig.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(sql)) {
+
+                while (resultSet.next()) {
+                    participaciones.add(mapResultSetToParticipacion(resultSet));
+                }
+            }
+            return participaciones;
+        });
+    }
 
-            while (resultSet.next()) {
-                participaciones.add(mapResultSetToParticipacion(resultSet));
+    /**
+     * Recupera una página de participaciones ordenadas por la clave compuesta (id_deportista, id_evento),
+     * a partir de la clave indicada (paginación por clave).
+     *
+     * @param afterIdDeportista id_deportista de la última participación de la página anterior (0 para la primera página).
+     * @param afterIdEvento     id_evento de la última participación de la página anterior (0 para la primera página).
+     * @param pageSize          Número máximo de participaciones a devolver.
+     * @return Una lista con, como mucho, pageSize participaciones.
+     * @throws SQLException si ocurre un error de acceso a la base de datos.
+     */
+    public static List<Participacion> getParticipacionesPage(int afterIdDeportista, int afterIdEvento, int pageSize) throws SQLException {
+        return DaoMetrics.time("ParticipacionDAO.getParticipacionesPage", () -> {
+            List<Participacion> participaciones = new ArrayList<>();
+            String sql = "SELECT * FROM participacion WHERE " + TableInfo.PARTICIPACION.keysetPredicate()
+                    + " ORDER BY " + TableInfo.PARTICIPACION.orderBy() + " LIMIT ?";
+            try (Connection connection = DBConfig.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                int index = TableInfo.PARTICIPACION.bindKeyset(statement, 1, new int[]{afterIdDeportista, afterIdEvento});
+                statement.setInt(index, pageSize);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        participaciones.add(mapResultSetToParticipacion(resultSet));
+                    }
+                }
             }
-        }
-        return participaciones;
+            return participaciones;
+        });
     }
 
-    private static Participacion mapResultSetToParticipacion(ResultSet resultSet) throws SQLException {
+    static Participacion mapResultSetToParticipacion(ResultSet resultSet) throws SQLException {
         Participacion participacion = new Participacion();
         participacion.setIdDeportista(resultSet.getInt("id_deportista"));
         participacion.setIdEvento(resultSet.getInt("id_evento"));
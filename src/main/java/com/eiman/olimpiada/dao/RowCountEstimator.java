@@ -0,0 +1,81 @@
+package com.eiman.olimpiada.dao;
+
+import com.eiman.olimpiada.config.DBConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estimación del número de filas de cada tabla sin ejecutar un {@code COUNT(*)} completo.
+ * El valor inicial se toma de las estadísticas de {@code information_schema} y después se mantiene
+ * con las inserciones y borrados de los DAOs y con lo que se observa al paginar.
+ */
+public final class RowCountEstimator {
+
+    private static final Map<TableInfo, AtomicLong> ESTIMATES = new ConcurrentHashMap<>();
+
+    private RowCountEstimator() {
+    }
+
+    /**
+     * Devuelve la estimación actual de filas de la tabla, consultando las estadísticas la primera vez.
+     *
+     * @param table Tabla de la que se quiere la estimación.
+     * @return Número aproximado de filas.
+     * @throws SQLException si ocurre un error de acceso a la base de datos.
+     */
+    public static long getEstimate(TableInfo table) throws SQLException {
+        AtomicLong estimate = ESTIMATES.get(table);
+        if (estimate == null) {
+            estimate = ESTIMATES.computeIfAbsent(table, t -> new AtomicLong(-1));
+        }
+        if (estimate.get() < 0) {
+            estimate.compareAndSet(-1, loadStatistics(table));
+        }
+        return estimate.get();
+    }
+
+    /**
+     * Ajusta la estimación tras insertar (delta positivo) o borrar (delta negativo) filas.
+     */
+    public static void adjust(TableInfo table, long delta) {
+        AtomicLong estimate = ESTIMATES.get(table);
+        if (estimate != null) {
+            estimate.updateAndGet(value -> value < 0 ? value : Math.max(0, value + delta));
+        }
+    }
+
+    /**
+     * Registra el número exacto de filas cuando se conoce (por ejemplo, al llegar a la última página).
+     */
+    public static void correct(TableInfo table, long exactCount) {
+        ESTIMATES.computeIfAbsent(table, t -> new AtomicLong()).set(exactCount);
+    }
+
+    /**
+     * Garantiza que la estimación no sea menor que las filas que ya se han visto.
+     */
+    public static void atLeast(TableInfo table, long seenRows) {
+        ESTIMATES.computeIfAbsent(table, t -> new AtomicLong(-1))
+                .updateAndGet(value -> value < 0 ? value : Math.max(value, seenRows));
+    }
+
+    private static long loadStatistics(TableInfo table) throws SQLException {
+        String sql = DBConfig.getBackend().getRowCountEstimateSql();
+        try (Connection connection = DBConfig.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, table.getTableName());
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) {
+                    return Math.max(0, rs.getLong(1));
+                }
+            }
+        }
+        return 0; // Sin estadísticas: se irá corrigiendo al paginar
+    }
+}
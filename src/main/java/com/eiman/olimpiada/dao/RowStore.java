@@ -0,0 +1,316 @@
+package com.eiman.olimpiada.dao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Almacén por columnas de las filas de la tabla de la vista principal.
+ * <p>
+ * Cada columna se guarda en un array de su tipo: {@code int[]} para los enteros, {@code double[]} para los
+ * decimales y, para el texto, un {@code int[]} de códigos de un diccionario propio de la columna, de modo
+ * que cada valor distinto (sexo, medalla, temporada...) se guarda una sola vez. Los nulos de las columnas
+ * numéricas se marcan en un {@link BitSet}. Las filas se leen con vistas {@link GridRow} que solo guardan
+ * el almacén y la posición.
+ * <p>
+ * Solo se añaden filas, desde el hilo que lee la consulta; una vez entregado al hilo de JavaFX el almacén
+ * ya no cambia.
+ */
+final class RowStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Textos de números ya formateados (edades, años, pesos...), compartidos por todos los almacenes para que
+    // pintar una celda numérica no cree cada vez un String nuevo. Es una caché de correspondencia directa; sus
+    // entradas son inmutables, así que se puede leer y sustituir desde cualquier hilo sin sincronizar.
+    private static final int NUMBER_TEXT_BITS = 12;
+    private static final NumberText[] NUMBER_TEXTS = new NumberText[1 << NUMBER_TEXT_BITS];
+
+    private final TableInfo table; // null en el almacén de las filas de relleno
+    private final List<String> columnNames;
+    private final ColumnType[] types;
+    private final int[] scales; // Decimales de las columnas DECIMAL, para mostrarlas como la base de datos
+    private final boolean[] cachedTexts; // Columnas numéricas con valores repetidos, cuyos textos se guardan
+
+    private final int[][] ints;
+    private final double[][] doubles;
+    private final int[][] codes;
+    private final BitSet[] nulls;
+    private final Dictionary[] dictionaries;
+    private String[] searchKeys; // Claves de búsqueda ya calculadas (ver GridRow#getSearchKey)
+    private int capacity;
+    private int rowCount;
+
+    private RowStore(TableInfo table, List<String> columnNames, ColumnType[] types, int[] scales, int capacity) {
+        this.table = table;
+        this.columnNames = columnNames;
+        this.types = types;
+        this.scales = scales;
+        this.capacity = capacity;
+        int columns = types.length;
+        searchKeys = new String[capacity];
+        cachedTexts = new boolean[columns];
+        for (int column = 0; column < columns; column++) {
+            cachedTexts[column] = types[column] != ColumnType.STRING;
+        }
+        if (table != null) {
+            // Las claves no se repiten: guardarlas solo desplazaría de la caché los valores que sí se repiten
+            for (int position : table.keyPositions()) {
+                cachedTexts[position] = false;
+            }
+        }
+        ints = new int[columns][];
+        doubles = new double[columns][];
+        codes = new int[columns][];
+        nulls = new BitSet[columns];
+        dictionaries = new Dictionary[columns];
+        for (int column = 0; column < columns; column++) {
+            switch (types[column]) {
+                case INT:
+                    ints[column] = new int[capacity];
+                    nulls[column] = new BitSet();
+                    break;
+                case DOUBLE:
+                    doubles[column] = new double[capacity];
+                    nulls[column] = new BitSet();
+                    break;
+                default:
+                    codes[column] = new int[capacity];
+                    dictionaries[column] = new Dictionary();
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Crea un almacén vacío con las columnas de una consulta.
+     */
+    static RowStore forResultSet(TableInfo table, ResultSetMetaData metaData, int expectedRows) throws SQLException {
+        int columns = metaData.getColumnCount();
+        List<String> names = new ArrayList<>(columns);
+        ColumnType[] types = new ColumnType[columns];
+        int[] scales = new int[columns];
+        for (int i = 0; i < columns; i++) {
+            int sqlType = metaData.getColumnType(i + 1);
+            names.add(metaData.getColumnName(i + 1));
+            types[i] = ColumnType.of(sqlType);
+            boolean fixedScale = sqlType == Types.DECIMAL || sqlType == Types.NUMERIC;
+            scales[i] = fixedScale ? Math.max(0, metaData.getScale(i + 1)) : -1;
+        }
+        return new RowStore(table, Collections.unmodifiableList(names), types, scales,
+                Math.max(1, Math.min(expectedRows, INITIAL_CAPACITY * 64)));
+    }
+
+    /**
+     * Almacén de una sola fila con todas las columnas a null, para los huecos de la lista virtual.
+     */
+    static RowStore placeholder(int columns) {
+        ColumnType[] types = new ColumnType[columns];
+        Arrays.fill(types, ColumnType.STRING);
+        int[] scales = new int[columns];
+        Arrays.fill(scales, -1);
+        RowStore store = new RowStore(null, Collections.nCopies(columns, ""), types, scales, 1);
+        Arrays.fill(store.codes, new int[]{-1});
+        store.rowCount = 1;
+        return store;
+    }
+
+    /**
+     * Añade la fila actual del ResultSet, leyendo cada columna con el método de su tipo.
+     *
+     * @return La posición de la fila en el almacén.
+     */
+    int append(ResultSet rs) throws SQLException {
+        int row = rowCount;
+        if (row == capacity) {
+            grow();
+        }
+        for (int column = 0; column < types.length; column++) {
+            switch (types[column]) {
+                case INT:
+                    ints[column][row] = rs.getInt(column + 1);
+                    if (rs.wasNull()) {
+                        nulls[column].set(row);
+                    }
+                    break;
+                case DOUBLE:
+                    doubles[column][row] = rs.getDouble(column + 1);
+                    if (rs.wasNull()) {
+                        nulls[column].set(row);
+                    }
+                    break;
+                default:
+                    codes[column][row] = dictionaries[column].encode(rs.getString(column + 1));
+                    break;
+            }
+        }
+        rowCount++;
+        return row;
+    }
+
+    private void grow() {
+        capacity = Math.max(INITIAL_CAPACITY, capacity * 2);
+        searchKeys = Arrays.copyOf(searchKeys, capacity);
+        for (int column = 0; column < types.length; column++) {
+            if (ints[column] != null) {
+                ints[column] = Arrays.copyOf(ints[column], capacity);
+            } else if (doubles[column] != null) {
+                doubles[column] = Arrays.copyOf(doubles[column], capacity);
+            } else {
+                codes[column] = Arrays.copyOf(codes[column], capacity);
+            }
+        }
+    }
+
+    TableInfo getTable() {
+        return table;
+    }
+
+    List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    int getColumnCount() {
+        return types.length;
+    }
+
+    ColumnType getType(int column) {
+        return types[column];
+    }
+
+    boolean isNull(int row, int column) {
+        return types[column] == ColumnType.STRING ? codes[column][row] < 0 : nulls[column].get(row);
+    }
+
+    int getInt(int row, int column) {
+        return ints[column][row];
+    }
+
+    double getDouble(int row, int column) {
+        return doubles[column][row];
+    }
+
+    String getString(int row, int column) {
+        return dictionaries[column].decode(codes[column][row]);
+    }
+
+    /**
+     * Texto de una celda con el mismo formato con el que lo devolvería la base de datos ({@code 70.00} en una
+     * columna DECIMAL(5, 2)), o null si la celda es nula.
+     */
+    String getText(int row, int column) {
+        if (isNull(row, column)) {
+            return null;
+        }
+        ColumnType type = types[column];
+        if (type == ColumnType.STRING) {
+            return getString(row, column);
+        }
+        long bits = type == ColumnType.INT ? ints[column][row] : Double.doubleToLongBits(doubles[column][row]);
+        if (!cachedTexts[column]) {
+            return formatNumber(type, scales[column], bits);
+        }
+        int slot = (int) (((bits + 31L * scales[column] + type.ordinal()) * 0x9E3779B97F4A7C15L) >>> (64 - NUMBER_TEXT_BITS));
+        NumberText cached = NUMBER_TEXTS[slot];
+        if (cached != null && cached.matches(type, scales[column], bits)) {
+            return cached.text;
+        }
+        String text = formatNumber(type, scales[column], bits);
+        NUMBER_TEXTS[slot] = new NumberText(type, scales[column], bits, text);
+        return text;
+    }
+
+    /**
+     * Clave de búsqueda de una fila: los textos de sus celdas normalizados con
+     * {@link GridRow#normalizeForSearch} y separados por saltos de línea, para que una búsqueda no abarque
+     * dos celdas. Se calcula la primera vez que se pide y se guarda; varios hilos pueden pedir a la vez
+     * claves de filas distintas, siempre que ya no se añadan filas al almacén.
+     */
+    String getSearchKey(int row) {
+        String key = searchKeys[row];
+        if (key == null) {
+            StringBuilder builder = new StringBuilder();
+            for (int column = 0; column < types.length; column++) {
+                String text = getText(row, column);
+                if (text != null) {
+                    builder.append(text);
+                }
+                builder.append('\n');
+            }
+            key = GridRow.normalizeForSearch(builder.toString());
+            searchKeys[row] = key;
+        }
+        return key;
+    }
+
+    private static String formatNumber(ColumnType type, int scale, long bits) {
+        if (type == ColumnType.INT) {
+            return Integer.toString((int) bits);
+        }
+        double value = Double.longBitsToDouble(bits);
+        return scale >= 0
+                ? BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP).toPlainString()
+                : Double.toString(value);
+    }
+
+    /**
+     * Texto de un número formateado, en la caché de textos de números.
+     */
+    private static final class NumberText {
+        private final ColumnType type;
+        private final int scale;
+        private final long bits;
+        private final String text;
+
+        private NumberText(ColumnType type, int scale, long bits, String text) {
+            this.type = type;
+            this.scale = scale;
+            this.bits = bits;
+            this.text = text;
+        }
+
+        private boolean matches(ColumnType type, int scale, long bits) {
+            return this.bits == bits && this.type == type && this.scale == scale;
+        }
+    }
+
+    /**
+     * Diccionario de los textos de una columna: cada texto distinto recibe un código, y la columna guarda
+     * solo los códigos. El código -1 representa null.
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> index = new HashMap<>();
+        private String[] values = new String[16];
+        private int size;
+
+        int encode(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer code = index.get(value);
+            if (code == null) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                code = size;
+                values[size++] = value;
+                index.put(value, code);
+            }
+            return code;
+        }
+
+        String decode(int code) {
+            return code < 0 ? null : values[code];
+        }
+    }
+}
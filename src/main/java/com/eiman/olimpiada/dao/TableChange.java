@@ -0,0 +1,53 @@
+package com.eiman.olimpiada.dao;
+
+import java.util.Arrays;
+
+/**
+ * Cambio de una fila hecho por un DAO: qué tabla, qué tipo de cambio y la clave primaria de la fila
+ * (con el ID generado, en el caso de las inserciones). Se publica con {@link TableChanges}. Un cambio
+ * {@link Type#RELOADED} afecta a muchas filas a la vez y no tiene clave.
+ */
+public final class TableChange {
+
+    /**
+     * Tipo de cambio de la fila.
+     */
+    public enum Type {
+        INSERTED,
+        UPDATED,
+        DELETED,
+        /** Un lote ha cambiado demasiadas filas para avisarlas una a una: hay que volver a leer la tabla. */
+        RELOADED
+    }
+
+    private final TableInfo table;
+    private final Type type;
+    private final int[] key;
+
+    TableChange(TableInfo table, Type type, int... key) {
+        this.table = table;
+        this.type = type;
+        this.key = key;
+    }
+
+    public TableInfo getTable() {
+        return table;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Valores de la clave primaria de la fila, en el orden de {@link TableInfo#getPrimaryKey()}. Vacío en los
+     * cambios {@link Type#RELOADED}.
+     */
+    public int[] getKey() {
+        return key.clone();
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + table.getTableName() + " " + Arrays.toString(key);
+    }
+}
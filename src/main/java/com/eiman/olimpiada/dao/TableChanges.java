@@ -0,0 +1,83 @@
+package com.eiman.olimpiada.dao;
+
+import com.eiman.olimpiada.log.Log;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Avisos de los cambios de filas hechos por los DAOs, para que la vista principal actualice solo la fila
+ * afectada en lugar de volver a leer la tabla.
+ * <p>
+ * Las operaciones de una fila (insertar, actualizar y eliminar) publican un {@link TableChange} cuando la
+ * sentencia ha modificado la fila. Las operaciones por lotes publican un cambio por cada fila escrita, o uno
+ * solo de tipo {@link TableChange.Type#RELOADED} si son más de {@link #MAX_BATCH_ROW_CHANGES}, porque leer
+ * las filas una a una costaría más que volver a leer la tabla. La importación del CSV no usa los DAOs y
+ * recarga la tabla al terminar.
+ * <p>
+ * Los oyentes se llaman en el hilo que ejecutó el DAO, normalmente uno del DBExecutor; si tocan la interfaz
+ * tienen que pasar al hilo de JavaFX.
+ */
+public final class TableChanges {
+
+    private static final Log LOG = Log.get(TableChanges.class);
+
+    // Filas escritas por un lote a partir de las cuales se avisa un único cambio RELOADED
+    static final int MAX_BATCH_ROW_CHANGES = 100;
+
+    private static final List<Consumer<TableChange>> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private TableChanges() {
+    }
+
+    public static void addListener(Consumer<TableChange> listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(Consumer<TableChange> listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Avisa a los oyentes de un cambio. Un oyente que falla no impide avisar a los demás ni afecta al DAO.
+     */
+    static void publish(TableInfo table, TableChange.Type type, int... key) {
+        if (LISTENERS.isEmpty()) {
+            return;
+        }
+        notifyListeners(new TableChange(table, type, key));
+    }
+
+    /**
+     * Avisa de las filas escritas por una operación por lotes: una por una, con la clave que devuelve
+     * {@code keyOf} para cada elemento que se ha escrito, o con un solo cambio RELOADED si son muchas.
+     */
+    static <T> void publishBatch(TableInfo table, TableChange.Type type, List<T> items, BatchResult result,
+                                 Function<T, int[]> keyOf) {
+        if (LISTENERS.isEmpty()) {
+            return;
+        }
+        int written = result.getSuccessCount();
+        if (written > MAX_BATCH_ROW_CHANGES) {
+            notifyListeners(new TableChange(table, TableChange.Type.RELOADED));
+            return;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            if (result.isSuccess(i)) {
+                notifyListeners(new TableChange(table, type, keyOf.apply(items.get(i))));
+            }
+        }
+    }
+
+    private static void notifyListeners(TableChange change) {
+        for (Consumer<TableChange> listener : LISTENERS) {
+            try {
+                listener.accept(change);
+            } catch (RuntimeException e) {
+                LOG.error("Error al avisar de un cambio", e, "change", change);
+            }
+        }
+    }
+}
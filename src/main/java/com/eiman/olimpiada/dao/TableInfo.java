@@ -0,0 +1,226 @@
+package com.eiman.olimpiada.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Descripción de las tablas de la aplicación: nombre, columnas de listado, columnas de la clave primaria y
+ * columnas indexadas por las que busca el filtro del servidor.
+ * Se usa para construir las consultas paginadas por clave (keyset) de forma genérica.
+ */
+public enum TableInfo {
+    // Los listados de deportistas no incluyen la columna foto (BLOB); se carga aparte al abrir un deportista
+    // Solo se busca en columnas que encabezan un índice (clave primaria, claves ajenas e índices de V2 y V3)
+    DEPORTISTA("deportista", new String[]{"id_deportista", "nombre", "sexo", "edad", "peso", "altura"},
+            new String[]{"nombre"}, new String[]{"id_deportista"}, "id_deportista"),
+    EQUIPO("equipo", new String[]{"id_equipo", "nombre", "iniciales"},
+            new String[]{"nombre"}, new String[]{"id_equipo"}, "id_equipo"),
+    EVENTO("evento", new String[]{"id_evento", "nombre", "id_olimpiada", "id_deporte"},
+            new String[]{"nombre"}, new String[]{"id_evento", "id_olimpiada", "id_deporte"}, "id_evento"),
+    OLIMPIADA("olimpiada", new String[]{"id_olimpiada", "nombre", "anio", "temporada", "ciudad"},
+            new String[]{"nombre"}, new String[]{"id_olimpiada", "anio"}, "id_olimpiada"),
+    PARTICIPACION("participacion", new String[]{"id_deportista", "id_evento", "id_equipo", "medalla"},
+            new String[]{}, new String[]{"id_deportista", "id_evento", "id_equipo"}, "id_deportista", "id_evento"),
+    DEPORTE("deporte", new String[]{"id_deporte", "nombre"},
+            new String[]{"nombre"}, new String[]{"id_deporte"}, "id_deporte");
+
+    private final String tableName;
+    private final String[] listColumns;
+    private final String[] textSearchColumns;
+    private final String[] numberSearchColumns;
+    private final String[] primaryKey;
+    private final int[] keyPositions; // Posición de cada columna de la clave en las columnas de listado
+
+    TableInfo(String tableName, String[] listColumns, String[] textSearchColumns, String[] numberSearchColumns,
+              String... primaryKey) {
+        this.tableName = tableName;
+        this.listColumns = listColumns;
+        this.textSearchColumns = textSearchColumns;
+        this.numberSearchColumns = numberSearchColumns;
+        this.primaryKey = primaryKey;
+        this.keyPositions = new int[primaryKey.length];
+        for (int i = 0; i < primaryKey.length; i++) {
+            keyPositions[i] = Arrays.asList(listColumns).indexOf(primaryKey[i]);
+        }
+    }
+
+    /**
+     * Obtiene la descripción de una tabla a partir de su nombre, sin distinguir mayúsculas.
+     *
+     * @param name Nombre de la tabla (por ejemplo "Deportista").
+     * @return La tabla correspondiente.
+     * @throws IllegalArgumentException si el nombre no corresponde a ninguna tabla.
+     */
+    public static TableInfo fromName(String name) {
+        for (TableInfo table : values()) {
+            if (table.tableName.equalsIgnoreCase(name)) {
+                return table;
+            }
+        }
+        throw new IllegalArgumentException("Tabla desconocida: " + name);
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Columnas que se muestran en los listados, sin columnas binarias.
+     */
+    public String[] getListColumns() {
+        return listColumns.clone();
+    }
+
+    /**
+     * Lista de columnas para la cláusula SELECT de los listados.
+     */
+    public String listProjection() {
+        return String.join(", ", listColumns);
+    }
+
+    /**
+     * Columnas de la clave primaria, en el orden en que se pagina.
+     */
+    public String[] getPrimaryKey() {
+        return primaryKey.clone();
+    }
+
+    /**
+     * Cláusula ORDER BY por la clave primaria.
+     */
+    public String orderBy() {
+        return String.join(", ", primaryKey);
+    }
+
+    /**
+     * Condición que selecciona las filas posteriores a una clave. Para la clave compuesta se expande
+     * a {@code a > ? OR (a = ? AND b > ?)}, que MySQL resuelve con un rango sobre la clave primaria.
+     */
+    public String keysetPredicate() {
+        if (primaryKey.length == 1) {
+            return primaryKey[0] + " > ?";
+        }
+        return "(" + primaryKey[0] + " > ? OR (" + primaryKey[0] + " = ? AND " + primaryKey[1] + " > ?))";
+    }
+
+    /**
+     * Asigna los parámetros de {@link #keysetPredicate()}.
+     *
+     * @param statement Sentencia a preparar.
+     * @param index     Índice del primer parámetro.
+     * @param key       Valores de la clave tras la que se continúa.
+     * @return El índice del siguiente parámetro libre.
+     * @throws SQLException si ocurre un error de acceso a la base de datos.
+     */
+    public int bindKeyset(PreparedStatement statement, int index, int[] key) throws SQLException {
+        statement.setInt(index++, key[0]);
+        if (primaryKey.length > 1) {
+            statement.setInt(index++, key[0]);
+            statement.setInt(index++, key[1]);
+        }
+        return index;
+    }
+
+    /**
+     * Condición del filtro del servidor para un texto: empieza por el texto en las columnas de texto indexadas
+     * (un LIKE de prefijo, que usa el índice) y, si el texto es un número entero, es igual a él en las columnas
+     * numéricas indexadas. Las mayúsculas se distinguen según la intercalación de la columna.
+     *
+     * @param text Texto buscado, sin espacios al principio ni al final.
+     * @return La condición, o null si la tabla no tiene columnas en las que buscar ese texto.
+     */
+    public String searchPredicate(String text) {
+        StringBuilder predicate = new StringBuilder();
+        for (String column : textSearchColumns) {
+            predicate.append(predicate.length() == 0 ? "" : " OR ").append(column).append(" LIKE ?");
+        }
+        if (isNumber(text)) {
+            for (String column : numberSearchColumns) {
+                predicate.append(predicate.length() == 0 ? "" : " OR ").append(column).append(" = ?");
+            }
+        }
+        return predicate.length() == 0 ? null : "(" + predicate + ")";
+    }
+
+    /**
+     * Asigna los parámetros de {@link #searchPredicate(String)}. Los comodines de LIKE del texto se escapan
+     * para que se busquen literalmente.
+     *
+     * @return El índice del siguiente parámetro libre.
+     * @throws SQLException si ocurre un error de acceso a la base de datos.
+     */
+    public int bindSearch(PreparedStatement statement, int index, String text) throws SQLException {
+        String prefix = text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        for (int i = 0; i < textSearchColumns.length; i++) {
+            statement.setString(index++, prefix);
+        }
+        if (isNumber(text)) {
+            int number = Integer.parseInt(text);
+            for (int i = 0; i < numberSearchColumns.length; i++) {
+                statement.setInt(index++, number);
+            }
+        }
+        return index;
+    }
+
+    // Número entero sin signo que cabe en un INT
+    private static boolean isNumber(String text) {
+        if (text.isEmpty() || text.length() > 9) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Condición que selecciona una fila por su clave primaria completa.
+     */
+    public String keyPredicate() {
+        return String.join(" = ? AND ", primaryKey) + " = ?";
+    }
+
+    /**
+     * Asigna los parámetros de {@link #keyPredicate()}.
+     *
+     * @return El índice del siguiente parámetro libre.
+     * @throws SQLException si ocurre un error de acceso a la base de datos.
+     */
+    public int bindKey(PreparedStatement statement, int index, int[] key) throws SQLException {
+        for (int value : key) {
+            statement.setInt(index++, value);
+        }
+        return index;
+    }
+
+    /**
+     * Posición de cada columna de la clave primaria dentro de las columnas de listado.
+     */
+    int[] keyPositions() {
+        return keyPositions;
+    }
+
+    /**
+     * Compara dos claves en el orden en que se pagina la tabla.
+     */
+    public static int compareKeys(int[] a, int[] b) {
+        return Arrays.compare(a, b);
+    }
+
+    /**
+     * Lee la clave primaria de la fila actual.
+     */
+    public int[] readKey(ResultSet resultSet) throws SQLException {
+        int[] key = new int[primaryKey.length];
+        for (int i = 0; i < primaryKey.length; i++) {
+            key[i] = resultSet.getInt(primaryKey[i]);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,45 @@
+package com.eiman.olimpiada.grid;
+
+import com.eiman.olimpiada.dao.GridRow;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableView;
+
+import java.util.List;
+
+/**
+ * Celda de la tabla de la vista principal que lee su valor directamente de la fila ({@link GridRow}).
+ * <p>
+ * Las columnas no tienen cellValueFactory: con él, el TableView crea un CellDataFeatures y una propiedad
+ * por cada celda que pinta, solo para leer un valor que ya está en la fila. Esta celda toma la fila de la
+ * lista del TableView cada vez que se actualiza su índice, lo que también ocurre cuando la fila de su
+ * posición se sustituye, y solo da formato al texto si la fila es otra: las filas son inmutables, así que
+ * el texto de la misma fila no cambia.
+ */
+public class GridCell extends TableCell<GridRow, Void> {
+
+    private final int column;
+    private GridRow rendered; // Fila cuyo texto se muestra, o null
+
+    /**
+     * @param column Posición de la columna en las filas.
+     */
+    public GridCell(int column) {
+        this.column = column;
+    }
+
+    @Override
+    public void updateIndex(int index) {
+        super.updateIndex(index);
+        GridRow row = rowAt(index);
+        if (row != rendered) {
+            rendered = row;
+            setText(row == null ? null : row.getText(column));
+        }
+    }
+
+    private GridRow rowAt(int index) {
+        TableView<GridRow> view = getTableView();
+        List<GridRow> items = view == null ? null : view.getItems();
+        return items != null && index >= 0 && index < items.size() ? items.get(index) : null;
+    }
+}
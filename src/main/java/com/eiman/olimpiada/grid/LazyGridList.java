@@ -0,0 +1,463 @@
+package com.eiman.olimpiada.grid;
+
+import com.eiman.olimpiada.dao.GridDAO;
+import com.eiman.olimpiada.dao.GridPage;
+import com.eiman.olimpiada.dao.GridRow;
+import com.eiman.olimpiada.dao.RowCountEstimator;
+import com.eiman.olimpiada.dao.TableInfo;
+import com.eiman.olimpiada.log.Log;
+import com.eiman.olimpiada.metrics.SqlProfiler;
+import com.eiman.olimpiada.service.DBExecutor;
+import javafx.collections.ObservableListBase;
+import javafx.concurrent.Task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lista observable para el TableView que representa una tabla completa sin tenerla en memoria.
+ * Informa del tamaño total estimado y carga bloques de filas bajo demanda a medida que el
+ * VirtualFlow pide filas visibles. Conserva como mucho {@code maxBlocks} bloques (LRU) y
+ * precarga el bloque siguiente en la dirección del desplazamiento.
+ * <p>
+ * Los cambios de una fila hechos desde la aplicación se aplican con {@link #insertRow}, {@link #updateRow} y
+ * {@link #deleteRow} sin volver a leer la tabla: se retocan los bloques cargados contiguos a la fila y se
+ * descartan los posteriores, cuyas posiciones se han desplazado; esos se vuelven a leer si se muestran.
+ * <p>
+ * Todos los métodos se usan desde el hilo de JavaFX; las consultas se lanzan con {@link DBExecutor}.
+ */
+public class LazyGridList extends ObservableListBase<GridRow> {
+
+    private static final Log LOG = Log.get(LazyGridList.class);
+
+    private final TableInfo table;
+    private final List<String> columnNames;
+    private final int blockSize;
+    private final GridRow placeholder;
+
+    // Bloques cargados, en orden de acceso para expulsar el menos usado
+    private final LinkedHashMap<Integer, List<GridRow>> blocks;
+    // Clave de la última fila de cada bloque leído, para pedir el siguiente por clave
+    private final Map<Integer, int[]> blockEndKeys = new HashMap<>();
+    private final Map<Integer, Task<?>> pending = new HashMap<>();
+
+    private int size;
+    private boolean endKnown;
+    private int lastBlock = -1;
+    private boolean disposed;
+
+    /**
+     * Crea la lista a partir del primer bloque ya leído.
+     *
+     * @param table         Tabla representada.
+     * @param firstBlock    Primer bloque de la tabla, leído con {@link GridDAO#getPage}.
+     * @param estimatedRows Número estimado de filas de la tabla.
+     * @param blockSize     Filas por bloque.
+     * @param maxBlocks     Número máximo de bloques en memoria.
+     */
+    public LazyGridList(TableInfo table, GridPage firstBlock, long estimatedRows, int blockSize, int maxBlocks) {
+        this.table = table;
+        this.columnNames = firstBlock.getColumnNames();
+        this.blockSize = blockSize;
+        this.placeholder = GridRow.placeholder(columnNames.size());
+        this.blocks = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<GridRow>> eldest) {
+                return size() > maxBlocks;
+            }
+        };
+
+        storeBlock(0, firstBlock);
+        if (firstBlock.mayHaveMore()) {
+            size = (int) Math.min(Integer.MAX_VALUE, Math.max(estimatedRows, 2L * blockSize));
+        } else {
+            size = firstBlock.getRows().size();
+            endKnown = true;
+        }
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public TableInfo getTable() {
+        return table;
+    }
+
+    /**
+     * Indica si la fila es un hueco pendiente de cargar.
+     */
+    public boolean isPlaceholder(GridRow row) {
+        return row == placeholder;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Busca solo entre las filas cargadas. La implementación heredada recorrería toda la lista pidiendo cada
+     * bloque; el TableView la usa para recuperar la fila seleccionada tras un cambio.
+     */
+    @Override
+    public int indexOf(Object o) {
+        if (o == null || o == placeholder) {
+            return -1;
+        }
+        int found = -1;
+        for (Map.Entry<Integer, List<GridRow>> entry : blocks.entrySet()) {
+            List<GridRow> rows = entry.getValue();
+            for (int i = 0; i < rows.size(); i++) {
+                if (o.equals(rows.get(i))) {
+                    int index = entry.getKey() * blockSize + i;
+                    if (found < 0 || index < found) {
+                        found = index;
+                    }
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public GridRow get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Índice " + index + " fuera de rango (tamaño " + size + ")");
+        }
+        int block = index / blockSize;
+        List<GridRow> rows = blocks.get(block);
+        prefetch(block);
+        if (rows == null) {
+            requestBlock(block);
+            return placeholder;
+        }
+        int offset = index % blockSize;
+        return offset < rows.size() ? rows.get(offset) : placeholder;
+    }
+
+    /**
+     * Cancela las cargas pendientes. Se llama cuando la lista deja de mostrarse.
+     */
+    public void dispose() {
+        disposed = true;
+        for (Task<?> task : pending.values()) {
+            task.cancel();
+        }
+        pending.clear();
+        blocks.clear();
+    }
+
+    /**
+     * Precarga el bloque contiguo en la dirección en que se está desplazando la vista.
+     */
+    private void prefetch(int block) {
+        if (block == lastBlock) {
+            return;
+        }
+        int direction = block > lastBlock ? 1 : -1;
+        lastBlock = block;
+        int next = block + direction;
+        if (next >= 0 && (long) next * blockSize < size && !blocks.containsKey(next)) {
+            requestBlock(next);
+        }
+    }
+
+    private void requestBlock(int block) {
+        if (disposed || pending.containsKey(block)) {
+            return;
+        }
+        cancelDistantRequests(block);
+
+        int[] afterKey = block == 0 ? null : blockEndKeys.get(block - 1);
+        boolean bySeek = block == 0 || afterKey != null;
+        long offset = (long) block * blockSize;
+        // Si entretanto se descarta el bloque (por un cambio de filas), la lectura ya no vale
+        Task<?>[] request = new Task<?>[1];
+        SqlProfiler.Action profile = SqlProfiler.beginAction("gridBlock:" + table.getTableName());
+        Task<GridPage> task = DBExecutor.submit(
+                () -> bySeek ? GridDAO.getPage(table, afterKey, blockSize) : GridDAO.getPageAt(table, offset, blockSize),
+                page -> {
+                    if (pending.get(block) == request[0]) {
+                        onBlockLoaded(block, page, bySeek);
+                    }
+                },
+                error -> {
+                    pending.remove(block, request[0]);
+                    LOG.error("Error al cargar un bloque", error, "table", table.getTableName(), "block", block);
+                });
+        request[0] = task;
+        profile.close();
+        if (!task.isDone()) {
+            pending.put(block, task);
+        }
+    }
+
+    /**
+     * Al desplazarse rápido, las peticiones de bloques que ya quedaron atrás no se necesitan.
+     */
+    private void cancelDistantRequests(int block) {
+        Iterator<Map.Entry<Integer, Task<?>>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Task<?>> entry = it.next();
+            if (Math.abs(entry.getKey() - block) > 2) {
+                entry.getValue().cancel();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * @param bySeek Si el bloque se leyó por clave; si no, se leyó con OFFSET ({@link GridDAO#getPageAt}).
+     */
+    private void onBlockLoaded(int block, GridPage page, boolean bySeek) {
+        pending.remove(block);
+        if (disposed) {
+            return;
+        }
+        int start = block * blockSize;
+        int loaded = page.getRows().size();
+        if (loaded == 0 && !bySeek && block > 0) {
+            // Un OFFSET más allá del final no dice dónde acaba la tabla, solo que acaba antes: se recorta la
+            // lista y se lee el bloque anterior, sin dar por exacto el tamaño
+            resize(Math.min(size, start));
+            requestBlock(blockEndKeys.containsKey(block - 1) ? block : block - 1);
+            return;
+        }
+        storeBlock(block, page);
+
+        if (!page.mayHaveMore()) {
+            // Último bloque: ya se conoce el tamaño exacto
+            endKnown = true;
+            RowCountEstimator.correct(table, (long) start + loaded);
+            resize(start + loaded);
+        } else if (!endKnown && start + 2 * blockSize > size) {
+            // La estimación se quedó corta: se añade un bloque más
+            resize(start + 2 * blockSize);
+        }
+
+        int end = Math.min(start + loaded, size);
+        if (start < end) {
+            beginChange();
+            for (int i = start; i < end; i++) {
+                nextSet(i, placeholder);
+            }
+            endChange();
+        }
+    }
+
+    private void storeBlock(int block, GridPage page) {
+        blocks.put(block, new ArrayList<>(page.getRows()));
+        if (page.getLastKey() != null) {
+            blockEndKeys.put(block, page.getLastKey());
+        }
+    }
+
+    /**
+     * Añade una fila recién insertada en la posición que le corresponde por su clave.
+     *
+     * @param row Fila leída con {@link GridDAO#getRow}.
+     */
+    public void insertRow(GridRow row) {
+        if (disposed) {
+            return;
+        }
+        Position position = locate(row.getKey());
+        if (position.found) {
+            return; // Ya estaba: el bloque se leyó después de la inserción
+        }
+        int index = position.exact ? splice(position.index, row) : invalidateFrom(position.index);
+        size++;
+        beginChange();
+        nextAdd(index, index + 1);
+        endChange();
+    }
+
+    /**
+     * Sustituye una fila cargada por su versión recién leída. Como las filas son iguales si tienen la misma
+     * clave, el TableView mantiene la selección. Si la fila no está en memoria no hay nada que hacer: se leerá
+     * con su bloque.
+     */
+    public void updateRow(GridRow row) {
+        if (disposed) {
+            return;
+        }
+        Position position = locate(row.getKey());
+        if (!position.found) {
+            return;
+        }
+        GridRow old = blocks.get(position.index / blockSize).set(position.index % blockSize, row);
+        beginChange();
+        nextSet(position.index, old);
+        endChange();
+    }
+
+    /**
+     * Quita una fila eliminada.
+     */
+    public void deleteRow(int[] key) {
+        if (disposed || size == 0) {
+            return;
+        }
+        Position position = locate(key);
+        GridRow removed = placeholder;
+        int index;
+        if (position.found) {
+            removed = blocks.get(position.index / blockSize).get(position.index % blockSize);
+            index = splice(position.index, null);
+        } else if (position.exact) {
+            return; // Estaba en un bloque cargado y no aparece: ya se había quitado
+        } else {
+            index = Math.min(invalidateFrom(position.index), size - 1);
+        }
+        size--;
+        beginChange();
+        nextRemove(index, removed);
+        endChange();
+    }
+
+    /**
+     * Calcula dónde está (o estaría) una fila según su clave, usando las claves finales de los bloques leídos.
+     * La posición es exacta si cae en un bloque cargado; si no, es el inicio del primer bloque en el que
+     * podría estar.
+     */
+    private Position locate(int[] key) {
+        // La fila está entre el bloque siguiente al último que termina antes de la clave y el primero que
+        // termina en ella o después
+        int from = 0;
+        int to = Integer.MAX_VALUE;
+        for (Map.Entry<Integer, int[]> entry : blockEndKeys.entrySet()) {
+            int block = entry.getKey();
+            if (TableInfo.compareKeys(entry.getValue(), key) < 0) {
+                from = Math.max(from, block + 1);
+            } else {
+                to = Math.min(to, block);
+            }
+        }
+        if (to == Integer.MAX_VALUE && endKnown && (long) from * blockSize >= size) {
+            from = size / blockSize; // Detrás de la última fila de la tabla
+            to = from;
+        }
+        List<GridRow> rows = from == to ? blocks.get(from) : null;
+        if (rows == null) {
+            return new Position(Math.min((long) from * blockSize, size), false, false);
+        }
+        int low = 0;
+        int high = rows.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = TableInfo.compareKeys(rows.get(middle).getKey(), key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return new Position(from * blockSize + middle, true, true);
+            }
+        }
+        return new Position(from * blockSize + low, true, false);
+    }
+
+    /**
+     * Inserta (o quita, si {@code row} es null) una fila en un bloque cargado y reparte las filas entre ese
+     * bloque y los cargados contiguos a él, para que cada bloque siga teniendo {@code blockSize} filas. El
+     * primer bloque que no se puede completar y todos los siguientes se descartan.
+     *
+     * @return La posición del cambio.
+     */
+    private int splice(int index, GridRow row) {
+        int first = index / blockSize;
+        List<GridRow> chain = new ArrayList<>();
+        int last = first;
+        while (blocks.containsKey(last)) {
+            chain.addAll(blocks.get(last));
+            last++;
+        }
+        // Si la cadena llega al final de la tabla, el último bloque puede quedar incompleto
+        boolean reachesEnd = endKnown && (long) last * blockSize >= size;
+        int offset = index - first * blockSize;
+        if (row != null) {
+            chain.add(offset, row);
+        } else {
+            chain.remove(offset);
+        }
+
+        int block = first;
+        for (int start = 0; start < chain.size(); start += blockSize) {
+            int end = Math.min(start + blockSize, chain.size());
+            if (end - start < blockSize && !reachesEnd) {
+                break;
+            }
+            List<GridRow> rows = new ArrayList<>(chain.subList(start, end));
+            blocks.put(block, rows);
+            blockEndKeys.put(block, rows.get(rows.size() - 1).getKey());
+            block++;
+        }
+        invalidateFrom(block * blockSize);
+        return index;
+    }
+
+    /**
+     * Descarta los bloques a partir del que contiene la posición indicada, con sus claves finales y las
+     * lecturas pendientes, porque sus filas se han desplazado. Se volverán a leer cuando se muestren.
+     *
+     * @return La posición indicada.
+     */
+    private int invalidateFrom(int index) {
+        int first = index / blockSize;
+        blocks.keySet().removeIf(block -> block >= first);
+        blockEndKeys.keySet().removeIf(block -> block >= first);
+        Iterator<Map.Entry<Integer, Task<?>>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Task<?>> entry = it.next();
+            if (entry.getKey() >= first) {
+                entry.getValue().cancel();
+                it.remove();
+            }
+        }
+        return index;
+    }
+
+    private void resize(int newSize) {
+        if (newSize == size) {
+            return;
+        }
+        beginChange();
+        if (newSize < size) {
+            List<GridRow> removed = Collections.nCopies(size - newSize, placeholder);
+            size = newSize;
+            nextRemove(newSize, removed);
+        } else {
+            int oldSize = size;
+            size = newSize;
+            nextAdd(oldSize, newSize);
+        }
+        endChange();
+    }
+
+    /**
+     * Posición de una fila en la lista.
+     */
+    private static final class Position {
+        private final int index;
+        private final boolean exact; // Cae en un bloque cargado
+        private final boolean found; // La fila está en ese bloque
+
+        private Position(long index, boolean exact, boolean found) {
+            this.index = (int) index;
+            this.exact = exact;
+            this.found = found;
+        }
+    }
+}
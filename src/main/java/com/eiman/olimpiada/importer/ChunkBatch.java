@@ -0,0 +1,95 @@
+package com.eiman.olimpiada.importer;
+
+import com.eiman.olimpiada.config.DBConfig;
+import com.eiman.olimpiada.dao.NameDictionary;
+import com.eiman.olimpiada.dao.RowCountEstimator;
+import com.eiman.olimpiada.dao.TableInfo;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registros nuevos de un bloque, agrupados por tabla en el orden en que deben insertarse.
+ * Los IDs vienen ya asignados por quien llena el bloque (la importación del CSV o el generador sintético).
+ */
+final class ChunkBatch {
+    final List<Object[]> deportes = new ArrayList<>();
+    final List<Object[]> olimpiadas = new ArrayList<>();
+    final List<Object[]> equipos = new ArrayList<>();
+    final List<Object[]> deportistas = new ArrayList<>();
+    final List<Object[]> eventos = new ArrayList<>();
+    final List<Object[]> participaciones = new ArrayList<>();
+
+    /**
+     * Inserta el bloque en una sola transacción; si falla no queda nada escrito.
+     */
+    void write() throws SQLException {
+        try (Connection connection = DBConfig.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                execute(connection);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private void execute(Connection connection) throws SQLException {
+        insert(connection, "INSERT INTO deporte (id_deporte, nombre) VALUES (?, ?)", deportes);
+        insert(connection, "INSERT INTO olimpiada (id_olimpiada, nombre, anio, temporada, ciudad) VALUES (?, ?, ?, ?, ?)", olimpiadas);
+        insert(connection, "INSERT INTO equipo (id_equipo, nombre, iniciales) VALUES (?, ?, ?)", equipos);
+        insert(connection, "INSERT INTO deportista (id_deportista, nombre, sexo, edad, peso, altura, id_csv) VALUES (?, ?, ?, ?, ?, ?, ?)", deportistas);
+        insert(connection, "INSERT INTO evento (id_evento, nombre, id_olimpiada, id_deporte) VALUES (?, ?, ?, ?)", eventos);
+        insert(connection, "INSERT INTO participacion (id_deportista, id_evento, id_equipo, medalla) VALUES (?, ?, ?, ?)", participaciones);
+    }
+
+    private static void insert(Connection connection, String sql, List<Object[]> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    Object value = row[i];
+                    if (value == null) {
+                        statement.setNull(i + 1, Types.NULL);
+                    } else if (value instanceof Integer) {
+                        statement.setInt(i + 1, (Integer) value);
+                    } else if (value instanceof Double) {
+                        statement.setDouble(i + 1, (Double) value);
+                    } else {
+                        statement.setString(i + 1, value.toString());
+                    }
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * Las altas se han hecho sin pasar por los DAOs: se descartan los diccionarios y se corrigen las estimaciones.
+     *
+     * @param inserted Registros insertados por tabla.
+     */
+    static void refreshCaches(ImportProgress inserted) {
+        NameDictionary.DEPORTE.invalidate();
+        NameDictionary.EQUIPO.invalidate();
+        NameDictionary.OLIMPIADA.invalidate();
+        NameDictionary.EVENTO.invalidate();
+        RowCountEstimator.adjust(TableInfo.DEPORTE, inserted.getDeportes());
+        RowCountEstimator.adjust(TableInfo.OLIMPIADA, inserted.getOlimpiadas());
+        RowCountEstimator.adjust(TableInfo.EQUIPO, inserted.getEquipos());
+        RowCountEstimator.adjust(TableInfo.DEPORTISTA, inserted.getDeportistas());
+        RowCountEstimator.adjust(TableInfo.EVENTO, inserted.getEventos());
+        RowCountEstimator.adjust(TableInfo.PARTICIPACION, inserted.getParticipaciones());
+    }
+}
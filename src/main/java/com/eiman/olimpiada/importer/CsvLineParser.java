@@ -0,0 +1,98 @@
+package com.eiman.olimpiada.importer;
+
+import java.util.Arrays;
+
+/**
+ * Separa una línea CSV en campos. Admite campos entre comillas dobles con comas dentro
+ * y comillas escapadas como {@code ""}.
+ */
+final class CsvLineParser {
+
+    private CsvLineParser() {
+    }
+
+    /**
+     * Separa una línea en, como mucho, {@code columns} campos. Si la línea tiene menos, el resto queda a null.
+     *
+     * @param line    Línea del fichero (puede contener saltos de línea dentro de un campo entre comillas).
+     * @param columns Número de columnas esperado.
+     * @return Los campos de la línea.
+     */
+    static String[] parse(String line, int columns) {
+        String[] fields = new String[columns];
+        int field = 0;
+        int length = line.length();
+        int pos = 0;
+        StringBuilder quoted = null;
+
+        while (field < columns && pos <= length) {
+            if (pos < length && line.charAt(pos) == '"') {
+                // Campo entre comillas: se copia carácter a carácter hasta la comilla de cierre
+                if (quoted == null) {
+                    quoted = new StringBuilder();
+                } else {
+                    quoted.setLength(0);
+                }
+                pos++;
+                while (pos < length) {
+                    char c = line.charAt(pos);
+                    if (c == '"') {
+                        if (pos + 1 < length && line.charAt(pos + 1) == '"') {
+                            quoted.append('"');
+                            pos += 2;
+                            continue;
+                        }
+                        pos++;
+                        break;
+                    }
+                    quoted.append(c);
+                    pos++;
+                }
+                fields[field++] = quoted.toString();
+                // Saltar hasta la siguiente coma
+                while (pos < length && line.charAt(pos) != ',') {
+                    pos++;
+                }
+                pos++;
+            } else {
+                int end = line.indexOf(',', pos);
+                if (end < 0) {
+                    end = length;
+                }
+                fields[field++] = line.substring(pos, end);
+                pos = end + 1;
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Indica si la línea deja unas comillas abiertas, es decir, si el campo continúa en la línea siguiente.
+     */
+    static boolean hasOpenQuote(CharSequence line) {
+        int quotes = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return (quotes & 1) != 0;
+    }
+
+    /**
+     * Devuelve la posición de cada nombre de columna en la cabecera, o -1 si no está.
+     */
+    static int[] indexOf(String[] header, String... names) {
+        int[] positions = new int[names.length];
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < names.length; i++) {
+            for (int j = 0; j < header.length; j++) {
+                if (header[j] != null && header[j].trim().equalsIgnoreCase(names[i])) {
+                    positions[i] = j;
+                    break;
+                }
+            }
+        }
+        return positions;
+    }
+}
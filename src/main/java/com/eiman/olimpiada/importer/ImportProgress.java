@@ -0,0 +1,95 @@
+package com.eiman.olimpiada.importer;
+
+/**
+ * Estado de una importación en un momento dado: bytes y filas leídos y registros insertados por tabla.
+ * En la generación de datos sintéticos ({@link SyntheticDatasetGenerator}) el avance se mide en participaciones
+ * generadas en lugar de bytes.
+ */
+public final class ImportProgress {
+
+    private final long bytesRead;
+    private final long totalBytes;
+    private final long rowsRead;
+    private final long elapsedMillis;
+    private final int deportistas;
+    private final int equipos;
+    private final int deportes;
+    private final int olimpiadas;
+    private final int eventos;
+    private final int participaciones;
+    private final boolean finished;
+
+    ImportProgress(long bytesRead, long totalBytes, long rowsRead, long elapsedMillis,
+                   int deportistas, int equipos, int deportes, int olimpiadas, int eventos, int participaciones,
+                   boolean finished) {
+        this.bytesRead = bytesRead;
+        this.totalBytes = totalBytes;
+        this.rowsRead = rowsRead;
+        this.elapsedMillis = elapsedMillis;
+        this.deportistas = deportistas;
+        this.equipos = equipos;
+        this.deportes = deportes;
+        this.olimpiadas = olimpiadas;
+        this.eventos = eventos;
+        this.participaciones = participaciones;
+        this.finished = finished;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Fracción del fichero procesada, entre 0 y 1.
+     */
+    public double getFraction() {
+        return totalBytes <= 0 ? 0 : Math.min(1.0, (double) bytesRead / totalBytes);
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Filas del CSV procesadas por segundo desde el inicio de la importación.
+     */
+    public long getRowsPerSecond() {
+        return elapsedMillis <= 0 ? 0 : rowsRead * 1000 / elapsedMillis;
+    }
+
+    public int getDeportistas() {
+        return deportistas;
+    }
+
+    public int getEquipos() {
+        return equipos;
+    }
+
+    public int getDeportes() {
+        return deportes;
+    }
+
+    public int getOlimpiadas() {
+        return olimpiadas;
+    }
+
+    public int getEventos() {
+        return eventos;
+    }
+
+    public int getParticipaciones() {
+        return participaciones;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+}
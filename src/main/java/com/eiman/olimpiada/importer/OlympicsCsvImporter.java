@@ -0,0 +1,500 @@
+package com.eiman.olimpiada.importer;
+
+import com.eiman.olimpiada.config.DBConfig;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Importación masiva del conjunto de datos histórico de los Juegos Olímpicos ("120 years of Olympic history",
+ * fichero {@code athlete_events.csv}): una fila por deportista y prueba, con las columnas
+ * ID, Name, Sex, Age, Height, Weight, Team, NOC, Games, Year, Season, City, Sport, Event y Medal.
+ * <p>
+ * El fichero se lee en streaming por bloques de líneas que se analizan en paralelo. Los bloques se procesan
+ * en el orden del fichero: se resuelven las claves naturales (equipo, deporte y olimpiada por nombre, evento
+ * por nombre y olimpiada, deportista por el ID del CSV, que se guarda en {@code deportista.id_csv}, y
+ * participación por deportista y evento) contra lo que ya hay en la base de datos y se insertan solo los
+ * registros nuevos, con lotes JDBC y una transacción por bloque. Así, importar de nuevo el mismo fichero, o
+ * repetir una importación que falló a medias, no duplica nada.
+ * <p>
+ * Los IDs de los registros nuevos se asignan aquí (a partir del máximo existente al empezar) para no tener
+ * que leer las claves generadas. Esto no es seguro si otro proceso escribe a la vez: una alta hecha desde la
+ * aplicación u otra importación simultánea tomaría los mismos IDs, y el bloque fallaría por clave duplicada.
+ * No deben hacerse altas mientras dura la importación. Si un bloque falla se deshace ese bloque y se detiene
+ * la importación; los bloques anteriores quedan guardados.
+ */
+public final class OlympicsCsvImporter {
+
+    private static final int CHUNK_ROWS = 10_000;
+    private static final int MAX_NAME_LENGTH = 100;     // VARCHAR(100) de las columnas nombre
+    private static final int MAX_INITIALS_LENGTH = 10;  // VARCHAR(10) de equipo.iniciales
+
+    private static final String[] COLUMNS = {
+            "ID", "Name", "Sex", "Age", "Height", "Weight", "Team", "NOC",
+            "Games", "Year", "Season", "City", "Sport", "Event", "Medal"
+    };
+
+    private final Path file;
+    private final Consumer<ImportProgress> progressListener;
+    private final long totalBytes;
+    private long startNanos;
+    private long rowsRead;
+
+    // Claves naturales ya conocidas -> ID en la base de datos. Solo las usa el hilo que coordina la importación.
+    private final Map<String, Integer> equipos = new HashMap<>();
+    private final Map<String, Integer> deportes = new HashMap<>();
+    private final Map<String, Integer> olimpiadas = new HashMap<>();
+    private final Map<String, Integer> eventos = new HashMap<>();   // id_olimpiada + "|" + nombre
+    private final Map<Integer, Integer> deportistas = new HashMap<>(); // ID del CSV -> id_deportista
+    private final LongHashSet participaciones = new LongHashSet(); // Ver participacionKey
+
+    private int nextEquipoId;
+    private int nextDeporteId;
+    private int nextOlimpiadaId;
+    private int nextEventoId;
+    private int nextDeportistaId;
+
+    private int insertedDeportistas;
+    private int insertedEquipos;
+    private int insertedDeportes;
+    private int insertedOlimpiadas;
+    private int insertedEventos;
+    private int insertedParticipaciones;
+
+    private OlympicsCsvImporter(Path file, Consumer<ImportProgress> progressListener) throws IOException {
+        this.file = file;
+        this.progressListener = progressListener;
+        this.totalBytes = Files.size(file);
+    }
+
+    /**
+     * Importa el fichero indicado. Se ejecuta en el hilo que la llama (nunca el de JavaFX) y usa además
+     * un grupo de hilos propio para analizar las líneas.
+     *
+     * @param file             Fichero athlete_events.csv.
+     * @param progressListener Recibe el estado tras cada bloque y al terminar; se llama desde el hilo de la importación.
+     * @return El estado final de la importación.
+     * @throws IOException  si no se puede leer el fichero o no tiene el formato esperado.
+     * @throws SQLException si falla la escritura en la base de datos.
+     */
+    public static ImportProgress importFile(Path file, Consumer<ImportProgress> progressListener)
+            throws IOException, SQLException {
+        return new OlympicsCsvImporter(file, progressListener).run();
+    }
+
+    private ImportProgress run() throws IOException, SQLException {
+        startNanos = System.nanoTime();
+        loadExistingKeys();
+
+        int parsers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        ExecutorService parserPool = Executors.newFixedThreadPool(parsers, new ParserThreadFactory());
+        // Bloques enviados a analizar, en el orden del fichero. Se limita para no leer el fichero entero en memoria.
+        ArrayDeque<Future<ParsedChunk>> inFlight = new ArrayDeque<>();
+        int maxInFlight = parsers * 2;
+
+        CountingInputStream counter = new CountingInputStream(Files.newInputStream(file));
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(counter, StandardCharsets.UTF_8), 1 << 16)) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new IOException("El fichero está vacío");
+            }
+            int[] columns = CsvLineParser.indexOf(CsvLineParser.parse(stripBom(headerLine), 64), COLUMNS);
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i] < 0) {
+                    throw new IOException("Falta la columna " + COLUMNS[i] + " en la cabecera del fichero");
+                }
+            }
+
+            List<String> lines = new ArrayList<>(CHUNK_ROWS);
+            StringBuilder pending = null; // Línea con un campo entre comillas que continúa en la siguiente
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (pending != null) {
+                    pending.append('\n').append(line);
+                    if (!CsvLineParser.hasOpenQuote(pending)) {
+                        lines.add(pending.toString());
+                        pending = null;
+                    }
+                } else if (CsvLineParser.hasOpenQuote(line)) {
+                    pending = new StringBuilder(line);
+                } else if (!line.isEmpty()) {
+                    lines.add(line);
+                }
+
+                if (lines.size() == CHUNK_ROWS) {
+                    List<String> chunk = lines;
+                    inFlight.add(parserPool.submit(() -> ParsedChunk.parse(chunk, columns)));
+                    lines = new ArrayList<>(CHUNK_ROWS);
+                    if (inFlight.size() >= maxInFlight) {
+                        writeChunk(await(inFlight.poll()), counter.getCount());
+                    }
+                }
+            }
+            if (!lines.isEmpty()) {
+                List<String> chunk = lines;
+                inFlight.add(parserPool.submit(() -> ParsedChunk.parse(chunk, columns)));
+            }
+            while (!inFlight.isEmpty()) {
+                writeChunk(await(inFlight.poll()), counter.getCount());
+            }
+        } finally {
+            parserPool.shutdownNow();
+            ChunkBatch.refreshCaches(snapshot(counter.getCount(), false));
+        }
+
+        ImportProgress result = snapshot(totalBytes, true);
+        progressListener.accept(result);
+        return result;
+    }
+
+    /**
+     * Lee las claves naturales de lo que ya hay en la base de datos y el siguiente ID libre de cada tabla.
+     */
+    private void loadExistingKeys() throws SQLException {
+        try (Connection connection = DBConfig.getConnection();
+             Statement statement = connection.createStatement()) {
+            loadNames(statement, "SELECT id_equipo, nombre FROM equipo ORDER BY id_equipo", equipos);
+            loadNames(statement, "SELECT id_deporte, nombre FROM deporte ORDER BY id_deporte", deportes);
+            loadNames(statement, "SELECT id_olimpiada, nombre FROM olimpiada ORDER BY id_olimpiada", olimpiadas);
+            try (ResultSet rs = statement.executeQuery("SELECT id_evento, nombre, id_olimpiada FROM evento ORDER BY id_evento")) {
+                while (rs.next()) {
+                    eventos.putIfAbsent(eventKey(rs.getInt(3), rs.getString(2)), rs.getInt(1));
+                }
+            }
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT id_csv, id_deportista FROM deportista WHERE id_csv IS NOT NULL")) {
+                while (rs.next()) {
+                    deportistas.put(rs.getInt(1), rs.getInt(2));
+                }
+            }
+            try (ResultSet rs = statement.executeQuery("SELECT id_deportista, id_evento FROM participacion")) {
+                while (rs.next()) {
+                    participaciones.add(participacionKey(rs.getInt(1), rs.getInt(2)));
+                }
+            }
+            nextEquipoId = maxId(statement, "SELECT MAX(id_equipo) FROM equipo") + 1;
+            nextDeporteId = maxId(statement, "SELECT MAX(id_deporte) FROM deporte") + 1;
+            nextOlimpiadaId = maxId(statement, "SELECT MAX(id_olimpiada) FROM olimpiada") + 1;
+            nextEventoId = maxId(statement, "SELECT MAX(id_evento) FROM evento") + 1;
+            nextDeportistaId = maxId(statement, "SELECT MAX(id_deportista) FROM deportista") + 1;
+        }
+    }
+
+    private static void loadNames(Statement statement, String sql, Map<String, Integer> target) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                String name = rs.getString(2);
+                if (name != null) {
+                    target.putIfAbsent(name, rs.getInt(1)); // Con nombres repetidos gana el ID más bajo
+                }
+            }
+        }
+    }
+
+    private static int maxId(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Resuelve las claves de un bloque ya analizado e inserta sus registros nuevos en una sola transacción.
+     */
+    private void writeChunk(ParsedChunk chunk, long bytesRead) throws SQLException {
+        ChunkBatch batch = new ChunkBatch();
+        for (CsvRow row : chunk.rows) {
+            resolve(row, batch);
+        }
+
+        batch.write();
+
+        insertedDeportes += batch.deportes.size();
+        insertedOlimpiadas += batch.olimpiadas.size();
+        insertedEquipos += batch.equipos.size();
+        insertedDeportistas += batch.deportistas.size();
+        insertedEventos += batch.eventos.size();
+        insertedParticipaciones += batch.participaciones.size();
+        rowsRead += chunk.rows.size();
+        progressListener.accept(snapshot(bytesRead, false));
+    }
+
+    /**
+     * Traduce las claves naturales de una fila a IDs, añadiendo al lote los registros que aún no existen.
+     */
+    private void resolve(CsvRow row, ChunkBatch batch) {
+        Integer idDeporte = deportes.get(row.sport);
+        if (idDeporte == null) {
+            idDeporte = nextDeporteId++;
+            deportes.put(row.sport, idDeporte);
+            batch.deportes.add(new Object[]{idDeporte, row.sport});
+        }
+
+        Integer idOlimpiada = olimpiadas.get(row.games);
+        if (idOlimpiada == null) {
+            idOlimpiada = nextOlimpiadaId++;
+            olimpiadas.put(row.games, idOlimpiada);
+            batch.olimpiadas.add(new Object[]{idOlimpiada, row.games, row.year, row.season, row.city});
+        }
+
+        Integer idEquipo = equipos.get(row.team);
+        if (idEquipo == null) {
+            idEquipo = nextEquipoId++;
+            equipos.put(row.team, idEquipo);
+            batch.equipos.add(new Object[]{idEquipo, row.team, row.noc});
+        }
+
+        String eventKey = eventKey(idOlimpiada, row.event);
+        Integer idEvento = eventos.get(eventKey);
+        if (idEvento == null) {
+            idEvento = nextEventoId++;
+            eventos.put(eventKey, idEvento);
+            batch.eventos.add(new Object[]{idEvento, row.event, idOlimpiada, idDeporte});
+        }
+
+        Integer idDeportista = deportistas.get(row.athleteId);
+        if (idDeportista == null) {
+            idDeportista = nextDeportistaId++;
+            deportistas.put(row.athleteId, idDeportista);
+            batch.deportistas.add(new Object[]{idDeportista, row.name, row.sex, row.age, row.weight, row.height,
+                    row.athleteId});
+        }
+
+        // La clave primaria de participacion es (deportista, evento): se ignoran las filas repetidas
+        if (participaciones.add(participacionKey(idDeportista, idEvento))) {
+            batch.participaciones.add(new Object[]{idDeportista, idEvento, idEquipo, row.medal});
+        }
+    }
+
+    private static String eventKey(int idOlimpiada, String nombre) {
+        return idOlimpiada + "|" + nombre;
+    }
+
+    // Clave primaria de participacion (id_deportista, id_evento) en un solo long
+    private static long participacionKey(int idDeportista, int idEvento) {
+        return ((long) idDeportista << 32) | (idEvento & 0xFFFFFFFFL);
+    }
+
+    private ImportProgress snapshot(long bytesRead, boolean finished) {
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        return new ImportProgress(bytesRead, totalBytes, rowsRead, elapsedMillis,
+                insertedDeportistas, insertedEquipos, insertedDeportes, insertedOlimpiadas, insertedEventos,
+                insertedParticipaciones, finished);
+    }
+
+    private static ParsedChunk await(Future<ParsedChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importación interrumpida", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Error al analizar el fichero: " + cause.getMessage(), cause);
+        }
+    }
+
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+    /**
+     * Fila del CSV ya convertida. Los valores "NA" del fichero se guardan como null.
+     */
+    private static final class CsvRow {
+        private int athleteId;
+        private String name;
+        private String sex;
+        private Integer age;
+        private Double height;
+        private Double weight;
+        private String team;
+        private String noc;
+        private String games;
+        private Integer year;
+        private String season;
+        private String city;
+        private String sport;
+        private String event;
+        private String medal;
+    }
+
+    /**
+     * Bloque de filas analizadas por uno de los hilos del grupo de análisis.
+     */
+    private static final class ParsedChunk {
+        private final List<CsvRow> rows;
+
+        private ParsedChunk(List<CsvRow> rows) {
+            this.rows = rows;
+        }
+
+        private static ParsedChunk parse(List<String> lines, int[] columns) throws IOException {
+            List<CsvRow> rows = new ArrayList<>(lines.size());
+            int width = 0;
+            for (int column : columns) {
+                width = Math.max(width, column + 1);
+            }
+            for (String line : lines) {
+                String[] fields = CsvLineParser.parse(line, width);
+                CsvRow row = new CsvRow();
+                try {
+                    row.athleteId = Integer.parseInt(fields[columns[0]].trim());
+                } catch (RuntimeException e) {
+                    throw new IOException("Línea con un ID de deportista no válido: " + line, e);
+                }
+                row.name = truncate(value(fields[columns[1]]), MAX_NAME_LENGTH);
+                row.sex = value(fields[columns[2]]);
+                row.age = parseInteger(fields[columns[3]]);
+                row.height = parseDouble(fields[columns[4]]);
+                row.weight = parseDouble(fields[columns[5]]);
+                row.team = truncate(value(fields[columns[6]]), MAX_NAME_LENGTH);
+                row.noc = truncate(value(fields[columns[7]]), MAX_INITIALS_LENGTH);
+                row.games = truncate(value(fields[columns[8]]), MAX_NAME_LENGTH);
+                row.year = parseInteger(fields[columns[9]]);
+                row.season = toTemporada(value(fields[columns[10]]));
+                row.city = truncate(value(fields[columns[11]]), MAX_NAME_LENGTH);
+                row.sport = truncate(value(fields[columns[12]]), MAX_NAME_LENGTH);
+                row.event = truncate(value(fields[columns[13]]), MAX_NAME_LENGTH);
+                row.medal = toMedalla(value(fields[columns[14]]));
+                if (row.team == null || row.games == null || row.sport == null || row.event == null) {
+                    throw new IOException("Línea sin equipo, juegos, deporte o prueba: " + line);
+                }
+                rows.add(row);
+            }
+            return new ParsedChunk(rows);
+        }
+
+        private static String value(String field) {
+            if (field == null) {
+                return null;
+            }
+            String trimmed = field.trim();
+            return trimmed.isEmpty() || "NA".equals(trimmed) ? null : trimmed;
+        }
+
+        private static String truncate(String value, int maxLength) {
+            return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+        }
+
+        private static Integer parseInteger(String field) {
+            String value = value(field);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return (int) Double.parseDouble(value); // Algunas exportaciones escriben "24.0"
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static Double parseDouble(String field) {
+            String value = value(field);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        // Las temporadas se guardan en español, como las escribe el formulario de olimpiadas
+        private static String toTemporada(String season) {
+            if ("Summer".equalsIgnoreCase(season)) {
+                return "Verano";
+            }
+            if ("Winter".equalsIgnoreCase(season)) {
+                return "Invierno";
+            }
+            return season;
+        }
+
+        // Medallas con los mismos valores que usa el formulario de participaciones; sin medalla queda a null
+        private static String toMedalla(String medal) {
+            if (medal == null) {
+                return null;
+            }
+            switch (medal) {
+                case "Gold":
+                    return "Oro";
+                case "Silver":
+                    return "Plata";
+                case "Bronze":
+                    return "Bronce";
+                default:
+                    return medal;
+            }
+        }
+    }
+
+    /**
+     * Cuenta los bytes leídos del fichero para calcular el progreso.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private volatile long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        private long getCount() {
+            return count;
+        }
+    }
+
+    private static final class ParserThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "olimpiada-csv-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,740 @@
+package com.eiman.olimpiada.importer;
+
+import com.eiman.olimpiada.config.DBConfig;
+import com.eiman.olimpiada.dao.NameDictionary;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Generador de datos sintéticos con la forma del conjunto histórico de los Juegos Olímpicos, para probar
+ * la aplicación con más datos de los reales.
+ * <p>
+ * Con escala 1 se generan unas 271.000 participaciones, como en el fichero histórico: el calendario real de
+ * 29 Juegos de verano y 22 de invierno (1896-2016), con cada vez más pruebas y más pruebas femeninas; unos
+ * 1.200 equipos cuyos tamaños siguen una distribución de Zipf; deportistas con edad, altura y peso según el
+ * deporte y el sexo, que repiten en varias pruebas y ediciones; y un oro, una plata y un bronce por prueba.
+ * Con escala N se generan N réplicas independientes del calendario, con los nombres de olimpiadas y equipos
+ * marcados con la réplica ("1896 Summer (S2)"), para no confundirlos con los datos reales.
+ * <p>
+ * Los datos se pueden escribir directamente en la base de datos (lotes JDBC con IDs asignados aquí, una
+ * transacción por edición, como {@link OlympicsCsvImporter}) o en un fichero con el formato de
+ * {@code athlete_events.csv} que después se carga con la importación. En el fichero, los IDs de deportista
+ * empiezan en {@link #CSV_ATHLETE_ID_BASE}, lejos de los del fichero histórico, porque la importación reconoce
+ * a los deportistas por ese ID: así los sintéticos no se confunden con los reales. Dos ficheros sintéticos
+ * sí comparten IDs, así que importar uno generado con otra semilla encima de otro mezclaría sus deportistas.
+ * Desde la línea de órdenes:
+ * <pre>
+ * java ... com.eiman.olimpiada.importer.SyntheticDatasetGenerator escala [--seed n] [--csv fichero]
+ * </pre>
+ */
+public final class SyntheticDatasetGenerator {
+
+    public static final int MAX_SCALE = 100;
+
+    /**
+     * Primer ID de deportista de los ficheros generados. Los IDs del fichero histórico no llegan a 200.000 y
+     * con la escala máxima hay menos deportistas que participaciones (unos 27 millones), así que no se solapan
+     * ni desbordan un INT.
+     */
+    public static final int CSV_ATHLETE_ID_BASE = 100_000_000;
+
+    private static final int HISTORICAL_PARTICIPACIONES = 271_116;
+    private static final int TEAMS_PER_REPLICA = 1_184;
+    private static final double TEAM_ZIPF_EXPONENT = 0.8; // El equipo más grande reúne en torno al 6 % de los deportistas
+    private static final double REUSE_PROBABILITY = 0.55;  // Plaza ocupada por un deportista que ya ha competido
+    private static final double RETIRE_PROBABILITY = 0.55; // Tras cada edición en la que compite
+
+    private static final int[] SUMMER_YEARS = {
+            1896, 1900, 1904, 1906, 1908, 1912, 1920, 1924, 1928, 1932, 1936, 1948, 1952, 1956, 1960,
+            1964, 1968, 1972, 1976, 1980, 1984, 1988, 1992, 1996, 2000, 2004, 2008, 2012, 2016
+    };
+    private static final String[] SUMMER_CITIES = {
+            "Athina", "Paris", "St. Louis", "Athina", "London", "Stockholm", "Antwerpen", "Paris", "Amsterdam",
+            "Los Angeles", "Berlin", "London", "Helsinki", "Melbourne", "Roma", "Tokyo", "Mexico City", "Munich",
+            "Montreal", "Moskva", "Los Angeles", "Seoul", "Barcelona", "Atlanta", "Sydney", "Athina", "Beijing",
+            "London", "Rio de Janeiro"
+    };
+    private static final int[] WINTER_YEARS = {
+            1924, 1928, 1932, 1936, 1948, 1952, 1956, 1960, 1964, 1968, 1972, 1976, 1980, 1984, 1988,
+            1992, 1994, 1998, 2002, 2006, 2010, 2014
+    };
+    private static final String[] WINTER_CITIES = {
+            "Chamonix", "Sankt Moritz", "Lake Placid", "Garmisch-Partenkirchen", "Sankt Moritz", "Oslo",
+            "Cortina d'Ampezzo", "Squaw Valley", "Innsbruck", "Grenoble", "Sapporo", "Innsbruck", "Lake Placid",
+            "Sarajevo", "Calgary", "Albertville", "Lillehammer", "Nagano", "Salt Lake City", "Torino", "Vancouver",
+            "Sochi"
+    };
+
+    // Deporte, altura (cm) y peso (kg) medios de los hombres, edad media y peso relativo en número de pruebas
+    private static final Sport[] SUMMER_SPORTS = {
+            new Sport("Athletics", 178, 72, 25, 47, false),
+            new Sport("Swimming", 183, 77, 21, 34, false),
+            new Sport("Gymnastics", 168, 63, 22, 18, false),
+            new Sport("Cycling", 178, 72, 26, 18, false),
+            new Sport("Wrestling", 174, 80, 25, 18, false),
+            new Sport("Canoeing", 183, 83, 25, 16, false),
+            new Sport("Shooting", 177, 80, 33, 15, false),
+            new Sport("Weightlifting", 168, 80, 25, 15, false),
+            new Sport("Rowing", 188, 86, 26, 14, false),
+            new Sport("Judo", 176, 80, 25, 14, false),
+            new Sport("Boxing", 174, 66, 24, 13, false),
+            new Sport("Fencing", 180, 75, 27, 10, false),
+            new Sport("Sailing", 180, 78, 30, 10, false),
+            new Sport("Diving", 168, 62, 22, 8, false),
+            new Sport("Taekwondo", 180, 68, 23, 8, false),
+            new Sport("Equestrianism", 178, 72, 34, 6, false),
+            new Sport("Tennis", 181, 74, 25, 5, false),
+            new Sport("Badminton", 176, 70, 26, 5, false),
+            new Sport("Archery", 176, 74, 27, 4, false),
+            new Sport("Table Tennis", 172, 66, 26, 4, false),
+            new Sport("Modern Pentathlon", 181, 72, 26, 2, false),
+            new Sport("Triathlon", 178, 66, 28, 2, false),
+            new Sport("Football", 179, 74, 24, 2, true),
+            new Sport("Basketball", 194, 91, 26, 2, true),
+            new Sport("Volleyball", 190, 82, 26, 2, true),
+            new Sport("Hockey", 177, 72, 25, 2, true),
+            new Sport("Handball", 188, 88, 26, 2, true),
+            new Sport("Water Polo", 188, 89, 26, 2, true)
+    };
+    private static final Sport[] WINTER_SPORTS = {
+            new Sport("Speed Skating", 177, 74, 24, 14, false),
+            new Sport("Cross Country Skiing", 176, 70, 26, 12, false),
+            new Sport("Alpine Skiing", 176, 74, 24, 11, false),
+            new Sport("Biathlon", 177, 70, 27, 11, false),
+            new Sport("Freestyle Skiing", 174, 70, 24, 10, false),
+            new Sport("Snowboarding", 174, 70, 24, 10, false),
+            new Sport("Short Track Speed Skating", 172, 66, 22, 8, false),
+            new Sport("Figure Skating", 168, 60, 21, 5, false),
+            new Sport("Ski Jumping", 176, 64, 23, 4, false),
+            new Sport("Luge", 178, 80, 25, 4, false),
+            new Sport("Bobsleigh", 184, 93, 28, 3, false),
+            new Sport("Nordic Combined", 178, 68, 25, 3, false),
+            new Sport("Skeleton", 178, 80, 29, 2, false),
+            new Sport("Curling", 176, 77, 30, 3, true),
+            new Sport("Ice Hockey", 183, 86, 26, 2, true)
+    };
+
+    private static final String[][] COUNTRIES = {
+            {"United States", "USA"}, {"France", "FRA"}, {"Great Britain", "GBR"}, {"Italy", "ITA"},
+            {"Germany", "GER"}, {"Canada", "CAN"}, {"Japan", "JPN"}, {"Sweden", "SWE"}, {"Australia", "AUS"},
+            {"Hungary", "HUN"}, {"Poland", "POL"}, {"Switzerland", "SUI"}, {"Netherlands", "NED"},
+            {"Finland", "FIN"}, {"Spain", "ESP"}, {"China", "CHN"}, {"Russia", "RUS"}, {"Norway", "NOR"},
+            {"Austria", "AUT"}, {"Czech Republic", "CZE"}, {"Romania", "ROU"}, {"Brazil", "BRA"},
+            {"Belgium", "BEL"}, {"South Korea", "KOR"}, {"Denmark", "DEN"}, {"Argentina", "ARG"},
+            {"Mexico", "MEX"}, {"Bulgaria", "BUL"}, {"Greece", "GRE"}, {"New Zealand", "NZL"},
+            {"India", "IND"}, {"Ukraine", "UKR"}, {"Cuba", "CUB"}, {"Turkey", "TUR"}, {"Kenya", "KEN"},
+            {"Egypt", "EGY"}, {"Portugal", "POR"}, {"Ireland", "IRL"}, {"South Africa", "RSA"}, {"Jamaica", "JAM"}
+    };
+    private static final String[] MALE_NAMES = {
+            "John", "Carlos", "Pierre", "Hans", "Giovanni", "Erik", "Ivan", "Kenji", "Jan", "Luis", "Michael",
+            "Paul", "Andrei", "Lars", "Marco", "Peter", "David", "Juan", "Thomas", "Sergei", "Wei", "Ahmed",
+            "Jose", "Mikko", "Karl", "Antonio", "James", "Pedro", "Istvan", "Olaf"
+    };
+    private static final String[] FEMALE_NAMES = {
+            "Mary", "Maria", "Anna", "Sophie", "Elena", "Ingrid", "Olga", "Yuki", "Laura", "Carmen", "Emma",
+            "Julia", "Katarina", "Marie", "Giulia", "Sarah", "Li", "Ana", "Eva", "Natalia", "Fatima", "Helga",
+            "Lucia", "Agnes", "Irina", "Clara", "Jane", "Rosa", "Marta", "Kirsten"
+    };
+    private static final String[] SURNAMES = {
+            "Smith", "Garcia", "Martin", "Muller", "Rossi", "Johansson", "Ivanov", "Tanaka", "Kowalski", "Silva",
+            "Brown", "Dubois", "Schmidt", "Bianchi", "Andersson", "Petrov", "Suzuki", "Nowak", "Santos", "Jones",
+            "Lopez", "Bernard", "Schneider", "Romano", "Nilsson", "Smirnov", "Watanabe", "Wisniewski", "Pereira",
+            "Williams", "Fernandez", "Thomas", "Fischer", "Colombo", "Larsson", "Popov", "Ito", "Nagy", "Costa",
+            "Taylor", "Gonzalez", "Petit", "Weber", "Ricci", "Olsen", "Kuznetsov", "Yamamoto", "Horvath",
+            "Oliveira", "Wilson", "Rodriguez", "Moreau", "Wagner", "Greco", "Hansen", "Sokolov", "Nakamura",
+            "Novak", "Ferreira", "Evans", "Chen", "Wang", "Kim", "Park", "Nguyen", "Kaya", "Murphy", "Jensen"
+    };
+
+    private final int scale;
+    private final Random random;
+    private final Output output;
+    private final Consumer<ImportProgress> progressListener;
+    private final long expectedParticipaciones;
+    private final double[] teamCdf;
+    private final double participantsPerEvent;
+    private long startNanos;
+
+    // Estado de la réplica en curso
+    private final Map<Integer, List<Athlete>> activeAthletes = new HashMap<>(); // deporte * 2 + sexo -> en activo
+    private int nextAthlete;
+    private int nextEvent;
+
+    private long generatedParticipaciones;
+
+    private SyntheticDatasetGenerator(int scale, long seed, Output output, Consumer<ImportProgress> progressListener) {
+        if (scale < 1 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("La escala debe estar entre 1 y " + MAX_SCALE + ": " + scale);
+        }
+        this.scale = scale;
+        this.random = new Random(seed);
+        this.output = output;
+        this.progressListener = progressListener;
+        this.expectedParticipaciones = (long) HISTORICAL_PARTICIPACIONES * scale;
+        this.teamCdf = zipfCdf(TEAMS_PER_REPLICA, TEAM_ZIPF_EXPONENT);
+        long totalEvents = 0;
+        for (int i = 0; i < SUMMER_YEARS.length; i++) {
+            totalEvents += eventCount(true, i);
+        }
+        for (int i = 0; i < WINTER_YEARS.length; i++) {
+            totalEvents += eventCount(false, i);
+        }
+        this.participantsPerEvent = (double) HISTORICAL_PARTICIPACIONES / totalEvents;
+    }
+
+    /**
+     * Genera los datos y los inserta en la base de datos configurada.
+     *
+     * @param scale            Número de réplicas del conjunto histórico, entre 1 y {@link #MAX_SCALE}.
+     * @param seed             Semilla; con la misma semilla y escala se generan los mismos datos.
+     * @param progressListener Recibe el estado tras cada edición; el avance se mide en participaciones generadas.
+     * @return Los registros insertados por tabla.
+     * @throws SQLException si falla la escritura en la base de datos.
+     */
+    public static ImportProgress generateToDatabase(int scale, long seed, Consumer<ImportProgress> progressListener)
+            throws SQLException {
+        DatabaseOutput output = new DatabaseOutput();
+        try {
+            return new SyntheticDatasetGenerator(scale, seed, output, progressListener).run();
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // La salida a base de datos no usa ficheros
+        } finally {
+            ChunkBatch.refreshCaches(output.inserted());
+        }
+    }
+
+    /**
+     * Genera los datos en un fichero con el formato de {@code athlete_events.csv}, que se puede cargar después
+     * con {@link OlympicsCsvImporter}.
+     *
+     * @param file             Fichero de salida; se sobrescribe si existe.
+     * @param scale            Número de réplicas del conjunto histórico, entre 1 y {@link #MAX_SCALE}.
+     * @param seed             Semilla; con la misma semilla y escala se generan los mismos datos.
+     * @param progressListener Recibe el estado tras cada edición; el avance se mide en participaciones generadas.
+     * @return Los registros escritos por tabla.
+     * @throws IOException si no se puede escribir el fichero.
+     */
+    public static ImportProgress generateToCsv(Path file, int scale, long seed, Consumer<ImportProgress> progressListener)
+            throws IOException {
+        try (CsvOutput output = new CsvOutput(file)) {
+            return new SyntheticDatasetGenerator(scale, seed, output, progressListener).run();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e); // La salida a fichero no usa la base de datos
+        }
+    }
+
+    /**
+     * Punto de entrada para la línea de órdenes: {@code escala [--seed n] [--csv fichero]}.
+     * Sin {@code --csv} escribe en la base de datos configurada (ver {@link com.eiman.olimpiada.config.DatabaseSettings}).
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Uso: SyntheticDatasetGenerator escala [--seed n] [--csv fichero]");
+            System.exit(2);
+        }
+        int scale = Integer.parseInt(args[0]);
+        long seed = 1;
+        Path csv = null;
+        for (int i = 1; i < args.length - 1; i += 2) {
+            if ("--seed".equals(args[i])) {
+                seed = Long.parseLong(args[i + 1]);
+            } else if ("--csv".equals(args[i])) {
+                csv = Paths.get(args[i + 1]);
+            } else {
+                throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        Consumer<ImportProgress> report = progress -> System.out.printf("%3.0f %% - %,d participaciones (%,d/s)%n",
+                progress.getFraction() * 100, progress.getParticipaciones(), progress.getRowsPerSecond());
+        ImportProgress result;
+        if (csv != null) {
+            result = generateToCsv(csv, scale, seed, report);
+        } else {
+            try {
+                result = generateToDatabase(scale, seed, report);
+            } finally {
+                DBConfig.shutdown();
+            }
+        }
+        System.out.printf("Generados: %,d deportistas, %,d equipos, %,d deportes, %,d olimpiadas, %,d eventos, "
+                        + "%,d participaciones en %,d ms%n", result.getDeportistas(), result.getEquipos(),
+                result.getDeportes(), result.getOlimpiadas(), result.getEventos(), result.getParticipaciones(),
+                result.getElapsedMillis());
+    }
+
+    private ImportProgress run() throws IOException, SQLException {
+        startNanos = System.nanoTime();
+        output.begin();
+        for (int replica = 0; replica < scale; replica++) {
+            activeAthletes.clear();
+            // Las ediciones de verano e invierno se generan en orden cronológico
+            int summer = 0;
+            int winter = 0;
+            while (summer < SUMMER_YEARS.length || winter < WINTER_YEARS.length) {
+                boolean isSummer = winter == WINTER_YEARS.length
+                        || (summer < SUMMER_YEARS.length && SUMMER_YEARS[summer] <= WINTER_YEARS[winter]);
+                Games games = isSummer
+                        ? new Games(replica, true, summer, SUMMER_YEARS[summer], SUMMER_CITIES[summer++])
+                        : new Games(replica, false, winter, WINTER_YEARS[winter], WINTER_CITIES[winter++]);
+                generateGames(games);
+                output.write(games);
+                generatedParticipaciones += games.participaciones.size();
+                progressListener.accept(snapshot(false));
+            }
+        }
+        ImportProgress result = snapshot(true);
+        progressListener.accept(result);
+        return result;
+    }
+
+    private ImportProgress snapshot(boolean finished) {
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        ImportProgress written = output.inserted();
+        return new ImportProgress(Math.min(generatedParticipaciones, expectedParticipaciones), expectedParticipaciones,
+                generatedParticipaciones, elapsedMillis, written.getDeportistas(), written.getEquipos(),
+                written.getDeportes(), written.getOlimpiadas(), written.getEventos(), written.getParticipaciones(),
+                finished);
+    }
+
+    /**
+     * Número de pruebas de una edición: crece de forma lineal entre la primera y la última edición
+     * (de 43 a 306 en verano y de 16 a 98 en invierno, como en los datos reales).
+     */
+    private static int eventCount(boolean summer, int index) {
+        int editions = summer ? SUMMER_YEARS.length : WINTER_YEARS.length;
+        double progress = (double) index / (editions - 1);
+        return summer ? (int) Math.round(43 + progress * (306 - 43)) : (int) Math.round(16 + progress * (98 - 16));
+    }
+
+    private void generateGames(Games games) {
+        Sport[] sports = games.summer ? SUMMER_SPORTS : WINTER_SPORTS;
+        int events = eventCount(games.summer, games.index);
+        double progress = (double) games.index / ((games.summer ? SUMMER_YEARS.length : WINTER_YEARS.length) - 1);
+        double womenShare = 0.02 + progress * 0.43; // Del 2 % de las pruebas al 45 %
+
+        // Reparto de las pruebas entre deportes, proporcional a su peso
+        double totalWeight = 0;
+        for (Sport sport : sports) {
+            totalWeight += sport.eventWeight;
+        }
+        int[][] eventNumbers = new int[sports.length][2];
+        List<Event> gameEvents = new ArrayList<>(events);
+        double totalSlots = 0;
+        for (int i = 0; i < events; i++) {
+            int sportIndex = pickSport(sports, totalWeight);
+            int sex = random.nextDouble() < womenShare ? 1 : 0;
+            int number = ++eventNumbers[sportIndex][sex];
+            Sport sport = sports[sportIndex];
+            String name = sport.name + (sex == 0 ? " Men's" : " Women's") + " Event " + number;
+            Event event = new Event(nextEvent++, name, sport, sportIndex, sex);
+            event.weight = (0.5 + random.nextDouble()) * (sport.team ? 4 : 1);
+            totalSlots += event.weight;
+            gameEvents.add(event);
+        }
+        games.events.addAll(gameEvents);
+
+        double participantsInGames = participantsPerEvent * events;
+        List<Athlete> competing = new ArrayList<>();
+        for (Event event : gameEvents) {
+            int participants = Math.max(3, (int) Math.round(participantsInGames * event.weight / totalSlots));
+            List<Athlete> pool = activeAthletes.computeIfAbsent(
+                    (games.summer ? 0 : 1000) + event.sportIndex * 2 + event.sex, key -> new ArrayList<>());
+            List<Athlete> entrants = new ArrayList<>(participants);
+            for (int i = 0; i < participants; i++) {
+                Athlete athlete = null;
+                if (!pool.isEmpty() && random.nextDouble() < REUSE_PROBABILITY) {
+                    Athlete candidate = pool.get(random.nextInt(pool.size()));
+                    if (candidate.lastEvent != event.id) {
+                        athlete = candidate;
+                    }
+                }
+                if (athlete == null) {
+                    athlete = newAthlete(event.sport, event.sex, games.year);
+                    pool.add(athlete);
+                }
+                athlete.lastEvent = event.id;
+                if (athlete.lastGames != games) {
+                    athlete.lastGames = games;
+                    competing.add(athlete);
+                }
+                entrants.add(athlete);
+            }
+            // Un oro, una plata y un bronce por prueba
+            Collections.shuffle(entrants, random);
+            for (int i = 0; i < entrants.size(); i++) {
+                games.participaciones.add(new Entry(entrants.get(i), event, i < 3 ? i + 1 : 0));
+            }
+        }
+
+        // Parte de los que han competido se retiran tras esta edición
+        for (Athlete athlete : competing) {
+            if (random.nextDouble() < RETIRE_PROBABILITY) {
+                athlete.retired = true;
+            }
+        }
+        for (List<Athlete> pool : activeAthletes.values()) {
+            pool.removeIf(athlete -> athlete.retired);
+        }
+    }
+
+    private int pickSport(Sport[] sports, double totalWeight) {
+        double target = random.nextDouble() * totalWeight;
+        for (int i = 0; i < sports.length; i++) {
+            target -= sports[i].eventWeight;
+            if (target < 0) {
+                return i;
+            }
+        }
+        return sports.length - 1;
+    }
+
+    private Athlete newAthlete(Sport sport, int sex, int year) {
+        boolean female = sex == 1;
+        String first = female ? FEMALE_NAMES[random.nextInt(FEMALE_NAMES.length)] : MALE_NAMES[random.nextInt(MALE_NAMES.length)];
+        String name = first + " " + SURNAMES[random.nextInt(SURNAMES.length)];
+        int age = (int) Math.round(clamp(sport.age + random.nextGaussian() * 4, 13, 60));
+        double height = clamp((female ? sport.height - 12 : sport.height) + random.nextGaussian() * (female ? 6.5 : 7), 130, 225);
+        double weight = clamp((female ? sport.weight - 14 : sport.weight) + random.nextGaussian() * (female ? 7 : 9), 30, 180);
+        int team = Arrays.binarySearch(teamCdf, random.nextDouble());
+        team = team >= 0 ? team : Math.min(-team - 1, teamCdf.length - 1);
+        return new Athlete(nextAthlete++, name, female ? "F" : "M", age, year,
+                Math.round(height * 10) / 10.0, Math.round(weight * 10) / 10.0, team);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Distribución acumulada de Zipf: la probabilidad del equipo de rango k es proporcional a 1 / k^exponente.
+     */
+    private static double[] zipfCdf(int size, double exponent) {
+        double[] cdf = new double[size];
+        double sum = 0;
+        for (int k = 0; k < size; k++) {
+            sum += 1 / Math.pow(k + 1, exponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < size; k++) {
+            cdf[k] /= sum;
+        }
+        return cdf;
+    }
+
+    private static String replicaTag(int replica) {
+        return " (S" + (replica + 1) + ")";
+    }
+
+    private static String teamName(int replica, int team) {
+        String country = COUNTRIES[team % COUNTRIES.length][0];
+        int group = team / COUNTRIES.length;
+        // Como en los datos reales ("United States-1"), los equipos secundarios de un país llevan un número
+        return country + (group > 0 ? "-" + group : "") + replicaTag(replica);
+    }
+
+    private static String teamNoc(int team) {
+        return COUNTRIES[team % COUNTRIES.length][1];
+    }
+
+    private static final class Sport {
+        private final String name;
+        private final double height;
+        private final double weight;
+        private final double age;
+        private final double eventWeight;
+        private final boolean team;
+
+        private Sport(String name, double height, double weight, double age, double eventWeight, boolean team) {
+            this.name = name;
+            this.height = height;
+            this.weight = weight;
+            this.age = age;
+            this.eventWeight = eventWeight;
+            this.team = team;
+        }
+    }
+
+    private static final class Athlete {
+        private final int id; // Correlativo dentro de la generación
+        private final String name;
+        private final String sex;
+        private final int age; // Edad en su primera edición
+        private final int firstYear;
+        private final double height;
+        private final double weight;
+        private final int team;
+        private int lastEvent = -1;
+        private Games lastGames;
+        private boolean retired;
+        private boolean written;
+
+        private Athlete(int id, String name, String sex, int age, int firstYear, double height, double weight, int team) {
+            this.id = id;
+            this.name = name;
+            this.sex = sex;
+            this.age = age;
+            this.firstYear = firstYear;
+            this.height = height;
+            this.weight = weight;
+            this.team = team;
+        }
+    }
+
+    private static final class Event {
+        private final int id; // Correlativo dentro de la generación
+        private final String name;
+        private final Sport sport;
+        private final int sportIndex;
+        private final int sex;
+        private double weight;
+
+        private Event(int id, String name, Sport sport, int sportIndex, int sex) {
+            this.id = id;
+            this.name = name;
+            this.sport = sport;
+            this.sportIndex = sportIndex;
+            this.sex = sex;
+        }
+    }
+
+    private static final class Entry {
+        private final Athlete athlete;
+        private final Event event;
+        private final int medal; // 1 oro, 2 plata, 3 bronce, 0 sin medalla
+
+        private Entry(Athlete athlete, Event event, int medal) {
+            this.athlete = athlete;
+            this.event = event;
+            this.medal = medal;
+        }
+    }
+
+    private static final class Games {
+        private final int replica;
+        private final boolean summer;
+        private final int index;
+        private final int year;
+        private final String city;
+        private final List<Event> events = new ArrayList<>();
+        private final List<Entry> participaciones = new ArrayList<>();
+
+        private Games(int replica, boolean summer, int index, int year, String city) {
+            this.replica = replica;
+            this.summer = summer;
+            this.index = index;
+            this.year = year;
+            this.city = city;
+        }
+
+        private String name() {
+            return year + (summer ? " Summer" : " Winter") + replicaTag(replica);
+        }
+    }
+
+    /**
+     * Destino de los datos generados, que recibe una edición completa cada vez.
+     */
+    private interface Output {
+        void begin() throws IOException, SQLException;
+
+        void write(Games games) throws IOException, SQLException;
+
+        /**
+         * Registros escritos hasta ahora por tabla.
+         */
+        ImportProgress inserted();
+    }
+
+    /**
+     * Inserta cada edición en una transacción, con IDs asignados a partir del máximo de cada tabla.
+     */
+    private static final class DatabaseOutput implements Output {
+        private final Map<String, Integer> deportes = new HashMap<>();
+        private final Map<Integer, Integer> equipos = new HashMap<>(); // réplica * equipos + equipo -> id_equipo
+        private int nextDeporteId;
+        private int nextOlimpiadaId;
+        private int nextEquipoId;
+        private int firstDeportistaId;
+        private int firstEventoId;
+
+        private int insertedDeportes;
+        private int insertedOlimpiadas;
+        private int insertedEquipos;
+        private int insertedDeportistas;
+        private int insertedEventos;
+        private int insertedParticipaciones;
+
+        @Override
+        public void begin() throws SQLException {
+            try (Connection connection = DBConfig.getConnection();
+                 Statement statement = connection.createStatement()) {
+                nextDeporteId = maxId(statement, "SELECT MAX(id_deporte) FROM deporte") + 1;
+                nextOlimpiadaId = maxId(statement, "SELECT MAX(id_olimpiada) FROM olimpiada") + 1;
+                nextEquipoId = maxId(statement, "SELECT MAX(id_equipo) FROM equipo") + 1;
+                firstDeportistaId = maxId(statement, "SELECT MAX(id_deportista) FROM deportista") + 1;
+                firstEventoId = maxId(statement, "SELECT MAX(id_evento) FROM evento") + 1;
+            }
+        }
+
+        private static int maxId(Statement statement, String sql) throws SQLException {
+            try (ResultSet rs = statement.executeQuery(sql)) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+
+        @Override
+        public void write(Games games) throws SQLException {
+            ChunkBatch batch = new ChunkBatch();
+            int idOlimpiada = nextOlimpiadaId++;
+            batch.olimpiadas.add(new Object[]{idOlimpiada, games.name(), games.year,
+                    games.summer ? "Verano" : "Invierno", games.city});
+            for (Event event : games.events) {
+                batch.eventos.add(new Object[]{firstEventoId + event.id, event.name, idOlimpiada,
+                        deporteId(event.sport.name, batch)});
+            }
+            for (Entry entry : games.participaciones) {
+                Athlete athlete = entry.athlete;
+                int idEquipo = equipoId(games.replica, athlete.team, batch);
+                if (!athlete.written) {
+                    athlete.written = true;
+                    batch.deportistas.add(new Object[]{firstDeportistaId + athlete.id, athlete.name, athlete.sex,
+                            athlete.age, athlete.weight, athlete.height, null});
+                }
+                batch.participaciones.add(new Object[]{firstDeportistaId + athlete.id, firstEventoId + entry.event.id,
+                        idEquipo, entry.medal == 1 ? "Oro" : entry.medal == 2 ? "Plata" : entry.medal == 3 ? "Bronce" : null});
+            }
+            batch.write();
+
+            insertedDeportes += batch.deportes.size();
+            insertedOlimpiadas += batch.olimpiadas.size();
+            insertedEquipos += batch.equipos.size();
+            insertedDeportistas += batch.deportistas.size();
+            insertedEventos += batch.eventos.size();
+            insertedParticipaciones += batch.participaciones.size();
+        }
+
+        private int deporteId(String name, ChunkBatch batch) throws SQLException {
+            Integer id = deportes.get(name);
+            if (id == null) {
+                // Se reutilizan los deportes que ya existan, por ejemplo tras importar los datos reales
+                id = NameDictionary.DEPORTE.getId(name);
+                if (id < 0) {
+                    id = nextDeporteId++;
+                    batch.deportes.add(new Object[]{id, name});
+                }
+                deportes.put(name, id);
+            }
+            return id;
+        }
+
+        private int equipoId(int replica, int team, ChunkBatch batch) {
+            Integer key = replica * TEAMS_PER_REPLICA + team;
+            Integer id = equipos.get(key);
+            if (id == null) {
+                id = nextEquipoId++;
+                equipos.put(key, id);
+                batch.equipos.add(new Object[]{id, teamName(replica, team), teamNoc(team)});
+            }
+            return id;
+        }
+
+        @Override
+        public ImportProgress inserted() {
+            return new ImportProgress(0, 0, 0, 0, insertedDeportistas, insertedEquipos, insertedDeportes,
+                    insertedOlimpiadas, insertedEventos, insertedParticipaciones, false);
+        }
+    }
+
+    /**
+     * Escribe una fila por participación con las columnas de {@code athlete_events.csv}.
+     */
+    private static final class CsvOutput implements Output, AutoCloseable {
+        private final BufferedWriter writer;
+        private final Map<String, Boolean> deportes = new HashMap<>();
+        private final Map<Integer, Boolean> equipos = new HashMap<>();
+        private int olimpiadas;
+        private int deportistas;
+        private int eventos;
+        private int participaciones;
+
+        private CsvOutput(Path file) throws IOException {
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            writer.write("\"ID\",\"Name\",\"Sex\",\"Age\",\"Height\",\"Weight\",\"Team\",\"NOC\",\"Games\",\"Year\","
+                    + "\"Season\",\"City\",\"Sport\",\"Event\",\"Medal\"\n");
+        }
+
+        @Override
+        public void write(Games games) throws IOException {
+            String gamesName = quote(games.name());
+            String season = games.summer ? "\"Summer\"" : "\"Winter\"";
+            String city = quote(games.city);
+            StringBuilder line = new StringBuilder(160);
+            for (Entry entry : games.participaciones) {
+                Athlete athlete = entry.athlete;
+                Event event = entry.event;
+                if (!athlete.written) {
+                    athlete.written = true;
+                    deportistas++;
+                }
+                deportes.put(event.sport.name, Boolean.TRUE);
+                equipos.put(games.replica * TEAMS_PER_REPLICA + athlete.team, Boolean.TRUE);
+                line.setLength(0);
+                line.append(CSV_ATHLETE_ID_BASE + athlete.id).append(',')
+                        .append(quote(athlete.name)).append(',')
+                        .append('"').append(athlete.sex).append("\",")
+                        .append(athlete.age + games.year - athlete.firstYear).append(',')
+                        .append(Math.round(athlete.height)).append(',')
+                        .append(athlete.weight).append(',')
+                        .append(quote(teamName(games.replica, athlete.team))).append(',')
+                        .append('"').append(teamNoc(athlete.team)).append("\",")
+                        .append(gamesName).append(',')
+                        .append(games.year).append(',')
+                        .append(season).append(',')
+                        .append(city).append(',')
+                        .append(quote(event.sport.name)).append(',')
+                        .append(quote(event.name)).append(',')
+                        .append(entry.medal == 1 ? "\"Gold\"" : entry.medal == 2 ? "\"Silver\"" : entry.medal == 3 ? "\"Bronze\"" : "NA")
+                        .append('\n');
+                writer.append(line);
+            }
+            olimpiadas++;
+            eventos += games.events.size();
+            participaciones += games.participaciones.size();
+        }
+
+        private static String quote(String value) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public ImportProgress inserted() {
+            return new ImportProgress(0, 0, 0, 0, deportistas, equipos.size(), deportes.size(), olimpiadas, eventos,
+                    participaciones, false);
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
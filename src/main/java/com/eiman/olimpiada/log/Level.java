@@ -0,0 +1,25 @@
+package com.eiman.olimpiada.log;
+
+/**
+ * Niveles de los mensajes del registro, de menor a mayor gravedad.
+ */
+public enum Level {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR;
+
+    /**
+     * Devuelve el nivel con el nombre indicado (sin distinguir mayúsculas), o el nivel por defecto si no existe.
+     */
+    static Level fromName(String name, Level defaultLevel) {
+        if (name != null) {
+            for (Level level : values()) {
+                if (level.name().equalsIgnoreCase(name.trim())) {
+                    return level;
+                }
+            }
+        }
+        return defaultLevel;
+    }
+}
@@ -0,0 +1,123 @@
+package com.eiman.olimpiada.log;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Registro asíncrono de la aplicación.
+ * <p>
+ * Quien registra un mensaje solo lo deja en una cola circular sin bloqueos; un hilo en segundo plano lo formatea
+ * y lo escribe en {@code logs/olimpiada.log} (con rotación por tamaño). Así registrar nunca bloquea el hilo de
+ * JavaFX ni los hilos de consulta, aunque el disco vaya lento. Si la cola se llena, los mensajes se descartan en
+ * lugar de esperar: los de depuración e información ya a partir de tres cuartos de su capacidad, para dejar sitio
+ * a los avisos y errores. Los descartes se cuentan y se anotan en el propio fichero.
+ * <p>
+ * Cada mensaje puede llevar campos estructurados como pares clave, valor:
+ * <pre>{@code LOG.warn("Consulta lenta", "dao", "EventoDAO.getEventos", "ms", 1200);}</pre>
+ * <p>
+ * Propiedades del sistema: {@code olimpiada.log.level} (nivel mínimo, INFO por defecto),
+ * {@code olimpiada.log.dir} (directorio, {@code logs} por defecto), {@code olimpiada.log.console} (copiar avisos y
+ * errores a la salida de error, true por defecto) y {@code olimpiada.log.buffer} (capacidad de la cola).
+ */
+public final class Log {
+
+    private static final int DEFAULT_BUFFER = 8192;
+    private static final long MAX_FILE_BYTES = 5L * 1024 * 1024;
+    private static final int MAX_FILES = 5;
+    private static final long SHUTDOWN_WAIT_MS = 2000;
+
+    private static final Level THRESHOLD = Level.fromName(System.getProperty("olimpiada.log.level"), Level.INFO);
+    private static final RingBuffer BUFFER = new RingBuffer(Integer.getInteger("olimpiada.log.buffer", DEFAULT_BUFFER));
+    private static final int LOW_PRIORITY_LIMIT = BUFFER.capacity() - BUFFER.capacity() / 4;
+    private static final LongAdder DROPPED = new LongAdder();
+    private static final LogWriter WRITER = new LogWriter(BUFFER, DROPPED,
+            Path.of(System.getProperty("olimpiada.log.dir", "logs")), MAX_FILE_BYTES, MAX_FILES,
+            Boolean.parseBoolean(System.getProperty("olimpiada.log.console", "true")));
+    private static final Thread WRITER_THREAD;
+
+    static {
+        WRITER_THREAD = new Thread(WRITER, "olimpiada-log-writer");
+        WRITER_THREAD.setDaemon(true);
+        WRITER_THREAD.start();
+        // Por si la aplicación termina sin pasar por shutdown(), que no se pierda lo pendiente
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::shutdown, "olimpiada-log-shutdown"));
+    }
+
+    private final String source;
+
+    private Log(String source) {
+        this.source = source;
+    }
+
+    /**
+     * Devuelve el registro para la clase indicada; su nombre simple aparece como origen de cada mensaje.
+     */
+    public static Log get(Class<?> type) {
+        return new Log(type.getSimpleName());
+    }
+
+    public boolean isEnabled(Level level) {
+        return level.compareTo(THRESHOLD) >= 0;
+    }
+
+    public void debug(String message, Object... fields) {
+        log(Level.DEBUG, message, null, fields);
+    }
+
+    public void info(String message, Object... fields) {
+        log(Level.INFO, message, null, fields);
+    }
+
+    public void warn(String message, Object... fields) {
+        log(Level.WARN, message, null, fields);
+    }
+
+    public void warn(String message, Throwable error, Object... fields) {
+        log(Level.WARN, message, error, fields);
+    }
+
+    public void error(String message, Object... fields) {
+        log(Level.ERROR, message, null, fields);
+    }
+
+    public void error(String message, Throwable error, Object... fields) {
+        log(Level.ERROR, message, error, fields);
+    }
+
+    private void log(Level level, String message, Throwable error, Object[] fields) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        if (level.compareTo(Level.WARN) < 0 && BUFFER.size() >= LOW_PRIORITY_LIMIT) {
+            DROPPED.increment();
+            return;
+        }
+        LogRecord record = new LogRecord(System.currentTimeMillis(), level, source, Thread.currentThread().getName(),
+                message, fields, error);
+        if (!BUFFER.offer(record)) {
+            DROPPED.increment();
+        }
+    }
+
+    /**
+     * Número de mensajes descartados que aún no se han anotado en el fichero.
+     */
+    public static long getPendingDrops() {
+        return DROPPED.sum();
+    }
+
+    /**
+     * Escribe lo que quede en la cola y cierra el fichero, esperando como mucho un par de segundos. Los mensajes
+     * posteriores se siguen aceptando, pero ya no se escriben.
+     */
+    public static void shutdown() {
+        WRITER.stop();
+        LockSupport.unpark(WRITER_THREAD); // Que no espere a terminar su pausa
+        try {
+            WRITER_THREAD.join(SHUTDOWN_WAIT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
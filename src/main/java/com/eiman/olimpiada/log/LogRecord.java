@@ -0,0 +1,26 @@
+package com.eiman.olimpiada.log;
+
+/**
+ * Mensaje del registro tal como lo crea quien lo emite. Se formatea más tarde, en el hilo de escritura.
+ */
+final class LogRecord {
+
+    final long timestamp;
+    final Level level;
+    final String source;
+    final String thread;
+    final String message;
+    final Object[] fields; // Pares clave, valor
+    final Throwable error;
+
+    LogRecord(long timestamp, Level level, String source, String thread, String message, Object[] fields,
+              Throwable error) {
+        this.timestamp = timestamp;
+        this.level = level;
+        this.source = source;
+        this.thread = thread;
+        this.message = message;
+        this.fields = fields;
+        this.error = error;
+    }
+}
@@ -0,0 +1,208 @@
+package com.eiman.olimpiada.log;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hilo que vacía la cola del registro y escribe los mensajes en ficheros rotativos.
+ * <p>
+ * El fichero activo es {@code olimpiada.log}; al superar {@code maxFileBytes} se renombra a {@code olimpiada.log.1}
+ * (desplazando los anteriores) y se empieza uno nuevo, conservando como mucho {@code maxFiles} antiguos. Los
+ * avisos y errores se copian además a la salida de error. Si no se puede escribir en el directorio, los mensajes
+ * se siguen mostrando por la salida de error.
+ */
+final class LogWriter implements Runnable {
+
+    private static final String FILE_NAME = "olimpiada.log";
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    private final RingBuffer buffer;
+    private final LongAdder dropped;
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final boolean console;
+    private final StringBuilder line = new StringBuilder(256);
+
+    private volatile boolean running = true;
+    private Writer out;
+    private long fileBytes;
+
+    LogWriter(RingBuffer buffer, LongAdder dropped, Path directory, long maxFileBytes, int maxFiles, boolean console) {
+        this.buffer = buffer;
+        this.dropped = dropped;
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.console = console;
+    }
+
+    @Override
+    public void run() {
+        open();
+        while (running || buffer.size() > 0) {
+            int written = drain();
+            long lost = dropped.sumThenReset();
+            if (lost > 0) {
+                write(new LogRecord(System.currentTimeMillis(), Level.WARN, "Log", Thread.currentThread().getName(),
+                        "Mensajes descartados por saturación de la cola", new Object[]{"count", lost}, null));
+            }
+            if (written == 0) {
+                if (buffer.size() > 0) {
+                    Thread.onSpinWait(); // Un productor ha reservado posición pero aún no ha publicado
+                    continue;
+                }
+                flush();
+                if (running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+            }
+        }
+        flush();
+        close();
+    }
+
+    /**
+     * Pide al hilo que termine después de escribir lo que quede en la cola.
+     */
+    void stop() {
+        running = false;
+    }
+
+    private int drain() {
+        int written = 0;
+        LogRecord record;
+        while ((record = buffer.poll()) != null) {
+            write(record);
+            written++;
+        }
+        return written;
+    }
+
+    private void write(LogRecord record) {
+        String text = format(record);
+        if (console && record.level.compareTo(Level.WARN) >= 0) {
+            System.err.print(text);
+        }
+        if (out == null) {
+            if (!console || record.level.compareTo(Level.WARN) < 0) {
+                System.err.print(text); // Sin fichero, al menos que quede en la consola
+            }
+            return;
+        }
+        try {
+            if (fileBytes + text.length() > maxFileBytes && fileBytes > 0) {
+                roll();
+            }
+            out.write(text);
+            fileBytes += text.length(); // Aproximación: casi todo el texto es ASCII
+        } catch (IOException e) {
+            System.err.println("No se pudo escribir en el registro: " + e.getMessage());
+            close();
+        }
+    }
+
+    /**
+     * Formato: fecha nivel [hilo] origen - mensaje clave=valor ..., seguido de la traza del error si la hay.
+     */
+    private String format(LogRecord record) {
+        line.setLength(0);
+        line.append(TIMESTAMP.format(Instant.ofEpochMilli(record.timestamp))).append(' ');
+        String level = record.level.name();
+        line.append(level);
+        for (int i = level.length(); i < 5; i++) {
+            line.append(' ');
+        }
+        line.append(" [").append(record.thread).append("] ");
+        line.append(record.source).append(" - ").append(record.message);
+        Object[] fields = record.fields;
+        if (fields != null) {
+            for (int i = 0; i + 1 < fields.length; i += 2) {
+                line.append(' ').append(fields[i]).append('=');
+                appendValue(fields[i + 1]);
+            }
+        }
+        line.append(System.lineSeparator());
+        if (record.error != null) {
+            StringWriter trace = new StringWriter();
+            record.error.printStackTrace(new PrintWriter(trace));
+            line.append(trace);
+        }
+        return line.toString();
+    }
+
+    private void appendValue(Object value) {
+        String text = String.valueOf(value);
+        boolean quote = text.isEmpty() || text.indexOf(' ') >= 0 || text.indexOf('=') >= 0 || text.indexOf('"') >= 0;
+        if (quote) {
+            line.append('"').append(text.replace("\"", "\\\"")).append('"');
+        } else {
+            line.append(text);
+        }
+    }
+
+    private void open() {
+        try {
+            Files.createDirectories(directory);
+            Path file = directory.resolve(FILE_NAME);
+            fileBytes = Files.exists(file) ? Files.size(file) : 0;
+            out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("No se pudo abrir el registro en " + directory + ": " + e.getMessage());
+            out = null;
+        }
+    }
+
+    private void roll() throws IOException {
+        out.close();
+        out = null;
+        Files.deleteIfExists(directory.resolve(FILE_NAME + "." + maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path older = directory.resolve(FILE_NAME + "." + i);
+            if (Files.exists(older)) {
+                Files.move(older, directory.resolve(FILE_NAME + "." + (i + 1)), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(directory.resolve(FILE_NAME), directory.resolve(FILE_NAME + ".1"),
+                StandardCopyOption.REPLACE_EXISTING);
+        open();
+    }
+
+    private void flush() {
+        if (out != null) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                System.err.println("No se pudo escribir en el registro: " + e.getMessage());
+                close();
+            }
+        }
+    }
+
+    private void close() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                // El fichero ya no se va a usar
+            }
+            out = null;
+        }
+    }
+}
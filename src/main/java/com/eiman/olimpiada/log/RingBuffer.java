@@ -0,0 +1,87 @@
+package com.eiman.olimpiada.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cola circular acotada sin bloqueos con varios productores y un único consumidor.
+ * <p>
+ * Cada posición lleva un número de secuencia que indica si está libre para la vuelta actual o ya tiene un
+ * mensaje publicado. Los productores reservan una posición con un CAS sobre el final de la cola; si la cola está
+ * llena, {@link #offer(LogRecord)} devuelve false en lugar de esperar. Solo el hilo de escritura llama a
+ * {@link #poll()}.
+ */
+final class RingBuffer {
+
+    private final int capacity;
+    private final int mask;
+    private final LogRecord[] records;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong(); // Solo la escribe el consumidor
+
+    /**
+     * @param capacity Número de posiciones; se redondea a la siguiente potencia de dos.
+     */
+    RingBuffer(int capacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = this.capacity - 1;
+        this.records = new LogRecord[this.capacity];
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Número aproximado de mensajes pendientes.
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * Añade un mensaje si hay sitio, sin esperar nunca.
+     *
+     * @return false si la cola está llena.
+     */
+    boolean offer(LogRecord record) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    records[index] = record;
+                    sequences.set(index, position + 1); // Publica el mensaje al consumidor
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false; // El consumidor aún no ha liberado esta posición: cola llena
+            } else {
+                position = tail.get(); // Otro productor se adelantó
+            }
+        }
+    }
+
+    /**
+     * Saca el siguiente mensaje, o devuelve null si no hay ninguno publicado.
+     */
+    LogRecord poll() {
+        long position = head.get();
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        LogRecord record = records[index];
+        records[index] = null;
+        sequences.set(index, position + capacity); // Libera la posición para la siguiente vuelta
+        head.lazySet(position + 1);
+        return record;
+    }
+}
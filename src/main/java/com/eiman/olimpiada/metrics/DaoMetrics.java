@@ -0,0 +1,256 @@
+package com.eiman.olimpiada.metrics;
+
+import com.eiman.olimpiada.dao.BatchResult;
+import com.eiman.olimpiada.dao.GridPage;
+import com.eiman.olimpiada.log.Log;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de las operaciones de los DAOs: número de llamadas, errores, filas y bytes devueltos e histograma
+ * de latencias, por método.
+ * <p>
+ * Cada método público de un DAO ejecuta su cuerpo con {@link #time(String, SqlCall)}. El coste en cada llamada
+ * es una búsqueda en un mapa concurrente, dos lecturas del reloj y unos pocos incrementos atómicos, sin
+ * bloqueos. Las filas se deducen del resultado: tamaño de las listas, filas de una página, elementos escritos
+ * de un lote, 1/0 para los booleanos y 1 para el resto de objetos no nulos.
+ * <p>
+ * Si se arranca con {@code -Dolimpiada.metrics.file=ruta}, al cerrar la aplicación se vuelcan a ese fichero.
+ * <p>
+ * Para el hilo vigilado por {@link FxStallWatchdog} se guarda además la operación en curso, de modo que un
+ * informe de bloqueo pueda indicar qué llamada a la base de datos lo está causando.
+ */
+public final class DaoMetrics {
+
+    private static final Log LOG = Log.get(DaoMetrics.class);
+
+    /** Propiedad del sistema con el fichero en el que se vuelcan las métricas al salir. */
+    public static final String DUMP_FILE_PROPERTY = "olimpiada.metrics.file";
+    /** Propiedad del sistema con la duración (ms) a partir de la cual una operación se anota como lenta. */
+    public static final String SLOW_THRESHOLD_PROPERTY = "olimpiada.metrics.slow_ms";
+
+    private static final long SLOW_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Long.getLong(SLOW_THRESHOLD_PROPERTY, 1000));
+
+    private static final Map<String, Operation> OPERATIONS = new ConcurrentHashMap<>();
+
+    private static volatile Thread watchedThread;
+    private static volatile InFlight watchedCall; // Operación en curso en el hilo vigilado
+
+    private DaoMetrics() {
+    }
+
+    /**
+     * Cuerpo de una operación de un DAO.
+     */
+    @FunctionalInterface
+    public interface SqlCall<T> {
+        T call() throws SQLException;
+    }
+
+    /**
+     * Ejecuta una operación midiendo su duración y su resultado.
+     *
+     * @param operation Nombre de la operación ("DAO.método").
+     * @param call      Cuerpo de la operación.
+     * @return Lo que devuelve el cuerpo.
+     * @throws SQLException la que lance el cuerpo, que se cuenta como error.
+     */
+    public static <T> T time(String operation, SqlCall<T> call) throws SQLException {
+        Operation metrics = OPERATIONS.get(operation);
+        if (metrics == null) {
+            metrics = OPERATIONS.computeIfAbsent(operation, name -> new Operation());
+        }
+        long start = System.nanoTime();
+        InFlight outer = null;
+        boolean watched = Thread.currentThread() == watchedThread;
+        if (watched) {
+            outer = watchedCall;
+            watchedCall = new InFlight(operation, start);
+        }
+        T result;
+        try {
+            result = call.call();
+        } catch (SQLException | RuntimeException e) {
+            metrics.record(System.nanoTime() - start, 0, 0);
+            metrics.errors.increment();
+            throw e;
+        } finally {
+            if (watched) {
+                watchedCall = outer;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long rows = rowsOf(result);
+        metrics.record(elapsed, rows, result instanceof byte[] ? ((byte[]) result).length : 0);
+        if (SLOW_THRESHOLD_NANOS > 0 && elapsed >= SLOW_THRESHOLD_NANOS) {
+            LOG.warn("Operación lenta", "dao", operation, "ms", TimeUnit.NANOSECONDS.toMillis(elapsed), "rows", rows);
+        }
+        return result;
+    }
+
+    private static long rowsOf(Object result) {
+        if (result == null) {
+            return 0;
+        } else if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        } else if (result instanceof Boolean) {
+            return (Boolean) result ? 1 : 0;
+        } else if (result instanceof BatchResult) {
+            return ((BatchResult) result).getSuccessCount();
+        } else if (result instanceof GridPage) {
+            return ((GridPage) result).getRows().size();
+        }
+        return 1;
+    }
+
+    /**
+     * Empieza a seguir la operación en curso del hilo indicado (null para dejar de hacerlo).
+     */
+    static void watch(Thread thread) {
+        watchedCall = null;
+        watchedThread = thread;
+    }
+
+    /**
+     * Operación en curso en el hilo vigilado, o null si no está dentro de ningún DAO.
+     */
+    static InFlight getWatchedCall() {
+        return watchedCall;
+    }
+
+    /**
+     * Devuelve el estado actual de la operación indicada, o null si aún no se ha llamado.
+     */
+    public static OperationStats get(String operation) {
+        Operation metrics = OPERATIONS.get(operation);
+        return metrics == null ? null : metrics.snapshot(operation);
+    }
+
+    /**
+     * Devuelve el estado actual de todas las operaciones llamadas, ordenadas por nombre.
+     */
+    public static List<OperationStats> snapshot() {
+        List<OperationStats> stats = new ArrayList<>();
+        OPERATIONS.forEach((name, metrics) -> stats.add(metrics.snapshot(name)));
+        stats.sort(Comparator.comparing(OperationStats::getName));
+        return stats;
+    }
+
+    /**
+     * Pone a cero todas las métricas.
+     */
+    public static void reset() {
+        OPERATIONS.values().forEach(Operation::reset);
+    }
+
+    /**
+     * Escribe una tabla con las métricas de todas las operaciones (latencias en microsegundos).
+     *
+     * @param file Fichero de destino; se sobrescribe si existe.
+     * @throws IOException si no se puede escribir el fichero.
+     */
+    public static void dump(Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.printf("# Métricas de los DAOs - %s%n", LocalDateTime.now());
+            out.printf("%-40s %10s %8s %12s %12s %10s %10s %10s %10s %10s%n", "operacion", "llamadas", "errores",
+                    "filas", "bytes", "media_us", "p50_us", "p99_us", "p999_us", "max_us");
+            for (OperationStats stats : snapshot()) {
+                out.printf("%-40s %10d %8d %12d %12d %10.1f %10.1f %10.1f %10.1f %10.1f%n", stats.getName(),
+                        stats.getCount(), stats.getErrors(), stats.getRows(), stats.getBytes(),
+                        stats.getMeanNanos() / 1000.0, stats.getP50Nanos() / 1000.0, stats.getP99Nanos() / 1000.0,
+                        stats.getP999Nanos() / 1000.0, stats.getMaxNanos() / 1000.0);
+            }
+        }
+    }
+
+    /**
+     * Vuelca las métricas al fichero de {@value #DUMP_FILE_PROPERTY}, si se ha indicado. Se llama al salir.
+     */
+    public static void dumpIfConfigured() {
+        String file = System.getProperty(DUMP_FILE_PROPERTY);
+        if (file == null || file.isBlank()) {
+            return;
+        }
+        try {
+            dump(Paths.get(file));
+        } catch (IOException e) {
+            LOG.error("No se pudieron guardar las métricas", e, "file", file);
+        }
+    }
+
+    /**
+     * Llamada a un DAO que aún no ha terminado.
+     */
+    static final class InFlight {
+        private final String operation;
+        private final long startNanos;
+
+        private InFlight(String operation, long startNanos) {
+            this.operation = operation;
+            this.startNanos = startNanos;
+        }
+
+        String getOperation() {
+            return operation;
+        }
+
+        long getStartNanos() {
+            return startNanos;
+        }
+    }
+
+    /**
+     * Contadores de una operación.
+     */
+    private static final class Operation {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LatencyHistogram latencies = new LatencyHistogram();
+
+        private void record(long nanos, long rowCount, long byteCount) {
+            count.increment();
+            totalNanos.add(nanos);
+            latencies.record(nanos);
+            if (rowCount != 0) {
+                rows.add(rowCount);
+            }
+            if (byteCount != 0) {
+                bytes.add(byteCount);
+            }
+        }
+
+        private OperationStats snapshot(String name) {
+            return new OperationStats(name, count.sum(), errors.sum(), rows.sum(), bytes.sum(), totalNanos.sum(),
+                    latencies.valueAtPercentile(50), latencies.valueAtPercentile(99),
+                    latencies.valueAtPercentile(99.9), latencies.getMax());
+        }
+
+        private void reset() {
+            count.reset();
+            errors.reset();
+            rows.reset();
+            bytes.reset();
+            totalNanos.reset();
+            latencies.reset();
+        }
+    }
+}
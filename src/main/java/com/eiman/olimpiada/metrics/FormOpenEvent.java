@@ -0,0 +1,35 @@
+package com.eiman.olimpiada.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de JFR para la apertura de un formulario: carga del FXML y de los datos del registro hasta que
+ * la ventana se muestra.
+ */
+@Name("com.eiman.olimpiada.FormOpen")
+@Label("Form Open")
+@Category({"Olimpiada", "UI"})
+@Description("Apertura de un formulario de alta o modificación")
+@StackTrace(false)
+public final class FormOpenEvent extends Event {
+
+    @Label("Form")
+    private String form;
+
+    @Label("Action")
+    @Description("add o modify")
+    private String action;
+
+    public void setForm(String form) {
+        this.form = form;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+}
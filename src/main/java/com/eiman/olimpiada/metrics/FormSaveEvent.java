@@ -0,0 +1,49 @@
+package com.eiman.olimpiada.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de JFR para el guardado de un formulario, desde que se pulsa el botón hasta que termina la escritura
+ * en segundo plano.
+ */
+@Name("com.eiman.olimpiada.FormSave")
+@Label("Form Save")
+@Category({"Olimpiada", "UI"})
+@Description("Guardado de un formulario de alta o modificación")
+@StackTrace(false)
+public final class FormSaveEvent extends Event {
+
+    @Label("Form")
+    private String form;
+
+    @Label("Update")
+    @Description("true si se modificaba un registro existente")
+    private boolean update;
+
+    @Label("Success")
+    private boolean success;
+
+    /**
+     * Empieza a medir el guardado del formulario indicado.
+     */
+    public static FormSaveEvent start(String form, boolean update) {
+        FormSaveEvent event = new FormSaveEvent();
+        event.form = form;
+        event.update = update;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Registra el resultado del guardado. Se llama desde los callbacks del {@code DBExecutor}.
+     */
+    public void finish(boolean success) {
+        this.success = success;
+        commit();
+    }
+}
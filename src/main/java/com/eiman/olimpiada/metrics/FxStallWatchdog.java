@@ -0,0 +1,223 @@
+package com.eiman.olimpiada.metrics;
+
+import com.eiman.olimpiada.log.Log;
+import javafx.application.Platform;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vigila que el hilo de aplicación de JavaFX no se quede bloqueado.
+ * <p>
+ * Cada {@value #PROBE_INTERVAL_MS} ms un hilo propio encola una sonda con {@code Platform.runLater} y mide cuánto
+ * tarda en ejecutarse (la latencia de la cola de eventos de JavaFX). Si una sonda lleva pendiente más del umbral,
+ * se captura la pila del hilo de JavaFX y la operación de DAO que esté ejecutando, y se añade un informe al
+ * fichero de bloqueos. Cuando la sonda por fin se ejecuta se anota la duración total del bloqueo.
+ * <p>
+ * Para no llenar el disco si la aplicación se bloquea a menudo, entre dos informes pasan al menos
+ * {@value #MIN_REPORT_INTERVAL_MS} ms; los bloqueos que caen en ese intervalo solo se cuentan y el número aparece
+ * en el siguiente informe.
+ * <p>
+ * Se configura con las propiedades del sistema {@value #THRESHOLD_PROPERTY} (0 lo desactiva) y
+ * {@value #FILE_PROPERTY}.
+ */
+public final class FxStallWatchdog {
+
+    private static final Log LOG = Log.get(FxStallWatchdog.class);
+
+    /** Propiedad del sistema con el umbral de bloqueo en milisegundos. */
+    public static final String THRESHOLD_PROPERTY = "olimpiada.stall.threshold_ms";
+    /** Propiedad del sistema con el fichero al que se añaden los informes. */
+    public static final String FILE_PROPERTY = "olimpiada.stall.file";
+
+    private static final long DEFAULT_THRESHOLD_MS = 500;
+    private static final String DEFAULT_FILE = "logs/fx-stalls.log";
+    private static final long PROBE_INTERVAL_MS = 100;
+    private static final long MIN_REPORT_INTERVAL_MS = 30_000;
+    private static final int MAX_STACK_FRAMES = 80;
+
+    private static FxStallWatchdog instance;
+
+    private final Thread fxThread;
+    private final long thresholdNanos;
+    private final Path file;
+    private final ScheduledExecutorService scheduler;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder probeNanos = new LongAdder();
+    private final LongAdder stalls = new LongAdder();
+
+    // probePostedAt y lastLatency los escribe también la sonda en el hilo de JavaFX; el resto, solo el vigilante
+    private volatile long probePostedAt;
+    private volatile long lastLatency;
+    private boolean stallInProgress;
+    private boolean stallReported;
+    private long lastReportAt;
+    private int suppressed;
+
+    private FxStallWatchdog(Thread fxThread, long thresholdMillis, Path file) {
+        this.fxThread = fxThread;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.file = file;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fx-stall-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Arranca la vigilancia con la configuración de las propiedades del sistema. Debe llamarse desde el hilo de
+     * JavaFX, que es el que se vigila; si ya está en marcha no hace nada.
+     */
+    public static synchronized void start() {
+        if (instance != null) {
+            return;
+        }
+        if (!Platform.isFxApplicationThread()) {
+            throw new IllegalStateException("La vigilancia debe arrancarse desde el hilo de JavaFX");
+        }
+        long thresholdMillis = Long.getLong(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD_MS);
+        if (thresholdMillis <= 0) {
+            return;
+        }
+        String file = System.getProperty(FILE_PROPERTY, DEFAULT_FILE);
+        instance = new FxStallWatchdog(Thread.currentThread(), thresholdMillis, Paths.get(file));
+        DaoMetrics.watch(instance.fxThread);
+        instance.scheduler.scheduleWithFixedDelay(instance::tick, PROBE_INTERVAL_MS, PROBE_INTERVAL_MS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Detiene la vigilancia. Se llama al salir de la aplicación.
+     */
+    public static synchronized void stop() {
+        if (instance != null) {
+            instance.scheduler.shutdownNow();
+            DaoMetrics.watch(null);
+            instance = null;
+        }
+    }
+
+    /**
+     * Latencia de la cola de eventos de JavaFX medida por las sondas; los errores son los bloqueos detectados.
+     * Devuelve null si la vigilancia no está en marcha.
+     */
+    public static synchronized OperationStats getPulseStats() {
+        if (instance == null) {
+            return null;
+        }
+        FxStallWatchdog watchdog = instance;
+        LatencyHistogram histogram = watchdog.latencies;
+        return new OperationStats("FX.pulse", watchdog.probes.sum(), watchdog.stalls.sum(), 0, 0,
+                watchdog.probeNanos.sum(), histogram.valueAtPercentile(50), histogram.valueAtPercentile(99),
+                histogram.valueAtPercentile(99.9), histogram.getMax());
+    }
+
+    /**
+     * Paso periódico del hilo de la sonda: encola una sonda nueva o comprueba cuánto lleva esperando la anterior.
+     */
+    private void tick() {
+        long posted = probePostedAt;
+        long now = System.nanoTime();
+        if (posted == 0) {
+            if (stallInProgress) {
+                finishStall(lastLatency);
+            }
+            probePostedAt = now;
+            Platform.runLater(() -> probeArrived(now));
+            return;
+        }
+        long blocked = now - posted;
+        if (blocked >= thresholdNanos && !stallInProgress) {
+            stallInProgress = true;
+            stalls.increment();
+            reportStall(blocked);
+        }
+    }
+
+    /**
+     * Ejecución de una sonda en el hilo de JavaFX.
+     */
+    private void probeArrived(long posted) {
+        long latency = System.nanoTime() - posted;
+        latencies.record(latency);
+        probes.increment();
+        probeNanos.add(latency);
+        lastLatency = latency;
+        probePostedAt = 0;
+    }
+
+    private void reportStall(long blockedNanos) {
+        long nowMillis = System.currentTimeMillis();
+        if (lastReportAt != 0 && nowMillis - lastReportAt < MIN_REPORT_INTERVAL_MS) {
+            suppressed++;
+            stallReported = false;
+            return;
+        }
+        // La pila y la operación se leen lo antes posible, mientras el hilo sigue bloqueado
+        StackTraceElement[] stack = fxThread.getStackTrace();
+        Thread.State state = fxThread.getState();
+        DaoMetrics.InFlight call = DaoMetrics.getWatchedCall();
+        long now = System.nanoTime();
+
+        StringBuilder report = new StringBuilder();
+        report.append("=== Bloqueo del hilo de JavaFX - ").append(LocalDateTime.now()).append(" ===\n");
+        report.append("Bloqueado desde hace ").append(TimeUnit.NANOSECONDS.toMillis(blockedNanos))
+                .append(" ms (umbral ").append(TimeUnit.NANOSECONDS.toMillis(thresholdNanos)).append(" ms)\n");
+        if (call != null) {
+            report.append("Operación de DAO en curso: ").append(call.getOperation()).append(" (desde hace ")
+                    .append(TimeUnit.NANOSECONDS.toMillis(now - call.getStartNanos())).append(" ms)\n");
+        } else {
+            report.append("Operación de DAO en curso: ninguna\n");
+        }
+        if (suppressed > 0) {
+            report.append("Bloqueos sin informe desde el anterior: ").append(suppressed).append('\n');
+        }
+        report.append("Pila de \"").append(fxThread.getName()).append("\" (").append(state).append("):\n");
+        for (int i = 0; i < stack.length && i < MAX_STACK_FRAMES; i++) {
+            report.append("    at ").append(stack[i]).append('\n');
+        }
+        if (stack.length > MAX_STACK_FRAMES) {
+            report.append("    ... ").append(stack.length - MAX_STACK_FRAMES).append(" más\n");
+        }
+        lastReportAt = nowMillis;
+        suppressed = 0;
+        stallReported = append(report.toString());
+    }
+
+    private void finishStall(long totalNanos) {
+        if (stallReported) {
+            append("Fin del bloqueo tras " + TimeUnit.NANOSECONDS.toMillis(totalNanos) + " ms\n\n");
+        }
+        stallInProgress = false;
+        stallReported = false;
+    }
+
+    private boolean append(String text) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+                out.print(text);
+            }
+            return true;
+        } catch (IOException e) {
+            LOG.error("No se pudo escribir el informe de bloqueo", "file", file, "error", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.eiman.olimpiada.metrics;
+
+/**
+ * Valores de una operación de los DAOs en un momento dado. Las latencias van en nanosegundos.
+ */
+public final class OperationStats {
+
+    private final String name;
+    private final long count;
+    private final long errors;
+    private final long rows;
+    private final long bytes;
+    private final long totalNanos;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    OperationStats(String name, long count, long errors, long rows, long bytes, long totalNanos,
+                   long p50, long p99, long p999, long max) {
+        this.name = name;
+        this.count = count;
+        this.errors = errors;
+        this.rows = rows;
+        this.bytes = bytes;
+        this.totalNanos = totalNanos;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    /**
+     * Nombre de la operación, con la forma "DAO.método" (por ejemplo "DeporteDAO.getAllDeportes").
+     */
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Llamadas que terminaron con una excepción.
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Filas devueltas o escritas en total.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Bytes de datos binarios devueltos (fotos) en total.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    public long getP50Nanos() {
+        return p50;
+    }
+
+    public long getP99Nanos() {
+        return p99;
+    }
+
+    public long getP999Nanos() {
+        return p999;
+    }
+
+    public long getMaxNanos() {
+        return max;
+    }
+}
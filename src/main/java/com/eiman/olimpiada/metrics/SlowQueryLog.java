@@ -0,0 +1,110 @@
+package com.eiman.olimpiada.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Últimas sentencias SQL ejecutadas, para mostrar las más lentas en el panel de rendimiento.
+ * <p>
+ * Solo se registran mientras alguien lo ha activado con {@link #enable()} (el panel, mientras está abierto); el
+ * resto del tiempo las sentencias no se interceptan. Se guardan las {@value #CAPACITY} más recientes en un búfer
+ * circular sin bloqueos, y al consultarlo se ordenan por duración.
+ */
+public final class SlowQueryLog {
+
+    private static final int CAPACITY = 512;
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+    private static final AtomicReferenceArray<Entry> ENTRIES = new AtomicReferenceArray<>(CAPACITY);
+    private static final AtomicLong NEXT = new AtomicLong();
+
+    private SlowQueryLog() {
+    }
+
+    public static boolean isEnabled() {
+        return USERS.get() > 0;
+    }
+
+    /**
+     * Empieza a registrar sentencias. Cada llamada debe acompañarse de un {@link #disable()}.
+     */
+    public static void enable() {
+        USERS.incrementAndGet();
+    }
+
+    public static void disable() {
+        USERS.updateAndGet(users -> Math.max(0, users - 1));
+    }
+
+    /**
+     * Registra una ejecución.
+     *
+     * @param sql   Forma de la sentencia.
+     * @param nanos Duración, incluida la lectura del ResultSet.
+     * @param rows  Filas leídas o afectadas.
+     */
+    public static void record(String sql, long nanos, long rows) {
+        if (sql == null) {
+            return;
+        }
+        int slot = (int) (NEXT.getAndIncrement() % CAPACITY);
+        ENTRIES.set(slot, new Entry(sql, nanos, rows, System.currentTimeMillis()));
+    }
+
+    /**
+     * Devuelve las ejecuciones más lentas de entre las recientes, de mayor a menor duración.
+     *
+     * @param limit Número máximo de ejecuciones.
+     */
+    public static List<Entry> getSlowest(int limit) {
+        List<Entry> entries = new ArrayList<>(CAPACITY);
+        for (int i = 0; i < CAPACITY; i++) {
+            Entry entry = ENTRIES.get(i);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(Comparator.comparingLong(Entry::getNanos).reversed());
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+
+    /**
+     * Ejecución registrada de una sentencia.
+     */
+    public static final class Entry {
+        private final String sql;
+        private final long nanos;
+        private final long rows;
+        private final long timestamp;
+
+        private Entry(String sql, long nanos, long rows, long timestamp) {
+            this.sql = sql;
+            this.nanos = nanos;
+            this.rows = rows;
+            this.timestamp = timestamp;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        /**
+         * Momento en que terminó, en milisegundos desde la época.
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+    }
+}
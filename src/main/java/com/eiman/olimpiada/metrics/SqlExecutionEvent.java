@@ -0,0 +1,43 @@
+package com.eiman.olimpiada.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de JFR para cada sentencia SQL ejecutada a través del pool. En las consultas la duración incluye
+ * la lectura del ResultSet hasta que se cierra, y las filas son las leídas; en las escrituras, las afectadas.
+ * La pila del evento indica qué DAO lanzó la sentencia.
+ */
+@Name("com.eiman.olimpiada.SqlExecution")
+@Label("SQL Execution")
+@Category({"Olimpiada", "SQL"})
+@Description("Sentencia SQL ejecutada por la aplicación")
+@StackTrace(true)
+public final class SqlExecutionEvent extends Event {
+
+    @Label("SQL")
+    @Description("Forma de la sentencia, con los literales sustituidos por ?")
+    private String sql;
+
+    @Label("Rows")
+    private long rows;
+
+    @Label("Failed")
+    private boolean failed;
+
+    public void setSql(String sql) {
+        this.sql = sql;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public void setFailed(boolean failed) {
+        this.failed = failed;
+    }
+}
@@ -0,0 +1,363 @@
+package com.eiman.olimpiada.metrics;
+
+import com.eiman.olimpiada.log.Log;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro de las formas de SQL ejecutadas, agrupadas por la acción de la interfaz que las originó, para
+ * detectar patrones N+1: la misma forma de consulta repetida muchas veces dentro de una sola acción.
+ * <p>
+ * Una acción empieza con {@link #beginAction(String)} en el hilo de JavaFX y acompaña a los trabajos que se
+ * envían desde ella al {@code DBExecutor}; termina cuando se cierra y han acabado todos esos trabajos. Al
+ * terminar, cada forma que se haya ejecutado al menos {@value #DEFAULT_THRESHOLD} veces (o el valor de
+ * {@value #THRESHOLD_PROPERTY}) se marca como posible N+1.
+ * <p>
+ * Solo está activo si se arranca con {@code -Dolimpiada.sql.profile=ruta}; al cerrar la aplicación se escribe
+ * en ese fichero un informe con las acciones marcadas, el número de ejecuciones, el tiempo total y los puntos
+ * del código desde los que se lanza cada forma. Desactivado, las sentencias no se interceptan.
+ */
+public final class SqlProfiler {
+
+    private static final Log LOG = Log.get(SqlProfiler.class);
+
+    /** Propiedad del sistema con el fichero del informe; si no se indica, el registro está desactivado. */
+    public static final String FILE_PROPERTY = "olimpiada.sql.profile";
+    /** Propiedad del sistema con el número de repeticiones de una forma en una acción que se marca como N+1. */
+    public static final String THRESHOLD_PROPERTY = "olimpiada.sql.n1_threshold";
+
+    private static final int DEFAULT_THRESHOLD = 3;
+    private static final int MAX_CALL_SITES = 5;
+    private static final String APP_PACKAGE = "com.eiman.olimpiada.";
+
+    private static final boolean ENABLED = !System.getProperty(FILE_PROPERTY, "").isBlank();
+    private static final int THRESHOLD = Math.max(2, Integer.getInteger(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD));
+
+    private static final ThreadLocal<Action> CURRENT = new ThreadLocal<>();
+    private static final Map<String, Shape> SHAPES = new ConcurrentHashMap<>();
+    private static final Map<String, ActionSummary> ACTIONS = new ConcurrentHashMap<>();
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private SqlProfiler() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Empieza una acción de la interfaz y la deja como acción actual del hilo hasta que se cierre.
+     * Con el registro desactivado devuelve una acción vacía.
+     *
+     * @param name Nombre de la acción, por ejemplo "openForm:Evento:modify".
+     */
+    public static Action beginAction(String name) {
+        if (!ENABLED) {
+            return Action.DISABLED;
+        }
+        Action action = new Action(name, CURRENT.get());
+        CURRENT.set(action);
+        return action;
+    }
+
+    /**
+     * Devuelve la acción actual del hilo, reservándola para un trabajo en segundo plano: la acción no termina
+     * hasta que se llame a {@link Action#release()}. Devuelve null si no hay acción en curso.
+     */
+    public static Action retainCurrent() {
+        Action action = ENABLED ? CURRENT.get() : null;
+        if (action != null) {
+            action.pending.incrementAndGet();
+        }
+        return action;
+    }
+
+    /**
+     * Cambia la acción actual del hilo (null para ninguna) y devuelve la anterior, para restaurarla después.
+     * Lo usa el ejecutor de la base de datos para que los trabajos se cuenten en la acción que los envió.
+     */
+    public static Action setCurrent(Action action) {
+        if (!ENABLED) {
+            return null;
+        }
+        Action previous = CURRENT.get();
+        if (action == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(action);
+        }
+        return previous;
+    }
+
+    /**
+     * Describe el punto del código que ejecuta la sentencia: el método del DAO y quién lo llamó, fuera de las
+     * capas del pool y de las métricas. Se llama desde el hilo que ejecuta la sentencia.
+     */
+    public static String callSite() {
+        return WALKER.walk(frames -> {
+            StackWalker.StackFrame statement = null;
+            StackWalker.StackFrame caller = null;
+            Iterator<StackWalker.StackFrame> appFrames = frames.filter(frame -> isApplicationFrame(frame.getClassName()))
+                    .iterator();
+            while (appFrames.hasNext()) {
+                StackWalker.StackFrame frame = appFrames.next();
+                if (statement == null) {
+                    statement = frame;
+                } else if (!frame.getClassName().startsWith(APP_PACKAGE + "dao.")) {
+                    caller = frame;
+                    break;
+                }
+            }
+            if (statement == null) {
+                return "?";
+            }
+            return caller == null ? describe(statement) : describe(statement) + " <- " + describe(caller);
+        });
+    }
+
+    private static String describe(StackWalker.StackFrame frame) {
+        String className = frame.getClassName();
+        String method = frame.getMethodName();
+        if (method.startsWith("lambda$")) {
+            // lambda$getEventoById$3 -> getEventoById
+            int end = method.indexOf('$', 7);
+            method = end > 7 ? method.substring(7, end) : method;
+        }
+        return className.substring(className.lastIndexOf('.') + 1) + "." + method + ":" + frame.getLineNumber();
+    }
+
+    private static boolean isApplicationFrame(String className) {
+        return className.startsWith(APP_PACKAGE)
+                && !className.startsWith(APP_PACKAGE + "config.ConnectionPool")
+                && !className.startsWith(APP_PACKAGE + "config.StatementCache")
+                && !className.startsWith(APP_PACKAGE + "config.SqlTracing")
+                && !className.startsWith(APP_PACKAGE + "metrics.")
+                && !className.startsWith(APP_PACKAGE + "service.");
+    }
+
+    /**
+     * Registra una ejecución de una sentencia en la acción actual del hilo y en el registro global de formas.
+     *
+     * @param shape    Forma normalizada de la sentencia.
+     * @param nanos    Duración, incluida la lectura del ResultSet.
+     * @param rows     Filas leídas o afectadas.
+     * @param callSite Punto del código obtenido con {@link #callSite()}.
+     */
+    public static void record(String shape, long nanos, long rows, String callSite) {
+        if (!ENABLED || shape == null) {
+            return;
+        }
+        SHAPES.computeIfAbsent(shape, key -> new Shape()).record(nanos, rows, callSite);
+        Action action = CURRENT.get();
+        if (action != null) {
+            action.shapes.computeIfAbsent(shape, key -> new Shape()).record(nanos, rows, callSite);
+        }
+    }
+
+    /**
+     * Pone a cero el registro.
+     */
+    public static void reset() {
+        SHAPES.clear();
+        ACTIONS.clear();
+    }
+
+    /**
+     * Escribe el informe: posibles N+1 por acción, resumen de las acciones y todas las formas de SQL ordenadas por
+     * tiempo total (tiempos en milisegundos).
+     *
+     * @param file Fichero de destino; se sobrescribe si existe.
+     * @throws IOException si no se puede escribir el fichero.
+     */
+    public static void writeReport(Path file) throws IOException {
+        List<Map.Entry<String, ActionSummary>> actions = new ArrayList<>(ACTIONS.entrySet());
+        actions.sort(Map.Entry.comparingByKey());
+        List<Map.Entry<String, Shape>> shapes = new ArrayList<>(SHAPES.entrySet());
+        shapes.sort(Comparator.comparingLong((Map.Entry<String, Shape> entry) -> entry.getValue().nanos.sum()).reversed());
+
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.printf("# Perfil de SQL - %s%n%n", LocalDateTime.now());
+
+            out.printf("## Posibles N+1 (misma forma %d o más veces en una acción)%n", THRESHOLD);
+            boolean found = false;
+            for (Map.Entry<String, ActionSummary> action : actions) {
+                ActionSummary summary = action.getValue();
+                for (Map.Entry<String, ShapeSummary> shape : summary.shapes.entrySet()) {
+                    ShapeSummary stats = shape.getValue();
+                    if (stats.flagged.sum() == 0) {
+                        continue;
+                    }
+                    found = true;
+                    out.printf("%nacción: %s (marcada en %d de %d ejecuciones)%n", action.getKey(),
+                            stats.flagged.sum(), summary.executions.sum());
+                    out.printf("  forma: %s%n", shape.getKey());
+                    out.printf("  ejecuciones: %d (máximo %d en una acción), tiempo total: %.1f ms%n",
+                            stats.count.sum(), stats.maxPerAction.get(), stats.nanos.sum() / 1e6);
+                    for (String site : stats.callSites) {
+                        out.printf("  desde: %s%n", site);
+                    }
+                }
+            }
+            if (!found) {
+                out.println("ninguno");
+            }
+
+            out.printf("%n## Acciones%n");
+            out.printf("%-40s %12s %10s %12s%n", "accion", "ejecuciones", "consultas", "tiempo_ms");
+            for (Map.Entry<String, ActionSummary> action : actions) {
+                ActionSummary summary = action.getValue();
+                out.printf("%-40s %12d %10d %12.1f%n", action.getKey(), summary.executions.sum(),
+                        summary.queries.sum(), summary.nanos.sum() / 1e6);
+            }
+
+            out.printf("%n## Formas de SQL%n");
+            for (Map.Entry<String, Shape> entry : shapes) {
+                Shape shape = entry.getValue();
+                out.printf("%n%d ejecuciones, %.1f ms, %d filas: %s%n", shape.count.sum(), shape.nanos.sum() / 1e6,
+                        shape.rows.sum(), entry.getKey());
+                for (String site : shape.callSites) {
+                    out.printf("  desde: %s%n", site);
+                }
+            }
+        }
+    }
+
+    /**
+     * Escribe el informe en el fichero de {@value #FILE_PROPERTY}, si se ha indicado. Se llama al salir.
+     */
+    public static void writeReportIfConfigured() {
+        if (!ENABLED) {
+            return;
+        }
+        String file = System.getProperty(FILE_PROPERTY);
+        try {
+            writeReport(Paths.get(file));
+        } catch (IOException e) {
+            LOG.error("No se pudo guardar el perfil de SQL", e, "file", file);
+        }
+    }
+
+    /**
+     * Acción de la interfaz en curso. Se cierra al terminar su parte en el hilo de JavaFX.
+     */
+    public static final class Action implements AutoCloseable {
+        private static final Action DISABLED = new Action("", null);
+
+        private final String name;
+        private final Action previous;
+        private final AtomicInteger pending = new AtomicInteger(1); // La propia acción hasta que se cierra
+        private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+        private boolean closed;
+
+        private Action(String name, Action previous) {
+            this.name = name;
+            this.previous = previous;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Termina la parte de la acción en el hilo que la empezó y restaura la acción anterior. Las llamadas
+         * repetidas no tienen efecto.
+         */
+        @Override
+        public void close() {
+            if (this == DISABLED || closed) {
+                return;
+            }
+            closed = true;
+            if (CURRENT.get() == this) {
+                setCurrent(previous);
+            }
+            release();
+        }
+
+        /**
+         * Libera una reserva de {@link #retainCurrent()}; la acción termina al liberarse la última.
+         */
+        public void release() {
+            if (this != DISABLED && pending.decrementAndGet() == 0) {
+                ACTIONS.computeIfAbsent(name, key -> new ActionSummary()).add(shapes);
+            }
+        }
+    }
+
+    /**
+     * Ejecuciones de una forma de SQL.
+     */
+    private static final class Shape {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final Set<String> callSites = ConcurrentHashMap.newKeySet();
+
+        private void record(long elapsed, long rowCount, String callSite) {
+            count.increment();
+            nanos.add(elapsed);
+            rows.add(rowCount);
+            if (callSites.size() < MAX_CALL_SITES) {
+                callSites.add(callSite);
+            }
+        }
+    }
+
+    /**
+     * Totales de todas las ejecuciones terminadas de una acción.
+     */
+    private static final class ActionSummary {
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder queries = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final Map<String, ShapeSummary> shapes = new ConcurrentHashMap<>();
+
+        private void add(Map<String, Shape> executed) {
+            executions.increment();
+            executed.forEach((shape, stats) -> {
+                long count = stats.count.sum();
+                queries.add(count);
+                nanos.add(stats.nanos.sum());
+                ShapeSummary summary = shapes.computeIfAbsent(shape, key -> new ShapeSummary());
+                summary.count.add(count);
+                summary.nanos.add(stats.nanos.sum());
+                summary.maxPerAction.accumulate(count);
+                if (count >= THRESHOLD) {
+                    summary.flagged.increment();
+                    for (String site : stats.callSites) {
+                        if (summary.callSites.size() < MAX_CALL_SITES) {
+                            summary.callSites.add(site);
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Totales de una forma de SQL dentro de una acción.
+     */
+    private static final class ShapeSummary {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder flagged = new LongAdder(); // Ejecuciones de la acción con la forma repetida
+        private final LongAccumulator maxPerAction = new LongAccumulator(Math::max, 0);
+        private final Set<String> callSites = ConcurrentHashMap.newKeySet();
+    }
+}
@@ -0,0 +1,49 @@
+package com.eiman.olimpiada.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de JFR para la carga de una tabla en la vista principal, desde que se pide hasta que se muestra
+ * (o falla) en el hilo de JavaFX.
+ */
+@Name("com.eiman.olimpiada.TableLoad")
+@Label("Table Load")
+@Category({"Olimpiada", "UI"})
+@Description("Carga del primer bloque de una tabla en la vista principal")
+@StackTrace(false)
+public final class TableLoadEvent extends Event {
+
+    @Label("Table")
+    private String table;
+
+    @Label("Rows")
+    @Description("Filas del primer bloque")
+    private long rows;
+
+    @Label("Estimated Rows")
+    private long estimatedRows;
+
+    @Label("Failed")
+    private boolean failed;
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public void setEstimatedRows(long estimatedRows) {
+        this.estimatedRows = estimatedRows;
+    }
+
+    public void setFailed(boolean failed) {
+        this.failed = failed;
+    }
+}
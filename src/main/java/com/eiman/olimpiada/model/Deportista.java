@@ -11,6 +11,7 @@ public class Deportista {
     private double peso;
     private double altura;
     private byte[] foto;
+    private boolean fotoChanged;
 
     /**
      * Obtiene el ID del deportista.
@@ -141,4 +142,23 @@ public class Deportista {
     public void setFoto(byte[] foto) {
         this.foto = foto;
     }
+
+    /**
+     * Indica si la foto se ha cambiado en el formulario. Al actualizar, la foto guardada solo se sustituye
+     * (o se borra, si la foto es null) cuando ha cambiado; si no, se conserva aunque no se haya leído.
+     *
+     * @return true si hay que guardar la foto.
+     */
+    public boolean isFotoChanged() {
+        return fotoChanged;
+    }
+
+    /**
+     * Marca si la foto se ha cambiado en el formulario.
+     *
+     * @param fotoChanged true si hay que guardar la foto.
+     */
+    public void setFotoChanged(boolean fotoChanged) {
+        this.fotoChanged = fotoChanged;
+    }
 }
@@ -0,0 +1,117 @@
+package com.eiman.olimpiada.service;
+
+import com.eiman.olimpiada.metrics.SqlProfiler;
+import javafx.concurrent.Task;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Ejecutor acotado para el acceso a datos fuera del hilo de aplicación de JavaFX.
+ * Los controladores envían aquí las llamadas a los DAOs y reciben el resultado (o el error)
+ * de vuelta en el hilo de JavaFX, que nunca queda bloqueado esperando a la base de datos.
+ * Cada trabajo se ejecuta dentro de la acción de {@link SqlProfiler} desde la que se envió.
+ */
+public final class DBExecutor {
+
+    private static final int THREADS = 4;
+    private static final int QUEUE_CAPACITY = 256;
+
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+            THREADS, THREADS, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY), new DBThreadFactory());
+
+    static {
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private DBExecutor() {
+    }
+
+    /**
+     * Trabajo de acceso a datos que devuelve un resultado y puede lanzar excepciones (normalmente SQLException).
+     */
+    @FunctionalInterface
+    public interface DBWork<T> {
+        T call() throws Exception;
+    }
+
+    /**
+     * Ejecuta un trabajo en segundo plano. Los callbacks se invocan en el hilo de JavaFX
+     * (la clase {@link Task} los publica mediante {@code Platform.runLater}).
+     *
+     * @param work      Trabajo a ejecutar en un hilo del ejecutor.
+     * @param onSuccess Callback con el resultado, en el hilo de JavaFX.
+     * @param onError   Callback con el error, en el hilo de JavaFX.
+     * @return La tarea enviada, para poder cancelarla u observar su estado.
+     */
+    public static <T> DBTask<T> submit(DBWork<T> work, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        DBTask<T> task = new DBTask<>(work, SqlProfiler.retainCurrent());
+        task.setOnSucceeded(event -> onSuccess.accept(task.getValue()));
+        task.setOnFailed(event -> onError.accept(task.getException()));
+        try {
+            EXECUTOR.execute(task);
+        } catch (RuntimeException e) {
+            // Cola llena o ejecutor detenido: se notifica como cualquier otro error
+            task.cancel(false);
+            onError.accept(e);
+        }
+        return task;
+    }
+
+    /**
+     * Detiene el ejecutor cancelando las tareas en curso. Se llama al salir de la aplicación.
+     */
+    public static void shutdown() {
+        EXECUTOR.shutdownNow();
+    }
+
+    /**
+     * Tarea de JavaFX que envuelve un {@link DBWork}.
+     */
+    public static final class DBTask<T> extends Task<T> {
+        private final DBWork<T> work;
+        private final SqlProfiler.Action action; // Acción que envió el trabajo, o null
+
+        private DBTask(DBWork<T> work, SqlProfiler.Action action) {
+            this.work = work;
+            this.action = action;
+        }
+
+        @Override
+        protected T call() throws Exception {
+            if (action == null) {
+                return work.call();
+            }
+            SqlProfiler.Action previous = SqlProfiler.setCurrent(action);
+            try {
+                return work.call();
+            } finally {
+                SqlProfiler.setCurrent(previous);
+            }
+        }
+
+        @Override
+        protected void done() {
+            super.done();
+            if (action != null) {
+                action.release(); // También si la tarea se cancela antes de empezar
+            }
+        }
+    }
+
+    private static final class DBThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "olimpiada-db-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -2,6 +2,7 @@ module com.eiman.olimpiada {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.sql; // Si usas JDBC para conectarte a MySQL
+    requires jdk.jfr; // Eventos propios de Flight Recorder (paquete metrics)
 
     opens com.eiman.olimpiada.controller to javafx.fxml; // Permitir acceso a FXMLLoader
     exports com.eiman.olimpiada;
@@ -0,0 +1,51 @@
+-- Tablas iniciales de la aplicación. Usa IF NOT EXISTS para adoptar bases de datos creadas
+-- antes de que existiera schema_version.
+
+CREATE TABLE IF NOT EXISTS deportista (
+    id_deportista INT PRIMARY KEY AUTO_INCREMENT,
+    nombre VARCHAR(100),
+    sexo CHAR(1),
+    edad INT,
+    foto BLOB,
+    peso DECIMAL(5, 2),
+    altura DECIMAL(5, 2)
+);
+
+CREATE TABLE IF NOT EXISTS equipo (
+    id_equipo INT PRIMARY KEY AUTO_INCREMENT,
+    nombre VARCHAR(100),
+    iniciales VARCHAR(10)
+);
+
+CREATE TABLE IF NOT EXISTS deporte (
+    id_deporte INT PRIMARY KEY AUTO_INCREMENT,
+    nombre VARCHAR(100)
+);
+
+CREATE TABLE IF NOT EXISTS olimpiada (
+    id_olimpiada INT PRIMARY KEY AUTO_INCREMENT,
+    nombre VARCHAR(100),
+    anio INT,
+    temporada VARCHAR(50),
+    ciudad VARCHAR(100)
+);
+
+CREATE TABLE IF NOT EXISTS evento (
+    id_evento INT PRIMARY KEY AUTO_INCREMENT,
+    nombre VARCHAR(100),
+    id_olimpiada INT,
+    id_deporte INT,
+    FOREIGN KEY (id_olimpiada) REFERENCES olimpiada(id_olimpiada),
+    FOREIGN KEY (id_deporte) REFERENCES deporte(id_deporte)
+);
+
+CREATE TABLE IF NOT EXISTS participacion (
+    id_deportista INT,
+    id_evento INT,
+    id_equipo INT,
+    medalla VARCHAR(50),
+    PRIMARY KEY (id_deportista, id_evento),
+    FOREIGN KEY (id_deportista) REFERENCES deportista(id_deportista),
+    FOREIGN KEY (id_evento) REFERENCES evento(id_evento),
+    FOREIGN KEY (id_equipo) REFERENCES equipo(id_equipo)
+);
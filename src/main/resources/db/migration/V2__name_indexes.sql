@@ -0,0 +1,9 @@
+-- Índices para las búsquedas por nombre (getIdByName, diccionarios, ComboBox)
+-- y para localizar una olimpiada por año y temporada.
+
+CREATE INDEX idx_deportista_nombre ON deportista (nombre);
+CREATE INDEX idx_equipo_nombre ON equipo (nombre);
+CREATE INDEX idx_deporte_nombre ON deporte (nombre);
+CREATE INDEX idx_olimpiada_nombre ON olimpiada (nombre);
+CREATE INDEX idx_evento_nombre ON evento (nombre);
+CREATE INDEX idx_olimpiada_anio_temporada ON olimpiada (anio, temporada);
@@ -0,0 +1,5 @@
+-- Índices de cobertura para participacion. La clave primaria (id_deportista, id_evento) ya cubre
+-- las consultas por deportista; estos cubren las consultas por evento y por equipo sin leer la tabla.
+
+CREATE INDEX idx_participacion_evento ON participacion (id_evento, id_deportista, id_equipo, medalla);
+CREATE INDEX idx_participacion_equipo ON participacion (id_equipo, id_evento, id_deportista);
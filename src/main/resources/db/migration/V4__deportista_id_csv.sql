@@ -0,0 +1,5 @@
+-- ID del deportista en el CSV histórico (columna ID de athlete_events.csv), para que volver a importar
+-- el fichero reconozca a los deportistas ya importados. Es null en los deportistas dados de alta a mano.
+
+ALTER TABLE deportista ADD COLUMN id_csv INT;
+CREATE UNIQUE INDEX idx_deportista_id_csv ON deportista (id_csv);